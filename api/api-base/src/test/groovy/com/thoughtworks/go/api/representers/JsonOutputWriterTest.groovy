@@ -172,6 +172,38 @@ class JsonOutputWriterTest {
     ])
   }
 
+  @Test
+  void 'should reuse cached renderings of child objects in lists'() {
+    def fragments = [:]
+    def renderings = 0
+    def render = { String value ->
+      return { listChildWriter ->
+        renderings++
+        listChildWriter.add('key1', value)
+        listChildWriter.addLinks { it.addLink('self', '/' + value) }
+      }
+    }
+
+    2.times {
+      def result = new StringWriter()
+      new JsonOutputWriter(result, new TestRequestContext()).forTopLevelObject { writer ->
+        writer.addChildList('parent1') { listWriter ->
+          listWriter.addCachedChild('a', { key, supplier -> fragments.computeIfAbsent(key) { supplier.get() } }, render('value1'))
+          listWriter.addCachedChild('b', { key, supplier -> fragments.computeIfAbsent(key) { supplier.get() } }, render('value2'))
+        }
+      }
+
+      assertThat(fromJSON(result.toString())).isEqualTo([
+        parent1: [
+          [key1: 'value1', _links: [self: [href: 'http://test.host/go/value1']]],
+          [key1: 'value2', _links: [self: [href: 'http://test.host/go/value2']]]
+        ]
+      ])
+    }
+
+    assertThat(renderings).isEqualTo(2)
+  }
+
   @Test
   void 'should be able to add links'() {
     def result = new StringWriter()
@@ -32,11 +32,12 @@ import spark.Response;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 
 import static spark.Spark.*;
 
 @Component
-public class CctrayController implements SparkSpringController, SparkController {
+public class CctrayController implements SparkSpringController, SparkController, ControllerMethods {
 
     private static final String ACCESS_DENIED_XML_RESPONSE = """
             <access-denied>
@@ -65,20 +66,21 @@ public class CctrayController implements SparkSpringController, SparkController
     }
 
     public String index(Request req, Response res) throws IOException {
-        OutputStreamWriter appendable = new OutputStreamWriter(res.raw().getOutputStream());
-        ccTrayService.renderCCTrayXML(siteUrlPrefix(req), currentUsername().getUsername().toString(), appendable, etag -> setEtagHeader(res, etag));
+        String siteUrlPrefix = siteUrlPrefix(req);
+        String userName = currentUsername().getUsername().toString();
+        String etag = ccTrayService.etagFor(siteUrlPrefix, userName);
+        if (fresh(req, etag)) {
+            setEtagHeader(res, etag);
+            return notModified(res);
+        }
+
+        OutputStreamWriter appendable = new OutputStreamWriter(res.raw().getOutputStream(), StandardCharsets.UTF_8);
+        ccTrayService.renderCCTrayXML(siteUrlPrefix, userName, appendable, newEtag -> setEtagHeader(res, newEtag));
         appendable.flush();
         // because we've streamed the ccontent already.
         return ControllerMethods.NOTHING;
     }
 
-    private void setEtagHeader(Response res, String value) {
-        if (value == null) {
-            return;
-        }
-        res.header("ETag", '"' + value + '"');
-    }
-
     private String siteUrlPrefix(Request req) {
         return RequestContext.requestContext(req).urlFor("");
     }
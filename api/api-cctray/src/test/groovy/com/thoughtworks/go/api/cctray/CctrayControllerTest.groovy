@@ -96,6 +96,21 @@ class CctrayControllerTest implements SecurityServiceTrait, ControllerTrait<Cctr
           .hasContentType("application/xml")
           .hasBody("blah!")
       }
+
+      @Test
+      void 'should render 304 without rendering XML when client already has the current feed'() {
+        enableSecurity()
+        loginAsUser()
+        when(ccTrayService.etagFor(eq("http://test.host/go"), eq(currentUsernameString()))).thenReturn("some-etag")
+
+        get("/cctray.xml", ['if-none-match': '"some-etag"'])
+
+        assertThatResponse()
+          .isNotModified()
+          .hasEtag('"some-etag"')
+          .hasNoBody()
+        verify(ccTrayService, never()).renderCCTrayXML(any() as String, any() as String, any() as Appendable, any() as Consumer<String>)
+      }
     }
   }
 }
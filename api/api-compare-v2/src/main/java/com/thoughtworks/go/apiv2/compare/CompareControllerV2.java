@@ -22,6 +22,7 @@ import com.thoughtworks.go.apiv2.compare.representers.ComparisonRepresenter;
 import com.thoughtworks.go.config.exceptions.UnprocessableEntityException;
 import com.thoughtworks.go.domain.MaterialRevision;
 import com.thoughtworks.go.server.service.ChangesetService;
+import com.thoughtworks.go.server.service.ChangesetSummary;
 import com.thoughtworks.go.server.service.PipelineService;
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
 import com.thoughtworks.go.spark.GlobalExceptionMapper;
@@ -39,6 +40,7 @@ import static spark.Spark.*;
 
 @Component
 public class CompareControllerV2 extends ApiController implements SparkSpringController {
+    private static final int MAX_SUMMARY_SIZE = 100;
 
     private final ApiAuthenticationHelper apiAuthenticationHelper;
     private final ChangesetService changesetService;
@@ -80,6 +82,14 @@ public class CompareControllerV2 extends ApiController implements SparkSpringCon
         HttpLocalizedOperationResult result = new HttpLocalizedOperationResult();
 
         boolean isBisect = pipelineService.isPipelineBisect(pipelineName, fromCounter, toCounter);
+        if (request.queryParams("summary_size") != null) {
+            ChangesetSummary summary = changesetService.summaryBetween(pipelineName, fromCounter, toCounter, getSummarySize(request), currentUsername(), result, true);
+            if (result.isSuccessful()) {
+                return writerForTopLevelObject(request, response, outputWriter -> ComparisonRepresenter.toJSON(outputWriter, pipelineName, fromCounter, toCounter, isBisect, summary));
+            }
+            return renderHTTPOperationResult(result, request, response);
+        }
+
         List<MaterialRevision> materialRevisions = changesetService.revisionsBetween(pipelineName, fromCounter, toCounter, currentUsername(), result, true);
 
         if (result.isSuccessful()) {
@@ -89,6 +99,18 @@ public class CompareControllerV2 extends ApiController implements SparkSpringCon
         }
     }
 
+    private int getSummarySize(Request request) {
+        try {
+            int summarySize = Integer.parseInt(request.queryParams("summary_size"), 10);
+            if (summarySize < 1 || summarySize > MAX_SUMMARY_SIZE) {
+                throw new UnprocessableEntityException("The `summary_size` should be between 1 and " + MAX_SUMMARY_SIZE + ".");
+            }
+            return summarySize;
+        } catch (NumberFormatException ex) {
+            throw new UnprocessableEntityException("The `summary_size` should be an integer.");
+        }
+    }
+
     private int getCounterValue(Request request, String counterString) {
         try {
             int counter = Integer.parseInt(request.params(counterString), 10);
@@ -18,6 +18,7 @@ package com.thoughtworks.go.apiv2.compare.representers;
 import com.thoughtworks.go.api.base.OutputLinkWriter;
 import com.thoughtworks.go.api.base.OutputWriter;
 import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.server.service.ChangesetSummary;
 import com.thoughtworks.go.spark.Routes;
 
 import java.util.List;
@@ -33,6 +34,15 @@ public class ComparisonRepresenter {
                 .addChildList("changes", revisionsWriter -> MaterialRevisionsRepresenter.toJSONArray(revisionsWriter, materialRevisions));
     }
 
+    public static void toJSON(OutputWriter outputWriter, String pipelineName, int fromCounter, int toCounter, boolean isBisect, ChangesetSummary summary) {
+        outputWriter.addLinks(addLinks())
+                .add("pipeline_name", pipelineName)
+                .add("from_counter", fromCounter)
+                .add("to_counter", toCounter)
+                .add("is_bisect", isBisect)
+                .addChildList("changes", revisionsWriter -> MaterialRevisionsRepresenter.toJSONArray(revisionsWriter, summary));
+    }
+
     private static Consumer<OutputLinkWriter> addLinks() {
         return outputLinkWriter -> outputLinkWriter
                 .addLink("self", Routes.CompareAPI.BASE)
@@ -18,6 +18,7 @@ package com.thoughtworks.go.apiv2.compare.representers;
 import com.thoughtworks.go.api.base.OutputListWriter;
 import com.thoughtworks.go.api.base.OutputWriter;
 import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.server.service.ChangesetSummary;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,11 +26,22 @@ import java.util.stream.Collectors;
 public class MaterialRevisionsRepresenter {
 
     public static void toJSONArray(OutputListWriter outputWriter, List<MaterialRevision> revisions) {
+        materialRevisionsFirst(revisions).forEach(revision -> outputWriter.addChild(revisionWriter -> toJSON(revisionWriter, revision)));
+    }
+
+    public static void toJSONArray(OutputListWriter outputWriter, ChangesetSummary summary) {
+        materialRevisionsFirst(summary.revisions()).forEach(revision -> outputWriter.addChild(revisionWriter -> {
+            toJSON(revisionWriter, revision);
+            revisionWriter.add("modification_count", summary.modificationCountOf(revision));
+        }));
+    }
+
+    private static List<MaterialRevision> materialRevisionsFirst(List<MaterialRevision> revisions) {
         List<MaterialRevision> materialRevisions = revisions.stream().filter(revision -> !revision.isDependencyMaterialRevision()).collect(Collectors.toList());
         List<MaterialRevision> dependencyMaterialRevisions = revisions.stream().filter(MaterialRevision::isDependencyMaterialRevision).toList();
 
         materialRevisions.addAll(dependencyMaterialRevisions);
-        materialRevisions.forEach(revision -> outputWriter.addChild(revisionWriter -> toJSON(revisionWriter, revision)));
+        return materialRevisions;
     }
 
     private static void toJSON(OutputWriter outputWriter, MaterialRevision revision) {
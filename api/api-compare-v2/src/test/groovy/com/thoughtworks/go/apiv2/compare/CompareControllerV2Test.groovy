@@ -23,6 +23,7 @@ import com.thoughtworks.go.config.exceptions.RecordNotFoundException
 import com.thoughtworks.go.domain.MaterialRevision
 import com.thoughtworks.go.server.domain.Username
 import com.thoughtworks.go.server.service.ChangesetService
+import com.thoughtworks.go.server.service.ChangesetSummary
 import com.thoughtworks.go.server.service.PipelineService
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult
 import com.thoughtworks.go.serverhealth.HealthStateScope
@@ -111,6 +112,36 @@ class CompareControllerV2Test implements SecurityServiceTrait, ControllerTrait<C
         }))
       }
 
+      @Test
+      void 'should return a summary of changes when a summary size is specified'() {
+        def pipelineName = "up42"
+        def fromCounter = 1
+        def toCounter = 4
+        List<MaterialRevision> materialRevisions = getRevisions(new Date())
+        def summary = new ChangesetSummary(materialRevisions, [:])
+
+        when(pipelineService.isPipelineBisect(pipelineName, fromCounter, toCounter)).thenReturn(false)
+        when(changesetService.summaryBetween(eq(pipelineName), eq(fromCounter), eq(toCounter), eq(5), eq(currentUsername()), any(HttpLocalizedOperationResult.class), eq(true))).thenReturn(summary)
+
+        getWithApiHeader(getApi('up42', fromCounter, toCounter) + "?summary_size=5")
+
+        assertThatResponse()
+          .isOk()
+          .hasBodyWithJson(toObjectString({
+          ComparisonRepresenter.toJSON(it, pipelineName, fromCounter, toCounter, false, summary)
+        }))
+      }
+
+      @Test
+      void 'should return as unprocessable entity if the summary size is out of bounds'() {
+        getWithApiHeader(getApi('up42', 1, 4) + "?summary_size=0")
+
+        assertThatResponse()
+          .isUnprocessableEntity()
+          .hasContentType(controller.mimeType)
+          .hasJsonMessage("Your request could not be processed. The `summary_size` should be between 1 and 100.")
+      }
+
       @Test
       void 'should return 404 if pipeline was not found'() {
         when(changesetService.revisionsBetween(anyString(), anyInt(), anyInt(), any(), any(), anyBoolean())).then({ InvocationOnMock invocation ->
@@ -16,6 +16,8 @@
 package com.thoughtworks.go.apiv2.compare.representers
 
 import com.thoughtworks.go.domain.MaterialRevision
+import com.thoughtworks.go.server.service.ChangesetSummary
+import groovy.json.JsonSlurper
 import org.junit.jupiter.api.Test
 
 import static com.thoughtworks.go.CurrentGoCDVersion.apiDocsUrl
@@ -23,6 +25,7 @@ import static com.thoughtworks.go.api.base.JsonUtils.toArray
 import static com.thoughtworks.go.api.base.JsonUtils.toObjectString
 import static com.thoughtworks.go.apiv2.compare.representers.MaterialRevisionsRepresenterTest.getRevisions
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson
+import static org.assertj.core.api.Assertions.assertThat
 
 class ComparisonRepresenterTest {
   @Test
@@ -57,4 +60,17 @@ class ComparisonRepresenterTest {
     assertThatJson(json).isEqualTo(expectedJson)
   }
 
+  @Test
+  void 'should represent the number of modifications of every material in a summary'() {
+    List<MaterialRevision> revisionList = getRevisions(new Date())
+    def counts = revisionList.collectEntries { [(it.material.fingerprint): 42] }
+    def summary = new ChangesetSummary(revisionList, counts)
+
+    def json = toObjectString({
+      ComparisonRepresenter.toJSON(it, 'up42', 1, 4, false, summary)
+    })
+
+    def modificationCounts = new JsonSlurper().parseText(json).changes*.modification_count
+    assertThat(modificationCounts).hasSize(revisionList.size()).containsOnly(42)
+  }
 }
@@ -19,8 +19,11 @@ import com.thoughtworks.go.api.ApiController;
 import com.thoughtworks.go.api.ApiVersion;
 import com.thoughtworks.go.api.spring.ApiAuthenticationHelper;
 import com.thoughtworks.go.api.util.MessageJson;
+import com.thoughtworks.go.apiv4.dashboard.representers.DashboardChangesRepresenter;
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardFor;
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardRepresenter;
+import com.thoughtworks.go.config.exceptions.UnprocessableEntityException;
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges;
 import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment;
 import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup;
 import com.thoughtworks.go.server.domain.Username;
@@ -56,6 +59,7 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
     private static final String COOKIE_NAME = "selected_pipelines";
     private static final String SEP_CHAR = "/";
     private static final String VIEW_NAME = "viewName";
+    private static final String SINCE = "since";
 
     private final PipelineSelectionsService pipelineSelectionsService;
     private final GoDashboardService goDashboardService;
@@ -82,6 +86,12 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
             before("", mimeType, apiAuthenticationHelper::checkUserAnd403);
 
             get("", mimeType, this::index);
+
+            before(Routes.Dashboard.CHANGES, mimeType, this::setContentType);
+            before(Routes.Dashboard.CHANGES, mimeType, this::verifyContentType);
+            before(Routes.Dashboard.CHANGES, mimeType, apiAuthenticationHelper::checkUserAnd403);
+
+            get(Routes.Dashboard.CHANGES, mimeType, this::changes);
         });
     }
 
@@ -100,10 +110,13 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         final boolean allowEmpty = Toggles.isToggleOn(Toggles.ALLOW_EMPTY_PIPELINE_GROUPS_DASHBOARD) &&
             "true".equalsIgnoreCase(request.queryParams("allowEmpty"));
 
+        // read before the dashboard, so that changes made while it is computed are reported by the next /changes
+        final long version = goDashboardService.currentVersion();
+        final int loadProgress = goDashboardService.loadProgress();
         List<GoDashboardPipelineGroup> pipelineGroups = goDashboardService.allPipelineGroupsForDashboard(filter, userName, allowEmpty);
         List<GoDashboardEnvironment> environments = goDashboardService.allEnvironmentsForDashboard(filter, userName);
 
-        String etag = calcEtag(userName, pipelineGroups, environments);
+        String etag = calcEtag(userName, pipelineGroups, environments, loadProgress);
 
         if (fresh(request, etag)) {
             return notModified(response);
@@ -114,16 +127,49 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         return writerForTopLevelObject(request, response, outputWriter ->
             DashboardRepresenter.toJSON(
                 outputWriter,
-                new DashboardFor(pipelineGroups, environments, userName, personalization.etag())
+                new DashboardFor(pipelineGroups, environments, userName, personalization.etag(), version, loadProgress)
             )
         );
     }
 
-    private String calcEtag(Username username, List<GoDashboardPipelineGroup> pipelineGroups, List<GoDashboardEnvironment> environments) {
+    public Object changes(Request request, Response response) throws IOException {
+        if (!goDashboardService.hasEverLoadedCurrentState()) {
+            response.status(ACCEPTED);
+            return BEING_PROCESSED;
+        }
+
+        final long since = parseSince(request);
+        final Long userId = currentUserId(request);
+        final Username userName = currentUsername();
+        final PipelineSelections personalization = pipelineSelectionsService.load(request.cookie(COOKIE_NAME), userId);
+        final DashboardFilter filter = personalization.namedFilter(getViewName(request));
+
+        GoDashboardChanges changes = goDashboardService.changesSince(since, filter, userName);
+
+        return writerForTopLevelObject(request, response, outputWriter -> DashboardChangesRepresenter.toJSON(outputWriter, changes, userName));
+    }
+
+    private long parseSince(Request request) {
+        final String since = request.queryParams(SINCE);
+        if (isBlank(since)) {
+            throw new UnprocessableEntityException("The query parameter `since` must be the `version` of a dashboard that was loaded before.");
+        }
+        try {
+            return Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            throw new UnprocessableEntityException("The query parameter `since` must be a number.");
+        }
+    }
+
+    private String calcEtag(Username username, List<GoDashboardPipelineGroup> pipelineGroups, List<GoDashboardEnvironment> environments, int loadProgress) {
         final String pipelineSegment = pipelineGroups.stream()
             .map(GoDashboardPipelineGroup::etag).collect(Collectors.joining(SEP_CHAR));
         final String environmentSegment = environments.stream()
             .map(GoDashboardEnvironment::etag).collect(Collectors.joining(SEP_CHAR));
+        if (loadProgress < 100) {
+            // a partially loaded dashboard changes as it loads, even if none of the pipelines the user sees do
+            return DigestUtils.md5Hex(joinWith(SEP_CHAR, username.getUsername(), pipelineSegment, environmentSegment, loadProgress));
+        }
         return DigestUtils.md5Hex(joinWith(SEP_CHAR, username.getUsername(), pipelineSegment, environmentSegment));
     }
 
@@ -27,12 +27,20 @@ public class DashboardFor {
     private final Username username;
     private List<? extends DashboardGroup> environments;
     private String personalizationEtag;
+    private long version;
+    private Integer loadProgress;
 
-    public DashboardFor(List<? extends DashboardGroup> pipelineGroups, List<? extends DashboardGroup> environments, Username username, String personalizationEtag) {
+    public DashboardFor(List<? extends DashboardGroup> pipelineGroups, List<? extends DashboardGroup> environments, Username username, String personalizationEtag, long version) {
+        this(pipelineGroups, environments, username, personalizationEtag, version, 100);
+    }
+
+    public DashboardFor(List<? extends DashboardGroup> pipelineGroups, List<? extends DashboardGroup> environments, Username username, String personalizationEtag, long version, int loadProgress) {
         this.pipelineGroups = pipelineGroups;
         this.environments = environments;
         this.username = username;
         this.personalizationEtag = personalizationEtag;
+        this.version = version;
+        this.loadProgress = loadProgress < 100 ? loadProgress : null;
     }
 
     public List<? extends DashboardGroup> getPipelineGroups() {
@@ -54,4 +62,15 @@ public class DashboardFor {
     public String getPersonalizationEtag() {
         return personalizationEtag;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return how far the pipelines have been loaded, in percent, or {@code null} if the dashboard is complete
+     */
+    public Integer getLoadProgress() {
+        return loadProgress;
+    }
 }
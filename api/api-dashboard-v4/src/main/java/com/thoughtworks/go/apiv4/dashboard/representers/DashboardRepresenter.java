@@ -25,6 +25,8 @@ public class DashboardRepresenter {
                 .addLinks(linksWriter -> linksWriter.addLink("self", Routes.Dashboard.SELF)
                         .addAbsoluteLink("doc", Routes.Dashboard.DOC))
                 .add("_personalization", dashboardFor.getPersonalizationEtag())
+                .add("version", dashboardFor.getVersion())
+                .addIfNotNull("load_progress", dashboardFor.getLoadProgress())
                 .addChild("_embedded", childWriter -> childWriter
 
                         .addChildList("pipeline_groups", listWriter -> dashboardFor.getPipelineGroups().forEach(group -> listWriter.addChild(childItemWriter -> DashboardGroupRepresenter.toJSON(childItemWriter, group, dashboardFor.getUsername()))))
@@ -32,6 +34,6 @@ public class DashboardRepresenter {
                         .addChildList("environments", listWriter -> dashboardFor.getEnvironments().forEach(group -> listWriter.addChild(childItemWriter -> DashboardGroupRepresenter.toJSON(childItemWriter, group, dashboardFor.getUsername()))))
 
                         .addChildList("pipelines", listWriter -> dashboardFor.getPipelines()
-                                    .forEach(pipeline -> listWriter.addChild(childItemWriter -> PipelineRepresenter.toJSON(childItemWriter, pipeline, dashboardFor.getUsername())))));
+                                    .forEach(pipeline -> PipelineRepresenter.addTo(listWriter, pipeline, dashboardFor.getUsername()))));
     }
 }
@@ -22,16 +22,26 @@ import com.thoughtworks.go.config.TrackingTool;
 import com.thoughtworks.go.config.remote.RepoConfigOrigin;
 import com.thoughtworks.go.domain.PipelinePauseInfo;
 import com.thoughtworks.go.presentation.pipelinehistory.EmptyPipelineInstanceModel;
+import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModel;
+import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModel;
 import com.thoughtworks.go.server.dashboard.GoDashboardPipeline;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.spark.Routes;
 
+import java.util.BitSet;
 import java.util.function.Consumer;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 public class PipelineRepresenter {
 
+    /**
+     * Adds the pipeline to the list, reusing its rendering for every user with the same permissions on it.
+     */
+    public static void addTo(OutputListWriter listWriter, GoDashboardPipeline model, Username username) {
+        listWriter.addCachedChild(permissionsOf(model, username), model::jsonFragment, childWriter -> toJSON(childWriter, model, username));
+    }
+
     public static void toJSON(OutputWriter jsonOutputWriter, GoDashboardPipeline model, Username username) {
         String usernameString = username.getUsername().toString();
 
@@ -67,6 +77,22 @@ public class PipelineRepresenter {
         jsonOutputWriter.addChild("_embedded", childWriter -> childWriter.addChildList("instances", writeInstances(model, username)));
     }
 
+    // everything rendered that depends on the user, in the order it is rendered
+    private static BitSet permissionsOf(GoDashboardPipeline model, Username username) {
+        String usernameString = username.getUsername().toString();
+        BitSet permissions = new BitSet();
+        int bit = 0;
+        permissions.set(bit++, model.isPipelineOperator(usernameString));
+        permissions.set(bit++, model.canBeAdministeredBy(usernameString));
+        permissions.set(bit++, model.canBeOperatedBy(usernameString));
+        for (PipelineInstanceModel instanceModel : model.model().getActivePipelineInstances()) {
+            for (StageInstanceModel stage : instanceModel.getStageHistory()) {
+                permissions.set(bit++, model.isStageOperator(stage.getName(), usernameString));
+            }
+        }
+        return permissions;
+    }
+
     private static Consumer<OutputListWriter> writeInstances(GoDashboardPipeline model, Username username) {
         return listWriter -> model.model().getActivePipelineInstances().stream()
                 .filter(instanceModel -> !(instanceModel instanceof EmptyPipelineInstanceModel))
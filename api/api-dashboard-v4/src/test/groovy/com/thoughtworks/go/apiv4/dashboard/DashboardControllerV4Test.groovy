@@ -17,11 +17,14 @@ package com.thoughtworks.go.apiv4.dashboard
 
 import com.thoughtworks.go.api.SecurityTestTrait
 import com.thoughtworks.go.api.spring.ApiAuthenticationHelper
+import com.thoughtworks.go.apiv4.dashboard.representers.DashboardChangesRepresenter
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardFor
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardRepresenter
+import com.thoughtworks.go.config.CaseInsensitiveString
 import com.thoughtworks.go.config.security.Permissions
 import com.thoughtworks.go.config.security.permissions.EveryonePermission
 import com.thoughtworks.go.config.security.users.Everyone
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges
 import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment
 import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup
 import com.thoughtworks.go.server.domain.user.Filters
@@ -32,6 +35,7 @@ import com.thoughtworks.go.server.service.support.toggle.FeatureToggleService
 import com.thoughtworks.go.server.service.support.toggle.Toggles
 import com.thoughtworks.go.spark.ControllerTrait
 import com.thoughtworks.go.spark.NormalUserSecurity
+import com.thoughtworks.go.spark.Routes
 import com.thoughtworks.go.spark.SecurityServiceTrait
 import org.apache.commons.codec.digest.DigestUtils
 import org.junit.jupiter.api.AfterEach
@@ -60,6 +64,7 @@ class DashboardControllerV4Test implements SecurityServiceTrait, ControllerTrait
   void setup() {
     Toggles.initializeWith(featureToggleService)
     when(featureToggleService.isToggleOn(Toggles.ALLOW_EMPTY_PIPELINE_GROUPS_DASHBOARD)).thenReturn(false)
+    when(goDashboardService.loadProgress()).thenReturn(100)
   }
 
   @AfterEach
@@ -102,12 +107,33 @@ class DashboardControllerV4Test implements SecurityServiceTrait, ControllerTrait
         when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
         when(goDashboardService.allPipelineGroupsForDashboard(eq(Filters.WILDCARD_FILTER), eq(currentUsername()), anyBoolean())).thenReturn([group])
         when(goDashboardService.allEnvironmentsForDashboard(eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn([env])
+        when(goDashboardService.currentVersion()).thenReturn(42L)
 
         getWithApiHeader(controller.controllerPath())
 
         assertThatResponse()
           .isOk()
-          .hasBodyWithJsonObject(DashboardRepresenter, new DashboardFor([group], [env], currentUsername(), PipelineSelections.ALL.etag()))
+          .hasBodyWithJsonObject(DashboardRepresenter, new DashboardFor([group], [env], currentUsername(), PipelineSelections.ALL.etag(), 42L))
+      }
+
+      @Test
+      void 'should get partially loaded dashboard json with its load progress'() {
+        loginAsUser()
+
+        def group = pipelineGroup('group1')
+
+        when(pipelineSelectionsService.load((String) isNull(), any(Long.class))).thenReturn(PipelineSelections.ALL)
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+        when(goDashboardService.loadProgress()).thenReturn(40)
+        when(goDashboardService.allPipelineGroupsForDashboard(eq(Filters.WILDCARD_FILTER), eq(currentUsername()), anyBoolean())).thenReturn([group])
+        when(goDashboardService.allEnvironmentsForDashboard(eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn([])
+        when(goDashboardService.currentVersion()).thenReturn(42L)
+
+        getWithApiHeader(controller.controllerPath(), ['if-none-match': computeEtag([group], [])])
+
+        assertThatResponse()
+          .isOk()
+          .hasBodyWithJsonObject(DashboardRepresenter, new DashboardFor([group], [], currentUsername(), PipelineSelections.ALL.etag(), 42L, 40))
       }
 
       @Test
@@ -145,7 +171,7 @@ class DashboardControllerV4Test implements SecurityServiceTrait, ControllerTrait
         assertThatResponse()
           .isOk()
           .hasContentType(controller.mimeType)
-          .hasBodyWithJsonObject(DashboardRepresenter, new DashboardFor([], [], currentUsername(), pipelineSelections.etag()))
+          .hasBodyWithJsonObject(DashboardRepresenter, new DashboardFor([], [], currentUsername(), pipelineSelections.etag(), 0L))
       }
 
       @Test
@@ -198,6 +224,91 @@ class DashboardControllerV4Test implements SecurityServiceTrait, ControllerTrait
     }
   }
 
+  @Nested
+  class Changes {
+
+    @Nested
+    class Security implements SecurityTestTrait, NormalUserSecurity {
+
+      @Override
+      String getControllerMethodUnderTest() {
+        return "changes"
+      }
+
+      @Override
+      void makeHttpCall() {
+        getWithApiHeader(controller.controllerPath(Routes.Dashboard.CHANGES) + '?since=1')
+      }
+    }
+
+    @Nested
+    class AsAuthorizedUser {
+      @Test
+      void 'should get pipelines changed since the given version'() {
+        loginAsUser()
+
+        def pipeline = GoDashboardPipelineMother.dashboardPipeline('pipeline1')
+        def changes = GoDashboardChanges.of(42L, [pipeline], [new CaseInsensitiveString('removed')])
+
+        when(pipelineSelectionsService.load((String) isNull(), any(Long.class))).thenReturn(PipelineSelections.ALL)
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+        when(goDashboardService.changesSince(eq(10L), eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn(changes)
+
+        getWithApiHeader(controller.controllerPath(Routes.Dashboard.CHANGES) + '?since=10')
+
+        assertThatResponse()
+          .isOk()
+          .hasContentType(controller.mimeType)
+          .hasBodyWithJsonObject(DashboardChangesRepresenter, changes, currentUsername())
+      }
+
+      @Test
+      void 'should ask for a reload when changes since the given version are not known'() {
+        loginAsUser()
+
+        def changes = GoDashboardChanges.reload(42L)
+
+        when(pipelineSelectionsService.load((String) isNull(), any(Long.class))).thenReturn(PipelineSelections.ALL)
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+        when(goDashboardService.changesSince(eq(10L), eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn(changes)
+
+        getWithApiHeader(controller.controllerPath(Routes.Dashboard.CHANGES) + '?since=10')
+
+        assertThatResponse()
+          .isOk()
+          .hasBodyWithJsonObject(DashboardChangesRepresenter, changes, currentUsername())
+      }
+
+      @Test
+      void 'should return 422 when since is not a number'() {
+        loginAsUser()
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+
+        getWithApiHeader(controller.controllerPath(Routes.Dashboard.CHANGES) + '?since=yesterday')
+
+        assertThatResponse()
+          .isUnprocessableEntity()
+          .hasContentType(controller.mimeType)
+          .hasJsonMessage("Your request could not be processed. The query parameter `since` must be a number.")
+      }
+
+      @Test
+      void 'should return 202 when dashboard is not processed (on server start)'() {
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(false)
+
+        loginAsUser()
+        getWithApiHeader(controller.controllerPath(Routes.Dashboard.CHANGES) + '?since=10')
+
+        verify(goDashboardService).hasEverLoadedCurrentState()
+        verifyNoMoreInteractions(pipelineSelectionsService, goDashboardService)
+
+        assertThatResponse()
+          .isAccepted()
+          .hasJsonMessage("Dashboard is being processed, this may take a few seconds. Please check back later.")
+      }
+    }
+  }
+
   private static GoDashboardPipelineGroup pipelineGroup(String name) {
     GoDashboardPipelineGroup pipelineGroup = new GoDashboardPipelineGroup(name, permissions(), true)
     pipelineGroup.addPipeline(GoDashboardPipelineMother.dashboardPipeline('pipeline1'))
@@ -54,7 +54,7 @@ class DashboardRepresenterTest {
     env1.addPipeline(pipeline3)
 
     def actualJson = toObject({
-      DashboardRepresenter.toJSON(it, new DashboardFor([group1, group2], [env1], user, personalizationEtag))
+      DashboardRepresenter.toJSON(it, new DashboardFor([group1, group2], [env1], user, personalizationEtag, 42L))
     })
 
     assertThatJson(actualJson._links).isEqualTo([
@@ -78,5 +78,18 @@ class DashboardRepresenterTest {
     ])
 
     assertThat(actualJson._personalization).isEqualTo(personalizationEtag)
+    assertThat(actualJson.version).isEqualTo(42)
+    assertThat(actualJson).doesNotContainKey('load_progress')
+  }
+
+  @Test
+  void 'renders load progress of a dashboard whose pipelines are still being loaded'() {
+    def user = new Username(new CaseInsensitiveString(SecureRandom.hex()))
+
+    def actualJson = toObject({
+      DashboardRepresenter.toJSON(it, new DashboardFor([], [], user, "sha256hash", 42L, 40))
+    })
+
+    assertThat(actualJson.load_progress).isEqualTo(40)
   }
 }
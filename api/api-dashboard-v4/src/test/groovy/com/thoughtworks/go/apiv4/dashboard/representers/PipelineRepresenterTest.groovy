@@ -23,6 +23,7 @@ import com.thoughtworks.go.config.remote.RepoConfigOrigin
 import com.thoughtworks.go.config.security.Permissions
 import com.thoughtworks.go.config.security.permissions.EveryonePermission
 import com.thoughtworks.go.config.security.permissions.NoOnePermission
+import com.thoughtworks.go.config.security.users.AllowedUsers
 import com.thoughtworks.go.config.security.users.Everyone
 import com.thoughtworks.go.config.security.users.NoOne
 import com.thoughtworks.go.helper.MaterialConfigsMother
@@ -34,9 +35,11 @@ import com.thoughtworks.go.spark.util.SecureRandom
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
 
+import static com.thoughtworks.go.api.base.JsonUtils.toArray
 import static com.thoughtworks.go.api.base.JsonUtils.toObject
 import static com.thoughtworks.go.helpers.PipelineModelMother.pipeline_model
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson
+import static org.assertj.core.api.Assertions.assertThat
 import static org.mockito.Mockito.mock
 import static org.mockito.Mockito.when
 
@@ -208,6 +211,32 @@ class PipelineRepresenterTest {
       expectedJson.can_pause = true
       assertThatJson(actualJson).isEqualTo(expectedJson)
     }
+
+    @Test
+    void 'reuses a rendering of the pipeline only for users with the same permissions'() {
+      def counter = mock(Counter.class)
+      when(counter.getNext()).thenReturn(1l)
+      def permissions = new Permissions(Everyone.INSTANCE, new AllowedUsers(Set.of("operator1", "operator2"), Set.of()), NoOne.INSTANCE, NoOnePermission.INSTANCE)
+      def pipeline = new GoDashboardPipeline(pipeline_model('pipeline_name', 'pipeline_label'), permissions, "grp", counter, PipelineConfigMother.pipelineConfig("pipeline_name"))
+
+      def renderFor = { String user ->
+        def username = new Username(new CaseInsensitiveString(user))
+        return [
+          cached  : toArray({ PipelineRepresenter.addTo(it, pipeline, username) }).getFirst(),
+          uncached: toObject({ PipelineRepresenter.toJSON(it, pipeline, username) })
+        ]
+      }
+
+      def operator1 = renderFor("operator1")
+      def operator2 = renderFor("operator2")
+      def viewer = renderFor("viewer")
+
+      assertThatJson(operator1.cached).isEqualTo(operator1.uncached)
+      assertThatJson(operator2.cached).isEqualTo(operator2.uncached)
+      assertThatJson(viewer.cached).isEqualTo(viewer.uncached)
+      assertThat(operator2.cached.can_unlock).isTrue()
+      assertThat(viewer.cached.can_unlock).isFalse()
+    }
   }
 
   private static def pipelines_hash() {
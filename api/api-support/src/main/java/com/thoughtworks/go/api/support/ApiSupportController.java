@@ -21,6 +21,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.thoughtworks.go.api.ControllerMethods;
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
+import com.thoughtworks.go.server.service.support.DatabaseInformationProvider;
 import com.thoughtworks.go.server.service.support.ServerStatusService;
 import com.thoughtworks.go.spark.GlobalExceptionMapper;
 import com.thoughtworks.go.spark.Routes;
@@ -68,12 +69,23 @@ public class ApiSupportController implements SparkController, ControllerMethods,
         path(controllerBasePath(), () -> {
             get("", this::show);
             get(Routes.Support.PROCESS_LIST, this::processList);
+            get(Routes.Support.DATABASE, this::database);
         });
     }
 
     public String show(Request request, Response response) throws IOException {
         HttpLocalizedOperationResult result = new HttpLocalizedOperationResult();
         Map<String, Object> information = serverStatusService.asJsonCompatibleMap(currentUsername(), result);
+        return render(information, result, request, response);
+    }
+
+    public String database(Request request, Response response) throws IOException {
+        HttpLocalizedOperationResult result = new HttpLocalizedOperationResult();
+        Map<String, Object> information = serverStatusService.asJsonCompatibleMap(currentUsername(), result, DatabaseInformationProvider.NAME);
+        return render(information, result, request, response);
+    }
+
+    private String render(Map<String, Object> information, HttpLocalizedOperationResult result, Request request, Response response) throws IOException {
         response.type("application/json");
         if (result.isSuccessful()) {
             GSON.toJson(information, response.raw().getWriter());
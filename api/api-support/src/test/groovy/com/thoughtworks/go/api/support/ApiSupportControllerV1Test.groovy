@@ -17,6 +17,7 @@ package com.thoughtworks.go.api.support
 
 import com.thoughtworks.go.server.domain.Username
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult
+import com.thoughtworks.go.server.service.support.DatabaseInformationProvider
 import com.thoughtworks.go.server.service.support.ServerStatusService
 import com.thoughtworks.go.spark.ControllerTrait
 import com.thoughtworks.go.spark.Routes
@@ -79,6 +80,24 @@ class ApiSupportControllerV1Test implements SecurityServiceTrait, ControllerTrai
     }
   }
 
+  @Nested
+  class Database {
+
+    @Test
+    void 'should return database statistics json'() {
+      loginAsAdmin()
+      def res = ["Connection Pool": [Active: 1]]
+      when(serverStatusService.asJsonCompatibleMap(any() as Username, any() as HttpLocalizedOperationResult, eq(DatabaseInformationProvider.NAME))).thenReturn(res)
+
+      get(controller.controllerPath(Routes.Support.DATABASE))
+
+      assertThatResponse()
+        .isOk()
+        .hasJsonBody(res)
+        .hasContentType("application/json")
+    }
+  }
+
   @Nested
   class ProcessList {
     @Test
@@ -144,6 +144,8 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static final GoSystemProperty<Long> GO_CONFIG_REPO_GC_EXPIRE_IN_HOURS = new GoLongSystemProperty("go.config.repo.gc.expire", 24L);
     public static final GoSystemProperty<Long> GO_CONFIG_REPO_GC_LOOSE_OBJECT_WARNING_THRESHOLD = new GoLongSystemProperty("go.config.repo.gc.warning.looseobject.threshold", 10000L);
     public static final GoSystemProperty<Boolean> GO_CONFIG_REPO_PERIODIC_GC = new GoBooleanSystemProperty("go.config.repo.gc.periodic", false);
+    public static final GoSystemProperty<String> GO_CONFIG_REPO_PARSE_CACHE_DIR = new GoStringSystemProperty("go.config.repo.parse.cache.dir", DB_BASE_DIR + "config-repo-parse-cache");
+    public static final GoSystemProperty<String> GO_PIPELINE_TIMELINE_SNAPSHOT_FILE = new GoStringSystemProperty("go.pipeline.timeline.snapshot.file", DB_BASE_DIR + "pipeline-timeline.snapshot");
 
     public static final GoSystemProperty<Integer> GO_ELASTIC_PLUGIN_CREATE_AGENT_THREADS = new GoIntSystemProperty("go.elasticplugin.createagent.threads", 5);
     public static final GoSystemProperty<Integer> GO_ELASTIC_PLUGIN_SERVER_PING_THREADS = new GoIntSystemProperty("go.elasticplugin.serverping.threads", 1);
@@ -162,6 +164,11 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
 
     public static final GoSystemProperty<Integer> CONFIG_MATERIAL_POST_UPDATE_LISTENERS = new GoIntSystemProperty("config.material.post.update.threads", 2);
 
+    public static final GoSystemProperty<Integer> DASHBOARD_WARM_UP_THREADS = new GoIntSystemProperty("go.dashboard.warmup.threads", 4);
+
+    public static final GoSystemProperty<Integer> MODIFICATION_SEARCH_INDEX_MAX_MODIFICATIONS = new GoIntSystemProperty("go.modification.search.index.max.modifications", 250_000);
+    public static final GoSystemProperty<Integer> MODIFICATION_SEARCH_INDEX_MAX_MODIFICATIONS_PER_MATERIAL = new GoIntSystemProperty("go.modification.search.index.max.modifications.per.material", 50_000);
+
     public static final GoSystemProperty<String> GO_SERVER_MODE = new GoStringSystemProperty("go.server.mode", "production");
     public static final GoSystemProperty<Boolean> REAUTHENTICATION_ENABLED = new GoBooleanSystemProperty("go.security.reauthentication.enabled", true);
     public static final GoSystemProperty<Long> REAUTHENTICATION_TIME_INTERVAL_IN_MILLIS = new GoLongSystemProperty("go.security.reauthentication.interval", MINUTES.toMillis(30));
@@ -191,6 +198,10 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
 
     public static final GoSystemProperty<Boolean> INITIALIZE_CONFIG_REPOSITORIES_ON_STARTUP = new GoBooleanSystemProperty("gocd.initialize.config.repositories.on.startup", true);
 
+    public static final GoSystemProperty<Boolean> WRITE_BEHIND_JOB_STATE_CHANGES = new GoBooleanSystemProperty("gocd.job.state.write.behind", false);
+
+    public static final GoSystemProperty<Long> SLOW_QUERY_THRESHOLD_IN_MILLIS = new GoLongSystemProperty("gocd.db.slow.query.threshold.millis", 1000L);
+
     private static final Map<String, String> GIT_ALLOW_PROTOCOL = Map.of(
         "GIT_ALLOW_PROTOCOL",
         System.getenv("GIT_ALLOW_PROTOCOL") == null ? "http:https:ssh:git:file:rsync" : System.getenv("GIT_ALLOW_PROTOCOL")
@@ -346,6 +357,14 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return new File(properties().getProperty(CRUISE_CONFIG_REPO_DIR, CONFIG_REPO_DEFAULT_PATH));
     }
 
+    public File getConfigRepoParseCacheDir() {
+        return new File(get(GO_CONFIG_REPO_PARSE_CACHE_DIR));
+    }
+
+    public File getPipelineTimelineSnapshotFile() {
+        return new File(get(GO_PIPELINE_TIMELINE_SNAPSHOT_FILE));
+    }
+
     public File getDESCipherFile() {
         return new File(getConfigDir(), DES_CONFIG_CIPHER);
     }
@@ -653,6 +672,14 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return INITIALIZE_CONFIG_REPOSITORIES_ON_STARTUP.getValue();
     }
 
+    public boolean shouldWriteBehindJobStateChanges() {
+        return WRITE_BEHIND_JOB_STATE_CHANGES.getValue();
+    }
+
+    public long getSlowQueryThresholdInMillis() {
+        return SLOW_QUERY_THRESHOLD_IN_MILLIS.getValue();
+    }
+
     public long getPluginLocationMonitorIntervalInMillis() {
         return SECONDS.toMillis(PLUGIN_LOCATION_MONITOR_INTERVAL_IN_SECONDS.getValue());
     }
@@ -52,7 +52,8 @@ public class PipelineTimelineEntry implements Comparable<PipelineTimelineEntry>
     }
 
     public boolean addRevision(String fingerprint, Revision rev) {
-        return revisions().computeIfAbsent(fingerprint, k -> new ArrayList<>()).add(rev);
+        // most materials only contribute a single revision to a run, so don't reserve room for more
+        return revisions().computeIfAbsent(fingerprint, k -> new ArrayList<>(1)).add(rev);
     }
 
     @Override
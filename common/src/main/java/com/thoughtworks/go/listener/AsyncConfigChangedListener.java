@@ -0,0 +1,26 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.listener;
+
+/**
+ * A {@link ConfigChangedListener} that does not need to have seen a config change by the time the change is saved.
+ * Such listeners are notified on a thread of their own, in order, and when config changes arrive faster than the
+ * listener handles them only the most recent config is handed to it.
+ * <p>
+ * Entity config changes ({@link EntityConfigChangedListener}) are always delivered synchronously.
+ */
+public interface AsyncConfigChangedListener extends ConfigChangedListener {
+}
@@ -20,9 +20,11 @@ import org.jetbrains.annotations.TestOnly;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PluginRoleUsersStore {
     private final ConcurrentMap<PluginRoleConfig, Set<RoleUser>> roleToUsersMappings = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
 
     private PluginRoleUsersStore() {
 
@@ -33,9 +35,20 @@ public class PluginRoleUsersStore {
     }
 
     public void assignRole(String user, PluginRoleConfig pluginRoleConfig) {
-        roleToUsersMappings
+        boolean added = roleToUsersMappings
             .computeIfAbsent(pluginRoleConfig, k -> Collections.newSetFromMap(new ConcurrentHashMap<>()))
             .add(new RoleUser(user));
+        if (added) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return a number which changes whenever the users of any role change, so that anything derived from role
+     * memberships can tell whether it is still current
+     */
+    public long version() {
+        return version.get();
     }
 
     public List<RoleUser> usersInRole(PluginRoleConfig pluginRoleConfig) {
@@ -51,7 +64,9 @@ public class PluginRoleUsersStore {
     }
 
     public void remove(PluginRoleConfig pluginRole) {
-        roleToUsersMappings.remove(pluginRole);
+        if (roleToUsersMappings.remove(pluginRole) != null) {
+            version.incrementAndGet();
+        }
     }
 
     public void remove(Collection<PluginRoleConfig> pluginRoles) {
@@ -64,6 +79,7 @@ public class PluginRoleUsersStore {
         final RoleUser roleUser = new RoleUser(username);
         for (Map.Entry<PluginRoleConfig, Set<RoleUser>> entry : roleToUsersMappings.entrySet()) {
             if (entry.getValue().remove(roleUser)) {
+                version.incrementAndGet();
                 roleToUsersMappings.computeIfPresent(entry.getKey(), (c, users) -> users.isEmpty() ? null : users);
             }
         }
@@ -76,6 +92,7 @@ public class PluginRoleUsersStore {
     @TestOnly
     public void clearAll() {
         roleToUsersMappings.clear();
+        version.incrementAndGet();
     }
 
     private static class PluginRoleUsersStoreHolder {
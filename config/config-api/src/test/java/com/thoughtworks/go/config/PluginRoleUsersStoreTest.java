@@ -46,6 +46,23 @@ public class PluginRoleUsersStoreTest {
         assertThat(pluginRoleUsersStore.usersInRole(pluginRoleConfig)).contains(new RoleUser("wing-commander"));
     }
 
+    @Test
+    public void version_ShouldChangeOnlyWhenRoleMembershipsChange() {
+        PluginRoleConfig pluginRoleConfig = new PluginRoleConfig("spacetiger", "ldap");
+        long initial = pluginRoleUsersStore.version();
+
+        pluginRoleUsersStore.assignRole("wing-commander", pluginRoleConfig);
+        long afterAssign = pluginRoleUsersStore.version();
+        pluginRoleUsersStore.assignRole("wing-commander", pluginRoleConfig);
+
+        assertThat(afterAssign).isNotEqualTo(initial);
+        assertThat(pluginRoleUsersStore.version()).isEqualTo(afterAssign);
+
+        pluginRoleUsersStore.revokeAllRolesFor("wing-commander");
+
+        assertThat(pluginRoleUsersStore.version()).isNotEqualTo(afterAssign);
+    }
+
     @Test
     public void removePluginRole_ShouldRemovePluginRoleFromStore() {
         PluginRoleConfig pluginRoleConfig = new PluginRoleConfig("spacetiger", "ldap");
@@ -21,4 +21,11 @@ import com.thoughtworks.go.domain.materials.MaterialConfig;
 public interface PartialConfigLoadContext {
     Configuration configuration();
     MaterialConfig configMaterial();
+
+    /**
+     * @return the revision of the material which is checked out, or {@code null} if it is not known
+     */
+    default String revision() {
+        return null;
+    }
 }
@@ -25,6 +25,7 @@ import com.thoughtworks.go.util.VoidThrowingFn;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.*;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
 import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
@@ -34,6 +35,7 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.TestOnly;
 import org.slf4j.Logger;
@@ -47,8 +49,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -75,6 +80,12 @@ public class ConfigRepository {
     private final Git git;
     private final Repository gitRepo;
 
+    // md5 of a config version -> latest commit on master checking in that version. All ancestors of
+    // indexedUpTo are known to be in the index, so only newer commits need to be walked on a miss.
+    // Commits on the temporary merge branches are never indexed, those branches are deleted after the merge.
+    private final Map<String, ObjectId> md5ToCommit = new ConcurrentHashMap<>();
+    private ObjectId indexedUpTo;
+
     @Autowired
     public ConfigRepository(SystemEnvironment systemEnvironment) throws IOException {
         this.systemEnvironment = systemEnvironment;
@@ -88,6 +99,10 @@ public class ConfigRepository {
     private void updateWithDefaults(StoredConfig config) {
         config.setInt(ConfigConstants.CONFIG_GC_SECTION, null, ConfigConstants.CONFIG_KEY_AUTO, 0);
         config.setBoolean(ConfigConstants.CONFIG_COMMIT_SECTION, null, ConfigConstants.CONFIG_KEY_GPGSIGN, false);
+        // commit-graph and bitmaps written during GC make walking a long config history much cheaper
+        config.setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH, true);
+        config.setBoolean(ConfigConstants.CONFIG_GC_SECTION, null, ConfigConstants.CONFIG_KEY_WRITE_COMMIT_GRAPH, true);
+        config.setBoolean(ConfigConstants.CONFIG_PACK_SECTION, null, ConfigConstants.CONFIG_KEY_BUILD_BITMAPS, true);
     }
 
     public Repository getGitRepo() {
@@ -128,8 +143,13 @@ public class ConfigRepository {
             doLocked(new VoidThrowingFn<GitAPIException>() {
                 @Override
                 public void run() throws GitAPIException{
+                    // the branch is read under the same lock as the commit which is indexed on it
+                    boolean onMaster = isOnMaster();
                     addCommand.addFilepattern(CRUISE_CONFIG_XML).call();
-                    git.commit().setAuthor(rev.getUsername(), COMMIT_EMAIL).setMessage(rev.getComment()).call();
+                    RevCommit commit = git.commit().setAuthor(rev.getUsername(), COMMIT_EMAIL).setMessage(rev.getComment()).call();
+                    if (onMaster) {
+                        md5ToCommit.put(md5From(commit.getFullMessage()), commit.getId());
+                    }
                 }
             });
         } catch (Exception e) {
@@ -160,23 +180,74 @@ public class ConfigRepository {
     public RevCommit getRevCommitForMd5(String md5) throws GitAPIException {
         Assert.notNull(md5, "md5 is required");
 
-        final String expectedPart = GoConfigRevision.Fragment.md5.represent(GoConfigRevision.esc(md5));
-        for (RevCommit revision : revisions()) {
-            String message = revision.getFullMessage();
-            if (message.endsWith(expectedPart)) {
-                return revision;
-            }
+        final String escapedMd5 = GoConfigRevision.esc(md5);
+        ObjectId commitId = md5ToCommit.get(escapedMd5);
+        if (commitId == null) {
+            indexCommitsNotYetIndexed();
+            commitId = md5ToCommit.get(escapedMd5);
+        }
+
+        RevCommit revision = commitId == null ? null : parseCommit(commitId);
+        if (revision == null) {
+            throw new IllegalArgumentException(String.format("There is no config version corresponding to md5: '%s'", md5));
         }
-        throw new IllegalArgumentException(String.format("There is no config version corresponding to md5: '%s'", md5));
+        return revision;
     }
 
-    RevCommit getRevCommitForCommitSHA(String commitSHA) throws GitAPIException {
-        for (RevCommit revision : revisions()) {
-            if (revision.getName().equals(commitSHA)) {
-                return revision;
+    private void indexCommitsNotYetIndexed() throws GitAPIException {
+        synchronized (md5ToCommit) {
+            try {
+                ObjectId head = gitRepo.resolve(REFS_MASTER);
+                if (head == null || head.equals(indexedUpTo)) {
+                    return;
+                }
+
+                LogCommand command = git.log().add(head);
+                if (indexedUpTo != null) {
+                    command.not(indexedUpTo);
+                }
+
+                // log is newest first, and the latest commit for an md5 must win
+                Map<String, ObjectId> newlyIndexed = new HashMap<>();
+                for (RevCommit revision : command.call()) {
+                    String md5 = md5From(revision.getFullMessage());
+                    if (md5 != null) {
+                        newlyIndexed.putIfAbsent(md5, revision.getId());
+                    }
+                }
+                md5ToCommit.putAll(newlyIndexed);
+                indexedUpTo = head;
+            } catch (MissingObjectException e) {
+                // the last indexed commit has been garbage collected, start over from the tip of master
+                md5ToCommit.clear();
+                indexedUpTo = null;
+                indexCommitsNotYetIndexed();
+            } catch (IOException e) {
+                throw new RuntimeException("Error while indexing the config repository history.", e);
             }
         }
-        throw new IllegalArgumentException(String.format("There is no commit corresponding to SHA: '%s'", commitSHA));
+    }
+
+    private static String md5From(String commitMessage) {
+        String md5Prefix = GoConfigRevision.Fragment.md5.represent("");
+        int index = commitMessage.lastIndexOf(md5Prefix);
+        return index < 0 ? null : commitMessage.substring(index + md5Prefix.length());
+    }
+
+    private RevCommit parseCommit(ObjectId commitId) {
+        try {
+            return gitRepo.parseCommit(commitId);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    RevCommit getRevCommitForCommitSHA(String commitSHA) {
+        RevCommit revision = ObjectId.isId(commitSHA) ? parseCommit(ObjectId.fromString(commitSHA)) : null;
+        if (revision == null) {
+            throw new IllegalArgumentException(String.format("There is no commit corresponding to SHA: '%s'", commitSHA));
+        }
+        return revision;
     }
 
     public GoConfigRevision getCurrentRevision() {
@@ -293,6 +364,7 @@ public class ConfigRepository {
         String output;
         try (ByteArrayOutputStream out = new ByteArrayOutputStream(); DiffFormatter diffFormatter = new DiffFormatter(out)) {
             diffFormatter.setRepository(gitRepo);
+            diffFormatter.setPathFilter(PathFilter.create(CRUISE_CONFIG_XML));
             diffFormatter.format(earlierCommit.getId(), laterCommit.getId());
             output = out.toString();
             output = stripTillLastOccurrenceOf(output, "+++ b/cruise-config.xml");
@@ -403,6 +475,14 @@ public class ConfigRepository {
         }
     }
 
+    private boolean isOnMaster() {
+        try {
+            return REFS_MASTER.equals(gitRepo.getFullBranch());
+        } catch (IOException e) {
+            throw new JGitInternalException(e.getMessage(), e);
+        }
+    }
+
     private boolean hasMaster() throws GitAPIException {
         return git.branchList().call().stream().anyMatch(ref -> ref.getName().equals(REFS_MASTER));
     }
@@ -40,6 +40,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -136,6 +138,34 @@ public class ConfigRepositoryTest {
         }
     }
 
+    @Test
+    public void shouldFindRevisionsCheckedInBeforeRepositoryWasOpened() throws Exception {
+        configRepo.checkin(new GoConfigRevision("v1", "md5-v1", "user-name", "100.3.9", new TimeProvider()));
+        configRepo.checkin(new GoConfigRevision("v2", "md5-v2", "user-name", "100.3.9", new TimeProvider()));
+
+        ConfigRepository reopened = new ConfigRepository(systemEnvironment);
+        try {
+            assertThat(reopened.getRevision("md5-v1").getContent()).isEqualTo("v1");
+            reopened.checkin(new GoConfigRevision("v3", "md5-v3", "user-name", "100.3.9", new TimeProvider()));
+            configRepoRawGit.commit().setAllowEmpty(true).setMessage(goConfigRevision("v3", "md5-v4").getComment()).call();
+            assertThat(reopened.getRevision("md5-v3").getContent()).isEqualTo("v3");
+            assertThat(reopened.getRevCommitForMd5("md5-v4")).isEqualTo(configRepo.getCurrentRevCommit());
+            assertThat(reopened.getRevision("md5-v2").getContent()).isEqualTo("v2");
+        } finally {
+            reopened.getGitRepo().close();
+        }
+    }
+
+    @Test
+    public void shouldFailWhenDoesNotFindACommitSHA() {
+        try {
+            configRepo.getRevCommitForCommitSHA("0123456789abcdef0123456789abcdef01234567");
+            fail("should have failed as commit does not exist");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).isEqualTo("There is no commit corresponding to SHA: '0123456789abcdef0123456789abcdef01234567'");
+        }
+    }
+
     @Test
     public void shouldUnderstandRevision_current_asLatestRevision() throws Exception {
         configRepo.checkin(new GoConfigRevision("v1", "md5-v1", "user-name", "100.3.9", new TimeProvider()));
@@ -406,6 +436,28 @@ public class ConfigRepositoryTest {
         assertThat(configRepoRawGit.branchList().call().size()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldNotResolveMd5ToCommitMadeOnTemporaryMergeBranch() throws Exception {
+        String original = "first\nsecond\n";
+        String changeOnBranch = "first\nsecond\nthird\n";
+        String changeOnMaster = "1st\nsecond\n";
+        String oldMd5 = "md5-1";
+        configRepo.checkin(goConfigRevision(original, oldMd5));
+        configRepo.checkin(goConfigRevision(changeOnMaster, "md5-2"));
+
+        configRepo.getConfigMergedWithLatestRevision(goConfigRevision(changeOnBranch, "md5-3"), oldMd5);
+
+        try {
+            configRepo.getRevision("md5-3");
+            fail("should not find a revision which was only checked in on the merge branch");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage()).isEqualTo("There is no config version corresponding to md5: 'md5-3'");
+        }
+
+        configRepo.checkin(goConfigRevision("1st\nsecond\nthird\n", "md5-3"));
+        assertThat(configRepo.getRevision("md5-3").getContent()).isEqualTo("1st\nsecond\nthird\n");
+    }
+
     @Test
     public void shouldPerformGC() throws Exception {
         configRepo.checkin(goConfigRevision("v1", "md5-1"));
@@ -416,6 +468,40 @@ public class ConfigRepositoryTest {
         assertThat(numberOfLooseObjects).isEqualTo(0L);
     }
 
+    @Test
+    public void shouldPerformGCUnderTheSameLockAsCheckins() throws Exception {
+        configRepo.checkin(goConfigRevision("v1", "md5-1"));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch unlock = new CountDownLatch(1);
+        Thread lockHolder = new Thread(() -> {
+            try {
+                configRepo.doLocked(() -> {
+                    locked.countDown();
+                    return unlock.await(10, TimeUnit.SECONDS);
+                });
+            } catch (InterruptedException ignored) {
+            }
+        });
+        lockHolder.start();
+        locked.await();
+
+        Thread gc = new Thread(() -> {
+            try {
+                configRepo.garbageCollect();
+            } catch (GitAPIException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        gc.start();
+        gc.join(500);
+        assertThat(gc.isAlive()).isTrue();
+
+        unlock.countDown();
+        gc.join();
+        lockHolder.join();
+        assertThat((Long) configRepoRawGit.gc().getStatistics().get("sizeOfLooseObjects")).isEqualTo(0L);
+    }
+
     @Test
     public void shouldNotPerformGCWhenPeriodicGCIsTurnedOff() throws Exception {
         when(systemEnvironment.get(SystemEnvironment.GO_CONFIG_REPO_PERIODIC_GC)).thenReturn(false);
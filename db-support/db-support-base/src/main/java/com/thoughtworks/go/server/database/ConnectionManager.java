@@ -25,6 +25,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.function.Function;
@@ -34,6 +35,9 @@ public class ConnectionManager {
     @Getter(lazy = true)
     private final BasicDataSource dataSourceInstance = createDataSource();
 
+    @Getter(lazy = true)
+    private final Optional<BasicDataSource> replicaDataSourceInstance = createReplicaDataSource();
+
     @Getter(lazy = true)
     private final BackupProcessor backupProcessor = createBackupProcessor();
 
@@ -62,7 +66,7 @@ public class ConnectionManager {
         final DbProperties dbProperties = getDbProperties();
         BasicDataSource basicDataSource = isDefaultH2Database(dbProperties)
             ? DefaultH2DataSource.forBasicConnection(dbProperties)
-            : forGenericBasicConnection(dbProperties);
+            : forGenericBasicConnection(dbProperties, dbProperties.url(), dbProperties.user(), dbProperties.password());
 
         // Set pool behaviour
         basicDataSource.setMaxIdle(dbProperties.maxIdle());
@@ -71,17 +75,32 @@ public class ConnectionManager {
         return basicDataSource;
     }
 
+    private Optional<BasicDataSource> createReplicaDataSource() {
+        final DbProperties dbProperties = getDbProperties();
+        if (!dbProperties.hasReplica()) {
+            return Optional.empty();
+        }
+
+        log.info("Routing replica-safe reads to the read replica at {}", dbProperties.replicaUrl());
+        BasicDataSource basicDataSource = forGenericBasicConnection(dbProperties, dbProperties.replicaUrl(), dbProperties.replicaUser(), dbProperties.replicaPassword());
+        basicDataSource.setDefaultReadOnly(true);
+        basicDataSource.setMaxIdle(dbProperties.maxIdle());
+        basicDataSource.setMaxTotal(dbProperties.maxTotal());
+
+        return Optional.of(basicDataSource);
+    }
+
     private static boolean isDefaultH2Database(DbProperties dbProperties) {
         return dbProperties.url().isBlank();
     }
 
-    private static BasicDataSource forGenericBasicConnection(DbProperties dbProperties) {
+    private static BasicDataSource forGenericBasicConnection(DbProperties dbProperties, String url, String user, String password) {
         BasicDataSource basicDataSource;
         basicDataSource = new BasicDataSource();
         basicDataSource.setDriverClassName(dbProperties.driver());
-        basicDataSource.setUrl(dbProperties.url());
-        basicDataSource.setUsername(dbProperties.user());
-        basicDataSource.setPassword(dbProperties.password());
+        basicDataSource.setUrl(url);
+        basicDataSource.setUsername(user);
+        basicDataSource.setPassword(password);
         basicDataSource.setConnectionProperties(dbProperties.connectionPropertiesAsString());
         return basicDataSource;
     }
@@ -37,6 +37,7 @@ import java.util.stream.Collectors;
 public class DbProperties {
     private static final String DB_EXTRA_BACKUP_ENV_PREFIX = "db.extraBackupEnv.";
     private static final String DB_CONNECTION_PROPERTIES_PREFIX = "db.connectionProperties.";
+    private static final String DB_REPLICA_PREFIX = "db.replica.";
 
     @NonNull private String user;
     @NonNull private String url;
@@ -47,6 +48,9 @@ public class DbProperties {
     @NonNull private String extraBackupCommandArgs;
     private Map<String, String> extraBackupEnv;
     private Properties connectionProperties;
+    private String replicaUrl;
+    private String replicaUser;
+    private String replicaPassword;
 
     public DbProperties initializeFrom(Properties properties, Function<String, String> decrypter) {
         this.url = properties.getProperty("db.url", "");
@@ -54,7 +58,7 @@ public class DbProperties {
         this.driver = properties.getProperty("db.driver");
         this.maxIdle = Integer.parseInt(properties.getProperty("db.maxIdle", "32"));
         this.maxTotal = Integer.parseInt(properties.getProperty("db.maxActive", "32"));
-        this.password = findPassword(properties, decrypter);
+        this.password = findPassword(properties, "db.", decrypter);
         this.extraBackupCommandArgs = properties.getProperty("db.extraBackupCommandArgs", "");
 
         this.connectionProperties = new Properties();
@@ -70,16 +74,28 @@ public class DbProperties {
             connectionProperties.put("stringtype", "unspecified");
         }
 
+        this.replicaUrl = properties.getProperty(DB_REPLICA_PREFIX + "url", "");
+        this.replicaUser = properties.getProperty(DB_REPLICA_PREFIX + "user", this.user);
+        this.replicaPassword = hasOwnPassword(properties, DB_REPLICA_PREFIX) ? findPassword(properties, DB_REPLICA_PREFIX, decrypter) : this.password;
+
         return this;
     }
 
+    public boolean hasReplica() {
+        return replicaUrl != null && !replicaUrl.isBlank();
+    }
+
     private boolean isPostgres(String url) {
         return url != null && url.startsWith("jdbc:postgresql:");
     }
 
-    private String findPassword(Properties properties, Function<String, String> decrypter) {
-        String password = properties.getProperty("db.password", "");
-        String encryptedPassword = properties.getProperty("db.encryptedPassword", "");
+    private static boolean hasOwnPassword(Properties properties, String prefix) {
+        return properties.getProperty(prefix + "password") != null || properties.getProperty(prefix + "encryptedPassword") != null;
+    }
+
+    private String findPassword(Properties properties, String prefix, Function<String, String> decrypter) {
+        String password = properties.getProperty(prefix + "password", "");
+        String encryptedPassword = properties.getProperty(prefix + "encryptedPassword", "");
 
         if (!encryptedPassword.isBlank()) {
             return decrypter.apply(encryptedPassword);
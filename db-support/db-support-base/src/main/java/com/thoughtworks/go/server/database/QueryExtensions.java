@@ -21,26 +21,6 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 public abstract class QueryExtensions {
-    public String queryFromInclusiveModificationsForPipelineRange(String pipelineName, int fromCounter, int toCounter) {
-        // using string concatenation because Hibernate does not seem to be able to replace named or positional parameters here
-        return """
-            WITH RECURSIVE link(id) AS ( \
-              SELECT id \
-                 FROM pipelines \
-                 WHERE name = '%s' \
-                     AND counter >= %s \
-                     AND counter <= %s \
-              UNION ALL \
-              SELECT mods.pipelineId \
-                 FROM link \
-                     INNER JOIN pipelineMaterialRevisions pmr ON link.id = pmr.pipelineId \
-                     INNER JOIN modifications mods ON pmr.toRevisionId >= mods.id and pmr.actualFromRevisionId <= mods.id AND pmr.materialId = mods.materialId \
-                 WHERE mods.pipelineId IS NOT NULL \
-            ) \
-            SELECT DISTINCT id FROM link WHERE id IS NOT NULL
-            """.formatted(pipelineName, fromCounter, toCounter);
-    }
-
     public String queryRelevantToLookedUpDependencyMap(List<Long> pipelineIds) {
         // using string concatenation because Hibernate does not seem to be able to replace named or positional parameters here
         return """
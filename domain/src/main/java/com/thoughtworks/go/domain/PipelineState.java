@@ -42,6 +42,10 @@ public class PipelineState extends PersistentObject {
         this.lockedBy = identifier;
     }
 
+    public String getPipelineName() {
+        return pipelineName;
+    }
+
     public StageIdentifier getLockedBy() {
         return lockedBy;
     }
@@ -33,6 +33,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static com.thoughtworks.go.server.service.GoConfigService.INVALID_CRUISE_CONFIG_XML;
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
@@ -49,6 +50,7 @@ public class CachedGoConfig {
     private final MaintenanceModeService maintenanceModeService;
     private final ServerHealthService serverHealthService;
     private final List<ConfigChangedListener> listeners = new ArrayList<>();
+    private final ConfigChangedListenerDispatcher dispatcher = new ConfigChangedListenerDispatcher();
     private volatile CruiseConfig currentConfig;
     private volatile CruiseConfig currentConfigForEdit;
     private volatile CruiseConfig mergedCurrentConfigForEdit;
@@ -161,15 +163,7 @@ public class CachedGoConfig {
 
         for (ConfigChangedListener listener : listeners) {
             if (listener instanceof EntityConfigChangedListener<?> entityConfigChangedListener && entityConfigChangedListener.shouldCareAbout(saveResult.getEntityConfig())) {
-                try {
-                    long startTime = System.currentTimeMillis();
-                    ((EntityConfigChangedListener<T>) entityConfigChangedListener).onEntityConfigChange(saveResult.getEntityConfig());
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("Notifying {} took (in ms): {}", listener.getClass(), System.currentTimeMillis() - startTime);
-                    }
-                } catch (Exception e) {
-                    LOGGER.error("failed to fire config changed event for listener: {}", listener, e);
-                }
+                dispatcher.timed(listener, () -> ((EntityConfigChangedListener<T>) entityConfigChangedListener).onEntityConfigChange(saveResult.getEntityConfig()));
             }
         }
         LOGGER.info("Finished notifying {} config listeners", saveResult.getEntityConfig().getClass().getName());
@@ -216,11 +210,7 @@ public class CachedGoConfig {
     private synchronized void notifyListeners(CruiseConfig newCruiseConfig) {
         LOGGER.info("About to notify config listeners");
         for (ConfigChangedListener listener : listeners) {
-            try {
-                listener.onConfigChange(newCruiseConfig);
-            } catch (Exception e) {
-                LOGGER.error("Failed to fire config changed event for listener: {}", listener, e);
-            }
+            dispatcher.notify(listener, newCruiseConfig);
         }
         LOGGER.info("Finished notifying all listeners");
     }
@@ -228,6 +218,7 @@ public class CachedGoConfig {
     @TestOnly
     public synchronized void clearListeners() {
         listeners.clear();
+        dispatcher.stopAsyncDeliveries();
     }
 
     @TestOnly
@@ -235,6 +226,13 @@ public class CachedGoConfig {
         notifyListeners(currentConfig());
     }
 
+    /**
+     * @return the number of notifications and time taken per config change listener, keyed by listener class
+     */
+    public Map<String, Map<String, Object>> listenerTimings() {
+        return dispatcher.timings();
+    }
+
     public GoConfigHolder loadConfigHolder() {
         return configHolder;
     }
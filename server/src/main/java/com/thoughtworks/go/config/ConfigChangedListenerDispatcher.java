@@ -0,0 +1,151 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.listener.AsyncConfigChangedListener;
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Delivers config changes to {@link ConfigChangedListener}s and keeps track of how long every listener takes.
+ * <p>
+ * Plain listeners are notified on the calling thread. {@link AsyncConfigChangedListener}s get a single thread each,
+ * so they see config changes in order and a slow one neither holds up a config save nor the other listeners. While
+ * such a listener is busy, newer configs replace the one waiting for it, so it never falls more than one config
+ * behind and no backlog builds up.
+ */
+class ConfigChangedListenerDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigChangedListenerDispatcher.class);
+
+    private final Map<ConfigChangedListener, AsyncDelivery> asyncDeliveries = new ConcurrentHashMap<>();
+    private final Map<String, ListenerTimings> timings = new ConcurrentHashMap<>();
+
+    void notify(ConfigChangedListener listener, CruiseConfig newCruiseConfig) {
+        if (listener instanceof AsyncConfigChangedListener) {
+            asyncDeliveries.computeIfAbsent(listener, AsyncDelivery::new).offer(newCruiseConfig);
+        } else {
+            notifySynchronously(listener, newCruiseConfig);
+        }
+    }
+
+    void notifySynchronously(ConfigChangedListener listener, CruiseConfig newCruiseConfig) {
+        timed(listener, () -> listener.onConfigChange(newCruiseConfig));
+    }
+
+    void timed(ConfigChangedListener listener, Runnable notification) {
+        long startTime = System.nanoTime();
+        try {
+            notification.run();
+        } catch (Exception e) {
+            LOGGER.error("Failed to fire config changed event for listener: {}", listener, e);
+        } finally {
+            long elapsed = System.nanoTime() - startTime;
+            timingsOf(listener).record(elapsed);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Notifying {} took (in ms): {}", listener.getClass(), NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    void stopAsyncDeliveries() {
+        asyncDeliveries.values().forEach(AsyncDelivery::stop);
+        asyncDeliveries.clear();
+    }
+
+    Map<String, Map<String, Object>> timings() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        timings.forEach((listener, listenerTimings) -> result.put(listener, listenerTimings.asMap()));
+        return result;
+    }
+
+    private ListenerTimings timingsOf(ConfigChangedListener listener) {
+        return timings.computeIfAbsent(listener.getClass().getName(), k -> new ListenerTimings());
+    }
+
+    private class AsyncDelivery {
+        private final ConfigChangedListener listener;
+        private final AtomicReference<CruiseConfig> pending = new AtomicReference<>();
+        private final ExecutorService executor;
+
+        AsyncDelivery(ConfigChangedListener listener) {
+            this.listener = listener;
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "config-change-" + listener.getClass().getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        void offer(CruiseConfig newCruiseConfig) {
+            if (pending.getAndSet(newCruiseConfig) == null) {
+                executor.execute(this::deliver);
+            } else {
+                timingsOf(listener).coalesced.increment();
+            }
+        }
+
+        private void deliver() {
+            CruiseConfig newCruiseConfig = pending.getAndSet(null);
+            if (newCruiseConfig != null) {
+                notifySynchronously(listener, newCruiseConfig);
+            }
+        }
+
+        void stop() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class ListenerTimings {
+        private final LongAdder notifications = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        void record(long elapsedNanos) {
+            notifications.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            lastNanos = elapsedNanos;
+        }
+
+        Map<String, Object> asMap() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            long count = notifications.sum();
+            json.put("Notifications", count);
+            json.put("Coalesced", coalesced.sum());
+            json.put("Total time (ms)", NANOSECONDS.toMillis(totalNanos.sum()));
+            json.put("Average time (ms)", count == 0 ? 0 : NANOSECONDS.toMillis(totalNanos.sum() / count));
+            json.put("Max time (ms)", NANOSECONDS.toMillis(maxNanos.get()));
+            json.put("Last time (ms)", NANOSECONDS.toMillis(lastNanos));
+            return json;
+        }
+    }
+}
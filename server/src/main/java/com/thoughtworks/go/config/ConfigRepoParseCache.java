@@ -0,0 +1,165 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import com.thoughtworks.go.plugin.configrepo.codec.GsonCodec;
+import com.thoughtworks.go.plugin.configrepo.contract.CRConfigurationProperty;
+import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
+import org.apache.commons.codec.binary.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Remembers the last successful plugin parse result for every config-repo material, so that a server restart, or
+ * another checkout of the same revision, does not require another plugin round-trip.
+ * <p>
+ * A result is only reused when the material fingerprint, the checked out revision, the plugin id and version and the
+ * configuration properties handed to the plugin all match. Results are kept on disk, one file per material,
+ * so the cache survives restarts and never holds more than one entry per config-repo.
+ */
+public class ConfigRepoParseCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigRepoParseCache.class);
+
+    private final File cacheDirectory;
+    private final Gson gson = new GsonCodec().getGson();
+    private final Map<String, CachedParseResult> results = new ConcurrentHashMap<>();
+
+    public ConfigRepoParseCache(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public CRParseResult get(String fingerprint, String key) {
+        CachedParseResult cached = results.computeIfAbsent(fingerprint, this::readFromDisk);
+        if (cached == null || !Objects.equals(cached.key, key)) {
+            return null;
+        }
+        return gson.fromJson(cached.result, CRParseResult.class);
+    }
+
+    public void put(String fingerprint, String key, CRParseResult parseResult) {
+        CachedParseResult cached = new CachedParseResult(key, gson.toJson(parseResult));
+        results.put(fingerprint, cached);
+        writeToDisk(fingerprint, cached);
+    }
+
+    public void remove(String fingerprint) {
+        results.remove(fingerprint);
+        try {
+            Files.deleteIfExists(fileFor(fingerprint).toPath());
+        } catch (IOException e) {
+            LOGGER.warn("Could not remove cached config-repo parse result {}", fileFor(fingerprint), e);
+        }
+    }
+
+    /**
+     * @param revision the revision of the config-repo material which is checked out, which determines the files the
+     *                 plugin parses
+     * @return a key identifying the inputs of a plugin parse, or {@code null} if the inputs cannot be identified
+     * reliably, in which case the result must not be cached
+     */
+    public String keyFor(String revision, String pluginId, String pluginVersion, Collection<CRConfigurationProperty> configurations) {
+        if (revision == null || pluginVersion == null) {
+            return null;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, revision);
+            update(digest, pluginId);
+            update(digest, pluginVersion);
+            for (CRConfigurationProperty configuration : configurations) {
+                update(digest, configuration.getKey());
+                update(digest, configuration.getValue());
+                update(digest, configuration.getEncryptedValue());
+            }
+            return Hex.encodeHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        // length-prefix every value so that adjacent values cannot be confused with each other
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(value == null ? -1 : bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private CachedParseResult readFromDisk(String fingerprint) {
+        File file = fileFor(fingerprint);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return gson.fromJson(Files.readString(file.toPath(), StandardCharsets.UTF_8), CachedParseResult.class);
+        } catch (Exception e) {
+            LOGGER.warn("Ignoring unreadable cached config-repo parse result {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String fingerprint, CachedParseResult cached) {
+        File file = fileFor(fingerprint);
+        try {
+            Files.createDirectories(cacheDirectory.toPath());
+            File temp = new File(cacheDirectory, file.getName() + ".tmp");
+            Files.writeString(temp.toPath(), gson.toJson(cached), StandardCharsets.UTF_8);
+            Files.move(temp.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (Exception e) {
+            LOGGER.warn("Could not persist config-repo parse result to {}", file, e);
+        }
+    }
+
+    private File fileFor(String fingerprint) {
+        return new File(cacheDirectory, fingerprint + ".json");
+    }
+
+    private static class CachedParseResult {
+        @SerializedName("key")
+        @Expose
+        private String key;
+        @SerializedName("result")
+        @Expose
+        private String result;
+
+        @SuppressWarnings("unused") // for gson
+        CachedParseResult() {
+        }
+
+        CachedParseResult(String key, String result) {
+            this.key = key;
+            this.result = result;
+        }
+    }
+}
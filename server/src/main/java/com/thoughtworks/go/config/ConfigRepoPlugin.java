@@ -17,12 +17,15 @@ package com.thoughtworks.go.config;
 
 import com.thoughtworks.go.config.remote.PartialConfig;
 import com.thoughtworks.go.domain.config.Configuration;
+import com.thoughtworks.go.domain.materials.MaterialConfig;
 import com.thoughtworks.go.plugin.access.configrepo.ConfigFileList;
 import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoExtension;
+import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoMetadataStore;
 import com.thoughtworks.go.plugin.access.configrepo.ExportedConfig;
 import com.thoughtworks.go.plugin.configrepo.contract.CRConfigurationProperty;
 import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
 import com.thoughtworks.go.plugin.configrepo.contract.CRPipeline;
+import com.thoughtworks.go.plugin.domain.configrepo.ConfigRepoPluginInfo;
 
 import java.io.File;
 import java.util.Collection;
@@ -34,11 +37,17 @@ public class ConfigRepoPlugin implements PartialConfigProvider {
     private final ConfigConverter configConverter;
     private final ConfigRepoExtension crExtension;
     private final String pluginId;
+    private final ConfigRepoParseCache parseCache;
 
     public ConfigRepoPlugin(ConfigConverter configConverter, ConfigRepoExtension crExtension, String pluginId) {
+        this(configConverter, crExtension, pluginId, null);
+    }
+
+    public ConfigRepoPlugin(ConfigConverter configConverter, ConfigRepoExtension crExtension, String pluginId, ConfigRepoParseCache parseCache) {
         this.configConverter = configConverter;
         this.crExtension = crExtension;
         this.pluginId = pluginId;
+        this.parseCache = parseCache;
     }
 
     /**
@@ -61,10 +70,43 @@ public class ConfigRepoPlugin implements PartialConfigProvider {
     @Override
     public PartialConfig load(File configRepoCheckoutDirectory, PartialConfigLoadContext context) {
         Collection<CRConfigurationProperty> cRconfigurations = getCrConfigurations(context.configuration());
-        CRParseResult crPartialConfig = parseDirectory(configRepoCheckoutDirectory, cRconfigurations);
+        CRParseResult crPartialConfig = parseDirectory(configRepoCheckoutDirectory, cRconfigurations, context);
         return configConverter.toPartialConfig(crPartialConfig, context);
     }
 
+    private CRParseResult parseDirectory(File configRepoCheckoutDirectory, Collection<CRConfigurationProperty> cRconfigurations, PartialConfigLoadContext context) {
+        MaterialConfig configMaterial = context.configMaterial();
+        if (parseCache == null || configMaterial == null) {
+            return parseDirectory(configRepoCheckoutDirectory, cRconfigurations);
+        }
+
+        String fingerprint = configMaterial.getFingerprint();
+        String key = parseCache.keyFor(context.revision(), pluginId, pluginVersion(), cRconfigurations);
+        if (key == null) {
+            return parseDirectory(configRepoCheckoutDirectory, cRconfigurations);
+        }
+
+        CRParseResult cached = parseCache.get(fingerprint, key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CRParseResult crParseResult = parseDirectory(configRepoCheckoutDirectory, cRconfigurations);
+        if (!crParseResult.hasErrors()) {
+            parseCache.put(fingerprint, key, crParseResult);
+        }
+        return crParseResult;
+    }
+
+    private String pluginVersion() {
+        ConfigRepoPluginInfo pluginInfo = ConfigRepoMetadataStore.instance().getPluginInfo(pluginId);
+        // the version the plugin author gives, the descriptor version stays the same across releases of a plugin
+        if (pluginInfo == null || pluginInfo.getDescriptor().about() == null) {
+            return null;
+        }
+        return pluginInfo.getDescriptor().about().version();
+    }
+
     public String id() {
         return this.pluginId;
     }
@@ -22,6 +22,7 @@ import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoExtension;
 import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoMetadataStore;
 import com.thoughtworks.go.security.GoCipher;
 import com.thoughtworks.go.server.service.AgentService;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -34,12 +35,15 @@ public class GoConfigPluginService {
     private final ConfigRepoExtension crExtension;
     private final XmlPartialConfigProvider embeddedXmlPlugin;
     private final ConfigConverter configConverter;
+    private final ConfigRepoParseCache parseCache;
 
     @Autowired
     public GoConfigPluginService(ConfigRepoExtension configRepoExtension,
                                  ConfigElementImplementationRegistry configElementImplementationRegistry,
-                                 CachedGoConfig cachedGoConfig, AgentService agentService) {
+                                 CachedGoConfig cachedGoConfig, AgentService agentService,
+                                 SystemEnvironment systemEnvironment) {
         this.crExtension = configRepoExtension;
+        this.parseCache = new ConfigRepoParseCache(systemEnvironment.getConfigRepoParseCacheDir());
         MagicalGoConfigXmlLoader loader = new MagicalGoConfigXmlLoader(configElementImplementationRegistry);
         embeddedXmlPlugin = new XmlPartialConfigProvider(loader);
         configConverter = new ConfigConverter(new GoCipher(), cachedGoConfig, agentService);
@@ -55,7 +59,11 @@ public class GoConfigPluginService {
             return embeddedXmlPlugin;
         }
 
-        return new ConfigRepoPlugin(configConverter, crExtension, pluginId);
+        return new ConfigRepoPlugin(configConverter, crExtension, pluginId, parseCache);
+    }
+
+    public void evictCachedParseResult(String fingerprint) {
+        parseCache.remove(fingerprint);
     }
 
     public boolean isConfigRepoPlugin(String pluginId) {
@@ -119,6 +119,7 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
         for (String fingerprint : this.configReposMaterialParseResultManager.allFingerprints()) {
             if (!newConfigRepos.hasMaterialWithFingerprint(fingerprint)) {
                 this.configReposMaterialParseResultManager.remove(fingerprint);
+                this.configPluginService.evictCachedParseResult(fingerprint);
             }
         }
     }
@@ -159,7 +160,7 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
                 this.modifiedConfigRepoConfigsAwaitingParse.remove(repoConfig);
                 //TODO put modifications and previous partial config in context
                 // the context is just a helper for plugin.
-                PartialConfigLoadContext context = new LoadContext(repoConfig);
+                PartialConfigLoadContext context = new LoadContext(repoConfig, modification.getRevision());
                 PartialConfig newPart = plugin.load(folder, context);
                 if (newPart == null) {
                     LOGGER.warn("Parsed configuration material {} by {} is null", material.getDisplayName(), plugin.displayName());
@@ -225,9 +226,11 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
 
     private static class LoadContext implements PartialConfigLoadContext {
         private final ConfigRepoConfig repoConfig;
+        private final String revision;
 
-        public LoadContext(ConfigRepoConfig repoConfig) {
+        public LoadContext(ConfigRepoConfig repoConfig, String revision) {
             this.repoConfig = repoConfig;
+            this.revision = revision;
         }
 
         @Override
@@ -239,5 +242,10 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
         public MaterialConfig configMaterial() {
             return this.repoConfig.getRepo();
         }
+
+        @Override
+        public String revision() {
+            return revision;
+        }
     }
 }
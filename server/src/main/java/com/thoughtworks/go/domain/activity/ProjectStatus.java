@@ -25,6 +25,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import static java.lang.String.join;
 
@@ -43,6 +44,7 @@ public class ProjectStatus {
     private String webUrl;
     private volatile Users viewers;
     private String cachedXmlRepresentation;
+    private String[] cachedXmlRepresentationParts;
 
     public ProjectStatus(String name, String activity, String lastBuildStatus, String lastBuildLabel,
                          Date lastBuildTime, String webUrl) {
@@ -156,6 +158,16 @@ public class ProjectStatus {
         return cachedXmlRepresentation;
     }
 
+    /**
+     * @return the {@link #xmlRepresentation()}, split at every place the site url prefix goes
+     */
+    public String[] xmlRepresentationParts() {
+        if (cachedXmlRepresentationParts == null) {
+            cachedXmlRepresentationParts = xmlRepresentation().split(Pattern.quote(SITE_URL_PREFIX), -1);
+        }
+        return cachedXmlRepresentationParts;
+    }
+
     public Set<String> getBreakers() {
         return breakers;
     }
@@ -29,50 +29,105 @@ import org.slf4j.LoggerFactory;
 import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 
 import javax.annotation.PreDestroy;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
 import static org.apache.commons.lang3.StringUtils.splitByWholeSeparator;
 
 /**
- * Understands storing and retrieving objects from an underlying LRU cache
+ * Understands storing and retrieving objects from an underlying LRU cache, partitioned into {@link GoCacheRegion}s
  */
 public class GoCache {
     @VisibleForTesting public static final String SUB_KEY_DELIMITER = "!_#$#_!";
     private static final Logger LOGGER = LoggerFactory.getLogger(GoCache.class);
+    private static final int LOCK_STRIPES = 1024;
     private final ThreadLocal<Boolean> doNotServeForTransaction = new ThreadLocal<>();
+    private final ThreadLocal<TransactionOverlay> transactionOverlay = new ThreadLocal<>();
 
-    private final Ehcache ehCache;
+    private final Map<GoCacheRegion, Ehcache> regions;
+    private final Ehcache defaultRegion;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    // removes, numbered in order, so that a transaction only publishes values nobody has invalidated since it started
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLongArray lastInvalidationOfStripe = new AtomicLongArray(LOCK_STRIPES);
+    private volatile long lastClear;
     private final TransactionSynchronizationManager transactionSynchronizationManager;
 
-    @VisibleForTesting static class KeyList extends HashSet<String> { }
+    /**
+     * Sub-keys of a key. Concurrent, so that eviction of a sub-key entry can update it without taking a lock.
+     */
+    @VisibleForTesting static class KeyList extends AbstractSet<String> {
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean add(String key) {
+            return keys.add(key);
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            return keys.remove(key);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return keys.iterator();
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+    }
 
     @TestOnly
     public GoCache(GoCache goCache) {
-        this(goCache.ehCache, goCache.transactionSynchronizationManager);
+        this(goCache.regions, goCache.transactionSynchronizationManager);
     }
 
     public GoCache(Ehcache cache, TransactionSynchronizationManager transactionSynchronizationManager) {
-        this.ehCache = cache;
+        this(Map.of(GoCacheRegion.DEFAULT, cache), transactionSynchronizationManager);
+    }
+
+    /**
+     * @param regions the cache of every region; keys of regions without a cache of their own go to the
+     *                {@link GoCacheRegion#DEFAULT} region, which must be present
+     */
+    public GoCache(Map<GoCacheRegion, Ehcache> regions, TransactionSynchronizationManager transactionSynchronizationManager) {
+        this.regions = Collections.unmodifiableMap(new EnumMap<>(regions));
+        this.defaultRegion = Objects.requireNonNull(regions.get(GoCacheRegion.DEFAULT), "The default cache region is required");
         this.transactionSynchronizationManager = transactionSynchronizationManager;
-        ehCache.getCacheEventNotificationService().registerListener(new CacheEvictionListener(this));
+        Arrays.setAll(locks, i -> new Object());
+        for (Ehcache ehCache : new HashSet<>(this.regions.values())) {
+            ehCache.getCacheEventNotificationService().registerListener(new CacheEvictionListener(this));
+        }
     }
 
     @PreDestroy
     public void destroy() {
         clear();
-        Optional.ofNullable(ehCache.getCacheManager())
-            .ifPresent(cm -> cm.removeCache(ehCache.getName()));
+        for (Ehcache ehCache : new HashSet<>(regions.values())) {
+            Optional.ofNullable(ehCache.getCacheManager())
+                .ifPresent(cm -> cm.removeCache(ehCache.getName()));
+        }
     }
 
     @TestOnly
     public void addListener(CacheEventListener listener) {
-        ehCache.getCacheEventNotificationService().registerListener(listener);
+        for (Ehcache ehCache : new HashSet<>(regions.values())) {
+            ehCache.getCacheEventNotificationService().registerListener(listener);
+        }
     }
 
     public void stopServingForTransaction() {
+        TransactionOverlay overlay = transactionOverlay.get();
+        if (overlay != null) {
+            // whatever was cached so far in this transaction may not reflect what the transaction is writing now
+            overlay.clear();
+        }
         if (transactionSynchronizationManager.isTransactionBodyExecuting() && !doNotServeForTransaction()) {
             doNotServeForTransaction.set(true);
             transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
@@ -87,17 +142,26 @@ public class GoCache {
     public void put(String key, Object value) {
         logUnsavedPersistentObjectInteraction(value, "PersistentObject {} added to cache without an id.");
         if (transactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionOverlay overlay = overlayForTransaction();
+            if (overlay != null) {
+                overlay.put(key, null, value);
+                return;
+            }
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("transaction active during cache put for {} = {}", key, value, new IllegalStateException());
             }
             return;
         }
-        ehCache.put(new Element(key, value));
+        cacheFor(key).put(new Element(key, value));
     }
 
     @SuppressWarnings("unchecked")
     public List<String> getKeys() {
-        return ehCache.getKeys();
+        List<String> keys = new ArrayList<>();
+        for (Ehcache ehCache : new HashSet<>(regions.values())) {
+            keys.addAll(ehCache.getKeys());
+        }
+        return keys;
     }
 
     private void logUnsavedPersistentObjectInteraction(Object value, String message) {
@@ -118,6 +182,14 @@ public class GoCache {
     }
 
     public <T> T get(String key) {
+        TransactionOverlay overlay = transactionOverlay.get();
+        if (overlay == null && transactionSynchronizationManager.isTransactionBodyExecuting()) {
+            // start watching for removes before the transaction reads what it may cache afterwards
+            overlay = overlayForTransaction();
+        }
+        if (overlay != null && overlay.contains(key)) {
+            return overlay.get(key);
+        }
         if (doNotServeForTransaction()) {
             return null;
         }
@@ -125,7 +197,7 @@ public class GoCache {
     }
 
     private <T> T getWithoutTransactionCheck(String key) {
-        Element element = ehCache.get(key);
+        Element element = cacheFor(key).get(key);
         if (element == null) {
             return null;
         }
@@ -139,11 +211,25 @@ public class GoCache {
     }
 
     public void clear() {
-        ehCache.removeAll();
+        Optional.ofNullable(transactionOverlay.get()).ifPresent(TransactionOverlay::clear);
+        lastClear = invalidations.incrementAndGet();
+        for (Ehcache ehCache : new HashSet<>(regions.values())) {
+            ehCache.removeAll();
+        }
     }
 
     public boolean remove(String key) {
-        synchronized (key.intern()) {
+        Optional.ofNullable(transactionOverlay.get()).ifPresent(overlay -> overlay.removeWithSubKeys(key));
+        Ehcache ehCache = cacheFor(key);
+        if (key.contains(SUB_KEY_DELIMITER)) {
+            // the lock of the parent key, which is what publishing a sub-key entry holds; re-entrant from remove(key, subKey)
+            synchronized (lockFor(splitByWholeSeparator(key, SUB_KEY_DELIMITER)[0])) {
+                invalidated(key);
+                return ehCache.remove(key);
+            }
+        }
+        synchronized (lockFor(key)) {
+            invalidated(key);
             Object value = getWithoutTransactionCheck(key);
             if (value instanceof KeyList keyList) {
                 for (String subKey : keyList) {
@@ -159,8 +245,16 @@ public class GoCache {
     }
 
     public void put(String key, String subKey, Object value) {
+        if (transactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionOverlay overlay = overlayForTransaction();
+            if (overlay != null) {
+                logUnsavedPersistentObjectInteraction(value, "PersistentObject {} added to cache without an id.");
+                overlay.put(compositeKey(key, subKey), new SubKey(key, subKey), value);
+                return;
+            }
+        }
         KeyList subKeys;
-        synchronized (key.intern()) {
+        synchronized (lockFor(key)) {
             subKeys = subKeyFamily(key);
             if (subKeys == null) {
                 subKeys = new KeyList();
@@ -177,30 +271,33 @@ public class GoCache {
         }
     }
 
+    /**
+     * Called on eviction and expiry, which can happen while the evicting thread holds the lock of an unrelated key,
+     * so this must not take any locks itself.
+     */
     public void removeAssociations(String key, Element element) {
         if (element.getObjectValue() instanceof KeyList keyList) {
-            synchronized (key.intern()) {
-                for (String subkey : keyList) {
-                    remove(compositeKey(key, subkey));
-                }
+            for (String subkey : keyList) {
+                String subKeyEntry = compositeKey(key, subkey);
+                cacheFor(subKeyEntry).remove(subKeyEntry);
             }
         } else if (key.contains(SUB_KEY_DELIMITER)) {
             String[] parts = splitByWholeSeparator(key, SUB_KEY_DELIMITER);
             String parentKey = parts[0];
             String childKey = parts[1];
-            synchronized (parentKey.intern()) {
-                Element parent = ehCache.get(parentKey);
-                if (parent == null) {
-                    return;
-                }
-                KeyList subKeys = (KeyList) parent.getObjectValue();
+            Element parent = cacheFor(parentKey).get(parentKey);
+            if (parent != null && parent.getObjectValue() instanceof KeyList subKeys) {
                 subKeys.remove(childKey);
             }
         }
     }
 
     public boolean isKeyInCache(Object key) {
-        return ehCache.isKeyInCache(key);
+        TransactionOverlay overlay = transactionOverlay.get();
+        if (overlay != null && key instanceof String stringKey && overlay.contains(stringKey)) {
+            return true;
+        }
+        return key instanceof String stringKey ? cacheFor(stringKey).isKeyInCache(key) : defaultRegion.isKeyInCache(key);
     }
 
     private KeyList subKeyFamily(String parentKey) {
@@ -216,7 +313,8 @@ public class GoCache {
     }
 
     public void remove(String key, String subKey) {
-        synchronized (key.intern()) {
+        Optional.ofNullable(transactionOverlay.get()).ifPresent(overlay -> overlay.remove(compositeKey(key, subKey)));
+        synchronized (lockFor(key)) {
             KeyList subKeys = subKeyFamily(key);
             if (subKeys == null) {
                 return;
@@ -226,7 +324,143 @@ public class GoCache {
         }
     }
 
-    public CacheConfiguration configuration() {
-        return ehCache.getCacheConfiguration();
+    private record SubKey(String parentKey, String subKey) {
+    }
+
+    private record OverlayEntry(SubKey subKey, Object value) {
+    }
+
+    /**
+     * Cache entries put by a transaction since its last write. They are served to that transaction only, and
+     * published to the cache when it commits, unless the key was removed after the transaction started using the
+     * cache. Entries put before a write are dropped, as are all entries when the transaction rolls back.
+     */
+    private static class TransactionOverlay {
+        private final Map<String, OverlayEntry> entries = new LinkedHashMap<>();
+        private final long startedAfterInvalidation;
+
+        TransactionOverlay(long startedAfterInvalidation) {
+            this.startedAfterInvalidation = startedAfterInvalidation;
+        }
+
+        void put(String cacheKey, SubKey subKey, Object value) {
+            entries.put(cacheKey, new OverlayEntry(subKey, value));
+        }
+
+        boolean contains(String cacheKey) {
+            return entries.containsKey(cacheKey);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T get(String cacheKey) {
+            return (T) entries.get(cacheKey).value();
+        }
+
+        void remove(String cacheKey) {
+            entries.remove(cacheKey);
+        }
+
+        void removeWithSubKeys(String key) {
+            entries.entrySet().removeIf(entry -> entry.getKey().equals(key) ||
+                (entry.getValue().subKey() != null && entry.getValue().subKey().parentKey().equals(key)));
+        }
+
+        void clear() {
+            entries.clear();
+        }
+    }
+
+    public CacheConfiguration configuration(GoCacheRegion region) {
+        return cacheFor(region).getCacheConfiguration();
+    }
+
+    private Ehcache cacheFor(String key) {
+        return cacheFor(GoCacheRegion.forKey(key));
+    }
+
+    private Ehcache cacheFor(GoCacheRegion region) {
+        return regions.getOrDefault(region, defaultRegion);
+    }
+
+    /**
+     * @return the cache changes of the current transaction, or {@code null} if the transaction is not one of ours,
+     * in which case changes cannot be published once it commits
+     */
+    private TransactionOverlay overlayForTransaction() {
+        TransactionOverlay overlay = transactionOverlay.get();
+        if (overlay == null && transactionSynchronizationManager.isTransactionBodyExecuting()) {
+            overlay = new TransactionOverlay(invalidations.get());
+            transactionOverlay.set(overlay);
+            transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    TransactionOverlay committed = transactionOverlay.get();
+                    transactionOverlay.remove();
+                    if (committed != null) {
+                        publish(committed);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    transactionOverlay.remove();
+                }
+            });
+        }
+        return overlay;
+    }
+
+    /**
+     * Publishes under the same lock as removes of the key, so a value the transaction read before another
+     * transaction removed the key can neither overwrite that remove nor be published after it.
+     */
+    private void publish(TransactionOverlay overlay) {
+        long startedAfter = overlay.startedAfterInvalidation;
+        overlay.entries.forEach((cacheKey, entry) -> {
+            if (entry.subKey() != null) {
+                String parentKey = entry.subKey().parentKey();
+                synchronized (lockFor(parentKey)) {
+                    if (invalidatedSince(startedAfter, parentKey) || invalidatedSince(startedAfter, cacheKey)) {
+                        return;
+                    }
+                    KeyList subKeys = subKeyFamily(parentKey);
+                    if (subKeys == null) {
+                        subKeys = new KeyList();
+                        cacheFor(parentKey).put(new Element(parentKey, subKeys));
+                    }
+                    subKeys.add(entry.subKey().subKey());
+                    cacheFor(cacheKey).put(new Element(cacheKey, entry.value()));
+                }
+            } else {
+                synchronized (lockFor(cacheKey)) {
+                    if (!invalidatedSince(startedAfter, cacheKey)) {
+                        cacheFor(cacheKey).put(new Element(cacheKey, entry.value()));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Must be called holding the lock that publishing the key takes. Keys sharing a lock stripe share the count,
+     * which only ever causes a value to be dropped rather than published.
+     */
+    private void invalidated(String key) {
+        lastInvalidationOfStripe.accumulateAndGet(stripeOf(key), invalidations.incrementAndGet(), Math::max);
+    }
+
+    private boolean invalidatedSince(long invalidation, String key) {
+        return lastClear > invalidation || lastInvalidationOfStripe.get(stripeOf(key)) > invalidation;
+    }
+
+    /**
+     * A lock per key, without interning the key; unrelated keys may share a lock.
+     */
+    private Object lockFor(String key) {
+        return locks[stripeOf(key)];
+    }
+
+    private static int stripeOf(String key) {
+        return Math.floorMod(key.hashCode(), LOCK_STRIPES);
     }
 }
@@ -18,36 +18,45 @@ package com.thoughtworks.go.server.cache;
 import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.Configuration;
 import net.sf.ehcache.config.PersistenceConfiguration;
-import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Component
 public class GoCacheFactory {
 
-    private final CacheConfiguration cacheConfiguration;
+    private final Map<GoCacheRegion, CacheConfiguration> cacheConfigurations = new EnumMap<>(GoCacheRegion.class);
     private final TransactionSynchronizationManager transactionSynchronizationManager;
 
     public GoCacheFactory(TransactionSynchronizationManager transactionSynchronizationManager,
                           @Value("${cruise.cache.elements.limit}") int maxElementsInMemory,
                           @Value("${cruise.cache.is.eternal}") boolean eternal) {
         this.transactionSynchronizationManager = transactionSynchronizationManager;
-        cacheConfiguration = new CacheConfiguration("goCache", maxElementsInMemory)
-                .persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE))
-                .eternal(eternal)
-                .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU);
+        for (GoCacheRegion region : GoCacheRegion.values()) {
+            cacheConfigurations.put(region, new CacheConfiguration(region.cacheName(), region.maxElementsInMemory(maxElementsInMemory))
+                    .persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE))
+                    .eternal(eternal)
+                    .memoryStoreEvictionPolicy(region.evictionPolicy()));
+        }
     }
 
     @Bean(name = "goCache")
     public GoCache createCache() {
         CacheManager cacheManager = CacheManager.newInstance(new Configuration().name(getClass().getName()));
-        Cache cache = new Cache(cacheConfiguration);
-        cacheManager.addCache(cache);
-        return new GoCache(cache, transactionSynchronizationManager);
+        Map<GoCacheRegion, Ehcache> regions = new EnumMap<>(GoCacheRegion.class);
+        cacheConfigurations.forEach((region, cacheConfiguration) -> {
+            Cache cache = new Cache(cacheConfiguration);
+            cacheManager.addCache(cache);
+            regions.put(region, cache);
+        });
+        return new GoCache(regions, transactionSynchronizationManager);
     }
 
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.cache;
+
+import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Partitions of the {@link GoCache}, each backed by its own cache with its own size bound, eviction policy and
+ * statistics, so that one busy kind of entry cannot evict everything else.
+ * <p>
+ * Keys are assigned to a region by the class that generated them (see {@link CacheKeyGenerator}), or by the owner
+ * class name they start with, so callers of {@link GoCache} do not need to know about regions. Owners put their keys in
+ * a region with {@link #assign(Class)}. Only keys nobody owns end up in {@link #DEFAULT}, which is why it is the
+ * smallest region.
+ */
+public enum GoCacheRegion {
+    STAGE_HISTORY(25, MemoryStoreEvictionPolicy.LRU),
+    JOB_INSTANCES(15, MemoryStoreEvictionPolicy.LRU),
+    PIPELINE_HISTORY(20, MemoryStoreEvictionPolicy.LRU),
+    MATERIAL_REVISIONS(13, MemoryStoreEvictionPolicy.LRU),
+    USERS(5, MemoryStoreEvictionPolicy.LRU),
+    AGENTS(5, MemoryStoreEvictionPolicy.LRU),
+    ENTITY_DIGESTS(10, MemoryStoreEvictionPolicy.LRU),
+    SETTINGS(2, MemoryStoreEvictionPolicy.LRU),
+    DEFAULT(5, MemoryStoreEvictionPolicy.LRU);
+
+    private static final Map<String, GoCacheRegion> REGIONS_BY_OWNER = new ConcurrentHashMap<>();
+
+    private final int percentageOfElements;
+    private final MemoryStoreEvictionPolicy evictionPolicy;
+
+    GoCacheRegion(int percentageOfElements, MemoryStoreEvictionPolicy evictionPolicy) {
+        this.percentageOfElements = percentageOfElements;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    /**
+     * Puts the keys of {@code owner} in this region. Owners call this from a static initializer, so that it happens
+     * before they generate any key; a key looked up in another region than the one it was put in would never be found
+     * nor removed.
+     */
+    public void assign(Class<?> owner) {
+        GoCacheRegion assigned = REGIONS_BY_OWNER.putIfAbsent(owner.getName(), this);
+        if (assigned != null && assigned != this) {
+            throw new IllegalStateException(String.format("%s already keeps its keys in the %s cache region", owner.getName(), assigned));
+        }
+    }
+
+    public static GoCacheRegion forKey(String key) {
+        for (Map.Entry<String, GoCacheRegion> owner : REGIONS_BY_OWNER.entrySet()) {
+            if (key.startsWith(owner.getKey())) {
+                return owner.getValue();
+            }
+        }
+        return DEFAULT;
+    }
+
+    public String cacheName() {
+        return "goCache." + name().toLowerCase();
+    }
+
+    public int maxElementsInMemory(int totalElementsInMemory) {
+        return Math.max(1, (int) ((long) totalElementsInMemory * percentageOfElements / 100));
+    }
+
+    public MemoryStoreEvictionPolicy evictionPolicy() {
+        return evictionPolicy;
+    }
+}
@@ -36,6 +36,18 @@ public interface JobInstanceDao {
 
     JobInstance updateStateAndResult(JobInstance jobInstance);
 
+    /**
+     * Holds a non-terminal state change in memory, to be written along with others by {@link #flushPendingStateChanges()}.
+     *
+     * @return false if the state change must be written right away using {@link #updateStateAndResult(JobInstance)}
+     */
+    boolean deferStateChange(JobInstance jobInstance);
+
+    /**
+     * @return the job instances whose deferred state changes were written
+     */
+    List<JobInstance> flushPendingStateChanges();
+
     void ignore(JobInstance job);
 
     JobInstance getLatestInProgressBuildByAgentUuid(String uuid);
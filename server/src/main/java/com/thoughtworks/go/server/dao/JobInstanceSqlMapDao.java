@@ -22,6 +22,7 @@ import com.thoughtworks.go.config.elastic.ElasticProfile;
 import com.thoughtworks.go.domain.*;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.cache.LazyCache;
 import com.thoughtworks.go.server.domain.JobStatusListener;
 import com.thoughtworks.go.server.persistence.ArtifactPlanRepository;
@@ -32,12 +33,14 @@ import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.server.ui.SortOrder;
 import com.thoughtworks.go.util.ClonerFactory;
+import com.thoughtworks.go.util.SystemEnvironment;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.Configuration;
 import net.sf.ehcache.config.PersistenceConfiguration;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.slf4j.Logger;
@@ -50,12 +53,20 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 
 import javax.annotation.PreDestroy;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static com.thoughtworks.go.server.database.ReplicaReads.replicaSafe;
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 
 @Component
 public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobInstanceDao, JobStatusListener {
     private static final Logger LOG = LoggerFactory.getLogger(JobInstanceSqlMapDao.class);
+    private static final Set<JobState> WRITE_BEHIND_STATES = EnumSet.of(JobState.Preparing, JobState.Building, JobState.Completing);
+    private static final int WRITE_BEHIND_BATCH_SIZE = 1000;
+
+    static {
+        GoCacheRegion.JOB_INSTANCES.assign(JobInstanceSqlMapDao.class);
+    }
     private final LazyCache latestCompletedCache;
     private final CacheKeyGenerator cacheKeyGenerator;
     private final Cache buildDurationCache;
@@ -66,6 +77,12 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
     private final Cloner cloner = ClonerFactory.instance();
     private final ResourceRepository resourceRepository;
     private final ArtifactPlanRepository artifactPlanRepository;
+    private final boolean writeBehindStateChanges;
+    // deferred state changes move from pending to flushing while a flush writes them, and are forgotten once written
+    private final Object stateChangesLock = new Object();
+    private final Object flushLock = new Object();
+    private volatile Map<Long, JobInstance> pendingStateChanges = new ConcurrentHashMap<>();
+    private volatile Map<Long, JobInstance> flushingStateChanges = Map.of();
 
     @Autowired
     public JobInstanceSqlMapDao(EnvironmentVariableDao environmentVariableDao,
@@ -76,7 +93,8 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
                                 TransactionSynchronizationManager transactionSynchronizationManager,
                                 ResourceRepository resourceRepository,
                                 ArtifactPlanRepository artifactPlanRepository,
-                                JobAgentMetadataDao jobAgentMetadataDao) {
+                                JobAgentMetadataDao jobAgentMetadataDao,
+                                SystemEnvironment systemEnvironment) {
         super(goCache, sqlSessionFactory);
         this.environmentVariableDao = environmentVariableDao;
         this.transactionTemplate = transactionTemplate;
@@ -85,6 +103,7 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
         this.resourceRepository = resourceRepository;
         this.artifactPlanRepository = artifactPlanRepository;
         this.jobAgentMetadataDao = jobAgentMetadataDao;
+        this.writeBehindStateChanges = systemEnvironment.shouldWriteBehindJobStateChanges();
         this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
         this.latestCompletedCache = new LazyCache(createCacheIfRequired(getClass().getName()), transactionSynchronizationManager);
     }
@@ -108,6 +127,10 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
 
     @Override
     public JobInstance buildByIdWithTransitions(long buildInstanceId) {
+        JobInstance pending = deferredStateChange(buildInstanceId);
+        if (pending != null) {
+            return cloner.deepClone(pending);
+        }
         String cacheKey = cacheKeyForJobInstanceWithTransitions(buildInstanceId);
         synchronized (cacheKey) {
             JobInstance instance = goCache.get(cacheKey);
@@ -297,20 +320,10 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
             transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
                 @Override
                 public void afterCommit() {
-                    // Methods not extracted in order to make synchronization visible.
-                    synchronized (cacheKeyForJobPlan(jobInstance.getId())) {
-                        removeCachedJobPlan(jobInstance);
-                    }
-                    synchronized (cacheKeyForActiveJobIds()) {
-                        goCache.remove(cacheKeyForActiveJobIds());
-                    }
-                    String activeJobKey = cacheKeyForActiveJob(jobInstance.getId());
-                    synchronized (activeJobKey) {
-                        goCache.remove(activeJobKey);
-                    }
-                    removeCachedJobInstance(jobInstance);
+                    removeStateDependentCaches(jobInstance);
                 }
             });
+            writePendingStateChange(jobInstance.getId());
             logIfJobIsCompleted(jobInstance);
             updateStatus(jobInstance);
             updateResult(jobInstance);
@@ -319,6 +332,137 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
 
     }
 
+    @Override
+    public boolean deferStateChange(JobInstance jobInstance) {
+        if (!writeBehindStateChanges || jobInstance.isCopy() || !WRITE_BEHIND_STATES.contains(jobInstance.getState())) {
+            return false;
+        }
+        synchronized (stateChangesLock) {
+            pendingStateChanges.put(jobInstance.getId(), cloner.deepClone(jobInstance));
+        }
+        return true;
+    }
+
+    @Override
+    public List<JobInstance> flushPendingStateChanges() {
+        synchronized (flushLock) {
+            List<JobInstance> jobInstances;
+            synchronized (stateChangesLock) {
+                if (pendingStateChanges.isEmpty()) {
+                    return List.of();
+                }
+                // flushing is set first, so that a reader always finds a change in one of the two
+                flushingStateChanges = pendingStateChanges;
+                pendingStateChanges = new ConcurrentHashMap<>();
+                jobInstances = new ArrayList<>(flushingStateChanges.values());
+            }
+            boolean written = false;
+            try {
+                transactionTemplate.execute(status -> {
+                    transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCommit() {
+                            jobInstances.forEach(JobInstanceSqlMapDao.this::removeStateDependentCaches);
+                        }
+                    });
+                    writeStateChanges(jobInstances);
+                    return null;
+                });
+                written = true;
+            } finally {
+                if (!written) {
+                    // try again on the next flush, unless a newer change has been deferred since
+                    synchronized (stateChangesLock) {
+                        jobInstances.forEach(jobInstance -> pendingStateChanges.putIfAbsent(jobInstance.getId(), jobInstance));
+                    }
+                }
+                // only forgotten once written, so that readers never see the state from before the change
+                flushingStateChanges = Map.of();
+            }
+            LOG.debug("Wrote {} deferred job state changes", jobInstances.size());
+            return jobInstances;
+        }
+    }
+
+    private JobInstance deferredStateChange(long jobId) {
+        // pending first, as that is where the newest change of a job is
+        JobInstance pending = pendingStateChanges.get(jobId);
+        return pending != null ? pending : flushingStateChanges.get(jobId);
+    }
+
+    private void writePendingStateChange(long jobId) {
+        if (!writeBehindStateChanges) {
+            return;
+        }
+        JobInstance pending;
+        boolean beingFlushed;
+        synchronized (stateChangesLock) {
+            pending = pendingStateChanges.remove(jobId);
+            beingFlushed = flushingStateChanges.containsKey(jobId);
+        }
+        if (beingFlushed) {
+            // an older change of the job is being flushed, it has to be written before this one
+            synchronized (flushLock) {
+                // a failed flush has put the older change back, which the one taken before supersedes
+                JobInstance putBack;
+                synchronized (stateChangesLock) {
+                    putBack = pendingStateChanges.remove(jobId);
+                }
+                writeStateChange(pending != null ? pending : putBack);
+            }
+        } else {
+            writeStateChange(pending);
+        }
+    }
+
+    private void writeStateChange(JobInstance pending) {
+        if (pending != null) {
+            writeStateChanges(List.of(pending));
+        }
+    }
+
+    private void writeStateChanges(List<JobInstance> jobInstances) {
+        Map<JobState, Map<JobResult, List<Long>>> idsByStateAndResult = new EnumMap<>(JobState.class);
+        List<JobStateTransition> transitions = new ArrayList<>();
+        for (JobInstance jobInstance : jobInstances) {
+            idsByStateAndResult.computeIfAbsent(jobInstance.getState(), k -> new EnumMap<>(JobResult.class))
+                .computeIfAbsent(jobInstance.getResult(), k -> new ArrayList<>())
+                .add(jobInstance.getId());
+            for (JobStateTransition transition : jobInstance.getTransitions()) {
+                if (!transition.hasId()) {
+                    transition.setJobId(jobInstance.getId());
+                    transition.setStageId(jobInstance.getStageId());
+                    transitions.add(transition);
+                }
+            }
+        }
+
+        latestCompletedCache.flushOnCommit();
+        idsByStateAndResult.forEach((state, idsByResult) -> idsByResult.forEach((result, ids) -> {
+            for (List<Long> chunk : ListUtils.partition(ids, WRITE_BEHIND_BATCH_SIZE)) {
+                getSqlMapClientTemplate().update("updateStatesAndResults", arguments("state", state).and("result", result).and("ids", chunk).asMap());
+            }
+        }));
+        for (List<JobStateTransition> chunk : ListUtils.partition(transitions, WRITE_BEHIND_BATCH_SIZE)) {
+            getSqlMapClientTemplate().insert("insertTransitions", arguments("transitions", chunk).asMap());
+        }
+    }
+
+    private void removeStateDependentCaches(JobInstance jobInstance) {
+        // Methods not extracted in order to make synchronization visible.
+        synchronized (cacheKeyForJobPlan(jobInstance.getId())) {
+            removeCachedJobPlan(jobInstance);
+        }
+        synchronized (cacheKeyForActiveJobIds()) {
+            goCache.remove(cacheKeyForActiveJobIds());
+        }
+        String activeJobKey = cacheKeyForActiveJob(jobInstance.getId());
+        synchronized (activeJobKey) {
+            goCache.remove(activeJobKey);
+        }
+        removeCachedJobInstance(jobInstance);
+    }
+
     private void removeCachedJobInstance(JobInstance jobInstance) {
         String cacheKeyOfJob = cacheKeyForJobInstanceWithTransitions(jobInstance.getId());
         synchronized (cacheKeyOfJob) {
@@ -461,8 +605,10 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
     }
 
     private void saveTransitions(JobInstance jobInstance) {
+        // transitions of an instance read while its state change was pending may have been written by a flush since
+        Set<String> writtenStates = writeBehindStateChanges ? new HashSet<>(getSqlMapClientTemplate().queryForList("persistedTransitionStates", jobInstance.getId())) : Set.of();
         for (JobStateTransition transition : jobInstance.getTransitions()) {
-            if (!transition.hasId()) {
+            if (!transition.hasId() && !writtenStates.contains(transition.getCurrentState().name())) {
                 saveTransition(jobInstance, transition);
             }
         }
@@ -491,7 +637,7 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
         Map<String, Object> params = arguments("pipelineName", pipelineName)
             .and("stageName", stageName)
             .and("jobConfigName", jobConfigName).asMap();
-        return getSqlMapClientTemplate().queryForObject("getOldestAndLatestJobRun", params);
+        return replicaSafe(() -> getSqlMapClientTemplate().queryForObject("getOldestAndLatestJobRun", params));
     }
 
     @Override
@@ -519,6 +665,11 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
 
     @PreDestroy
     public void destroy() {
+        try {
+            flushPendingStateChanges();
+        } catch (Exception e) {
+            LOG.error("Could not write deferred job state changes on shutdown", e);
+        }
         buildDurationCache.flushAll(new Date());
         latestCompletedCache.destroy();
     }
@@ -68,6 +68,8 @@ public interface PipelineDao {
 
     PipelineInstanceModels loadHistoryForDashboard(List<String> pipelineNames);
 
+    void cachePauseStates(List<String> pipelineNames);
+
     PipelineInstanceModels loadHistory(String pipelineName, FeedModifier modifier, long cursor, int pageSize);
 
     PipelineRunIdInfo getOldestAndLatestPipelineId(String pipelineName);
@@ -27,8 +27,10 @@ import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModel;
 import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModels;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.cache.LazyCache;
 import com.thoughtworks.go.server.database.Database;
+import com.thoughtworks.go.server.domain.PipelinePauseState;
 import com.thoughtworks.go.server.domain.StageStatusListener;
 import com.thoughtworks.go.server.initializers.Initializer;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
@@ -46,6 +48,7 @@ import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.config.Configuration;
 import net.sf.ehcache.config.PersistenceConfiguration;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.jetbrains.annotations.TestOnly;
 import org.jetbrains.annotations.VisibleForTesting;
@@ -60,6 +63,7 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 
 import java.util.*;
 
+import static com.thoughtworks.go.server.database.ReplicaReads.replicaSafe;
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -67,6 +71,11 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initializer, PipelineDao, StageStatusListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(PipelineSqlMapDao.class);
     private static final Marker FATAL = MarkerFactory.getMarker("FATAL");
+    private static final int PAUSE_STATES_CHUNK_SIZE = 1000;
+
+    static {
+        GoCacheRegion.PIPELINE_HISTORY.assign(PipelineSqlMapDao.class);
+    }
     private final LazyCache pipelineByBuildIdCache;
     private final CacheKeyGenerator cacheKeyGenerator;
     private final StageDao stageDao;
@@ -478,28 +487,38 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
     }
 
     private List<Long> findPipelineIds(String pipelineName, FeedModifier modifier, long cursor, int pageSize) {
+        if (modifier == FeedModifier.Latest) {
+            return latestPipelineIds(pipelineName, pageSize);
+        }
         Map<String, Object> params =
             arguments("pipelineName", pipelineName)
                 .and("cursor", cursor)
                 .and("limit", pageSize).asMap();
-        return getSqlMapClientTemplate().queryForList("getPipelineIds" + modifier.suffix(), params);
+        return replicaSafe(() -> getSqlMapClientTemplate().queryForList("getPipelineIds" + modifier.suffix(), params));
     }
 
     @Override
     public PipelineRunIdInfo getOldestAndLatestPipelineId(String pipelineName) {
         Map<String, Object> params = Map.of("pipelineName", pipelineName);
-        return getSqlMapClientTemplate().queryForObject("getOldestAndLatestPipelineRun", params);
+        return replicaSafe(() -> getSqlMapClientTemplate().queryForObject("getOldestAndLatestPipelineRun", params));
     }
 
     @Override
     public PipelineInstanceModels findMatchingPipelineInstances(String pipelineName, String pattern, int limit) {
-        Map<String, Object> args = Map.of(
+        Map<String, Object> args = new HashMap<>(Map.of(
             "pipelineName", pipelineName,
             "pattern", "%" + pattern.toLowerCase() + "%",
             "rawPattern", pattern.toLowerCase(),
-            "limit", limit);
+            "limit", limit));
         long begin = System.currentTimeMillis();
-        List<PipelineInstanceModel> matchingPIMs = getSqlMapClientTemplate().queryForList("findMatchingPipelineInstances", args);
+        // only join the runs with the modifications the search index found, rather than matching every modification
+        List<Long> modificationIds = materialRepository.findModificationIdsMatching(pipelineName, pattern);
+        String matchingQuery = "findMatchingPipelineInstances";
+        if (modificationIds != null) {
+            args.put("modificationIds", modificationIds);
+            matchingQuery = "findMatchingPipelineInstancesAmongModifications";
+        }
+        List<PipelineInstanceModel> matchingPIMs = getSqlMapClientTemplate().queryForList(matchingQuery, args);
         List<PipelineInstanceModel> exactMatchingPims = getSqlMapClientTemplate().queryForList("findExactMatchingPipelineInstances", args);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("[Compare Pipelines] Query initiated for pipeline {} with pattern {}. Query execution took {} milliseconds", pipelineName, pattern, System.currentTimeMillis() - begin);
@@ -509,25 +528,31 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
     }
 
     List<Long> findPipelineIds(String pipelineName, int limit, int offset) {
-        if (wantLatestIdOnly(limit, offset)) {
-            String cacheKey = cacheKeyForLatestPipelineIdByPipelineName(pipelineName);
-            List<Long> ids = goCache.get(cacheKey);
-            if (ids == null) {
-                synchronized (cacheKey) {
-                    ids = goCache.get(cacheKey);
-                    if (ids == null) {
-                        ids = fetchPipelineIds(pipelineName, limit, offset);
-                        goCache.put(cacheKey, ids);
-                    }
-                }
-            }
-            return ids;
-        } //dont bother caching if looking for more than the latest, because limit and offset may changed
+        if (offset == 0) {
+            return latestPipelineIds(pipelineName, limit);
+        } //dont bother caching pages past the first one, because they shift every time the pipeline runs
         return fetchPipelineIds(pipelineName, limit, offset);
     }
 
-    private boolean wantLatestIdOnly(int limit, int offset) {
-        return limit == 1 && offset == 0;
+    /**
+     * The ids of the latest runs of a pipeline are remembered per page size, until the next run of the pipeline is
+     * saved. They are always read from the primary database, so that a lagging replica cannot leave them stale.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> latestPipelineIds(String pipelineName, int limit) {
+        String cacheKey = cacheKeyForLatestPipelineIdByPipelineName(pipelineName);
+        String subKey = String.valueOf(limit);
+        List<Long> ids = (List<Long>) goCache.get(cacheKey, subKey);
+        if (ids == null) {
+            synchronized (cacheKey) {
+                ids = (List<Long>) goCache.get(cacheKey, subKey);
+                if (ids == null) {
+                    ids = fetchPipelineIds(pipelineName, limit, 0);
+                    goCache.put(cacheKey, subKey, ids);
+                }
+            }
+        }
+        return ids;
     }
 
     private List<Long> fetchPipelineIds(String pipelineName, int limit, int offset) {
@@ -544,22 +569,59 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         return cacheKeyGenerator.generate("latestPipelineIdByPipelineName", pipelineName.toLowerCase());
     }
 
+    /**
+     * Runs are cached one by one, like {@link #loadHistory(long)} does, and are dropped from the cache when one of
+     * their stages changes. So only the runs which changed since they were last read are loaded from the database.
+     * Runs with an active stage are not cached, as their jobs change without any of their stages changing.
+     */
     private PipelineInstanceModels loadHistory(String pipelineName, List<Long> ids) {
         if (ids.isEmpty()) {
             return PipelineInstanceModels.createPipelineInstanceModels();
         }
 
-        Map<String, Object> args = arguments("pipelineName", pipelineName)
-            .and("from", Collections.min(ids))
-            .and("to", Collections.max(ids)).asMap();
-        PipelineInstanceModels history = PipelineInstanceModels.createPipelineInstanceModels(
-            getSqlMapClientTemplate().queryForList("getPipelineHistoryByName", args));
-        for (PipelineInstanceModel pipelineInstanceModel : history) {
-            loadPipelineHistoryBuildCause(pipelineInstanceModel);
+        Map<Long, PipelineInstanceModel> runs = new HashMap<>();
+        List<Long> idsToLoad = new ArrayList<>();
+        for (Long id : ids) {
+            PipelineInstanceModel cached = goCache.get(pipelineHistoryCacheKey(id));
+            if (cached == null) {
+                idsToLoad.add(id);
+            } else {
+                runs.put(id, cached);
+            }
+        }
+
+        if (!idsToLoad.isEmpty()) {
+            Map<String, Object> args = arguments("pipelineName", pipelineName)
+                .and("from", Collections.min(idsToLoad))
+                .and("to", Collections.max(idsToLoad)).asMap();
+            List<PipelineInstanceModel> loaded = getSqlMapClientTemplate().queryForList("getPipelineHistoryByName", args);
+            for (PipelineInstanceModel pipelineInstanceModel : loaded) {
+                if (!pipelineInstanceModel.isAnyStageActive()) {
+                    cacheHistoryIfAbsent(pipelineInstanceModel);
+                }
+                runs.put(pipelineInstanceModel.getId(), pipelineInstanceModel);
+            }
+        }
+
+        PipelineInstanceModels history = PipelineInstanceModels.createPipelineInstanceModels();
+        for (Long id : ids) {
+            PipelineInstanceModel run = runs.get(id);
+            if (run != null) {
+                history.add(loadPipelineHistoryBuildCause(cloner.deepClone(run)));
+            }
         }
         return history;
     }
 
+    private void cacheHistoryIfAbsent(PipelineInstanceModel pipelineInstanceModel) {
+        String cacheKey = pipelineHistoryCacheKey(pipelineInstanceModel.getId());
+        synchronized (cacheKey) {
+            if (goCache.get(cacheKey) == null) {
+                goCache.put(cacheKey, pipelineInstanceModel);
+            }
+        }
+    }
+
     @Override
     public int count(String pipelineName) {
         return getSqlMapClientTemplate().queryForObject("getPipelineHistoryCount", pipelineName);
@@ -642,6 +704,28 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         return result;
     }
 
+    @Override
+    public void cachePauseStates(List<String> pipelineNames) {
+        for (List<String> chunk : ListUtils.partition(pipelineNames, PAUSE_STATES_CHUNK_SIZE)) {
+            List<PipelinePauseState> pauseStates = getSqlMapClientTemplate().queryForList("getPipelinePauseStates", Map.of("pipelineNames", chunk));
+
+            Map<String, PipelinePauseInfo> pauseStatesByName = new HashMap<>();
+            for (PipelinePauseState pauseState : pauseStates) {
+                PipelinePauseInfo pauseInfo = pauseState.getPauseInfo();
+                pauseStatesByName.put(pauseState.getPipelineName().toLowerCase(), pauseInfo == null ? PipelinePauseInfo.NULL : pauseInfo);
+            }
+
+            for (String pipelineName : chunk) {
+                String cacheKey = cacheKeyForPauseState(pipelineName);
+                synchronized (cacheKey) {
+                    if (goCache.get(cacheKey) == null) {
+                        goCache.put(cacheKey, pauseStatesByName.getOrDefault(pipelineName.toLowerCase(), PipelinePauseInfo.NULL));
+                    }
+                }
+            }
+        }
+    }
+
     String cacheKeyForPauseState(String pipelineName) {
         return cacheKeyGenerator.generate("cacheKeyForPauseState", pipelineName.toLowerCase());
     }
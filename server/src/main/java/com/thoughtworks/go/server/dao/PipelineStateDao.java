@@ -21,6 +21,7 @@ import com.thoughtworks.go.domain.Stage;
 import com.thoughtworks.go.domain.StageIdentifier;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.database.Database;
 import com.thoughtworks.go.server.domain.StageStatusListener;
 import com.thoughtworks.go.server.transaction.AfterCompletionCallback;
@@ -28,6 +29,7 @@ import com.thoughtworks.go.server.transaction.SqlMapClientDaoSupport;
 import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.hibernate.Criteria;
 import org.hibernate.SessionFactory;
@@ -41,10 +43,18 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class PipelineStateDao extends SqlMapClientDaoSupport implements StageStatusListener {
+    private static final int CHUNK_SIZE = 1000;
+
+    static {
+        GoCacheRegion.PIPELINE_HISTORY.assign(PipelineStateDao.class);
+    }
+
     private TransactionTemplate transactionTemplate;
     private TransactionSynchronizationManager transactionSynchronizationManager;
     private SessionFactory sessionFactory;
@@ -171,6 +181,40 @@ public class PipelineStateDao extends SqlMapClientDaoSupport implements StageSta
         }
     }
 
+    /**
+     * Loads the lock state of many pipelines into the cache, a chunk of pipelines per query, so that looking them up
+     * one by one afterwards does not take a query per pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    public void cachePipelineStates(List<String> pipelineNames) {
+        for (List<String> chunk : ListUtils.partition(pipelineNames, CHUNK_SIZE)) {
+            List<PipelineState> pipelineStates = transactionTemplate.execute(status -> sessionFactory.getCurrentSession()
+                    .createCriteria(PipelineState.class)
+                    .add(Restrictions.in("pipelineName", chunk))
+                    .setCacheable(false).list());
+
+            Map<String, PipelineState> statesByName = new HashMap<>();
+            for (PipelineState pipelineState : pipelineStates) {
+                statesByName.put(pipelineState.getPipelineName().toLowerCase(), pipelineState);
+            }
+
+            for (String pipelineName : chunk) {
+                String cacheKey = pipelineLockStateCacheKey(pipelineName);
+                synchronized (cacheKey) {
+                    if (goCache.get(cacheKey) != null) {
+                        continue;
+                    }
+                    PipelineState pipelineState = statesByName.get(pipelineName.toLowerCase());
+                    if (pipelineState != null && pipelineState.isLocked()) {
+                        StageIdentifier lockedBy = getSqlMapClientTemplate().queryForObject("lockedPipeline", pipelineState.getLockedByPipelineId());
+                        pipelineState.setLockedBy(lockedBy);
+                    }
+                    goCache.put(cacheKey, pipelineState == null ? PipelineState.NOT_LOCKED : pipelineState);
+                }
+            }
+        }
+    }
+
     @VisibleForTesting
     String pipelineLockStateCacheKey(String pipelineName) {
         return cacheKeyGenerator.generate("lockedPipeline", pipelineName.toLowerCase());
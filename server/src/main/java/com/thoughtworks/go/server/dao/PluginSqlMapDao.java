@@ -19,6 +19,7 @@ import com.thoughtworks.go.domain.NullPlugin;
 import com.thoughtworks.go.domain.Plugin;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import org.hibernate.Query;
 import org.hibernate.SessionFactory;
@@ -35,6 +36,10 @@ import java.util.List;
 
 @Component
 public class PluginSqlMapDao extends HibernateDaoSupport implements PluginDao {
+    static {
+        GoCacheRegion.SETTINGS.assign(PluginSqlMapDao.class);
+    }
+
     private final CacheKeyGenerator cacheKeyGenerator;
     private final SessionFactory sessionFactory;
     private final TransactionTemplate transactionTemplate;
@@ -101,6 +101,8 @@ public interface StageDao extends JobDurationStrategy {
 
     void clearCachedStage(StageIdentifier stageIdentifier);
 
+    void clearJobStatusDependentCaches(long stageId, StageIdentifier stageIdentifier);
+
     int getTotalStageCountForChart(String pipelineName, String stageName);
 
     List<StageIdentity> findLatestStageInstances();
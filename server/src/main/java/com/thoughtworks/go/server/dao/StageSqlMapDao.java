@@ -29,6 +29,7 @@ import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModel;
 import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModels;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.domain.JobStatusListener;
 import com.thoughtworks.go.server.domain.StageIdentity;
 import com.thoughtworks.go.server.domain.StageStatusListener;
@@ -56,12 +57,17 @@ import java.time.Duration;
 import java.util.*;
 import java.util.function.Supplier;
 
+import static com.thoughtworks.go.server.database.ReplicaReads.replicaSafe;
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static java.lang.String.format;
 
 @Component
 public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao, StageStatusListener, JobStatusListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(StageSqlMapDao.class);
+
+    static {
+        GoCacheRegion.STAGE_HISTORY.assign(StageSqlMapDao.class);
+    }
     private final CacheKeyGenerator cacheKeyGenerator;
     private final TransactionTemplate transactionTemplate;
     private final JobInstanceSqlMapDao buildInstanceDao;
@@ -117,6 +123,8 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         readWriteLock.acquireWriteLock(mutex);
         try {
             if (!clearOnlyHistoryPages) {
+                // not incremented instead: this runs after the commit, so a page view in between may already have
+                // counted the new run, and the cache drops puts while the transaction is still bound to the thread
                 goCache.remove(cacheKeyForStageCount(pipelineName, stage.getName()));
                 goCache.remove(cacheKeyForStageOffset(stage));
             }
@@ -392,7 +400,8 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
                 .and("offset", offset)
                 .and("limit", pageSize)
                 .asMap();
-        return new Stages(getSqlMapClientTemplate().queryForList("findStageHistoryForChartPerPipeline", args));
+        List<Stage> stages = replicaSafe(() -> getSqlMapClientTemplate().queryForList("findStageHistoryForChartPerPipeline", args));
+        return new Stages(stages);
     }
 
     @Override
@@ -466,7 +475,7 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
     public PipelineRunIdInfo getOldestAndLatestStageInstanceId(String pipelineName, String stageName) {
         Map<String, Object> params = arguments("pipelineName", pipelineName)
             .and("stageName", stageName).asMap();
-        return getSqlMapClientTemplate().queryForObject("getOldestAndLatestStageInstanceRun", params);
+        return replicaSafe(() -> getSqlMapClientTemplate().queryForObject("getOldestAndLatestStageInstanceRun", params));
     }
 
     @Override
@@ -725,7 +734,8 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         clearJobStatusDependentCaches(job.getStageId(), job.getIdentifier().getStageIdentifier());
     }
 
-    private void clearJobStatusDependentCaches(long stageId, StageIdentifier stageIdentifier) {
+    @Override
+    public void clearJobStatusDependentCaches(long stageId, StageIdentifier stageIdentifier) {
         removeFromCache(cacheKeyForStageById(stageId));
         clearCachedStage(stageIdentifier);
         clearCachedAllStages(stageIdentifier.getPipelineName(), stageIdentifier.getPipelineCounter(), stageIdentifier.getStageName());
@@ -23,18 +23,24 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /* Understands how to cache dashboard statuses, for every pipeline. */
 @Component
 public class GoDashboardCache {
+    static final int MAX_REMOVED_PIPELINES_TRACKED = 1000;
+
     private final TimeStampBasedCounter timeStampBasedCounter;
     /**
-     * Assumption: The put() and replaceAllEntriesInCacheWith() methods, which change this cache,
+     * Assumption: The put(), putAll() and replaceAllEntriesInCacheWith() methods, which change this cache,
      * will always be called from the same thread (queueProcessor in GoDashboardActivityListener). Even get() will be.
      * So, not surrounding it with a synchronizedMap. Also, uses {@link LinkedHashMap} to preserve insertion order. That
      * order is not very important in this case, but it comes for free (almost) because of the map.
      */
     private final Map<CaseInsensitiveString, GoDashboardPipeline> cache = new LinkedHashMap<>();
+    /* Pipelines removed one by one since the last full replacement, so that dashboard clients can be told about them. */
+    private final Map<CaseInsensitiveString, Long> removedPipelines = new LinkedHashMap<>();
+    private long structureLastChangedTimeStamp;
 
     private volatile GoDashboardPipelines dashboardPipelines;
 
@@ -45,17 +51,42 @@ public class GoDashboardCache {
     }
 
     public void put(GoDashboardPipeline pipeline) {
-        cache.put(pipeline.name(), pipeline);
+        if (putPipeline(pipeline)) {
+            structureLastChangedTimeStamp = timeStampBasedCounter.getNext();
+        }
+        cacheHasChanged();
+    }
+
+    public void putAll(List<GoDashboardPipeline> pipelines) {
+        boolean structureChanged = false;
+        for (GoDashboardPipeline pipeline : pipelines) {
+            structureChanged |= putPipeline(pipeline);
+        }
+        if (structureChanged) {
+            structureLastChangedTimeStamp = timeStampBasedCounter.getNext();
+        }
         cacheHasChanged();
     }
 
     public void remove(CaseInsensitiveString pipelineName) {
-        cache.remove(pipelineName);
+        if (cache.remove(pipelineName) == null) {
+            return;
+        }
+
+        if (removedPipelines.size() >= MAX_REMOVED_PIPELINES_TRACKED) {
+            removedPipelines.clear();
+            structureLastChangedTimeStamp = timeStampBasedCounter.getNext();
+        } else {
+            removedPipelines.put(pipelineName, timeStampBasedCounter.getNext());
+        }
+        cacheHasChanged();
     }
 
     public void replaceAllEntriesInCacheWith(List<GoDashboardPipeline> newPipelinesToCache) {
         cache.clear();
         cache.putAll(createMapFor(newPipelinesToCache));
+        removedPipelines.clear();
+        structureLastChangedTimeStamp = timeStampBasedCounter.getNext();
         cacheHasChanged();
     }
 
@@ -63,8 +94,18 @@ public class GoDashboardCache {
         return dashboardPipelines;
     }
 
+    /**
+     * @return true if the pipeline is new or has moved to another group, which dashboard clients cannot tell from the
+     * pipeline itself, so they have to reload
+     */
+    private boolean putPipeline(GoDashboardPipeline pipeline) {
+        GoDashboardPipeline previous = cache.put(pipeline.name(), pipeline);
+        removedPipelines.remove(pipeline.name());
+        return previous == null || !Objects.equals(previous.groupName(), pipeline.groupName());
+    }
+
     private void cacheHasChanged() {
-        dashboardPipelines = new GoDashboardPipelines(new HashMap<>(cache), timeStampBasedCounter);
+        dashboardPipelines = new GoDashboardPipelines(new HashMap<>(cache), new HashMap<>(removedPipelines), structureLastChangedTimeStamp, timeStampBasedCounter);
     }
 
     private Map<CaseInsensitiveString, GoDashboardPipeline> createMapFor(List<GoDashboardPipeline> pipelines) {
@@ -0,0 +1,59 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dashboard;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+
+import java.util.List;
+
+/* Understands what changed on a user's dashboard since a version of it the user has already seen. */
+public class GoDashboardChanges {
+    private final long version;
+    private final boolean reloadRequired;
+    private final List<GoDashboardPipeline> updatedPipelines;
+    private final List<CaseInsensitiveString> removedPipelines;
+
+    private GoDashboardChanges(long version, boolean reloadRequired, List<GoDashboardPipeline> updatedPipelines, List<CaseInsensitiveString> removedPipelines) {
+        this.version = version;
+        this.reloadRequired = reloadRequired;
+        this.updatedPipelines = updatedPipelines;
+        this.removedPipelines = removedPipelines;
+    }
+
+    public static GoDashboardChanges reload(long version) {
+        return new GoDashboardChanges(version, true, List.of(), List.of());
+    }
+
+    public static GoDashboardChanges of(long version, List<GoDashboardPipeline> updatedPipelines, List<CaseInsensitiveString> removedPipelines) {
+        return new GoDashboardChanges(version, false, updatedPipelines, removedPipelines);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean isReloadRequired() {
+        return reloadRequired;
+    }
+
+    public List<GoDashboardPipeline> updatedPipelines() {
+        return updatedPipelines;
+    }
+
+    public List<CaseInsensitiveString> removedPipelines() {
+        return removedPipelines;
+    }
+}
@@ -35,6 +35,8 @@ import com.thoughtworks.go.server.service.PipelineLockService;
 import com.thoughtworks.go.server.service.PipelinePauseService;
 import com.thoughtworks.go.server.service.PipelineUnlockApiService;
 import com.thoughtworks.go.server.service.SchedulingCheckerService;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.SetUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +44,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 import static com.thoughtworks.go.config.CaseInsensitiveString.str;
 import static com.thoughtworks.go.domain.buildcause.BuildCause.createWithEmptyModifications;
@@ -53,6 +57,7 @@ import static com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceM
 @Component
 public class GoDashboardCurrentStateLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(GoDashboardCurrentStateLoader.class);
+    static final int WARM_UP_CHUNK_SIZE = 100;
     private final PipelineDao pipelineDao;
     private final TriggerMonitor triggerMonitor;
     private final PipelinePauseService pipelinePauseService;
@@ -61,7 +66,10 @@ public class GoDashboardCurrentStateLoader {
     private final SchedulingCheckerService schedulingCheckerService;
     private final GoConfigPipelinePermissionsAuthority permissionsAuthority;
     private final TimeStampBasedCounter timeStampBasedCounter;
-    private boolean everLoadedCurrentState = false;
+    private final SystemEnvironment systemEnvironment;
+    private volatile boolean everLoadedCurrentState = false;
+    private volatile int pipelinesBeingLoaded;
+    private volatile int pipelinesLoaded;
     private PipelineInstanceModels historyForDashboard = PipelineInstanceModels.createPipelineInstanceModels();
     private Set<CaseInsensitiveString> lastKnownPipelineNames = new HashSet<>();
 
@@ -69,7 +77,8 @@ public class GoDashboardCurrentStateLoader {
     public GoDashboardCurrentStateLoader(PipelineDao pipelineDao, TriggerMonitor triggerMonitor,
                                          PipelinePauseService pipelinePauseService, PipelineLockService pipelineLockService,
                                          PipelineUnlockApiService pipelineUnlockApiService, SchedulingCheckerService schedulingCheckerService,
-                                         GoConfigPipelinePermissionsAuthority permissionsAuthority, TimeStampBasedCounter timeStampBasedCounter) {
+                                         GoConfigPipelinePermissionsAuthority permissionsAuthority, TimeStampBasedCounter timeStampBasedCounter,
+                                         SystemEnvironment systemEnvironment) {
         this.pipelineDao = pipelineDao;
         this.triggerMonitor = triggerMonitor;
         this.pipelinePauseService = pipelinePauseService;
@@ -78,9 +87,22 @@ public class GoDashboardCurrentStateLoader {
         this.schedulingCheckerService = schedulingCheckerService;
         this.permissionsAuthority = permissionsAuthority;
         this.timeStampBasedCounter = timeStampBasedCounter;
+        this.systemEnvironment = systemEnvironment;
     }
 
     public List<GoDashboardPipeline> allPipelines(CruiseConfig config) {
+        return allPipelines(config, chunk -> {
+        });
+    }
+
+    /**
+     * Loads the current state of every pipeline in the config. The pipelines are loaded in chunks, in parallel, most
+     * recently active pipelines first, and every chunk is handed to {@code onChunkLoaded} on the calling thread as soon
+     * as it is loaded, so that a dashboard can be shown before all pipelines are loaded.
+     *
+     * @return the current state of every pipeline, in config order
+     */
+    public List<GoDashboardPipeline> allPipelines(CruiseConfig config, Consumer<List<GoDashboardPipeline>> onChunkLoaded) {
         List<CaseInsensitiveString> allPipelineNames = config.getAllPipelineNames();
 
         HashSet<CaseInsensitiveString> currentPipelineNames = new HashSet<>(allPipelineNames);
@@ -89,7 +111,11 @@ public class GoDashboardCurrentStateLoader {
         Collection<CaseInsensitiveString> pipelinesToAdd = SetUtils.difference(currentPipelineNames, lastKnownPipelineNames);
 
         if (!pipelinesToAdd.isEmpty()) {
-            historyForDashboard.addAll(loadHistoryForPipelines(new ArrayList<>(CaseInsensitiveString.toStringList(pipelinesToAdd))));
+            List<String> pipelineNamesToAdd = new ArrayList<>(CaseInsensitiveString.toStringList(pipelinesToAdd));
+            historyForDashboard.addAll(loadHistoryForPipelines(pipelineNamesToAdd));
+            // load the states of the new pipelines in bulk, rather than a query per pipeline while populating them below
+            pipelineDao.cachePauseStates(pipelineNamesToAdd);
+            pipelineLockService.cacheLockStates(pipelineNamesToAdd);
         }
 
         for (CaseInsensitiveString pipelineNameToRemove : new ArrayList<>(pipelinesToRemove)) {
@@ -101,22 +127,109 @@ public class GoDashboardCurrentStateLoader {
         LOGGER.debug("Loading permissions from authority");
         final Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions = permissionsAuthority.pipelinesAndTheirPermissions();
 
-        final List<GoDashboardPipeline> pipelines = new ArrayList<>(1024);
+        final Map<CaseInsensitiveString, PipelineInstanceModels> historyByPipeline = historyByPipeline();
+        final List<PipelineToLoad> pipelinesToLoad = new ArrayList<>(1024);
+        config.accept((PipelineGroupVisitor) group -> group.accept(pipelineConfig -> pipelinesToLoad.add(new PipelineToLoad(pipelinesToLoad.size(), pipelineConfig, group))));
+
+        final GoDashboardPipeline[] pipelines = new GoDashboardPipeline[pipelinesToLoad.size()];
+        pipelinesBeingLoaded = pipelines.length;
+        pipelinesLoaded = 0;
 
         LOGGER.debug("Populating dashboard pipelines");
-        config.accept((PipelineGroupVisitor) group -> group.accept(pipelineConfig -> {
+        List<List<PipelineToLoad>> chunks = ListUtils.partition(byRecentActivity(pipelinesToLoad, historyByPipeline), WARM_UP_CHUNK_SIZE);
+        int threads = Math.min(chunks.size(), systemEnvironment.get(SystemEnvironment.DASHBOARD_WARM_UP_THREADS));
+        if (threads <= 1) {
+            for (List<PipelineToLoad> chunk : chunks) {
+                chunkLoaded(chunk, load(chunk, pipelinesAndTheirPermissions, historyByPipeline), pipelines, onChunkLoaded);
+            }
+        } else {
+            loadInParallel(chunks, threads, pipelinesAndTheirPermissions, historyByPipeline, pipelines, onChunkLoaded);
+        }
+        LOGGER.debug("Done populating dashboard pipelines");
+        this.everLoadedCurrentState = true;
+        return new ArrayList<>(Arrays.asList(pipelines));
+    }
+
+    /**
+     * @return how far the first load of all pipelines has got, in percent; 100 once it is done
+     */
+    public int initialLoadProgress() {
+        if (everLoadedCurrentState) {
+            return 100;
+        }
+        int total = pipelinesBeingLoaded;
+        return total == 0 ? 0 : (int) (pipelinesLoaded * 100L / total);
+    }
+
+    private void loadInParallel(List<List<PipelineToLoad>> chunks, int threads, Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions,
+                                Map<CaseInsensitiveString, PipelineInstanceModels> historyByPipeline, GoDashboardPipeline[] pipelines,
+                                Consumer<List<GoDashboardPipeline>> onChunkLoaded) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletionService<LoadedChunk> completionService = new ExecutorCompletionService<>(executor);
+            // submitted in priority order, so the most recently active pipelines are picked up first
+            for (List<PipelineToLoad> chunk : chunks) {
+                completionService.submit(() -> new LoadedChunk(chunk, load(chunk, pipelinesAndTheirPermissions, historyByPipeline)));
+            }
+            for (int i = 0; i < chunks.size(); i++) {
+                LoadedChunk loaded = completionService.take().get();
+                chunkLoaded(loaded.chunk(), loaded.pipelines(), pipelines, onChunkLoaded);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<GoDashboardPipeline> load(List<PipelineToLoad> chunk, Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions,
+                                           Map<CaseInsensitiveString, PipelineInstanceModels> historyByPipeline) {
+        List<GoDashboardPipeline> loaded = new ArrayList<>(chunk.size());
+        for (PipelineToLoad pipelineToLoad : chunk) {
             long start = System.currentTimeMillis();
+            PipelineConfig pipelineConfig = pipelineToLoad.pipelineConfig();
             Permissions permissions = permissionsFor(pipelineConfig, pipelinesAndTheirPermissions);
 
-            pipelines.add(createGoDashboardPipeline(pipelineConfig, permissions, historyForDashboard, group));
+            PipelineInstanceModels history = historyByPipeline.getOrDefault(pipelineConfig.name(), createPipelineInstanceModels());
+            loaded.add(createGoDashboardPipeline(pipelineConfig, permissions, history, pipelineToLoad.group()));
 
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("It took {} ms to process pipeline {}", System.currentTimeMillis() - start, pipelineConfig.getName());
             }
-        }));
-        LOGGER.debug("Done populating dashboard pipelines");
-        this.everLoadedCurrentState = true;
-        return pipelines;
+        }
+        return loaded;
+    }
+
+    private void chunkLoaded(List<PipelineToLoad> chunk, List<GoDashboardPipeline> loaded, GoDashboardPipeline[] pipelines, Consumer<List<GoDashboardPipeline>> onChunkLoaded) {
+        for (int i = 0; i < chunk.size(); i++) {
+            pipelines[chunk.get(i).position()] = loaded.get(i);
+        }
+        onChunkLoaded.accept(loaded);
+        pipelinesLoaded += loaded.size();
+    }
+
+    private List<PipelineToLoad> byRecentActivity(List<PipelineToLoad> pipelinesToLoad, Map<CaseInsensitiveString, PipelineInstanceModels> historyByPipeline) {
+        Map<CaseInsensitiveString, Long> latestRun = new HashMap<>();
+        historyByPipeline.forEach((name, history) -> latestRun.put(name, history.stream().mapToLong(PipelineInstanceModel::getId).max().orElse(Long.MIN_VALUE)));
+
+        List<PipelineToLoad> sorted = new ArrayList<>(pipelinesToLoad);
+        sorted.sort(Comparator.comparingLong((PipelineToLoad pipelineToLoad) -> latestRun.getOrDefault(pipelineToLoad.pipelineConfig().name(), Long.MIN_VALUE)).reversed());
+        return sorted;
+    }
+
+    private Map<CaseInsensitiveString, PipelineInstanceModels> historyByPipeline() {
+        Map<CaseInsensitiveString, PipelineInstanceModels> historyByPipeline = new HashMap<>();
+        for (PipelineInstanceModel instanceModel : historyForDashboard) {
+            historyByPipeline.computeIfAbsent(new CaseInsensitiveString(instanceModel.getName()), k -> createPipelineInstanceModels()).add(instanceModel);
+        }
+        return historyByPipeline;
     }
 
     public boolean hasEverLoadedCurrentState() {
@@ -146,12 +259,12 @@ public class GoDashboardCurrentStateLoader {
         lastKnownPipelineNames.add(pipelineName);
     }
 
-    private GoDashboardPipeline createGoDashboardPipeline(PipelineConfig pipelineConfig, Permissions permissions, PipelineInstanceModels historyForDashboard, PipelineConfigs group) {
-        PipelineModel pipelineModel = pipelineModelFor(pipelineConfig, historyForDashboard);
+    private GoDashboardPipeline createGoDashboardPipeline(PipelineConfig pipelineConfig, Permissions permissions, PipelineInstanceModels historyOfPipeline, PipelineConfigs group) {
+        PipelineModel pipelineModel = pipelineModelFor(pipelineConfig, historyOfPipeline);
         return new GoDashboardPipeline(pipelineModel, permissions, group.getGroup(), timeStampBasedCounter, pipelineConfig);
     }
 
-    private PipelineModel pipelineModelFor(PipelineConfig pipelineConfig, PipelineInstanceModels historyForDashboard) {
+    private PipelineModel pipelineModelFor(PipelineConfig pipelineConfig, PipelineInstanceModels historyOfPipeline) {
         String pipelineName = str(pipelineConfig.name());
 
         PipelinePauseInfo pauseInfo = pipelinePauseService.pipelinePauseInfo(pipelineName);
@@ -160,12 +273,12 @@ public class GoDashboardCurrentStateLoader {
         PipelineModel pipelineModel = new PipelineModel(pipelineName, canBeForced, true, pauseInfo);
         pipelineModel.updateAdministrability(pipelineConfig.isLocal());
 
-        pipelineModel.addPipelineInstances(instancesFor(pipelineConfig, historyForDashboard));
+        pipelineModel.addPipelineInstances(instancesFor(pipelineConfig, historyOfPipeline));
         return pipelineModel;
     }
 
-    private PipelineInstanceModels instancesFor(PipelineConfig pipelineConfig, PipelineInstanceModels historyForDashboard) {
-        PipelineInstanceModels pims = findPIMsWithFallbacks(pipelineConfig, historyForDashboard);
+    private PipelineInstanceModels instancesFor(PipelineConfig pipelineConfig, PipelineInstanceModels historyOfPipeline) {
+        PipelineInstanceModels pims = findPIMsWithFallbacks(pipelineConfig, historyOfPipeline);
 
         boolean isCurrentlyLocked = pipelineLockService.isLocked(str(pipelineConfig.name()));
         boolean isUnlockable = pipelineUnlockApiService.isUnlockable(str(pipelineConfig.name()));
@@ -178,10 +291,10 @@ public class GoDashboardCurrentStateLoader {
         return pims;
     }
 
-    private PipelineInstanceModels findPIMsWithFallbacks(PipelineConfig pipelineConfig, PipelineInstanceModels historyForDashboard) {
+    private PipelineInstanceModels findPIMsWithFallbacks(PipelineConfig pipelineConfig, PipelineInstanceModels historyOfPipeline) {
         String pipelineName = str(pipelineConfig.name());
 
-        PipelineInstanceModels pipelinesToShow = historyForDashboard.findAll(pipelineName);
+        PipelineInstanceModels pipelinesToShow = historyOfPipeline.findAll(pipelineName);
         if (!pipelinesToShow.isEmpty()) {
             return pipelinesToShow;
         }
@@ -220,4 +333,10 @@ public class GoDashboardCurrentStateLoader {
         lastKnownPipelineNames.remove(pipeline);
         historyForDashboard.removeIf(pipelineInstanceModel -> pipeline.equals(new CaseInsensitiveString(pipelineInstanceModel.getName())));
     }
+
+    private record PipelineToLoad(int position, PipelineConfig pipelineConfig, PipelineConfigs group) {
+    }
+
+    private record LoadedChunk(List<PipelineToLoad> chunk, List<GoDashboardPipeline> pipelines) {
+    }
 }
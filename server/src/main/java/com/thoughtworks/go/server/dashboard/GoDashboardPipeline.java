@@ -23,11 +23,16 @@ import com.thoughtworks.go.config.remote.ConfigOrigin;
 import com.thoughtworks.go.config.security.Permissions;
 import com.thoughtworks.go.presentation.pipelinehistory.PipelineModel;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /* Represents a pipeline on the dashboard. Cacheable, since the permissions are not specific to a user. */
 public class GoDashboardPipeline {
+    static final int MAX_JSON_FRAGMENTS = 16;
+
     private final PipelineModel pipelineModel;
     private final Permissions permissions;
     private final String groupName;
@@ -36,6 +41,7 @@ public class GoDashboardPipeline {
     private final ConfigOrigin origin;
     private final int displayOrderWeight;
     private final PipelineConfig pipelineConfig;
+    private final Map<Object, String> jsonFragments = new ConcurrentHashMap<>();
 
     public GoDashboardPipeline(PipelineModel pipelineModel, Permissions permissions, String groupName, Counter timeStampBasedCounter, PipelineConfig pipelineConfig) {
         this.pipelineModel = pipelineModel;
@@ -96,6 +102,22 @@ public class GoDashboardPipeline {
         return lastUpdatedTimeStamp;
     }
 
+    /**
+     * @return the JSON rendering of this pipeline for the given variant (e.g. the permissions of the user it is rendered
+     * for), rendered only the first time it is asked for. Since a new instance replaces this one whenever the
+     * pipeline changes, a rendering can never be stale.
+     */
+    public String jsonFragment(Object variant, Supplier<String> renderer) {
+        String fragment = jsonFragments.get(variant);
+        if (fragment == null) {
+            fragment = renderer.get();
+            if (jsonFragments.size() < MAX_JSON_FRAGMENTS) {
+                jsonFragments.putIfAbsent(variant, fragment);
+            }
+        }
+        return fragment;
+    }
+
     @Override
     public String toString() {
         return String.format("GoDashboardPipeline{name='%s',groupName='%s'}", name(), groupName);
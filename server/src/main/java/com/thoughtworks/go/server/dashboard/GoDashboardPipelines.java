@@ -17,16 +17,29 @@ package com.thoughtworks.go.server.dashboard;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 public class GoDashboardPipelines {
     private final Map<CaseInsensitiveString, GoDashboardPipeline> pipelines;
+    private final Map<CaseInsensitiveString, Long> removedPipelines;
+    private final long structureLastChangedTimeStamp;
     private final long lastUpdatedTimeStamp;
 
     public GoDashboardPipelines(HashMap<CaseInsensitiveString, GoDashboardPipeline> pipelines, TimeStampBasedCounter timeStampBasedCounter) {
+        this(pipelines, new HashMap<>(), 0, timeStampBasedCounter);
+    }
+
+    /**
+     * @param removedPipelines              the pipelines removed one by one, and the time stamps they were removed at
+     * @param structureLastChangedTimeStamp when the set of pipelines was last replaced as a whole, or a pipeline was
+     *                                      added or moved to another group, before which individual changes are not
+     *                                      enough to bring a dashboard up to date
+     */
+    public GoDashboardPipelines(Map<CaseInsensitiveString, GoDashboardPipeline> pipelines, Map<CaseInsensitiveString, Long> removedPipelines,
+                                long structureLastChangedTimeStamp, TimeStampBasedCounter timeStampBasedCounter) {
         this.pipelines = pipelines;
+        this.removedPipelines = removedPipelines;
+        this.structureLastChangedTimeStamp = structureLastChangedTimeStamp;
         this.lastUpdatedTimeStamp = timeStampBasedCounter.getNext();
     }
 
@@ -45,5 +58,24 @@ public class GoDashboardPipelines {
     public boolean isEmpty() {
         return pipelines.isEmpty();
     }
+
+    /**
+     * @return true if the changes after the given time stamp cannot be told pipeline by pipeline, and the whole
+     * dashboard has to be loaded again
+     */
+    public boolean needsReloadSince(long timeStamp) {
+        return timeStamp < structureLastChangedTimeStamp || timeStamp > lastUpdatedTimeStamp;
+    }
+
+    public List<GoDashboardPipeline> pipelinesUpdatedSince(long timeStamp) {
+        return pipelines.values().stream()
+            .filter(pipeline -> pipeline.getLastUpdatedTimeStamp() > timeStamp)
+            .sorted(Comparator.comparingLong(GoDashboardPipeline::getLastUpdatedTimeStamp))
+            .toList();
+    }
+
+    public List<CaseInsensitiveString> pipelinesRemovedSince(long timeStamp) {
+        return removedPipelines.entrySet().stream().filter(entry -> entry.getValue() > timeStamp).map(Map.Entry::getKey).toList();
+    }
 }
 
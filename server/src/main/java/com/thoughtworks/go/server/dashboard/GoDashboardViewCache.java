@@ -0,0 +1,72 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dashboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thoughtworks.go.config.CruiseConfig;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.CompiledDashboardFilter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/* Understands how to remember the dashboard last shown to a user, for as long as nothing it was computed from changes. */
+@Component
+public class GoDashboardViewCache {
+    private static final int MAXIMUM_VIEWS = 10_000;
+
+    private final Cache<ViewKey, View> views = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_VIEWS)
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .build();
+
+    /**
+     * @param kind            what is being viewed, e.g. pipeline groups or environments
+     * @param dashboardVersion the {@link GoDashboardPipelines#lastUpdatedTimeStamp()} of the pipelines the view is computed from
+     * @param config          the config the view is computed from; compared by identity, as every config change creates a new instance
+     * @param roleUsersVersion the version of the plugin role memberships the view is computed from
+     * @param materializer    computes the view when there is no current one
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String kind, Username user, CompiledDashboardFilter filter, boolean allowEmpty,
+                           long dashboardVersion, CruiseConfig config, long roleUsersVersion, Supplier<List<T>> materializer) {
+        ViewKey key = new ViewKey(kind, user.getUsername().toLower(), allowEmpty);
+        View view = views.getIfPresent(key);
+        if (view != null && view.isFor(filter, dashboardVersion, config, roleUsersVersion)) {
+            return (List<T>) view.result;
+        }
+
+        List<T> result = Collections.unmodifiableList(materializer.get());
+        views.put(key, new View(filter, dashboardVersion, config, roleUsersVersion, result));
+        return result;
+    }
+
+    private record ViewKey(String kind, String username, boolean allowEmpty) {
+    }
+
+    private record View(CompiledDashboardFilter filter, long dashboardVersion, CruiseConfig config, long roleUsersVersion, List<?> result) {
+        boolean isFor(CompiledDashboardFilter filter, long dashboardVersion, CruiseConfig config, long roleUsersVersion) {
+            return this.dashboardVersion == dashboardVersion
+                && this.config == config
+                && this.roleUsersVersion == roleUsersVersion
+                && this.filter.equals(filter);
+        }
+    }
+}
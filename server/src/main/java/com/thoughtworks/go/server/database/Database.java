@@ -26,6 +26,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -38,17 +39,19 @@ public class Database {
     private final ConnectionManager connectionManager;
     private final SystemEnvironment systemEnvironment;
     private final DatabaseMigrator databaseMigrator;
+    private final QueryStatistics queryStatistics;
 
     @Autowired
-    public Database(SystemEnvironment systemEnvironment) {
+    public Database(SystemEnvironment systemEnvironment, QueryStatistics queryStatistics) {
         this(systemEnvironment, new ConnectionManager(System.getProperties(), systemEnvironment.configDir(), decryptionFunction()),
-            new DatabaseMigrator());
+            new DatabaseMigrator(), queryStatistics);
     }
 
-    public Database(SystemEnvironment systemEnvironment, ConnectionManager connectionManager, DatabaseMigrator databaseMigrator) {
+    public Database(SystemEnvironment systemEnvironment, ConnectionManager connectionManager, DatabaseMigrator databaseMigrator, QueryStatistics queryStatistics) {
         this.connectionManager = connectionManager;
         this.systemEnvironment = systemEnvironment;
         this.databaseMigrator = databaseMigrator;
+        this.queryStatistics = queryStatistics;
     }
 
     private static Function<String, String> decryptionFunction() {
@@ -62,7 +65,7 @@ public class Database {
     }
 
     @Bean(name = "goDataSource")
-    public BasicDataSource getDataSource() throws SQLException {
+    public DataSource getDataSource() throws SQLException {
         BasicDataSource dataSource = connectionManager.getDataSourceInstance();
         try (Connection connection = dataSource.getConnection()) {
             new DbDeploySchemaVerifier().verify(connection, systemEnvironment.getConfigDir());
@@ -72,7 +75,10 @@ public class Database {
             databaseMigrator.migrate(connection);
         }
 
-        return dataSource;
+        DataSource routingDataSource = connectionManager.getReplicaDataSourceInstance()
+            .<DataSource>map(replica -> new ReplicaRoutingDataSource(dataSource, replica))
+            .orElse(dataSource);
+        return new InstrumentedDataSource(routingDataSource, queryStatistics);
     }
 
     public void backup(File targetDir) {
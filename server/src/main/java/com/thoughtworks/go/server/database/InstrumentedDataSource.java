@@ -0,0 +1,55 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.database;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Reports how long callers wait for a connection from the underlying pool, so that pool saturation shows up
+ * in {@link QueryStatistics} before it shows up as slow pages.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+    private final QueryStatistics queryStatistics;
+
+    public InstrumentedDataSource(DataSource targetDataSource, QueryStatistics queryStatistics) {
+        super(targetDataSource);
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long requestedAt = queryStatistics.connectionRequested();
+        try {
+            return super.getConnection();
+        } finally {
+            queryStatistics.connectionObtained(requestedAt);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long requestedAt = queryStatistics.connectionRequested();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            queryStatistics.connectionObtained(requestedAt);
+        }
+    }
+}
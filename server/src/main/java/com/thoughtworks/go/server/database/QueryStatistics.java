@@ -0,0 +1,186 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.database;
+
+import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Collects timings of the SQL map statements run through MyBatis and of the time spent waiting for a pooled
+ * connection. Statements slower than {@link SystemEnvironment#getSlowQueryThresholdInMillis()} are sampled along with
+ * their SQL, but never with the values bound to it, as those may contain secrets or user data.
+ */
+@Component
+public class QueryStatistics {
+    static final long[] BUCKET_UPPER_BOUNDS_IN_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 5000};
+    static final int MAX_SLOW_QUERY_SAMPLES = 50;
+
+    private final SystemEnvironment systemEnvironment;
+    private final Clock clock;
+    private final ConcurrentMap<String, StatementStatistics> statements = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+
+    private final LongAdder connectionRequests = new LongAdder();
+    private final LongAdder totalConnectionWaitNanos = new LongAdder();
+    private final AtomicLong maxConnectionWaitNanos = new AtomicLong();
+    private final AtomicInteger threadsWaitingForConnection = new AtomicInteger();
+    private final AtomicInteger maxThreadsWaitingForConnection = new AtomicInteger();
+
+    @Autowired
+    public QueryStatistics(SystemEnvironment systemEnvironment, Clock clock) {
+        this.systemEnvironment = systemEnvironment;
+        this.clock = clock;
+    }
+
+    public void recordStatement(String statementId, long elapsedNanos, int rows, String sql, int parameterCount) {
+        statements.computeIfAbsent(statementId, id -> new StatementStatistics()).record(elapsedNanos, rows);
+
+        if (isSlow(elapsedNanos)) {
+            SlowQuery slowQuery = new SlowQuery(statementId, NANOSECONDS.toMillis(elapsedNanos), rows, normalize(sql), parameterCount, clock.currentTimeMillis());
+            synchronized (slowQueries) {
+                if (slowQueries.size() == MAX_SLOW_QUERY_SAMPLES) {
+                    slowQueries.removeFirst();
+                }
+                slowQueries.addLast(slowQuery);
+            }
+        }
+    }
+
+    public long connectionRequested() {
+        connectionRequests.increment();
+        maxThreadsWaitingForConnection.accumulateAndGet(threadsWaitingForConnection.incrementAndGet(), Math::max);
+        return System.nanoTime();
+    }
+
+    public void connectionObtained(long requestedAtNanos) {
+        long waitNanos = System.nanoTime() - requestedAtNanos;
+        threadsWaitingForConnection.decrementAndGet();
+        totalConnectionWaitNanos.add(waitNanos);
+        maxConnectionWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return NANOSECONDS.toMillis(elapsedNanos) >= systemEnvironment.getSlowQueryThresholdInMillis();
+    }
+
+    public Map<String, Object> statementsAsJsonCompatibleMap() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        statements.entrySet().stream()
+            .sorted(Map.Entry.<String, StatementStatistics>comparingByValue(Comparator.comparingLong(s -> s.totalNanos.sum())).reversed())
+            .forEach(entry -> json.put(entry.getKey(), entry.getValue().asJsonCompatibleMap()));
+        return json;
+    }
+
+    public List<Map<String, Object>> slowQueriesAsJsonCompatibleList() {
+        List<SlowQuery> samples;
+        synchronized (slowQueries) {
+            samples = new ArrayList<>(slowQueries);
+        }
+        Collections.reverse(samples);
+        return samples.stream().map(SlowQuery::asJsonCompatibleMap).toList();
+    }
+
+    public Map<String, Object> connectionWaitsAsJsonCompatibleMap() {
+        long requests = connectionRequests.sum();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("Requests", requests);
+        json.put("Waiting", threadsWaitingForConnection.get());
+        json.put("Max Waiting", maxThreadsWaitingForConnection.get());
+        json.put("Average Wait (ms)", requests == 0 ? 0.0 : NANOSECONDS.toMicros(totalConnectionWaitNanos.sum()) / 1000.0 / requests);
+        json.put("Max Wait (ms)", NANOSECONDS.toMillis(maxConnectionWaitNanos.get()));
+        return json;
+    }
+
+    private static String normalize(String sql) {
+        return sql == null ? null : sql.replaceAll("\\s+", " ").trim();
+    }
+
+    private static class StatementStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_UPPER_BOUNDS_IN_MILLIS.length + 1];
+
+        StatementStatistics() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long elapsedNanos, int rowCount) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            buckets[bucketOf(NANOSECONDS.toMillis(elapsedNanos))].increment();
+        }
+
+        private static int bucketOf(long elapsedMillis) {
+            for (int i = 0; i < BUCKET_UPPER_BOUNDS_IN_MILLIS.length; i++) {
+                if (elapsedMillis < BUCKET_UPPER_BOUNDS_IN_MILLIS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_UPPER_BOUNDS_IN_MILLIS.length;
+        }
+
+        Map<String, Object> asJsonCompatibleMap() {
+            long executions = count.sum();
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("Count", executions);
+            json.put("Total Time (ms)", NANOSECONDS.toMillis(totalNanos.sum()));
+            json.put("Average Time (ms)", executions == 0 ? 0.0 : NANOSECONDS.toMicros(totalNanos.sum()) / 1000.0 / executions);
+            json.put("Max Time (ms)", NANOSECONDS.toMillis(maxNanos.get()));
+            json.put("Rows", rows.sum());
+
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKET_UPPER_BOUNDS_IN_MILLIS.length; i++) {
+                histogram.put("< " + BUCKET_UPPER_BOUNDS_IN_MILLIS[i] + "ms", buckets[i].sum());
+            }
+            histogram.put(">= " + BUCKET_UPPER_BOUNDS_IN_MILLIS[BUCKET_UPPER_BOUNDS_IN_MILLIS.length - 1] + "ms", buckets[BUCKET_UPPER_BOUNDS_IN_MILLIS.length].sum());
+            json.put("Histogram", histogram);
+            return json;
+        }
+    }
+
+    private record SlowQuery(String statementId, long elapsedMillis, int rows, String sql, int parameterCount, long timestamp) {
+        Map<String, Object> asJsonCompatibleMap() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("Statement", statementId);
+            json.put("Time (ms)", elapsedMillis);
+            json.put("Rows", rows);
+            json.put("SQL", sql);
+            json.put("Bind Parameters", parameterCount + " (redacted)");
+            json.put("At", Instant.ofEpochMilli(timestamp).toString());
+            return json;
+        }
+    }
+}
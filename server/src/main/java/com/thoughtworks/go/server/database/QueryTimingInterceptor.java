@@ -0,0 +1,81 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.database;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.Collection;
+
+/**
+ * Times every SQL map statement and reports it to {@link QueryStatistics} under the id of the statement, e.g.
+ * {@code getPipelineHistoryById}. Only the SQL with its {@code ?} placeholders is handed over for slow statements,
+ * the parameter values never leave this class.
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class QueryTimingInterceptor implements Interceptor {
+    private final QueryStatistics queryStatistics;
+
+    public QueryTimingInterceptor(QueryStatistics queryStatistics) {
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            record(invocation.getArgs(), System.nanoTime() - start, result);
+        }
+    }
+
+    private void record(Object[] args, long elapsedNanos, Object result) {
+        MappedStatement statement = (MappedStatement) args[0];
+        String sql = null;
+        int parameterCount = 0;
+        if (queryStatistics.isSlow(elapsedNanos)) {
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(args[1]);
+            sql = boundSql.getSql();
+            parameterCount = boundSql.getParameterMappings().size();
+        }
+        queryStatistics.recordStatement(statement.getId(), elapsedNanos, rowsOf(result), sql, parameterCount);
+    }
+
+    private static int rowsOf(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Integer updateCount) {
+            return updateCount;
+        }
+        return 0;
+    }
+}
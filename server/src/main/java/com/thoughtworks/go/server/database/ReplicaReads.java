@@ -0,0 +1,47 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.database;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads which may be served by the read replica configured through {@code db.replica.url}, if there is one.
+ * <p>
+ * Only reads which can tolerate replication lag are replica-safe: history, compare and feed queries whose results
+ * are not cached and are not used to make scheduling decisions. Everything else, in particular any read that has to
+ * see the writes that just happened (read-your-writes) or whose result ends up in a shared cache, must not be marked
+ * and keeps going to the primary database.
+ */
+public final class ReplicaReads {
+    private static final ThreadLocal<Boolean> REPLICA_SAFE = ThreadLocal.withInitial(() -> false);
+
+    private ReplicaReads() {
+    }
+
+    public static <T> T replicaSafe(Supplier<T> read) {
+        boolean previous = REPLICA_SAFE.get();
+        REPLICA_SAFE.set(true);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_SAFE.set(previous);
+        }
+    }
+
+    static boolean isReplicaSafe() {
+        return REPLICA_SAFE.get();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.database;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out connections to the read replica for {@link ReplicaReads#replicaSafe replica-safe} reads and to the
+ * primary database for everything else. Reads made while a transaction or transaction synchronization is active
+ * always go to the primary, as the connection would otherwise be bound to the thread and reused for writes.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+    private final DataSource replica;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        super(primary);
+        this.replica = replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (shouldUseReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                log.warn("Could not connect to the read replica, reading from the primary database instead.", e);
+            }
+        }
+        return super.getConnection();
+    }
+
+    private boolean shouldUseReplica() {
+        return ReplicaReads.isReplicaSafe() && !TransactionSynchronizationManager.isSynchronizationActive();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.domain;
+
+import com.thoughtworks.go.domain.PipelinePauseInfo;
+
+public class PipelinePauseState {
+    private String pipelineName;
+    private PipelinePauseInfo pauseInfo;
+
+    @SuppressWarnings("unused") // For iBatis
+    private PipelinePauseState() {}
+
+    public PipelinePauseState(String pipelineName, PipelinePauseInfo pauseInfo) {
+        this.pipelineName = pipelineName;
+        this.pauseInfo = pauseInfo;
+    }
+
+    public String getPipelineName() {
+        return pipelineName;
+    }
+
+    public PipelinePauseInfo getPauseInfo() {
+        return pauseInfo;
+    }
+
+    public void setPipelineName(String pipelineName) {
+        this.pipelineName = pipelineName;
+    }
+
+    public void setPauseInfo(PipelinePauseInfo pauseInfo) {
+        this.pauseInfo = pauseInfo;
+    }
+}
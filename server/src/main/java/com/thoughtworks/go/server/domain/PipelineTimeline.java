@@ -26,12 +26,18 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 /**
  * Understands a sorted collection of PipelineMaterialModification
+ * <p>
+ * Every pipeline has its own instances and its own lock, so that an update only holds up readers of the pipelines
+ * that it adds instances to, and only for as long as it takes to add them.
  */
 @Component
 public class PipelineTimeline {
@@ -39,12 +45,12 @@ public class PipelineTimeline {
     private final TransactionTemplate transactionTemplate;
     private final TransactionSynchronizationManager transactionSynchronizationManager;
 
-    private final Map<CaseInsensitiveString, NavigableSet<PipelineTimelineEntry>> naturalOrderPmm = new HashMap<>();
-    private final Map<CaseInsensitiveString, List<PipelineTimelineEntry>> scheduleOrderPmm = new HashMap<>();
-    private final ReadWriteLock naturalOrderLock = new ReentrantReadWriteLock();
-    private final ReadWriteLock scheduleOrderLock = new ReentrantReadWriteLock();
+    private final Map<CaseInsensitiveString, PipelineInstances> pipelines = new ConcurrentHashMap<>();
+    private final ReentrantLock updateLock = new ReentrantLock();
 
     private final AtomicLong maximumId = new AtomicLong(-1);
+    // the instances of an update in progress, which may yet be rolled back, all have ids greater than this
+    private volatile long uncommittedAfterId = Long.MAX_VALUE;
 
     @Autowired
     public PipelineTimeline(PipelineRepository pipelineRepository, TransactionTemplate transactionTemplate, TransactionSynchronizationManager transactionSynchronizationManager) {
@@ -55,32 +61,52 @@ public class PipelineTimeline {
 
     @TestOnly
     public Collection<PipelineTimelineEntry> getEntriesFor(String pipelineName) {
-        naturalOrderLock.readLock().lock();
-        try {
-            return Collections.unmodifiableCollection(naturalOrderPmm.getOrDefault(new CaseInsensitiveString(pipelineName), Collections.emptyNavigableSet()));
-        } finally {
-            naturalOrderLock.readLock().unlock();
+        PipelineInstances instances = pipelines.get(new CaseInsensitiveString(pipelineName));
+        if (instances == null) {
+            return Collections.emptyList();
         }
+        return instances.read(() -> Collections.unmodifiableCollection(instances.naturalOrder));
     }
 
     public long maximumId() {
         return maximumId.get();
     }
 
+    /**
+     * @return every instance on the timeline, in the order of their ids, leaving out those of an update that is still in progress
+     */
+    public List<PipelineTimelineEntry> allEntries() {
+        // read in this order, so that an update starting in between has ids above the bound either way
+        long maximumIdBeforeCopying = maximumId.get();
+        long bound = Math.min(maximumIdBeforeCopying, uncommittedAfterId);
+
+        // each pipeline is only locked while it is copied, so updates carry on meanwhile and their instances are left out by id
+        List<PipelineTimelineEntry> entries = new ArrayList<>();
+        for (PipelineInstances instances : pipelines.values()) {
+            instances.read(() -> {
+                for (PipelineTimelineEntry entry : instances.scheduleOrder) {
+                    if (entry.getId() <= bound) {
+                        entries.add(entry);
+                    }
+                }
+                return null;
+            });
+        }
+        entries.sort(Comparator.comparingLong(PipelineTimelineEntry::getId));
+        return entries;
+    }
+
     public void add(PipelineTimelineEntry pipelineTimelineEntry) {
-        CaseInsensitiveString pipelineName = new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName());
-        initializedNaturalOrderCollection(pipelineName).add(pipelineTimelineEntry);
-        initializedScheduleOrderCollection(pipelineName).add(pipelineTimelineEntry);
-        pipelineTimelineEntry.setInsertedBefore(naturalOrderAfter(pipelineTimelineEntry));
-        pipelineTimelineEntry.setInsertedAfter(naturalOrderBefore(pipelineTimelineEntry));
-        pipelineTimelineEntry.updateNaturalOrder();
+        PipelineInstances instances = pipelines.computeIfAbsent(new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName()), k -> new PipelineInstances());
+        instances.write(() -> instances.add(pipelineTimelineEntry));
         updateMaximumId(pipelineTimelineEntry.getId());
     }
 
     public void update() {
-        acquireAllWriteLocks();
+        updateLock.lock();
         try {
             final long maximumIdBeforeUpdate = maximumId.get();
+            uncommittedAfterId = maximumIdBeforeUpdate;
             transactionTemplate.execute(transactionStatus -> {
                 final List<PipelineTimelineEntry> newlyAddedEntries = new ArrayList<>();
                 transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
@@ -99,9 +125,10 @@ public class PipelineTimeline {
                     }
 
                     private void rollbackNewEntryFor(PipelineTimelineEntry entry) {
-                        CaseInsensitiveString pipelineName = new CaseInsensitiveString(entry.getPipelineName());
-                        initializedNaturalOrderCollection(pipelineName).remove(entry);
-                        initializedScheduleOrderCollection(pipelineName).remove(entry);
+                        PipelineInstances instances = pipelines.get(new CaseInsensitiveString(entry.getPipelineName()));
+                        if (instances != null) {
+                            instances.write(() -> instances.remove(entry));
+                        }
                     }
 
 
@@ -110,33 +137,20 @@ public class PipelineTimeline {
                 return null;
             });
         } finally {
-            releaseAllWriteLocks();
+            uncommittedAfterId = Long.MAX_VALUE;
+            updateLock.unlock();
         }
     }
 
-
-    // --------------------------------------------------------
-    // These methods should acquire and release lock in corresponding order.
-    private void acquireAllWriteLocks() {
-        naturalOrderLock.writeLock().lock();
-        scheduleOrderLock.writeLock().lock();
-    }
-
-    //Release in the reverse of the acquired order.
-    private void releaseAllWriteLocks() {
-        scheduleOrderLock.writeLock().unlock();
-        naturalOrderLock.writeLock().unlock();
-    }
-
     /**
      * This is called on system init and is called by Spring. Hence, this is not done in a transaction. At any other time, the method update should be used
      */
     public void updateTimelineOnInit() {
-        acquireAllWriteLocks();
+        updateLock.lock();
         try {
             pipelineRepository.updatePipelineTimeline(this, new ArrayList<>());
         } finally {
-            releaseAllWriteLocks();
+            updateLock.unlock();
         }
     }
 
@@ -146,21 +160,11 @@ public class PipelineTimeline {
      * @return PMM which was before the pipeline with this id at the time of insertion of the PTE with the id or null if there was nothing before this pipeline during insertion
      */
     public PipelineTimelineEntry runBefore(long id, final CaseInsensitiveString pipelineName) {
-        naturalOrderLock.readLock().lock();
-        try {
-            Set<PipelineTimelineEntry> treeForPipeline = naturalOrderPmm.get(pipelineName);
-            if (treeForPipeline == null) {
-                return null;
-            }
-            for (PipelineTimelineEntry pipelineTimelineEntry : treeForPipeline) {
-                if (id == pipelineTimelineEntry.getId()) {
-                    return pipelineTimelineEntry.insertedAfter();
-                }
-            }
-            throw new RuntimeException("Cannot find pipeline with id: " + id);
-        } finally {
-            naturalOrderLock.readLock().unlock();
+        PipelineInstances instances = pipelines.get(pipelineName);
+        if (instances == null) {
+            return null;
         }
+        return instances.read(() -> instances.withId(id).insertedAfter());
     }
 
     /**
@@ -169,51 +173,20 @@ public class PipelineTimeline {
      * @return PMM which was after the pipeline with this id at the time of insertion of the PTE with the id or null if there was nothing after this pipeline during insertion
      */
     public PipelineTimelineEntry runAfter(long id, final CaseInsensitiveString pipelineName) {
-        naturalOrderLock.readLock().lock();
-        try {
-            Set<PipelineTimelineEntry> treeForPipeline = naturalOrderPmm.get(pipelineName);
-            if (treeForPipeline == null) {
-                return null;
-            }
-            for (PipelineTimelineEntry pipelineTimelineEntry : treeForPipeline) {
-                if (id == pipelineTimelineEntry.getId()) {
-                    return pipelineTimelineEntry.insertedBefore();
-                }
-            }
-            throw new RuntimeException("Cannot find pipeline with id: " + id);
-        } finally {
-            naturalOrderLock.readLock().unlock();
+        PipelineInstances instances = pipelines.get(pipelineName);
+        if (instances == null) {
+            return null;
         }
+        return instances.read(() -> instances.withId(id).insertedBefore());
     }
 
     private void updateMaximumId(long id) {
         maximumId.accumulateAndGet(id, Math::max);
     }
 
-    private NavigableSet<PipelineTimelineEntry> initializedNaturalOrderCollection(final CaseInsensitiveString pipelineName) {
-        return naturalOrderPmm.computeIfAbsent(pipelineName, k -> new TreeSet<>());
-    }
-
-    private List<PipelineTimelineEntry> initializedScheduleOrderCollection(final CaseInsensitiveString pipelineName) {
-        return scheduleOrderPmm.computeIfAbsent(pipelineName, k -> new ArrayList<>());
-    }
-
-    private PipelineTimelineEntry naturalOrderAfter(PipelineTimelineEntry pipelineTimelineEntry) {
-        naturalOrderLock.readLock().lock();
-        try {
-            return naturalOrderPmm.get(new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName())).higher(pipelineTimelineEntry);
-        } finally {
-            naturalOrderLock.readLock().unlock();
-        }
-    }
-
     PipelineTimelineEntry naturalOrderBefore(PipelineTimelineEntry pipelineTimelineEntry) {
-        naturalOrderLock.readLock().lock();
-        try {
-            return naturalOrderPmm.get(new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName())).lower(pipelineTimelineEntry);
-        } finally {
-            naturalOrderLock.readLock().unlock();
-        }
+        PipelineInstances instances = pipelines.get(new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName()));
+        return instances.read(() -> instances.naturalOrder.lower(pipelineTimelineEntry));
     }
 
     /**
@@ -221,49 +194,117 @@ public class PipelineTimeline {
      */
     @TestOnly
     public void clearWhichIsEvilAndShouldNotBeUsedInRealWorld() {
-        acquireAllWriteLocks();
+        updateLock.lock();
         try {
-            naturalOrderPmm.clear();
-            scheduleOrderPmm.clear();
+            pipelines.clear();
         } finally {
-            releaseAllWriteLocks();
+            updateLock.unlock();
         }
     }
 
     public int instanceCount(CaseInsensitiveString pipelineName) {
-        scheduleOrderLock.readLock().lock();
-        try {
-            List<PipelineTimelineEntry> instances = scheduleOrderPmm.get(pipelineName);
-            return instances == null ? 0 : instances.size();
-        } finally {
-            scheduleOrderLock.readLock().unlock();
-        }
+        PipelineInstances instances = pipelines.get(pipelineName);
+        return instances == null ? 0 : instances.read(instances.scheduleOrder::size);
     }
 
     public PipelineTimelineEntry instanceFor(CaseInsensitiveString pipelineName, int index) {
-        scheduleOrderLock.readLock().lock();
-        try {
-            List<PipelineTimelineEntry> instances = scheduleOrderPmm.get(pipelineName);
-            return instances == null ? null : instances.get(index);
-        } finally {
-            scheduleOrderLock.readLock().unlock();
+        PipelineInstances instances = pipelines.get(pipelineName);
+        return instances == null ? null : instances.read(() -> instances.scheduleOrder.get(index));
+    }
+
+    /**
+     * @return the instance scheduled {@code offset} runs before the latest one, or null if the pipeline has not run that often
+     */
+    public PipelineTimelineEntry instanceBeforeLatest(CaseInsensitiveString pipelineName, int offset) {
+        PipelineInstances instances = pipelines.get(pipelineName);
+        if (instances == null) {
+            return null;
         }
+        return instances.read(() -> {
+            int index = instances.scheduleOrder.size() - 1 - offset;
+            return index < 0 ? null : instances.scheduleOrder.get(index);
+        });
     }
 
 
     public PipelineTimelineEntry getEntryFor(CaseInsensitiveString pipelineName, int pipelineCounter) {
-        scheduleOrderLock.readLock().lock();
-        try {
-            List<PipelineTimelineEntry> instances = scheduleOrderPmm.get(pipelineName);
-            for (int i = instances.size() - 1; i >= 0; i--) {
-                PipelineTimelineEntry instance = instances.get(i);
+        PipelineInstances instances = pipelines.get(pipelineName);
+        if (instances == null) {
+            return null;
+        }
+        return instances.read(() -> {
+            List<PipelineTimelineEntry> scheduleOrder = instances.scheduleOrder;
+            for (int i = scheduleOrder.size() - 1; i >= 0; i--) {
+                PipelineTimelineEntry instance = scheduleOrder.get(i);
                 if (instance.getCounter() == pipelineCounter) {
                     return instance;
                 }
             }
             return null;
-        } finally {
-            scheduleOrderLock.readLock().unlock();
+        });
+    }
+
+    /**
+     * The instances of one pipeline, in natural and in schedule order. Instances are scheduled, and hence added, in
+     * the order of their ids, which lets them be looked up by id without walking the natural order.
+     */
+    private static class PipelineInstances {
+        private final NavigableSet<PipelineTimelineEntry> naturalOrder = new TreeSet<>();
+        private final List<PipelineTimelineEntry> scheduleOrder = new ArrayList<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private void add(PipelineTimelineEntry entry) {
+            naturalOrder.add(entry);
+            scheduleOrder.add(entry);
+            entry.setInsertedBefore(naturalOrder.higher(entry));
+            entry.setInsertedAfter(naturalOrder.lower(entry));
+            entry.updateNaturalOrder();
+        }
+
+        private void remove(PipelineTimelineEntry entry) {
+            naturalOrder.remove(entry);
+            scheduleOrder.remove(entry);
+        }
+
+        private PipelineTimelineEntry withId(long id) {
+            int low = 0;
+            int high = scheduleOrder.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = scheduleOrder.get(mid).getId();
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return scheduleOrder.get(mid);
+                }
+            }
+            // instances added out of id order (only ever done by tests) are not found by the binary search
+            for (PipelineTimelineEntry entry : scheduleOrder) {
+                if (id == entry.getId()) {
+                    return entry;
+                }
+            }
+            throw new RuntimeException("Cannot find pipeline with id: " + id);
+        }
+
+        private <T> T read(Supplier<T> reader) {
+            lock.readLock().lock();
+            try {
+                return reader.get();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void write(Runnable writer) {
+            lock.writeLock().lock();
+            try {
+                writer.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
         }
     }
 
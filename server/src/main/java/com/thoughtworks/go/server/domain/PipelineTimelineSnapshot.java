@@ -0,0 +1,220 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.domain;
+
+import com.thoughtworks.go.domain.PipelineTimelineEntry;
+import com.thoughtworks.go.server.persistence.PipelineRepository;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps a copy of the {@link PipelineTimeline} on disk, so that a server start only has to load the pipelines
+ * scheduled since the copy was written, rather than the timeline of the whole pipeline history.
+ * <p>
+ * The copy is written periodically and on shutdown. It is only used on start if the last pipeline in it is still
+ * in the database, which rules out copies written against another or an older database.
+ */
+@Component
+public class PipelineTimelineSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineTimelineSnapshot.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final PipelineTimeline pipelineTimeline;
+    private final PipelineRepository pipelineRepository;
+    private final File snapshotFile;
+
+    private volatile boolean initialized;
+    private long maximumIdWritten = -1;
+
+    @Autowired
+    public PipelineTimelineSnapshot(PipelineTimeline pipelineTimeline, PipelineRepository pipelineRepository, SystemEnvironment systemEnvironment) {
+        this(pipelineTimeline, pipelineRepository, systemEnvironment.getPipelineTimelineSnapshotFile());
+    }
+
+    PipelineTimelineSnapshot(PipelineTimeline pipelineTimeline, PipelineRepository pipelineRepository, File snapshotFile) {
+        this.pipelineTimeline = pipelineTimeline;
+        this.pipelineRepository = pipelineRepository;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Loads the timeline from the snapshot, if there is a usable one, and then from the database from where the
+     * snapshot left off.
+     */
+    public void initialize() {
+        restore();
+        pipelineTimeline.updateTimelineOnInit();
+        initialized = true;
+    }
+
+    /**
+     * Called periodically, writes the timeline to disk if pipelines have been added to it since it was last written.
+     */
+    public synchronized void write() {
+        if (!initialized) {
+            // never replace a good snapshot with a timeline that has not been loaded yet
+            return;
+        }
+        if (pipelineTimeline.maximumId() == maximumIdWritten) {
+            // nothing was added, no need to copy the whole timeline to find out
+            return;
+        }
+        List<PipelineTimelineEntry> entries = pipelineTimeline.allEntries();
+        long maximumId = entries.isEmpty() ? -1 : entries.getLast().getId();
+        if (maximumId == maximumIdWritten) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(snapshotFile.getAbsoluteFile().getParentFile().toPath());
+            File temp = new File(snapshotFile.getPath() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temp))))) {
+                writeEntries(out, entries);
+            }
+            Files.move(temp.toPath(), snapshotFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+            maximumIdWritten = maximumId;
+            LOGGER.debug("Wrote {} pipeline timeline entries to {}", entries.size(), snapshotFile);
+        } catch (Exception e) {
+            LOGGER.warn("Could not write pipeline timeline snapshot to {}", snapshotFile, e);
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        write();
+    }
+
+    private void restore() {
+        if (!snapshotFile.isFile()) {
+            return;
+        }
+
+        List<PipelineTimelineEntry> entries;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(snapshotFile))))) {
+            entries = readEntries(in);
+        } catch (Exception e) {
+            LOGGER.warn("Ignoring unreadable pipeline timeline snapshot {}, the timeline will be loaded from the database", snapshotFile, e);
+            return;
+        }
+
+        if (entries.isEmpty()) {
+            return;
+        }
+        PipelineTimelineEntry last = entries.getLast();
+        if (!pipelineRepository.hasPipeline(last.getId(), last.getPipelineName(), last.getCounter())) {
+            LOGGER.warn("Ignoring pipeline timeline snapshot {} which does not match the database, the timeline will be loaded from the database", snapshotFile);
+            return;
+        }
+
+        for (PipelineTimelineEntry entry : entries) {
+            pipelineTimeline.add(entry);
+        }
+        maximumIdWritten = last.getId();
+        LOGGER.info("Restored {} pipeline timeline entries from {}", entries.size(), snapshotFile);
+    }
+
+    private static void writeEntries(DataOutputStream out, List<PipelineTimelineEntry> entries) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(entries.size());
+        for (PipelineTimelineEntry entry : entries) {
+            writeString(out, entry.getPipelineName());
+            out.writeLong(entry.getId());
+            out.writeInt(entry.getCounter());
+            out.writeDouble(entry.naturalOrder());
+
+            Map<String, List<PipelineTimelineEntry.Revision>> revisions = entry.revisions();
+            out.writeInt(revisions.size());
+            for (Map.Entry<String, List<PipelineTimelineEntry.Revision>> revisionsOfMaterial : revisions.entrySet()) {
+                writeString(out, revisionsOfMaterial.getKey());
+                out.writeInt(revisionsOfMaterial.getValue().size());
+                for (PipelineTimelineEntry.Revision revision : revisionsOfMaterial.getValue()) {
+                    out.writeLong(revision.date().getTime());
+                    writeString(out, revision.revision());
+                    out.writeLong(revision.id());
+                }
+            }
+        }
+    }
+
+    private static List<PipelineTimelineEntry> readEntries(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported pipeline timeline snapshot version " + version);
+        }
+
+        // share names, fingerprints and revisions between entries, the same way loading from the database does
+        Map<String, String> strings = new HashMap<>();
+        Map<Long, PipelineTimelineEntry.Revision> revisionsById = new HashMap<>();
+
+        int count = in.readInt();
+        List<PipelineTimelineEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String pipelineName = strings.computeIfAbsent(readString(in), k -> k);
+            long id = in.readLong();
+            int counter = in.readInt();
+            double naturalOrder = in.readDouble();
+            PipelineTimelineEntry entry = new PipelineTimelineEntry(pipelineName, id, counter, new HashMap<>(2), naturalOrder);
+
+            int materials = in.readInt();
+            for (int j = 0; j < materials; j++) {
+                String fingerprint = strings.computeIfAbsent(readString(in), k -> k);
+                int revisions = in.readInt();
+                for (int r = 0; r < revisions; r++) {
+                    Date date = new Date(in.readLong());
+                    String revision = readString(in);
+                    long modificationId = in.readLong();
+                    entry.addRevision(fingerprint, revisionsById.computeIfAbsent(modificationId, key -> new PipelineTimelineEntry.Revision(date, revision, modificationId)));
+                }
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
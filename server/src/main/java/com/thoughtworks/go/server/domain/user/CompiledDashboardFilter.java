@@ -0,0 +1,62 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.domain.user;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a {@link DashboardFilter} which answers {@link #isPipelineVisible} with a hash lookup
+ * instead of a scan of the filter's pipeline list. As later changes to the filter do not affect it, it is safe to
+ * remember alongside anything computed with it.
+ */
+public final class CompiledDashboardFilter {
+    private final String name;
+    private final boolean includes;
+    private final Set<CaseInsensitiveString> pipelines;
+
+    CompiledDashboardFilter(String name, boolean includes, Collection<CaseInsensitiveString> pipelines) {
+        this.name = name;
+        this.includes = includes;
+        this.pipelines = Set.copyOf(pipelines);
+    }
+
+    public boolean isPipelineVisible(CaseInsensitiveString pipeline) {
+        return includes == pipelines.contains(pipeline);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CompiledDashboardFilter that = (CompiledDashboardFilter) o;
+        return includes == that.includes &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(pipelines, that.pipelines);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, includes, pipelines);
+    }
+}
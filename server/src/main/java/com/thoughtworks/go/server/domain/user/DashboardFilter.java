@@ -43,4 +43,9 @@ public interface DashboardFilter {
      * @return true if the filter was modified, false if unchanged
      */
     boolean allowPipeline(CaseInsensitiveString pipeline);
+
+    /**
+     * @return an immutable snapshot of this filter, for evaluating it against many pipelines
+     */
+    CompiledDashboardFilter compile();
 }
@@ -36,6 +36,11 @@ public class ExcludesFilter extends AbstractPipelinesFilter {
         return pipelines.remove(pipeline);
     }
 
+    @Override
+    public CompiledDashboardFilter compile() {
+        return new CompiledDashboardFilter(name(), false, pipelines);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -45,6 +45,11 @@ public class IncludesFilter extends AbstractPipelinesFilter {
         return true;
     }
 
+    @Override
+    public CompiledDashboardFilter compile() {
+        return new CompiledDashboardFilter(name(), true, pipelines);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -25,7 +25,7 @@ import com.thoughtworks.go.plugin.infra.monitor.DefaultPluginJarLocationMonitor;
 import com.thoughtworks.go.server.cronjob.GoDiskSpaceMonitor;
 import com.thoughtworks.go.server.dao.PipelineSqlMapDao;
 import com.thoughtworks.go.server.dashboard.GoDashboardActivityListener;
-import com.thoughtworks.go.server.domain.PipelineTimeline;
+import com.thoughtworks.go.server.domain.PipelineTimelineSnapshot;
 import com.thoughtworks.go.server.materials.DependencyMaterialUpdateNotifier;
 import com.thoughtworks.go.server.materials.MaterialUpdateService;
 import com.thoughtworks.go.server.materials.SCMMaterialSource;
@@ -51,7 +51,7 @@ public class ApplicationInitializer implements ApplicationListener<ContextRefres
     @Autowired private PluginsInitializer pluginsInitializer;
     @Autowired private PluginsZip pluginsZip;
     @Autowired private PipelineSqlMapDao pipelineSqlMapDao;
-    @Autowired private PipelineTimeline pipelineTimeline;
+    @Autowired private PipelineTimelineSnapshot pipelineTimelineSnapshot;
     @Autowired private ConfigRepository configRepository;
     @Autowired private InvalidConfigMessageRemover invalidConfigMessageRemover;
     @Autowired private AgentService agentService;
@@ -129,7 +129,7 @@ public class ApplicationInitializer implements ApplicationListener<ContextRefres
             pipelineScheduler.initialize();
             invalidateAuthenticationOnSecurityConfigChangeFilter.initialize();
 
-            pipelineTimeline.updateTimelineOnInit();
+            pipelineTimelineSnapshot.initialize();
             pipelineSqlMapDao.initialize();
             consoleActivityMonitor.populateActivityMap();
             timerScheduler.initialize();
@@ -24,7 +24,7 @@ import com.thoughtworks.go.config.materials.git.GitMaterial;
 import com.thoughtworks.go.config.materials.svn.SvnMaterial;
 import com.thoughtworks.go.domain.materials.Material;
 import com.thoughtworks.go.domain.materials.MaterialConfig;
-import com.thoughtworks.go.listener.ConfigChangedListener;
+import com.thoughtworks.go.listener.AsyncConfigChangedListener;
 import com.thoughtworks.go.listener.EntityConfigChangedListener;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.materials.postcommit.PostCommitHookImplementer;
@@ -64,7 +64,7 @@ import static com.thoughtworks.go.serverhealth.ServerHealthState.warning;
  * Understands when to send requests to update a material on the database
  */
 @Service
-public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCompletedMessage>, ConfigChangedListener {
+public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCompletedMessage>, AsyncConfigChangedListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(MaterialUpdateService.class);
 
     private final MaterialUpdateQueue updateQueue;
@@ -20,6 +20,7 @@ import com.thoughtworks.go.domain.exception.UnregisteredAgentException;
 import com.thoughtworks.go.listener.DatabaseEntityChangeListener;
 import com.thoughtworks.go.remote.AgentIdentifier;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.server.util.UuidGenerator;
@@ -51,6 +52,10 @@ import static java.util.stream.Collectors.toList;
 @SuppressWarnings({"ALL"})
 @Component
 public class AgentDao extends HibernateDaoSupport {
+    static {
+        GoCacheRegion.AGENTS.assign(AgentDao.class);
+    }
+
     private final GoCache cache;
     private final TransactionTemplate transactionTemplate;
     private final TransactionSynchronizationManager synchronizationManager;
@@ -15,6 +15,8 @@
  */
 package com.thoughtworks.go.server.persistence;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.materials.AbstractMaterial;
 import com.thoughtworks.go.config.materials.MaterialConfigs;
@@ -24,6 +26,7 @@ import com.thoughtworks.go.domain.materials.*;
 import com.thoughtworks.go.domain.materials.dependency.DependencyMaterialInstance;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.dao.FeedModifier;
 import com.thoughtworks.go.server.database.Database;
 import com.thoughtworks.go.server.database.QueryExtensions;
@@ -54,8 +57,11 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 import java.io.File;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
+import static com.thoughtworks.go.server.database.ReplicaReads.replicaSafe;
 import static com.thoughtworks.go.server.persistence.MaterialQueries.loadModificationQuery;
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -71,6 +77,11 @@ public class MaterialRepository extends HibernateDaoSupport {
     private static final Logger LOGGER = LoggerFactory.getLogger(MaterialRepository.class.getName());
     private static final int BATCH_SIZE_NUM_PIPELINES_TO_GET_PIPELINE_MATERIAL_REVISIONS = 500;
     private static final int BATCH_SIZE_NUM_PIPELINE_MATERIAL_REVISION_To_GET_MODIFICATIONS = 100;
+    private static final int MAX_MODIFICATIONS_TO_MATCH_PIPELINES_ON = 1000;
+
+    static {
+        GoCacheRegion.MATERIAL_REVISIONS.assign(MaterialRepository.class);
+    }
 
     private final GoCache goCache;
     private final TransactionSynchronizationManager transactionSynchronizationManager;
@@ -79,6 +90,8 @@ public class MaterialRepository extends HibernateDaoSupport {
     private final CacheKeyGenerator cacheKeyGenerator;
     private final int latestModificationsCacheLimit;
     private final MaterialExpansionService materialExpansionService;
+    private final Cache<Long, Modification> sharedModifications = Caffeine.newBuilder().weakValues().build();
+    private final ModificationSearchIndex modificationSearchIndex;
 
     @Autowired
     public MaterialRepository(SessionFactory sessionFactory,
@@ -87,7 +100,24 @@ public class MaterialRepository extends HibernateDaoSupport {
                               TransactionSynchronizationManager transactionSynchronizationManager,
                               MaterialConfigConverter materialConfigConverter,
                               MaterialExpansionService materialExpansionService,
-                              Database databaseStrategy) {
+                              Database databaseStrategy,
+                              SystemEnvironment systemEnvironment) {
+        this(sessionFactory, goCache, latestModificationsCacheLimit, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy,
+            systemEnvironment.get(SystemEnvironment.MODIFICATION_SEARCH_INDEX_MAX_MODIFICATIONS),
+            systemEnvironment.get(SystemEnvironment.MODIFICATION_SEARCH_INDEX_MAX_MODIFICATIONS_PER_MATERIAL),
+            ModificationSearchIndex.backgroundBuilder());
+    }
+
+    MaterialRepository(SessionFactory sessionFactory,
+                       GoCache goCache,
+                       int latestModificationsCacheLimit,
+                       TransactionSynchronizationManager transactionSynchronizationManager,
+                       MaterialConfigConverter materialConfigConverter,
+                       MaterialExpansionService materialExpansionService,
+                       Database databaseStrategy,
+                       int maxIndexedModifications,
+                       int maxIndexedModificationsPerMaterial,
+                       Executor searchIndexBuilder) {
         this.goCache = goCache;
         this.latestModificationsCacheLimit = latestModificationsCacheLimit;
         this.transactionSynchronizationManager = transactionSynchronizationManager;
@@ -96,39 +126,76 @@ public class MaterialRepository extends HibernateDaoSupport {
         this.queryExtensions = databaseStrategy.getQueryExtensions();
         setSessionFactory(sessionFactory);
         this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
+        this.modificationSearchIndex = new ModificationSearchIndex(maxIndexedModifications, maxIndexedModificationsPerMaterial, searchIndexBuilder, new ModificationSearchIndex.Loader() {
+            @Override
+            public long idBeforeLatest(long materialId, int count) {
+                return idOfModificationBeforeLatest(materialId, count);
+            }
+
+            @Override
+            public List<ModificationSearchIndex.Document> load(long materialId, long afterId, int limit) {
+                return loadModificationsToIndex(materialId, afterId, limit);
+            }
+        });
     }
 
     @SuppressWarnings("unchecked")
     public List<Modification> getModificationsForPipelineRange(final String pipelineName,
                                                                final int fromCounter,
                                                                final int toCounter) {
-        return (List<Modification>) getHibernateTemplate().execute(session -> {
-            final List<Long> fromInclusiveModificationList = fromInclusiveModificationsForPipelineRange(session, pipelineName, fromCounter, toCounter);
-
-            final Set<Long> fromModifications = new HashSet<>(fromInclusiveModificationsForPipelineRange(session, pipelineName, fromCounter, fromCounter));
-
-            final Set<Long> fromExclusiveModification = new HashSet<>();
+        return getModificationsForPipelineRange(pipelineName, fromCounter, toCounter, Integer.MAX_VALUE).modifications();
+    }
+
+    /**
+     * Finds the modifications which went into the runs of a pipeline after {@code fromCounter}, up to and including
+     * {@code toCounter}, across its upstream pipelines. Only the latest {@code limitPerMaterial} modifications of every
+     * material are loaded, but all of them are counted.
+     */
+    public PipelineRangeModifications getModificationsForPipelineRange(final String pipelineName,
+                                                                       final int fromCounter,
+                                                                       final int toCounter,
+                                                                       final int limitPerMaterial) {
+        return replicaSafe(() -> getHibernateTemplate().execute(session -> {
+            final List<ModificationOfMaterial> fromInclusiveModificationList = fromInclusiveModificationsForPipelineRange(session, pipelineName, fromCounter, toCounter);
+
+            final Set<Long> fromModifications = new HashSet<>();
+            for (ModificationOfMaterial modification : fromInclusiveModificationsForPipelineRange(session, pipelineName, fromCounter, fromCounter)) {
+                fromModifications.add(modification.id());
+            }
 
-            for (Long modification : fromInclusiveModificationList) {
-                if (!fromModifications.remove(modification)) {
+            final List<ModificationOfMaterial> fromExclusiveModification = new ArrayList<>();
+            for (ModificationOfMaterial modification : fromInclusiveModificationList) {
+                if (!fromModifications.remove(modification.id())) {
                     fromExclusiveModification.add(modification);
                 }
             }
 
+            final Map<Long, Integer> countsByMaterialId = new LinkedHashMap<>();
+            final List<Long> idsToLoad = new ArrayList<>();
+            for (ModificationOfMaterial modification : fromExclusiveModification.isEmpty() ? fromInclusiveModificationList : fromExclusiveModification) {
+                // modifications are ordered by material and then latest first, so the first ones seen are the latest ones
+                if (countsByMaterialId.merge(modification.materialId(), 1, Integer::sum) <= limitPerMaterial) {
+                    idsToLoad.add(modification.id());
+                }
+            }
+
+            if (idsToLoad.isEmpty()) {
+                return new PipelineRangeModifications(new ArrayList<>(), countsByMaterialId);
+            }
+
             SQLQuery query = session.createSQLQuery("SELECT * FROM modifications WHERE id IN (:ids) ORDER BY materialId ASC, id DESC");
             query.addEntity(Modification.class);
-            query.setParameterList("ids", fromExclusiveModification.isEmpty() ? fromInclusiveModificationList : fromExclusiveModification);
-            return query.list();
-        });
+            query.setParameterList("ids", idsToLoad);
+            @SuppressWarnings("unchecked") List<Modification> modifications = query.list();
+            return new PipelineRangeModifications(modifications, countsByMaterialId);
+        }));
     }
 
-    private List<Long> fromInclusiveModificationsForPipelineRange(Session session,
-                                                                  String pipelineName,
-                                                                  int fromCounter,
-                                                                  int toCounter) {
-        String pipelineIdsSql = queryExtensions.queryFromInclusiveModificationsForPipelineRange(pipelineName, fromCounter, toCounter);
-        SQLQuery pipelineIdsQuery = session.createSQLQuery(pipelineIdsSql);
-        @SuppressWarnings("unchecked") final List<Long> ids = pipelineIdsQuery.list();
+    private List<ModificationOfMaterial> fromInclusiveModificationsForPipelineRange(Session session,
+                                                                                  String pipelineName,
+                                                                                  int fromCounter,
+                                                                                  int toCounter) {
+        final Set<Long> ids = upstreamPipelineIdsOfRange(session, pipelineName, fromCounter, toCounter);
         if (ids.isEmpty()) {
             return new ArrayList<>();
         }
@@ -142,17 +209,78 @@ public class MaterialRepository extends HibernateDaoSupport {
             """;
 
         SQLQuery query = session.createSQLQuery("""
-            SELECT mods.id \
+            SELECT mods.id, mods.materialId \
             FROM modifications mods \
                 INNER JOIN (%s) AS edges ON edges.materialId = mods.materialId AND mods.id >= min AND mods.id <= max \
             ORDER BY mods.materialId ASC, mods.id DESC \
             """.formatted(minMaxQuery)
         );
         query.addScalar("id", new LongType());
+        query.addScalar("materialId", new LongType());
         query.setParameterList("ids", ids);
 
-        @SuppressWarnings("unchecked") List<Long> list = query.list();
-        return list;
+        @SuppressWarnings("unchecked") List<Object[]> rows = query.list();
+        List<ModificationOfMaterial> modifications = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            modifications.add(new ModificationOfMaterial((Long) row[0], (Long) row[1]));
+        }
+        return modifications;
+    }
+
+    /**
+     * The runs of the given pipeline in the counter range, along with all the upstream runs they were built from.
+     * The upstream runs of a run never change once it is created, so they are resolved once per run and cached.
+     */
+    private Set<Long> upstreamPipelineIdsOfRange(Session session, String pipelineName, int fromCounter, int toCounter) {
+        SQLQuery pipelineIdsQuery = session.createSQLQuery("SELECT id FROM pipelines WHERE name = :name AND counter >= :fromCounter AND counter <= :toCounter");
+        pipelineIdsQuery.addScalar("id", new LongType());
+        pipelineIdsQuery.setParameter("name", pipelineName);
+        pipelineIdsQuery.setParameter("fromCounter", fromCounter);
+        pipelineIdsQuery.setParameter("toCounter", toCounter);
+        @SuppressWarnings("unchecked") List<Long> pipelineIds = pipelineIdsQuery.list();
+
+        Set<Long> upstreamPipelineIds = new HashSet<>();
+        List<Long> unresolvedPipelineIds = new ArrayList<>();
+        for (Long pipelineId : pipelineIds) {
+            Set<Long> cached = goCache.get(upstreamPipelineIdsKey(pipelineId));
+            if (cached == null) {
+                unresolvedPipelineIds.add(pipelineId);
+            } else {
+                upstreamPipelineIds.addAll(cached);
+            }
+        }
+
+        for (List<Long> batch : ListUtils.partition(unresolvedPipelineIds, BATCH_SIZE_NUM_PIPELINES_TO_GET_PIPELINE_MATERIAL_REVISIONS)) {
+            Map<Long, Set<Long>> resolved = new HashMap<>();
+            for (Map.Entry<PipelineId, Set<Long>> relevantToLookedUp : relevantToLookedUpDependencyMap(session, batch).entrySet()) {
+                for (Long lookedUpPipelineId : relevantToLookedUp.getValue()) {
+                    resolved.computeIfAbsent(lookedUpPipelineId, k -> new HashSet<>()).add(relevantToLookedUp.getKey().getPipelineId());
+                }
+            }
+            for (Long pipelineId : batch) {
+                Set<Long> upstream = Set.copyOf(resolved.getOrDefault(pipelineId, Set.of(pipelineId)));
+                goCache.put(upstreamPipelineIdsKey(pipelineId), upstream);
+                upstreamPipelineIds.addAll(upstream);
+            }
+        }
+        return upstreamPipelineIds;
+    }
+
+    private String upstreamPipelineIdsKey(long pipelineId) {
+        return (MaterialRepository.class.getName() + "_upstreamPipelineIds_" + pipelineId).intern();
+    }
+
+    private record ModificationOfMaterial(long id, long materialId) {
+    }
+
+    /**
+     * Modifications of a range of pipeline runs, with the number of modifications of every material in the range,
+     * which can be more than the modifications loaded when they were limited.
+     */
+    public record PipelineRangeModifications(List<Modification> modifications, Map<Long, Integer> countsByMaterialId) {
+        public int countFor(long materialId) {
+            return countsByMaterialId.getOrDefault(materialId, 0);
+        }
     }
 
     public Map<Long, List<ModificationForPipeline>> findModificationsForPipelineIds(final List<Long> pipelineIds) {
@@ -317,18 +445,29 @@ public class MaterialRepository extends HibernateDaoSupport {
 
     private void loadModificationsForPMR(List<PipelineMaterialRevision> pmrs) {
         List<Criterion> criterions = new ArrayList<>();
+        List<PipelineMaterialRevision> pmrsToLoad = new ArrayList<>();
+        Set<String> rangesToLoad = new HashSet<>();
         for (PipelineMaterialRevision pmr : pmrs) {
-            if (goCache.get(pmrModificationsKey(pmr)) != null) {
+            String cacheKey = pmrModificationsKey(pmr);
+            if (goCache.get(cacheKey) != null) {
                 continue;
             }
-            final Criterion modificationClause = Restrictions.between("id", pmr.getFromModification().getId(), pmr.getToModification().getId());
-            final SimpleExpression idClause = Restrictions.eq("materialInstance", pmr.getMaterialInstance());
-            criterions.add(Restrictions.and(idClause, modificationClause));
+            pmrsToLoad.add(pmr);
+            // pipelines triggered off the same upstream revisions have the same range, it only needs loading once
+            if (rangesToLoad.add(cacheKey)) {
+                final Criterion modificationClause = Restrictions.between("id", pmr.getFromModification().getId(), pmr.getToModification().getId());
+                final SimpleExpression idClause = Restrictions.eq("materialInstance", pmr.getMaterialInstance());
+                criterions.add(Restrictions.and(idClause, modificationClause));
+            }
+        }
+        if (criterions.isEmpty()) {
+            return;
         }
         @SuppressWarnings("unchecked") List<Modification> modifications = (List<Modification>) getHibernateTemplate().findByCriteria(buildModificationDetachedQuery(criterions));
         sortPersistentObjectsById(modifications, false);
+        share(modifications);
         for (Modification modification : modifications) {
-            List<String> cacheKeys = pmrModificationsKey(modification, pmrs);
+            Set<String> cacheKeys = pmrModificationsKey(modification, pmrsToLoad);
             for (String cacheKey : cacheKeys) {
                 List<Modification> modificationList = goCache.get(cacheKey);
                 if (modificationList == null) {
@@ -362,7 +501,8 @@ public class MaterialRepository extends HibernateDaoSupport {
 
     @SuppressWarnings("unchecked")
     List<Modification> findModificationsFor(PipelineMaterialRevision pmr) {
-        String cacheKey = pmrModificationsKey(pmr);
+        long materialId = findMaterialInstance(pmr.getMaterial()).getId();
+        String cacheKey = modificationsInRangeKey(materialId, pmr.getFromModification().getId(), pmr.getToModification().getId());
         List<Modification> modifications = goCache.get(cacheKey);
         if (modifications == null) {
             synchronized (cacheKey) {
@@ -370,7 +510,8 @@ public class MaterialRepository extends HibernateDaoSupport {
                 if (modifications == null) {
                     modifications = (List<Modification>) getHibernateTemplate().find(
                         "FROM Modification WHERE materialId = ? AND id BETWEEN ? AND ? ORDER BY id DESC",
-                        new Object[]{findMaterialInstance(pmr.getMaterial()).getId(), pmr.getFromModification().getId(), pmr.getToModification().getId()});
+                        new Object[]{materialId, pmr.getFromModification().getId(), pmr.getToModification().getId()});
+                    share(modifications);
                     goCache.put(cacheKey, modifications);
                 }
             }
@@ -378,12 +519,25 @@ public class MaterialRepository extends HibernateDaoSupport {
         return modifications;
     }
 
+    /**
+     * Replaces the given modifications, in place, with the instances already held for the same modification ids, so
+     * that modifications appearing in the revisions of many pipelines are only held in memory once.
+     */
+    private void share(List<Modification> modifications) {
+        modifications.replaceAll(modification -> sharedModifications.get(modification.getId(), id -> modification));
+    }
+
     private String pmrModificationsKey(PipelineMaterialRevision pmr) {
+        return modificationsInRangeKey(findMaterialInstance(pmr.getMaterial()).getId(), pmr.getFromModification().getId(), pmr.getToModification().getId());
+    }
+
+    private String modificationsInRangeKey(long materialId, long fromModificationId, long toModificationId) {
+        // keyed by the range rather than the pipeline material revision, as pipelines with shared upstreams have the same ranges
         // we intern() it because we might synchronize on the returned String
-        return (MaterialRepository.class.getName() + "_pmrModifications_" + pmr.getId()).intern();
+        return (MaterialRepository.class.getName() + "_modificationsInRange_" + materialId + "_" + fromModificationId + "_" + toModificationId).intern();
     }
 
-    private List<String> pmrModificationsKey(Modification modification, List<PipelineMaterialRevision> pmrs) {
+    private Set<String> pmrModificationsKey(Modification modification, List<PipelineMaterialRevision> pmrs) {
         final long id = modification.getId();
         final MaterialInstance materialInstance = modification.getMaterialInstance();
         Collection<PipelineMaterialRevision> matchedPmrs = CollectionUtils.select(pmrs, pmr -> {
@@ -392,7 +546,7 @@ public class MaterialRepository extends HibernateDaoSupport {
             MaterialInstance pmi = findMaterialInstance(pmr.getMaterial());
             return from <= id && id <= to && materialInstance.equals(pmi);
         });
-        List<String> keys = new ArrayList<>(matchedPmrs.size());
+        Set<String> keys = new HashSet<>();
         for (PipelineMaterialRevision matchedPmr : matchedPmrs) {
             keys.add(pmrModificationsKey(matchedPmr));
         }
@@ -446,6 +600,7 @@ public class MaterialRepository extends HibernateDaoSupport {
             removeLatestCachedModification(materialInstance);
             removeCachedModificationCountFor(materialInstance);
             removeCachedModificationsFor(materialInstance);
+            addToSearchIndex(materialInstance, List.of(modification));
         } catch (Exception e) {
             String message = "Cannot save modification " + modification;
             LOGGER.error(message, e);
@@ -664,6 +819,15 @@ public class MaterialRepository extends HibernateDaoSupport {
         return new Modifications((List<Modification>) getHibernateTemplate().find("FROM Modification WHERE materialId = ? AND id >= ? ORDER BY id DESC", new Object[]{materialInstance.getId(), sinceModificationId}));
     }
 
+    private void addToSearchIndex(final MaterialInstance materialInstance, final List<Modification> modifications) {
+        transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                modificationSearchIndex.added(materialInstance.getId(), modifications);
+            }
+        });
+    }
+
     private void removeLatestCachedModification(final MaterialInstance materialInstance) {
         transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
             @Override
@@ -763,6 +927,7 @@ public class MaterialRepository extends HibernateDaoSupport {
         removeLatestCachedModification(materialInstance);
         removeCachedModificationCountFor(materialInstance);
         removeCachedModificationsFor(materialInstance);
+        addToSearchIndex(materialInstance, list);
     }
 
     private void checkAndRemoveDuplicates(MaterialInstance materialInstance,
@@ -883,6 +1048,18 @@ public class MaterialRepository extends HibernateDaoSupport {
 
     @SuppressWarnings("unchecked")
     public List<MatchedRevision> findRevisionsMatching(final MaterialConfig materialConfig, final String searchString) {
+        MaterialInstance materialInstance = findMaterialInstance(materialConfig);
+        List<Long> matchingIds = materialInstance == null || hasLikeWildcards(searchString) ? null
+            : modificationSearchIndex.matching(materialInstance.getId(), searchString, id -> true, document -> revisionMatches(document, searchString), 5);
+        if (matchingIds != null) {
+            Material material = materialConfigConverter.toMaterial(materialConfig);
+            final List<MatchedRevision> list = new ArrayList<>();
+            for (Modification mod : modificationsWithIds(matchingIds)) {
+                list.add(material.createMatchedRevision(mod, searchString));
+            }
+            return list;
+        }
+
         return getHibernateTemplate().execute(session -> {
             String sql = """
                 SELECT m.* \
@@ -1091,6 +1268,19 @@ public class MaterialRepository extends HibernateDaoSupport {
 
     @SuppressWarnings("unchecked")
     public List<Modification> findMatchingModifications(long materialId, String pattern, FeedModifier modifier, long cursor, int pageSize) {
+        if (!hasLikeWildcards(pattern)) {
+            String lowerCasedPattern = pattern.toLowerCase();
+            LongPredicate inPage = switch (modifier) {
+                case Latest -> id -> true;
+                case After -> id -> id < cursor;
+                case Before -> id -> id > cursor;
+            };
+            List<Long> matchingIds = modificationSearchIndex.matching(materialId, pattern, inPage, document -> modificationMatches(document, lowerCasedPattern), pageSize);
+            if (matchingIds != null) {
+                return modificationsWithIds(matchingIds);
+            }
+        }
+
         Map<String, Object> params = Map.of(
             "materialId", materialId,
             "pattern", "%" + pattern.toLowerCase() + "%",
@@ -1107,4 +1297,118 @@ public class MaterialRepository extends HibernateDaoSupport {
                 .list();
         });
     }
+
+    /**
+     * Finds the modifications of the materials the runs of a pipeline used, whose comment, user, revision or upstream
+     * pipeline label contain the pattern, which is what {@code PipelineDao.findMatchingPipelineInstances} matches the
+     * modifications of a run on.
+     *
+     * @return the ids of the modifications, or {@code null} if the search index cannot tell or finds too many of them
+     * to look up by id
+     */
+    @Nullable
+    public List<Long> findModificationIdsMatching(String pipelineName, String pattern) {
+        if (hasLikeWildcards(pattern)) {
+            return null;
+        }
+        String lowerCasedPattern = pattern.toLowerCase();
+        List<Long> ids = new ArrayList<>();
+        for (long materialId : materialIdsOfPipeline(pipelineName)) {
+            // one more than may be looked up, to tell when there are too many
+            List<Long> matchingIds = modificationSearchIndex.matching(materialId, pattern, id -> true,
+                document -> modificationMatches(document, lowerCasedPattern) || containsLowerCased(document.upstreamLabel(), lowerCasedPattern),
+                MAX_MODIFICATIONS_TO_MATCH_PIPELINES_ON - ids.size() + 1);
+            if (matchingIds == null) {
+                return null;
+            }
+            ids.addAll(matchingIds);
+            if (ids.size() > MAX_MODIFICATIONS_TO_MATCH_PIPELINES_ON) {
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> materialIdsOfPipeline(String pipelineName) {
+        return getHibernateTemplate().execute(session -> session.createSQLQuery("""
+                SELECT DISTINCT pmr.materialId \
+                FROM pipelineMaterialRevisions pmr \
+                    INNER JOIN pipelines ON pipelines.id = pmr.pipelineId \
+                WHERE pipelines.name = :pipelineName \
+                """)
+            .addScalar("materialId", new LongType())
+            .setString("pipelineName", pipelineName)
+            .list());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Modification> modificationsWithIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getHibernateTemplate().execute(session -> session.createQuery("FROM Modification WHERE id IN (:ids) ORDER BY id DESC")
+            .setParameterList("ids", ids)
+            .list());
+    }
+
+    private long idOfModificationBeforeLatest(long materialId, int count) {
+        Long id = getHibernateTemplate().execute(session -> (Long) session.createSQLQuery("SELECT id FROM modifications WHERE materialId = :materialId ORDER BY id DESC LIMIT 1 OFFSET :count")
+            .addScalar("id", new LongType())
+            .setLong("materialId", materialId)
+            .setInteger("count", count)
+            .uniqueResult());
+        return id == null ? 0 : id;
+    }
+
+    private List<ModificationSearchIndex.Document> loadModificationsToIndex(long materialId, long afterId, int limit) {
+        return getHibernateTemplate().execute(session -> {
+            SQLQuery query = session.createSQLQuery("""
+                SELECT m.id, m.revision, m.userName, m.comment, m.pipelineLabel, upstream.label AS upstreamLabel \
+                FROM modifications m \
+                    LEFT JOIN pipelines upstream ON upstream.id = m.pipelineId \
+                WHERE m.materialId = :materialId AND m.id > :afterId \
+                ORDER BY m.id ASC \
+                LIMIT :size \
+                """);
+            query.addScalar("id", new LongType());
+            query.addScalar("revision", new StringType());
+            query.addScalar("userName", new StringType());
+            query.addScalar("comment", new StringType());
+            query.addScalar("pipelineLabel", new StringType());
+            query.addScalar("upstreamLabel", new StringType());
+            query.setLong("materialId", materialId);
+            query.setLong("afterId", afterId);
+            query.setInteger("size", limit);
+
+            @SuppressWarnings("unchecked") List<Object[]> rows = query.list();
+            List<ModificationSearchIndex.Document> documents = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                documents.add(new ModificationSearchIndex.Document((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4], (String) row[5]));
+            }
+            return documents;
+        });
+    }
+
+    private static boolean hasLikeWildcards(String pattern) {
+        // the index matches text literally, leave patterns relying on LIKE wildcards or escapes to the database
+        return pattern.contains("%") || pattern.contains("_") || pattern.contains("\\");
+    }
+
+    // what findRevisionsMatching asks the database, which matches case-sensitively and looks at the pipeline label too
+    private static boolean revisionMatches(ModificationSearchIndex.Document modification, String searchString) {
+        String revision = modification.revision() + " " + Objects.toString(modification.userName(), "") + " " + Objects.toString(modification.comment(), "");
+        return revision.contains(searchString) || (modification.pipelineLabel() != null && modification.pipelineLabel().contains(searchString));
+    }
+
+    // what findMatchingModifications asks the database, which matches case-insensitively and ignores the pipeline label
+    private static boolean modificationMatches(ModificationSearchIndex.Document modification, String lowerCasedPattern) {
+        return containsLowerCased(modification.comment(), lowerCasedPattern)
+            || containsLowerCased(modification.userName(), lowerCasedPattern)
+            || containsLowerCased(modification.revision(), lowerCasedPattern);
+    }
+
+    private static boolean containsLowerCased(String value, String lowerCasedPattern) {
+        return value != null && value.toLowerCase().contains(lowerCasedPattern);
+    }
 }
@@ -0,0 +1,507 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.persistence;
+
+import com.thoughtworks.go.domain.materials.Modification;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.Comparator.comparingLong;
+
+/**
+ * An in-memory trigram index over the revision, user, comment, pipeline label and upstream pipeline label of the
+ * modifications of a material,
+ * so that searching them does not need a {@code LIKE} scan over every modification of the material.
+ * <p>
+ * The index of a material is built from the database in the background the first time the material is searched. It
+ * holds the latest modifications of the material, up to the given number per material, and those committed since. All
+ * indexes together hold at most the given total number of modifications; when that is exceeded, the least recently
+ * used indexes are dropped, and are built again when next searched. Until the index of a material is built, and for
+ * searches which may match older modifications than the index holds, {@link #matching} answers {@code null} and the
+ * database has to be searched instead. The index keeps the searched fields of every modification, so that the
+ * candidates it finds are checked in memory and only the modifications which match have to be loaded.
+ */
+class ModificationSearchIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModificationSearchIndex.class);
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final int maxModifications;
+    private final int maxModificationsPerMaterial;
+    private final Executor builder;
+    private final Loader loader;
+    // in access order, so the least recently used index comes first; guarded by itself, as is indexedModifications
+    private final LinkedHashMap<Long, MaterialIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private long indexedModifications;
+
+    ModificationSearchIndex(int maxModifications, int maxModificationsPerMaterial, Executor builder, Loader loader) {
+        this.maxModifications = maxModifications;
+        // an index which cannot fit into all indexes would be dropped every time it was built
+        this.maxModificationsPerMaterial = Math.min(maxModificationsPerMaterial, maxModifications);
+        this.builder = builder;
+        this.loader = loader;
+    }
+
+    /**
+     * @param text        the searched text, which the index compares case-insensitively
+     * @param idMatches   tells whether a modification with the given id is wanted at all
+     * @param matches     tells whether a modification which may contain the text really matches the search
+     * @param limit       the most ids to return
+     * @return the ids of up to {@code limit} modifications of the material which match, latest first, or {@code null}
+     * if the index cannot tell
+     */
+    @Nullable
+    List<Long> matching(long materialId, String text, LongPredicate idMatches, Predicate<Document> matches, int limit) {
+        if (maxModifications <= 0 || maxModificationsPerMaterial <= 0 || text.length() < TRIGRAM_LENGTH) {
+            return null;
+        }
+        MaterialIndex index = indexFor(materialId);
+        Iterator<Document> candidates = index.candidates(lowerCased(text));
+        if (candidates == null) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>();
+        while (ids.size() < limit && candidates.hasNext()) {
+            Document candidate = candidates.next();
+            if (idMatches.test(candidate.id()) && matches.test(candidate)) {
+                ids.add(candidate.id());
+            }
+        }
+        // older modifications than the index holds may match too, unless the limit was reached with later ones
+        return ids.size() < limit && !index.holdsAllModifications() ? null : ids;
+    }
+
+    /**
+     * To be called once the given modifications of the material are committed.
+     */
+    void added(long materialId, List<Modification> modifications) {
+        if (maxModifications <= 0 || maxModificationsPerMaterial <= 0) {
+            return;
+        }
+        MaterialIndex index;
+        synchronized (indexes) {
+            index = indexes.get(materialId);
+        }
+        if (index == null) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>();
+        for (Modification modification : modifications) {
+            documents.add(Document.of(modification));
+        }
+        if (index.add(documents)) {
+            accountFor(index);
+        } else {
+            // committed out of order, so it cannot be appended; build it again rather than keep unsorted ids
+            drop(materialId, index);
+        }
+    }
+
+    static Executor backgroundBuilder() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "modification-search-index-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private MaterialIndex indexFor(long materialId) {
+        MaterialIndex index;
+        synchronized (indexes) {
+            index = indexes.get(materialId);
+            if (index != null) {
+                return index;
+            }
+            index = new MaterialIndex();
+            indexes.put(materialId, index);
+        }
+        MaterialIndex indexToBuild = index;
+        builder.execute(() -> build(materialId, indexToBuild));
+        return index;
+    }
+
+    private void build(long materialId, MaterialIndex index) {
+        try {
+            long afterId = loader.idBeforeLatest(materialId, maxModificationsPerMaterial);
+            index.holdModificationsAfter(afterId);
+            List<Document> batch;
+            do {
+                if (index.dropped) {
+                    return;
+                }
+                batch = loader.load(materialId, afterId, LOAD_BATCH_SIZE);
+                index.load(batch);
+                accountFor(index);
+                if (!batch.isEmpty()) {
+                    afterId = batch.getLast().id();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            if (!index.ready()) {
+                // a modification committed while loading was neither loaded nor after the loaded ones
+                drop(materialId, index);
+                indexFor(materialId);
+                return;
+            }
+            accountFor(index);
+        } catch (Exception e) {
+            LOGGER.warn("Could not build the search index of the modifications of material {}", materialId, e);
+            drop(materialId, index);
+        }
+    }
+
+    /**
+     * Records the current size of the index, dropping the least recently used other indexes while all of them together
+     * hold more modifications than allowed, and the index itself if it holds more than allowed on its own. Never takes
+     * the lock of an index while holding the map, so it must be called after the index has been changed rather than
+     * while changing it.
+     */
+    private void accountFor(MaterialIndex index) {
+        int size = index.size();
+        synchronized (indexes) {
+            if (index.dropped) {
+                return;
+            }
+            indexedModifications += size - index.accountedSize;
+            index.accountedSize = size;
+            Iterator<MaterialIndex> leastRecentlyUsedFirst = indexes.values().iterator();
+            while (indexedModifications > maxModifications && leastRecentlyUsedFirst.hasNext()) {
+                MaterialIndex other = leastRecentlyUsedFirst.next();
+                if (other != index) {
+                    leastRecentlyUsedFirst.remove();
+                    forget(other);
+                }
+            }
+            if (indexedModifications > maxModifications) {
+                LOGGER.info("The search index of the modifications of a material holds more than {} modifications, and is dropped.", maxModifications);
+                indexes.values().remove(index);
+                forget(index);
+            }
+        }
+    }
+
+    private void drop(long materialId, MaterialIndex index) {
+        synchronized (indexes) {
+            if (!index.dropped) {
+                indexes.remove(materialId, index);
+                forget(index);
+            }
+        }
+    }
+
+    private void forget(MaterialIndex index) {
+        indexedModifications -= index.accountedSize;
+        index.accountedSize = 0;
+        index.dropped = true;
+    }
+
+    private static Set<Long> trigramsOf(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static String lowerCased(String text) {
+        // char by char, so that the text keeps its length and the trigrams of a part of it are trigrams of all of it
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    interface Loader {
+        /**
+         * @return the id of the latest modification of the material which is not among its latest {@code count}
+         * modifications, or {@code 0} if it has no more than {@code count} modifications
+         */
+        long idBeforeLatest(long materialId, int count);
+
+        /**
+         * @return up to {@code limit} modifications of the material with an id greater than {@code afterId}, by id
+         */
+        List<Document> load(long materialId, long afterId, int limit);
+    }
+
+    /**
+     * The searched fields of a modification. The upstream label is the label of the upstream pipeline run which a
+     * modification of a dependency material stands for.
+     */
+    record Document(long id, String revision, String userName, String comment, String pipelineLabel, String upstreamLabel) {
+        static Document of(Modification modification) {
+            // a new modification of a dependency material is labelled with its upstream pipeline run
+            String upstreamLabel = modification.getPipelineId() == null ? null : modification.getPipelineLabel();
+            return new Document(modification.getId(), modification.getRevision(), modification.getUserName(), modification.getComment(), modification.getPipelineLabel(), upstreamLabel);
+        }
+
+        private String indexedText() {
+            return lowerCased(Objects.toString(revision, "") + " " + Objects.toString(userName, "") + " " + Objects.toString(comment, "")
+                + "\n" + Objects.toString(pipelineLabel, "") + "\n" + Objects.toString(upstreamLabel, ""));
+        }
+    }
+
+    private static class MaterialIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private final List<Document> pending = new ArrayList<>();
+        private Document[] documents = new Document[64];
+        private int size;
+        private long heldAfterId;
+        private boolean ready;
+        // guarded by the indexes of the ModificationSearchIndex
+        private int accountedSize;
+        private volatile boolean dropped;
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void holdModificationsAfter(long id) {
+            lock.writeLock().lock();
+            try {
+                heldAfterId = id;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean holdsAllModifications() {
+            lock.readLock().lock();
+            try {
+                return heldAfterId == 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void load(List<Document> documents) {
+            lock.writeLock().lock();
+            try {
+                for (Document document : documents) {
+                    append(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * @return {@code false} if a modification committed while the index was being loaded is missing from it, in
+         * which case the index has to be built again
+         */
+        boolean ready() {
+            lock.writeLock().lock();
+            try {
+                // modifications committed while the index was being loaded, some of which may have been loaded already
+                pending.sort(comparingLong(Document::id));
+                for (Document document : pending) {
+                    if (document.id() <= heldAfterId) {
+                        continue;
+                    }
+                    if (size > 0 && document.id() <= lastId()) {
+                        if (contains(document.id())) {
+                            continue;
+                        }
+                        return false;
+                    }
+                    append(document);
+                }
+                pending.clear();
+                ready = true;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean add(List<Document> documents) {
+            lock.writeLock().lock();
+            try {
+                if (!ready) {
+                    pending.addAll(documents);
+                    return true;
+                }
+                List<Document> sorted = new ArrayList<>(documents);
+                sorted.sort(comparingLong(Document::id));
+                for (Document document : sorted) {
+                    if (document.id() <= heldAfterId) {
+                        continue;
+                    }
+                    if (size > 0 && document.id() <= lastId()) {
+                        if (contains(document.id())) {
+                            continue;
+                        }
+                        return false;
+                    }
+                    append(document);
+                }
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Nullable
+        Iterator<Document> candidates(String lowerCasedText) {
+            lock.readLock().lock();
+            try {
+                if (!ready) {
+                    return null;
+                }
+                List<PostingsSnapshot> snapshots = new ArrayList<>();
+                for (long trigram : trigramsOf(lowerCasedText)) {
+                    Postings postingsOfTrigram = postings.get(trigram);
+                    if (postingsOfTrigram == null) {
+                        return Collections.emptyIterator();
+                    }
+                    snapshots.add(postingsOfTrigram.snapshot());
+                }
+                snapshots.sort(comparingInt(PostingsSnapshot::length));
+                // appending never changes what is already in the arrays, so they can be read once the lock is released
+                return new Candidates(snapshots, documents);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private long lastId() {
+            return documents[size - 1].id();
+        }
+
+        private boolean contains(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long middleId = documents[middle].id();
+                if (middleId < id) {
+                    low = middle + 1;
+                } else if (middleId > id) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void append(Document document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            int ordinal = size;
+            documents[size++] = document;
+            for (long trigram : trigramsOf(document.indexedText())) {
+                postings.computeIfAbsent(trigram, k -> new Postings()).add(ordinal);
+            }
+        }
+    }
+
+    private static class Postings {
+        private int[] ordinals = new int[4];
+        private int length;
+
+        void add(int ordinal) {
+            if (length == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, length * 2);
+            }
+            ordinals[length++] = ordinal;
+        }
+
+        PostingsSnapshot snapshot() {
+            return new PostingsSnapshot(ordinals, length);
+        }
+    }
+
+    private record PostingsSnapshot(int[] ordinals, int length) {
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, length, ordinal) >= 0;
+        }
+    }
+
+    /**
+     * Walks the shortest postings from the latest modification backwards, keeping the ones found in all other postings.
+     */
+    private static class Candidates implements Iterator<Document> {
+        private final List<PostingsSnapshot> postings;
+        private final Document[] documents;
+        private int position;
+        private Document next;
+
+        Candidates(List<PostingsSnapshot> postings, Document[] documents) {
+            this.postings = postings;
+            this.documents = documents;
+            this.position = postings.getFirst().length();
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Document next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Document current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            PostingsSnapshot shortest = postings.getFirst();
+            while (--position >= 0) {
+                int ordinal = shortest.ordinals()[position];
+                if (inAllPostings(ordinal)) {
+                    next = documents[ordinal];
+                    return;
+                }
+            }
+            next = null;
+        }
+
+        private boolean inAllPostings(int ordinal) {
+            for (int i = 1; i < postings.size(); i++) {
+                if (!postings.get(i).contains(ordinal)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.thoughtworks.go.server.persistence;
 
 import com.thoughtworks.go.domain.PipelineTimelineEntry;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.database.Database;
 import com.thoughtworks.go.server.database.QueryExtensions;
 import com.thoughtworks.go.server.domain.PipelineTimeline;
@@ -43,6 +44,10 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 @Component
 public class PipelineRepository extends HibernateDaoSupport {
     private static final Logger LOGGER = LoggerFactory.getLogger(PipelineRepository.class);
+
+    static {
+        GoCacheRegion.USERS.assign(PipelineRepository.class);
+    }
     private final QueryExtensions queryExtensions;
     private final GoCache goCache;
 
@@ -61,6 +66,15 @@ public class PipelineRepository extends HibernateDaoSupport {
         return query.executeUpdate();
     }
 
+    public boolean hasPipeline(long pipelineId, String pipelineName, int counter) {
+        return getHibernateTemplate().execute(session -> {
+            SQLQuery query = session.createSQLQuery("SELECT name, counter FROM pipelines WHERE id = :pipelineId");
+            query.setLong("pipelineId", pipelineId);
+            Object[] row = (Object[]) query.uniqueResult();
+            return row != null && pipelineName.equalsIgnoreCase((String) row[0]) && counter == ((Number) row[1]).intValue();
+        });
+    }
+
     public void updatePipelineTimeline(final PipelineTimeline pipelineTimeline, final List<PipelineTimelineEntry> tempEntriesForRollback) {
         getHibernateTemplate().execute(new HibernateCallback<>() {
             private static final int PIPELINE_NAME = 0;
@@ -126,17 +140,22 @@ public class PipelineRepository extends HibernateDaoSupport {
                 BigInteger lastId = null;
                 PipelineTimelineEntry lastEntry = null;
 
+                // every row carries its own copy of the pipeline name and the fingerprint, and runs that picked up the
+                // same modification get a row each, so share them rather than keeping a copy per pipeline run
+                Map<String, String> strings = new HashMap<>();
+                Map<Long, PipelineTimelineEntry.Revision> revisions = new HashMap<>();
+
                 for (Object[] row : matches) {
                     BigInteger id = id(row);
 
                     // New row
                     if (!id.equals(lastId)) {
                         lastId = id;
-                        lastEntry = new PipelineTimelineEntry(pipelineName(row), lastId.longValue(), counter(row), new HashMap<>(), naturalOrder(row));
+                        lastEntry = new PipelineTimelineEntry(strings.computeIfAbsent(pipelineName(row), k -> k), lastId.longValue(), counter(row), new HashMap<>(2), naturalOrder(row));
                         newPipelines.add(lastEntry);
                     }
 
-                    lastEntry.addRevision(fingerprint(row), rev(row));
+                    lastEntry.addRevision(strings.computeIfAbsent(fingerprint(row), k -> k), revisions.computeIfAbsent(modId(row), k -> rev(row)));
                 }
                 return newPipelines;
             }
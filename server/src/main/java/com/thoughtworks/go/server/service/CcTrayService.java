@@ -15,6 +15,9 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thoughtworks.go.config.PluginRoleUsersStore;
 import com.thoughtworks.go.domain.activity.ProjectStatus;
 import com.thoughtworks.go.domain.cctray.CcTrayCache;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -22,16 +25,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Service
 public class CcTrayService {
+    private static final int MAXIMUM_VIEWS = 10_000;
+
     private final CcTrayCache ccTrayCache;
     private final GoConfigService goConfigService;
+    /* The projects each user can see, for as long as neither the projects nor the plugin role memberships change. */
+    private final Cache<ViewKey, View> views = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_VIEWS)
+        .expireAfterAccess(Duration.ofMinutes(10))
+        .build();
 
     @Autowired
     public CcTrayService(CcTrayCache ccTrayCache, GoConfigService goConfigService) {
@@ -39,26 +51,28 @@ public class CcTrayService {
         this.goConfigService = goConfigService;
     }
 
-    public Appendable renderCCTrayXML(String siteUrlPrefix, String userName, Appendable appendable, Consumer<String> etagConsumer) {
-        boolean isSecurityEnabled = goConfigService.isSecurityEnabled();
-        List<ProjectStatus> statuses = ccTrayCache.allEntriesInOrder();
+    /**
+     * @return the etag of the feed {@link #renderCCTrayXML} would render right now, so that it need not be rendered
+     * when the client already has it
+     */
+    public String etagFor(String siteUrlPrefix, String userName) {
+        return viewFor(siteUrlPrefix, userName).etag();
+    }
 
-        String hashCodes = statuses.stream().map(ProjectStatus::hashCode).map(Object::toString).collect(Collectors.joining("/"));
-        String etag = DigestUtils.sha256Hex(siteUrlPrefix + "/" + hashCodes);
-        etagConsumer.accept(etag);
+    public Appendable renderCCTrayXML(String siteUrlPrefix, String userName, Appendable appendable, Consumer<String> etagConsumer) {
+        View view = viewFor(siteUrlPrefix, userName);
+        etagConsumer.accept(view.etag());
 
         try {
             appendable.append("""
                 <?xml version="1.0" encoding="utf-8"?>
                 <Projects>
                 """);
-            for (ProjectStatus status : statuses) {
-                if (!isSecurityEnabled || status.canBeViewedBy(userName)) {
-                    String xmlRepresentation = status.xmlRepresentation().replaceAll(ProjectStatus.SITE_URL_PREFIX, siteUrlPrefix);
-                    if (!isBlank(xmlRepresentation)) {
-                        appendable.append("  ").append(xmlRepresentation).append('\n');
-                    }
-                }
+            BitSet visibleProjects = view.visibleProjects();
+            for (int i = visibleProjects.nextSetBit(0); i >= 0; i = visibleProjects.nextSetBit(i + 1)) {
+                appendable.append("  ");
+                appendXmlRepresentation(appendable, view.statuses().get(i), siteUrlPrefix);
+                appendable.append('\n');
             }
 
             appendable.append("</Projects>");
@@ -68,4 +82,52 @@ public class CcTrayService {
 
         return appendable;
     }
+
+    private void appendXmlRepresentation(Appendable appendable, ProjectStatus status, String siteUrlPrefix) throws IOException {
+        String[] parts = status.xmlRepresentationParts();
+        appendable.append(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            appendable.append(siteUrlPrefix).append(parts[i]);
+        }
+    }
+
+    private View viewFor(String siteUrlPrefix, String userName) {
+        boolean isSecurityEnabled = goConfigService.isSecurityEnabled();
+        List<ProjectStatus> statuses = ccTrayCache.allEntriesInOrder();
+        long roleUsersVersion = PluginRoleUsersStore.instance().version();
+
+        // everyone sees the same projects when security is disabled
+        ViewKey key = new ViewKey(siteUrlPrefix, isSecurityEnabled ? userName.toLowerCase() : null);
+        View view = views.getIfPresent(key);
+        if (view != null && view.isFor(statuses, roleUsersVersion)) {
+            return view;
+        }
+
+        view = View.of(siteUrlPrefix, statuses, roleUsersVersion, status -> !isSecurityEnabled || status.canBeViewedBy(userName));
+        views.put(key, view);
+        return view;
+    }
+
+    private record ViewKey(String siteUrlPrefix, String username) {
+    }
+
+    private record View(List<ProjectStatus> statuses, long roleUsersVersion, BitSet visibleProjects, String etag) {
+        static View of(String siteUrlPrefix, List<ProjectStatus> statuses, long roleUsersVersion, Predicate<ProjectStatus> isVisible) {
+            BitSet visibleProjects = new BitSet(statuses.size());
+            StringBuilder hashCodes = new StringBuilder();
+            for (int i = 0; i < statuses.size(); i++) {
+                ProjectStatus status = statuses.get(i);
+                if (isVisible.test(status) && !isBlank(status.xmlRepresentation())) {
+                    visibleProjects.set(i);
+                    hashCodes.append('/').append(status.hashCode());
+                }
+            }
+            return new View(statuses, roleUsersVersion, visibleProjects, DigestUtils.sha256Hex(siteUrlPrefix + hashCodes));
+        }
+
+        // compared by identity, as the cache replaces the list whenever a project changes
+        boolean isFor(List<ProjectStatus> statuses, long roleUsersVersion) {
+            return this.statuses == statuses && this.roleUsersVersion == roleUsersVersion;
+        }
+    }
 }
@@ -57,14 +57,47 @@ public class ChangesetService {
 
     public List<MaterialRevision> revisionsBetween(String pipelineName, int fromCounter, int toCounter, Username username, HttpLocalizedOperationResult result,
                                                    boolean showBisect) {
+        CounterRange range = rangeToCompare(pipelineName, fromCounter, toCounter, username, result, showBisect);
+        if (range == null) {
+            return new ArrayList<>();
+        }
+
+        List<MaterialRevision> allMaterialRevisions = modificationsPerMaterialBetween(pipelineName, range.fromCounter(), range.toCounter());
+        return filterReachableFingerprintHolders(allMaterialRevisions, materialRevision -> materialRevision.getMaterial().getFingerprint(), pipelineName, username);
+    }
+
+    /**
+     * Like {@link #revisionsBetween}, but only loads the latest {@code limitPerMaterial} modifications of every material
+     * and counts the rest, so that comparing runs far apart does not load every modification in between.
+     */
+    public ChangesetSummary summaryBetween(String pipelineName, int fromCounter, int toCounter, int limitPerMaterial, Username username,
+                                           HttpLocalizedOperationResult result, boolean showBisect) {
+        CounterRange range = rangeToCompare(pipelineName, fromCounter, toCounter, username, result, showBisect);
+        if (range == null) {
+            return new ChangesetSummary(new ArrayList<>(), new HashMap<>());
+        }
+
+        MaterialRepository.PipelineRangeModifications modifications = materialRepository.getModificationsForPipelineRange(pipelineName, range.fromCounter(), range.toCounter(), limitPerMaterial);
+        List<MaterialRevision> allMaterialRevisions = deduplicateRevisionsForMaterial(modifications.modifications());
+        List<MaterialRevision> revisions = filterReachableFingerprintHolders(allMaterialRevisions, materialRevision -> materialRevision.getMaterial().getFingerprint(), pipelineName, username);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (MaterialRevision revision : revisions) {
+            long materialId = revision.getModifications().getFirst().getMaterialInstance().getId();
+            counts.put(revision.getMaterial().getFingerprint(), modifications.countFor(materialId));
+        }
+        return new ChangesetSummary(revisions, counts);
+    }
+
+    private CounterRange rangeToCompare(String pipelineName, int fromCounter, int toCounter, Username username, HttpLocalizedOperationResult result, boolean showBisect) {
         if (!securityService.hasViewPermissionForPipeline(username, pipelineName)) {
             result.forbidden(EntityType.Pipeline.forbiddenToView(pipelineName, username.getUsername()), HealthStateType.general(HealthStateScope.forPipeline(pipelineName)));
-            return new ArrayList<>();
+            return null;
         }
 
         if (!goConfigService.hasPipelineNamed(new CaseInsensitiveString(pipelineName))) {
             result.notFound(EntityType.Pipeline.notFoundMessage(pipelineName), general(forPipeline(pipelineName)));
-            return new ArrayList<>();
+            return null;
         }
 
         if (fromCounter == toCounter) {
@@ -73,11 +106,11 @@ public class ChangesetService {
 
         if (fromCounter < 0 || toCounter <= 0) {
             result.badRequest("Pipeline counters should be positive.");
-            return new ArrayList<>();
+            return null;
         }
 
         if (fromCounter > toCounter) {
-            return revisionsBetween(pipelineName, toCounter, fromCounter, username, result, showBisect);
+            return rangeToCompare(pipelineName, toCounter, fromCounter, username, result, showBisect);
         }
 
         if (!showBisect) {
@@ -85,13 +118,15 @@ public class ChangesetService {
                 Pipeline toPipeline = pipelineDao.findPipelineByNameAndCounter(pipelineName, toCounter);
                 Pipeline fromPipeline = pipelineDao.findPipelineByNameAndCounter(pipelineName, fromCounter);
                 if (toPipeline.isBisect() || fromPipeline.isBisect()) {
-                    return new ArrayList<>();
+                    return null;
                 }
             }
         }
 
-        List<MaterialRevision> allMaterialRevisions = modificationsPerMaterialBetween(pipelineName, fromCounter, toCounter);
-        return filterReachableFingerprintHolders(allMaterialRevisions, materialRevision -> materialRevision.getMaterial().getFingerprint(), pipelineName, username);
+        return new CounterRange(fromCounter, toCounter);
+    }
+
+    private record CounterRange(int fromCounter, int toCounter) {
     }
 
     private <T> List<T> filterReachableFingerprintHolders(List<T> allFingerprintHolders, final FingerprintLoader<T> fingerprintLoader, String pipelineName, Username username) {
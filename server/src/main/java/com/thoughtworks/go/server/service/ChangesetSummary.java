@@ -0,0 +1,31 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.domain.MaterialRevision;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes between two runs of a pipeline, with only the latest modifications of every material, and the number
+ * of modifications of every material in the whole range.
+ */
+public record ChangesetSummary(List<MaterialRevision> revisions, Map<String, Integer> modificationCountsByFingerprint) {
+    public int modificationCountOf(MaterialRevision revision) {
+        return modificationCountsByFingerprint.getOrDefault(revision.getMaterial().getFingerprint(), revision.getModifications().size());
+    }
+}
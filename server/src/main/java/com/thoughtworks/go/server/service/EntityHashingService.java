@@ -15,6 +15,8 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.thoughtworks.go.config.*;
 import com.thoughtworks.go.config.elastic.ClusterProfile;
 import com.thoughtworks.go.config.elastic.ElasticProfile;
@@ -32,6 +34,7 @@ import com.thoughtworks.go.listener.ConfigChangedListener;
 import com.thoughtworks.go.listener.EntityConfigChangedListener;
 import com.thoughtworks.go.plugin.domain.common.CombinedPluginInfo;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.domain.PluginSettings;
 import com.thoughtworks.go.server.initializers.Initializer;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,12 +49,22 @@ import java.util.stream.Stream;
 
 @Component
 public class EntityHashingService implements ConfigChangedListener, Initializer {
-    static final String ETAG_CACHE_KEY = "GO_ETAG_CACHE";
+    static final String ETAG_CACHE_KEY = EntityHashingService.class.getName() + "_GO_ETAG_CACHE";
+
+    static {
+        GoCacheRegion.ENTITY_DIGESTS.assign(EntityHashingService.class);
+    }
 
     private final GoConfigService goConfigService;
     private final GoCache goCache;
     private final PartialConfigHelper partials;
     private final EntityHashes hashes;
+    /**
+     * Digests of the config entities of the current config version, keyed by entity identity (weakly, so entities of
+     * older config versions can be collected). A config change replaces the entities it touches with new instances,
+     * so repeated requests against an unchanged config never go through the {@link GoCache} or re-serialize an entity.
+     */
+    private final Cache<Object, String> currentConfigDigests = Caffeine.newBuilder().weakKeys().build();
 
     @Autowired
     public EntityHashingService(GoConfigService goConfigService, GoCache goCache, PartialConfigHelper partials, EntityHashes hashes) {
@@ -212,6 +225,7 @@ public class EntityHashingService implements ConfigChangedListener, Initializer
 
     @Override
     public void onConfigChange(CruiseConfig newCruiseConfig) {
+        currentConfigDigests.invalidateAll();
         goCache.remove(ETAG_CACHE_KEY);
     }
 
@@ -400,6 +414,7 @@ public class EntityHashingService implements ConfigChangedListener, Initializer
     }
 
     public void removeFromCache(Object domainObject, String name) {
+        currentConfigDigests.invalidateAll();
         goCache.remove(ETAG_CACHE_KEY, cacheKey(domainObject, name));
     }
 
@@ -450,14 +465,14 @@ public class EntityHashingService implements ConfigChangedListener, Initializer
 
     /**
      * Digests and caches a configuration entity This delegates to {@link EntityHashes#digestDomainConfigEntity(Object)}
-     * which will do a full content digest.
+     * which will do a full content digest, but only once per entity instance of the current config version.
      *
      * @param cacheKey a {@link String} that describes a cache location unique to this entity
      * @param entity   the config entity to be digested
      * @return the content digest of the entity (possibly retrieved from a cache hit)
      */
     private String getConfigEntityDigestFromCache(String cacheKey, Object entity) {
-        return getFromCache(cacheKey, () -> hashes.digestDomainConfigEntity(entity));
+        return currentConfigDigests.get(entity, e -> getFromCache(cacheKey, () -> hashes.digestDomainConfigEntity(e)));
     }
 
     private String getFromCache(String cacheKey, Supplier<String> digestSupplier) {
@@ -64,6 +64,7 @@ public class EnvironmentConfigService implements ConfigChangedListener, AgentCha
 
     private EnvironmentsConfig environments;
     private EnvironmentPipelineMatchers matchers;
+    private Map<CaseInsensitiveString, EnvironmentConfig> environmentsByPipeline = new HashMap<>();
 
     public EnvironmentConfigService() {
     }
@@ -111,14 +112,14 @@ public class EnvironmentConfigService implements ConfigChangedListener, AgentCha
     }
 
     public EnvironmentConfig environmentForPipeline(String pipelineName) {
-        return environments.findEnvironmentForPipeline(new CaseInsensitiveString(pipelineName));
+        return environmentsByPipeline.get(new CaseInsensitiveString(pipelineName));
     }
 
     public Agents agentsForPipeline(final CaseInsensitiveString pipelineName) {
         Agents agents = new Agents();
 
-        if (environments.isPipelineAssociatedWithAnyEnvironment(pipelineName)) {
-            EnvironmentConfig pipelineEnvConfig = environments.findEnvironmentForPipeline(pipelineName);
+        EnvironmentConfig pipelineEnvConfig = environmentsByPipeline.get(pipelineName);
+        if (pipelineEnvConfig != null) {
             for (EnvironmentAgentConfig envAgentConfig : pipelineEnvConfig.getAgents()) {
                 agents.add(agentService.getAgentByUUID(envAgentConfig.getUuid()));
             }
@@ -274,6 +275,7 @@ public class EnvironmentConfigService implements ConfigChangedListener, AgentCha
     void syncEnvironments(EnvironmentsConfig envsConfig) {
         if (envsConfig != null) {
             environments = envsConfig;
+            environmentsByPipeline = environmentsByPipeline(envsConfig);
             agentService.getAgentInstances().forEach(this::syncAssociatedAgentFromDB);
             matchers = envsConfig.matchers();
         }
@@ -284,6 +286,17 @@ public class EnvironmentConfigService implements ConfigChangedListener, AgentCha
         syncEnvironments(newCruiseConfig.getEnvironments());
     }
 
+    private static Map<CaseInsensitiveString, EnvironmentConfig> environmentsByPipeline(EnvironmentsConfig envsConfig) {
+        Map<CaseInsensitiveString, EnvironmentConfig> byPipeline = new HashMap<>();
+        for (EnvironmentConfig envConfig : envsConfig) {
+            for (CaseInsensitiveString pipelineName : envConfig.getPipelineNames()) {
+                // a pipeline can only belong to one environment, keep the first one like EnvironmentsConfig does
+                byPipeline.putIfAbsent(pipelineName, envConfig);
+            }
+        }
+        return byPipeline;
+    }
+
     private void removeAgentFromCurrentlyAssociatedEnvironments(String uuid, Stream<String> envNames) {
         envNames.map(this::find)
             .filter(envConfig -> isEnvironmentAssociatedWithAgentLocally(envConfig, uuid))
@@ -317,7 +330,7 @@ public class EnvironmentConfigService implements ConfigChangedListener, AgentCha
         for (PipelineConfig pipelineConfig : pipelineConfigs) {
             String pipelineName = str(pipelineConfig.name());
             if (securityService.hasViewPermissionForPipeline(user, pipelineName)) {
-                EnvironmentConfig environment = environments.findEnvironmentForPipeline(new CaseInsensitiveString(pipelineName));
+                EnvironmentConfig environment = environmentsByPipeline.get(pipelineConfig.name());
                 if (environment != null) {
                     pipelines.add(new EnvironmentPipelineModel(pipelineName, str(environment.name())));
                 } else {
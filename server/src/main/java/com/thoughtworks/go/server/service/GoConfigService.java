@@ -35,6 +35,7 @@ import com.thoughtworks.go.domain.packagerepository.PackageRepository;
 import com.thoughtworks.go.domain.scm.SCMs;
 import com.thoughtworks.go.listener.BaseUrlChangeListener;
 import com.thoughtworks.go.listener.ConfigChangedListener;
+import com.thoughtworks.go.listener.EntityConfigChangedListener;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.domain.PipelineConfigDependencyGraph;
 import com.thoughtworks.go.server.domain.Username;
@@ -92,6 +93,7 @@ public class GoConfigService implements Initializer, CruiseConfigProvider {
     private final MagicalGoConfigXmlLoader xmlLoader;
 
     private Clock clock = new SystemTimeClock();
+    private volatile PipelineConfigIndex pipelineConfigIndex;
 
     @Autowired
     public GoConfigService(GoConfigDao goConfigDao,
@@ -128,6 +130,7 @@ public class GoConfigService implements Initializer, CruiseConfigProvider {
     public void initialize() {
         this.goConfigDao.currentConfig();
         register(new BaseUrlChangeListener(serverConfig().getSiteUrl(), serverConfig().getSecureSiteUrl(), goCache));
+        register(new PipelineConfigIndexInvalidator());
         File dir = artifactsDir();
         if (!dir.exists()) {
             boolean success = dir.mkdirs();
@@ -421,9 +424,20 @@ public class GoConfigService implements Initializer, CruiseConfigProvider {
     }
 
     public List<CaseInsensitiveString> pipelinesWithMaterial(String fingerprint) {
-        List<CaseInsensitiveString> pipelineNames = new ArrayList<>();
-        getAllPipelineConfigs().forEach(pipeline -> pipeline.materialConfigs().stream().filter(materialConfig -> materialConfig.getFingerprint().equals(fingerprint)).findFirst().ifPresent(expectedMaterialConfig -> pipelineNames.add(pipeline.name())));
-        return pipelineNames;
+        return new ArrayList<>(pipelineConfigIndex().pipelinesWithMaterial(fingerprint));
+    }
+
+    /**
+     * @return the lookup index over the current config, rebuilt at most once per config version
+     */
+    public PipelineConfigIndex pipelineConfigIndex() {
+        CruiseConfig currentConfig = getCurrentConfig();
+        PipelineConfigIndex index = pipelineConfigIndex;
+        if (index == null || !index.isFor(currentConfig)) {
+            index = new PipelineConfigIndex(currentConfig);
+            pipelineConfigIndex = index;
+        }
+        return index;
     }
 
     public List<PackageDefinition> getPackages() {
@@ -552,6 +566,9 @@ public class GoConfigService implements Initializer, CruiseConfigProvider {
     }
 
     public PipelineConfigDependencyGraph upstreamDependencyGraphOf(String pipelineName, CruiseConfig currentConfig) {
+        if (currentConfig == getCurrentConfig()) {
+            return pipelineConfigIndex().upstreamDependencyGraphOf(new CaseInsensitiveString(pipelineName));
+        }
         return findUpstream(currentConfig.pipelineConfigByName(new CaseInsensitiveString(pipelineName)));
     }
 
@@ -713,11 +730,7 @@ public class GoConfigService implements Initializer, CruiseConfigProvider {
     }
 
     public @Nullable PipelineConfig findPipelineByName(CaseInsensitiveString pipelineName) {
-        return getAllPipelineConfigs()
-            .stream()
-            .filter(pipelineConfig -> pipelineConfig.getName().equals(pipelineName))
-            .findFirst()
-            .orElse(null);
+        return pipelineConfigIndex().pipelineNamed(pipelineName);
     }
 
     public SecretConfig getSecretConfigById(String secretConfigId) {
@@ -728,6 +741,18 @@ public class GoConfigService implements Initializer, CruiseConfigProvider {
         return goConfigDao.loadConfigHolder().configForEdit.findTemplate(templateName);
     }
 
+    private class PipelineConfigIndexInvalidator extends EntityConfigChangedListener<Object> {
+        @Override
+        public void onConfigChange(CruiseConfig newCruiseConfig) {
+            pipelineConfigIndex = null;
+        }
+
+        @Override
+        public void onEntityConfigChange(Object entity) {
+            pipelineConfigIndex = null;
+        }
+    }
+
     public abstract class XmlPartialSaver<T> {
         protected final SAXReader reader;
         private final ConfigElementImplementationRegistry registry;
@@ -23,6 +23,7 @@ import com.thoughtworks.go.config.security.users.Everyone;
 import com.thoughtworks.go.config.security.users.Users;
 import com.thoughtworks.go.server.dashboard.*;
 import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.CompiledDashboardFilter;
 import com.thoughtworks.go.server.domain.user.DashboardFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -37,31 +38,38 @@ public class GoDashboardService {
     private final GoDashboardCache cache;
     private final GoDashboardCurrentStateLoader dashboardCurrentStateLoader;
     private final GoConfigService goConfigService;
+    private final GoDashboardViewCache viewCache;
     private GoConfigPipelinePermissionsAuthority permissionsAuthority;
 
     @Autowired
-    public GoDashboardService(GoDashboardCache cache, GoDashboardCurrentStateLoader dashboardCurrentStateLoader, GoConfigPipelinePermissionsAuthority permissionsAuthority, GoConfigService goConfigService) {
+    public GoDashboardService(GoDashboardCache cache, GoDashboardCurrentStateLoader dashboardCurrentStateLoader, GoConfigPipelinePermissionsAuthority permissionsAuthority, GoConfigService goConfigService, GoDashboardViewCache viewCache) {
         this.cache = cache;
         this.dashboardCurrentStateLoader = dashboardCurrentStateLoader;
         this.permissionsAuthority = permissionsAuthority;
         this.goConfigService = goConfigService;
+        this.viewCache = viewCache;
     }
 
     public List<GoDashboardEnvironment> allEnvironmentsForDashboard(DashboardFilter filter, Username user) {
         GoDashboardPipelines allPipelines = cache.allEntries();
-        List<GoDashboardEnvironment> environments = new ArrayList<>();
+        CompiledDashboardFilter compiledFilter = filter.compile();
 
-        final Users admins = superAdmins();
+        return viewCache.get("environments", user, compiledFilter, false, allPipelines.lastUpdatedTimeStamp(), goConfigService.getCurrentConfig(),
+            PluginRoleUsersStore.instance().version(), () -> {
+                List<GoDashboardEnvironment> environments = new ArrayList<>();
+                final Users admins = superAdmins();
+                PipelineConfigIndex index = goConfigService.pipelineConfigIndex();
 
-        goConfigService.getEnvironments().forEach(environment -> {
-            GoDashboardEnvironment env = dashboardEnvironmentFor(environment, filter, user, admins, allPipelines);
+                index.environments().forEach(environment -> {
+                    GoDashboardEnvironment env = dashboardEnvironmentFor(environment, index.pipelinesInEnvironment(environment.name()), compiledFilter, user, admins, allPipelines);
 
-            if (env.hasPipelines()) {
-                environments.add(env);
-            }
-        });
+                    if (env.hasPipelines()) {
+                        environments.add(env);
+                    }
+                });
 
-        return environments;
+                return environments;
+            });
     }
 
     public List<GoDashboardPipelineGroup> allPipelineGroupsForDashboard(DashboardFilter filter, Username user) {
@@ -70,16 +78,53 @@ public class GoDashboardService {
 
     public List<GoDashboardPipelineGroup> allPipelineGroupsForDashboard(DashboardFilter filter, Username user, final boolean allowEmpty) {
         GoDashboardPipelines allPipelines = cache.allEntries();
-        List<GoDashboardPipelineGroup> pipelineGroups = new ArrayList<>();
+        CompiledDashboardFilter compiledFilter = filter.compile();
+
+        return viewCache.get("pipelineGroups", user, compiledFilter, allowEmpty, allPipelines.lastUpdatedTimeStamp(), goConfigService.getCurrentConfig(),
+            PluginRoleUsersStore.instance().version(), () -> {
+                List<GoDashboardPipelineGroup> pipelineGroups = new ArrayList<>();
+
+                goConfigService.groups().accept(group -> {
+                    GoDashboardPipelineGroup dashboardPipelineGroup = dashboardPipelineGroupFor(group, compiledFilter, user, allPipelines);
+                    if (forceIncludeEmptyGroup(allowEmpty, dashboardPipelineGroup, user) || dashboardPipelineGroup.hasPipelines()) {
+                        pipelineGroups.add(dashboardPipelineGroup);
+                    }
+                });
+
+                return pipelineGroups;
+            });
+    }
+
+    public long currentVersion() {
+        return cache.allEntries().lastUpdatedTimeStamp();
+    }
+
+    /**
+     * Pipelines which changed after the given version and are still visible to the user are reported as updated.
+     * Pipelines which were removed, or which the user can no longer see, are reported as removed; a client which
+     * never had them can ignore them. Pipelines which are added or moved to another group require a reload, and so
+     * does anything older than the last full replacement. Changes to environments are not tracked.
+     */
+    public GoDashboardChanges changesSince(long version, DashboardFilter filter, Username user) {
+        GoDashboardPipelines allPipelines = cache.allEntries();
+        if (allPipelines.needsReloadSince(version)) {
+            return GoDashboardChanges.reload(allPipelines.lastUpdatedTimeStamp());
+        }
 
-        goConfigService.groups().accept(group -> {
-            GoDashboardPipelineGroup dashboardPipelineGroup = dashboardPipelineGroupFor(group, filter, user, allPipelines);
-            if (forceIncludeEmptyGroup(allowEmpty, dashboardPipelineGroup, user) || dashboardPipelineGroup.hasPipelines()) {
-                pipelineGroups.add(dashboardPipelineGroup);
+        CompiledDashboardFilter compiledFilter = filter.compile();
+        String username = user.getUsername().toString();
+        List<GoDashboardPipeline> updated = new ArrayList<>();
+        List<CaseInsensitiveString> removed = new ArrayList<>(allPipelines.pipelinesRemovedSince(version));
+
+        for (GoDashboardPipeline pipeline : allPipelines.pipelinesUpdatedSince(version)) {
+            if (compiledFilter.isPipelineVisible(pipeline.name()) && pipeline.canBeViewedBy(username)) {
+                updated.add(pipeline);
+            } else {
+                removed.add(pipeline.name());
             }
-        });
+        }
 
-        return pipelineGroups;
+        return GoDashboardChanges.of(allPipelines.lastUpdatedTimeStamp(), updated, removed);
     }
 
     public void updateCacheForPipeline(CaseInsensitiveString pipelineName) {
@@ -98,21 +143,33 @@ public class GoDashboardService {
     }
 
     public void updateCacheForAllPipelinesIn(CruiseConfig config) {
-        cache.replaceAllEntriesInCacheWith(dashboardCurrentStateLoader.allPipelines(config));
+        // chunks are cached as they are loaded, the full replacement then drops the pipelines which are gone
+        cache.replaceAllEntriesInCacheWith(dashboardCurrentStateLoader.allPipelines(config, cache::putAll));
     }
 
+    /**
+     * @return true once there is something to show on the dashboard, which may be before all pipelines are loaded
+     */
     public boolean hasEverLoadedCurrentState() {
-        return dashboardCurrentStateLoader.hasEverLoadedCurrentState();
+        return dashboardCurrentStateLoader.hasEverLoadedCurrentState() || !cache.allEntries().isEmpty();
+    }
+
+    /**
+     * @return how far the first load of all pipelines has got, in percent; 100 once the dashboard is complete
+     */
+    public int loadProgress() {
+        return dashboardCurrentStateLoader.initialLoadProgress();
     }
 
-    private GoDashboardEnvironment dashboardEnvironmentFor(EnvironmentConfig environment, DashboardFilter filter, Username user, Users allowedUsers, GoDashboardPipelines allPipelines) {
-        List<CaseInsensitiveString> pipelinesInEnv = environment.getPipelineNames();
+    private GoDashboardEnvironment dashboardEnvironmentFor(EnvironmentConfig environment, List<CaseInsensitiveString> pipelinesInEnv, CompiledDashboardFilter filter,
+                                                           Username user, Users allowedUsers, GoDashboardPipelines allPipelines) {
         GoDashboardEnvironment env = new GoDashboardEnvironment(environment.name().toString(), allowedUsers, !pipelinesInEnv.isEmpty());
+        String username = user.getUsername().toString();
 
         pipelinesInEnv.forEach(pipelineName -> {
             GoDashboardPipeline pipeline = allPipelines.find(pipelineName);
 
-            if (null != pipeline && pipeline.canBeViewedBy(user.getUsername().toString()) && filter.isPipelineVisible(pipelineName)) {
+            if (null != pipeline && filter.isPipelineVisible(pipelineName) && pipeline.canBeViewedBy(username)) {
                 env.addPipeline(pipeline);
             }
         });
@@ -120,7 +177,7 @@ public class GoDashboardService {
         return env;
     }
 
-    private GoDashboardPipelineGroup dashboardPipelineGroupFor(PipelineConfigs pipelineGroup, DashboardFilter filter, Username user, GoDashboardPipelines allPipelines) {
+    private GoDashboardPipelineGroup dashboardPipelineGroupFor(PipelineConfigs pipelineGroup, CompiledDashboardFilter filter, Username user, GoDashboardPipelines allPipelines) {
         Permissions groupPermissions = resolvePermissionsForPipelineGroup(pipelineGroup, allPipelines);
         GoDashboardPipelineGroup goDashboardPipelineGroup = new GoDashboardPipelineGroup(pipelineGroup.getGroup(), groupPermissions, !pipelineGroup.isEmpty());
 
@@ -151,6 +151,9 @@ public class JobInstanceService implements JobPlanLoader, ConfigChangedListener
      * This method exists only so that we can scope the transaction properly
      */
     private void internalUpdateJobStateAndResult(final JobInstance job) {
+        if (jobInstanceDao.deferStateChange(job)) {
+            return;
+        }
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
             @Override
             protected void doInTransactionWithoutResult(TransactionStatus status) {
@@ -26,6 +26,7 @@ import com.thoughtworks.go.domain.materials.svn.SvnCommand;
 import com.thoughtworks.go.domain.materials.svn.SvnExternal;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -33,6 +34,9 @@ import java.util.List;
 
 @Service
 public class MaterialExpansionService {
+    static {
+        GoCacheRegion.MATERIAL_REVISIONS.assign(MaterialExpansionService.class);
+    }
 
     private final CacheKeyGenerator cacheKeyGenerator;
     private GoCache goCache;
@@ -0,0 +1,102 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.CruiseConfig;
+import com.thoughtworks.go.config.EnvironmentConfig;
+import com.thoughtworks.go.config.PipelineConfig;
+import com.thoughtworks.go.domain.materials.MaterialConfig;
+import com.thoughtworks.go.server.domain.PipelineConfigDependencyGraph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Immutable lookup tables over a single version of the cruise config, so that finding a pipeline, the pipelines
+ * using a material or the pipelines of an environment does not scan every pipeline.
+ */
+public class PipelineConfigIndex {
+    private final CruiseConfig cruiseConfig;
+    private final Map<CaseInsensitiveString, PipelineConfig> pipelinesByName = new HashMap<>();
+    private final Map<String, List<CaseInsensitiveString>> pipelinesByMaterialFingerprint = new HashMap<>();
+    private final Map<CaseInsensitiveString, List<CaseInsensitiveString>> pipelinesByEnvironment = new LinkedHashMap<>();
+    private final List<EnvironmentConfig> environments = new ArrayList<>();
+    private final Map<CaseInsensitiveString, PipelineConfigDependencyGraph> upstreamGraphs = new ConcurrentHashMap<>();
+
+    public PipelineConfigIndex(CruiseConfig cruiseConfig) {
+        this.cruiseConfig = cruiseConfig;
+
+        for (PipelineConfig pipelineConfig : cruiseConfig.getAllPipelineConfigs()) {
+            CaseInsensitiveString name = pipelineConfig.name();
+            pipelinesByName.putIfAbsent(name, pipelineConfig);
+
+            Set<String> fingerprints = new HashSet<>();
+            for (MaterialConfig materialConfig : pipelineConfig.materialConfigs()) {
+                if (fingerprints.add(materialConfig.getFingerprint())) {
+                    pipelinesByMaterialFingerprint.computeIfAbsent(materialConfig.getFingerprint(), k -> new ArrayList<>()).add(name);
+                }
+            }
+        }
+
+        for (EnvironmentConfig environmentConfig : cruiseConfig.getEnvironments()) {
+            environments.add(environmentConfig);
+            // merged environments compute their pipelines on every call, so ask once per config
+            pipelinesByEnvironment.putIfAbsent(environmentConfig.name(), unmodifiableList(environmentConfig.getPipelineNames()));
+        }
+    }
+
+    public boolean isFor(CruiseConfig cruiseConfig) {
+        return this.cruiseConfig == cruiseConfig;
+    }
+
+    public PipelineConfig pipelineNamed(CaseInsensitiveString pipelineName) {
+        return pipelinesByName.get(pipelineName);
+    }
+
+    public List<CaseInsensitiveString> pipelinesWithMaterial(String fingerprint) {
+        return unmodifiableList(pipelinesByMaterialFingerprint.getOrDefault(fingerprint, emptyList()));
+    }
+
+    public List<EnvironmentConfig> environments() {
+        return unmodifiableList(environments);
+    }
+
+    public List<CaseInsensitiveString> pipelinesInEnvironment(CaseInsensitiveString environmentName) {
+        return pipelinesByEnvironment.getOrDefault(environmentName, emptyList());
+    }
+
+    public PipelineConfigDependencyGraph upstreamDependencyGraphOf(CaseInsensitiveString pipelineName) {
+        PipelineConfigDependencyGraph graph = upstreamGraphs.get(pipelineName);
+        if (graph == null) {
+            // not computeIfAbsent, as building a graph recursively populates the graphs of its upstream pipelines
+            graph = buildUpstreamGraph(cruiseConfig.pipelineConfigByName(pipelineName));
+            upstreamGraphs.putIfAbsent(pipelineName, graph);
+        }
+        return graph;
+    }
+
+    private PipelineConfigDependencyGraph buildUpstreamGraph(PipelineConfig pipelineConfig) {
+        List<PipelineConfigDependencyGraph> graphs = new ArrayList<>();
+        for (CaseInsensitiveString upstream : pipelineConfig.upstreamPipelines()) {
+            graphs.add(upstreamDependencyGraphOf(upstream));
+        }
+        return new PipelineConfigDependencyGraph(pipelineConfig, graphs.toArray(new PipelineConfigDependencyGraph[0]));
+    }
+}
@@ -24,6 +24,7 @@ import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.domain.Pipeline;
 import com.thoughtworks.go.domain.PipelinePauseInfo;
 import com.thoughtworks.go.domain.PipelineRunIdInfo;
+import com.thoughtworks.go.domain.PipelineTimelineEntry;
 import com.thoughtworks.go.domain.buildcause.BuildCause;
 import com.thoughtworks.go.i18n.LocalizedMessage;
 import com.thoughtworks.go.presentation.PipelineStatusModel;
@@ -93,6 +94,9 @@ public class PipelineHistoryService {
     }
 
     public int totalCount(String pipelineName) {
+        if (isTimelineCurrentFor(pipelineName)) {
+            return pipelineTimeline.instanceCount(new CaseInsensitiveString(pipelineName));
+        }
         return pipelineDao.count(pipelineName);
     }
 
@@ -111,7 +115,7 @@ public class PipelineHistoryService {
     }
 
     public PipelineInstanceModels load(String pipelineName, Pagination pagination, String username, boolean populateCanRun) {
-        PipelineInstanceModels history = pipelineDao.loadHistory(pipelineName, pagination.getPageSize(), pagination.getOffset());
+        PipelineInstanceModels history = loadHistory(pipelineName, pagination.getPageSize(), pagination.getOffset());
 
         PipelineConfig pipelineConfig = goConfigService.pipelineConfigNamed(new CaseInsensitiveString(pipelineName));
 
@@ -122,6 +126,29 @@ public class PipelineHistoryService {
         return history;
     }
 
+    /**
+     * Pages past the first one start from the run found at their offset on the pipeline timeline, so that the database
+     * seeks to that run instead of reading and skipping every later run of the pipeline.
+     */
+    private PipelineInstanceModels loadHistory(String pipelineName, int pageSize, int offset) {
+        if (offset > 0) {
+            PipelineTimelineEntry firstOfPage = pipelineTimeline.instanceBeforeLatest(new CaseInsensitiveString(pipelineName), offset);
+            if (firstOfPage != null && isTimelineCurrentFor(pipelineName)) {
+                return pipelineDao.loadHistory(pipelineName, FeedModifier.After, firstOfPage.getId() + 1, pageSize);
+            }
+        }
+        return pipelineDao.loadHistory(pipelineName, pageSize, offset);
+    }
+
+    private boolean isTimelineCurrentFor(String pipelineName) {
+        PipelineTimelineEntry latest = pipelineTimeline.instanceBeforeLatest(new CaseInsensitiveString(pipelineName), 0);
+        if (latest == null) {
+            return false;
+        }
+        PipelineRunIdInfo runIds = pipelineDao.getOldestAndLatestPipelineId(pipelineName);
+        return runIds != null && runIds.getLatestRunId() == latest.getId();
+    }
+
     public PipelineInstanceModels loadPipelineHistoryData(Username username, String pipelineName, long afterCursor, long beforeCursor, int pageSize) {
         checkForExistenceAndAccess(username, pipelineName);
         PipelineInstanceModels history;
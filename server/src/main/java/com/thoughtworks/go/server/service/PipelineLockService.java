@@ -84,6 +84,10 @@ public class PipelineLockService implements ConfigChangedListener {
         return lockedPipeline(pipelineName) != null;
     }
 
+    public void cacheLockStates(List<String> pipelineNames) {
+        pipelineStateDao.cachePipelineStates(pipelineNames);
+    }
+
     public StageIdentifier lockedPipeline(String pipelineName) {
         PipelineState pipelineState = pipelineStateDao.pipelineStateFor(pipelineName);
         if (pipelineState != null && pipelineState.isLocked()) {
@@ -628,6 +628,17 @@ public class ScheduleService {
         }
     }
 
+    // Note: This is also called from a spring timer (flushPendingJobStateChanges)
+    public void flushPendingJobStateChanges() {
+        try {
+            for (JobInstance job : jobInstanceDao.flushPendingStateChanges()) {
+                stageDao.clearJobStatusDependentCaches(job.getStageId(), job.getIdentifier().getStageIdentifier());
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error occurred during writing deferred job state changes: ", e);
+        }
+    }
+
     private List<String> getLiveAgentUuids(AgentInstances knownAgents) {
         List<String> agents = new ArrayList<>();
         for (AgentInstance agent : knownAgents) {
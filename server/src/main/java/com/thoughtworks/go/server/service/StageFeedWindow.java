@@ -0,0 +1,61 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.domain.feed.stage.StageFeedEntry;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Understands the most recently completed stages of a pipeline, in the order of a feed, so that the first few pages
+ * of that feed can be served from one query instead of one query per page.
+ */
+class StageFeedWindow {
+    private final List<StageFeedEntry> entries;
+    private final boolean complete;
+    private final ToLongFunction<StageFeedEntry> position;
+
+    /**
+     * @param entries  the latest entries of the feed, at most {@code size} of them, latest first
+     * @param position the position of an entry in the feed, decreasing from the latest entry on
+     */
+    StageFeedWindow(List<StageFeedEntry> entries, int size, ToLongFunction<StageFeedEntry> position) {
+        this.entries = entries;
+        this.complete = entries.size() < size;
+        this.position = position;
+    }
+
+    /**
+     * @return up to {@code pageSize} entries positioned before {@code before}, or the latest ones if it is {@code null};
+     * or {@code null} if the page reaches past the entries this window holds
+     */
+    @Nullable
+    List<StageFeedEntry> pageBefore(@Nullable Long before, int pageSize) {
+        List<StageFeedEntry> page = new ArrayList<>();
+        for (StageFeedEntry entry : entries) {
+            if (before == null || position.applyAsLong(entry) < before) {
+                page.add(entry);
+                if (page.size() == pageSize) {
+                    return page;
+                }
+            }
+        }
+        return complete ? page : null;
+    }
+}
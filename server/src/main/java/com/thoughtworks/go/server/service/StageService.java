@@ -31,6 +31,7 @@ import com.thoughtworks.go.presentation.pipelinehistory.StageHistoryPage;
 import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModels;
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.dao.FeedModifier;
 import com.thoughtworks.go.server.dao.PipelineDao;
 import com.thoughtworks.go.server.dao.StageDao;
@@ -65,6 +66,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import static com.thoughtworks.go.server.database.ReplicaReads.replicaSafe;
 import static com.thoughtworks.go.server.service.HistoryUtil.validateCursor;
 
 @Service
@@ -72,6 +74,12 @@ public class StageService implements StageFinder {
     private static final Logger LOGGER = LoggerFactory.getLogger(StageService.class);
     private static final String NOT_AUTHORIZED_TO_VIEW_PIPELINE = "Not authorized to view pipeline";
     private static final int FEED_PAGE_SIZE = 25;
+
+    static {
+        GoCacheRegion.STAGE_HISTORY.assign(StageService.class);
+    }
+    // the latest completed stages of a pipeline kept around per feed, enough for the pages that are read most
+    private static final int FEED_WINDOW_SIZE = 4 * FEED_PAGE_SIZE;
     private final CacheKeyGenerator cacheKeyGenerator;
 
     private final StageDao stageDao;
@@ -328,69 +336,98 @@ public class StageService implements StageFinder {
     }
 
     public FeedEntries feed(String pipelineName, Username username) {
-        String key = cacheKeyForLatestStageFeedForPipeline(pipelineName);
-        List<StageFeedEntry> feedEntries = goCache.get(key);
-        if (feedEntries == null) {
-            synchronized (key) {
-                feedEntries = goCache.get(key);//Double check locking is done because the query is expensive (takes about 2 seconds)
-                if (feedEntries == null) {
-                    feedEntries = stageDao.findCompletedStagesFor(pipelineName, FeedModifier.Latest, -1, FEED_PAGE_SIZE);
-                    populateAuthors(feedEntries, pipelineName, username);
-                    goCache.put(key, feedEntries);
-                }
-            }
-        }
-        return cloner.deepClone(new FeedEntries(new ArrayList<>(feedEntries)));
+        return feedPageBefore(null, pipelineName, username);
     }
 
     public FeedEntries findStageFeedBy(String pipelineName,
                                        @Nullable Integer pipelineCounter,
                                        FeedModifier feedModifier,
                                        Username username) {
-        if (pipelineCounter != null) {
-            List<StageFeedEntry> feedBasedOnPipelineCounter = stageDao.findStageFeedBy(pipelineName, pipelineCounter, feedModifier, FEED_PAGE_SIZE);
-            return cloner.deepClone(new FeedEntries(new ArrayList<>(feedBasedOnPipelineCounter)));
+        if (pipelineCounter == null || feedModifier == FeedModifier.Before) {
+            List<StageFeedEntry> page = stageFeedWindowSortedByPipelineCounter(pipelineName).pageBefore(pipelineCounter == null ? null : pipelineCounter.longValue(), FEED_PAGE_SIZE);
+            if (page != null) {
+                List<StageFeedEntry> feedEntries = cloner.deepClone(new ArrayList<>(page));
+                if (pipelineCounter == null) {
+                    populateAuthors(feedEntries, pipelineName, username);
+                }
+                return new FeedEntries(new ArrayList<>(feedEntries));
+            }
         }
 
-        String key = cacheKeyForLatestStageFeedForPipelineSortedByPipelineCounter(pipelineName);
-        List<StageFeedEntry> feedEntries = goCache.get(key);
+        // pages outside the cached window are not cached, so they can be read from a replica
+        List<StageFeedEntry> feedBasedOnPipelineCounter = replicaSafe(() -> stageDao.findStageFeedBy(pipelineName, pipelineCounter, feedModifier, FEED_PAGE_SIZE));
+        return cloner.deepClone(new FeedEntries(new ArrayList<>(feedBasedOnPipelineCounter)));
+    }
 
-        if (feedEntries == null) {
+    /**
+     * The window is shared by all users, so it holds no authors; those depend on what the user may view and are added
+     * to each page served from it.
+     */
+    private StageFeedWindow stageFeedWindow(String pipelineName) {
+        String key = cacheKeyForStageFeedWindowForPipeline(pipelineName);
+        StageFeedWindow window = goCache.get(key);
+        if (window == null) {
             synchronized (key) {
-                feedEntries = goCache.get(key);
-                if (feedEntries == null) {
-                    feedEntries = stageDao.findStageFeedBy(pipelineName, null, null, FEED_PAGE_SIZE);
-                    populateAuthors(feedEntries, pipelineName, username);
-                    goCache.put(key, feedEntries);
+                window = goCache.get(key);//Double check locking is done because the query is expensive (takes about 2 seconds)
+                if (window == null) {
+                    List<StageFeedEntry> feedEntries = stageDao.findCompletedStagesFor(pipelineName, FeedModifier.Latest, -1, FEED_WINDOW_SIZE);
+                    window = new StageFeedWindow(feedEntries, FEED_WINDOW_SIZE, StageFeedEntry::getEntryId);
+                    goCache.put(key, window);
                 }
             }
         }
+        return window;
+    }
 
-        return cloner.deepClone(new FeedEntries(new ArrayList<>(feedEntries)));
+    private StageFeedWindow stageFeedWindowSortedByPipelineCounter(String pipelineName) {
+        String key = cacheKeyForStageFeedWindowForPipelineSortedByPipelineCounter(pipelineName);
+        StageFeedWindow window = goCache.get(key);
+        if (window == null) {
+            synchronized (key) {
+                window = goCache.get(key);
+                if (window == null) {
+                    List<StageFeedEntry> feedEntries = stageDao.findStageFeedBy(pipelineName, null, null, FEED_WINDOW_SIZE);
+                    window = new StageFeedWindow(feedEntries, FEED_WINDOW_SIZE, entry -> entry.getStageIdentifier().getPipelineCounter());
+                    goCache.put(key, window);
+                }
+            }
+        }
+        return window;
     }
 
-    private String cacheKeyForLatestStageFeedForPipelineSortedByPipelineCounter(String pipelineName) {
-        return cacheKeyGenerator.generate("latestStageFeedForPipelineSortedByPipelineCounter", pipelineName);
+    private String cacheKeyForStageFeedWindowForPipelineSortedByPipelineCounter(String pipelineName) {
+        return cacheKeyGenerator.generate("stageFeedWindowForPipelineSortedByPipelineCounter", pipelineName);
     }
 
-    private String cacheKeyForLatestStageFeedForPipeline(String pipelineName) {
-        return cacheKeyGenerator.generate("latestStageFeedForPipeline", pipelineName);
+    private String cacheKeyForStageFeedWindowForPipeline(String pipelineName) {
+        return cacheKeyGenerator.generate("stageFeedWindowForPipeline", pipelineName);
     }
 
     private void clearCachedCompletedStageFeeds(String pipelineName) {
-        String key = cacheKeyForLatestStageFeedForPipeline(pipelineName);
+        String key = cacheKeyForStageFeedWindowForPipeline(pipelineName);
         synchronized (key) {
             goCache.remove(key);
         }
 
-        key = cacheKeyForLatestStageFeedForPipelineSortedByPipelineCounter(pipelineName);
+        key = cacheKeyForStageFeedWindowForPipelineSortedByPipelineCounter(pipelineName);
         synchronized (key) {
             goCache.remove(key);
         }
     }
 
     public FeedEntries feedBefore(long entryId, String pipelineName, Username username) {
-        List<StageFeedEntry> stageEntries = stageDao.findCompletedStagesFor(pipelineName, FeedModifier.Before, entryId, FEED_PAGE_SIZE);
+        return feedPageBefore(entryId, pipelineName, username);
+    }
+
+    private FeedEntries feedPageBefore(@Nullable Long entryId, String pipelineName, Username username) {
+        List<StageFeedEntry> page = stageFeedWindow(pipelineName).pageBefore(entryId, FEED_PAGE_SIZE);
+        if (page != null) {
+            List<StageFeedEntry> feedEntries = cloner.deepClone(new ArrayList<>(page));
+            populateAuthors(feedEntries, pipelineName, username);
+            return new FeedEntries(new ArrayList<>(feedEntries));
+        }
+
+        List<StageFeedEntry> stageEntries = replicaSafe(() -> stageDao.findCompletedStagesFor(pipelineName, FeedModifier.Before, entryId, FEED_PAGE_SIZE));
         populateAuthors(stageEntries, pipelineName, username);
         return new FeedEntries(new ArrayList<>(stageEntries));
     }
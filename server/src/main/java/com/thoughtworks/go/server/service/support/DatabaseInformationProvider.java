@@ -0,0 +1,81 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.server.database.QueryStatistics;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class DatabaseInformationProvider implements ServerInfoProvider {
+    public static final String NAME = "Database Statistics";
+
+    private final DataSource dataSource;
+    private final QueryStatistics queryStatistics;
+
+    @Autowired
+    public DatabaseInformationProvider(DataSource dataSource, QueryStatistics queryStatistics) {
+        this.dataSource = dataSource;
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Override
+    public double priority() {
+        return 12.5;
+    }
+
+    @Override
+    public Map<String, Object> asJsonCompatibleMap() {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("Connection Pool", connectionPoolAsJsonCompatibleMap());
+        json.put("Slow Queries", queryStatistics.slowQueriesAsJsonCompatibleList());
+        json.put("Statements", queryStatistics.statementsAsJsonCompatibleMap());
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    private Map<String, Object> connectionPoolAsJsonCompatibleMap() {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        BasicDataSource pool = basicDataSource();
+        if (pool != null) {
+            json.put("Active", pool.getNumActive());
+            json.put("Idle", pool.getNumIdle());
+            json.put("Max Total", pool.getMaxTotal());
+            json.put("Max Idle", pool.getMaxIdle());
+            json.put("Saturation", pool.getMaxTotal() > 0 ? (double) pool.getNumActive() / pool.getMaxTotal() : 0.0);
+        }
+        json.put("Connection Waits", queryStatistics.connectionWaitsAsJsonCompatibleMap());
+        return json;
+    }
+
+    private BasicDataSource basicDataSource() {
+        try {
+            return dataSource.isWrapperFor(BasicDataSource.class) ? dataSource.unwrap(BasicDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
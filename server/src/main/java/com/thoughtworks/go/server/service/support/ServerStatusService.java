@@ -19,6 +19,7 @@ import com.thoughtworks.go.i18n.LocalizedMessage;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.service.SecurityService;
 import com.thoughtworks.go.server.service.result.LocalizedOperationResult;
+import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.HealthStateType;
 import com.thoughtworks.go.util.Dates;
 import org.slf4j.Logger;
@@ -52,6 +53,21 @@ public class ServerStatusService {
 
     }
 
+    public Map<String, Object> asJsonCompatibleMap(Username username, LocalizedOperationResult result, String providerName) {
+        if (!securityService.isUserAdmin(username)) {
+            result.forbidden(LocalizedMessage.forbiddenToEdit(), HealthStateType.forbidden());
+            return null;
+        }
+
+        for (ServerInfoProvider provider : providers) {
+            if (provider.name().equals(providerName)) {
+                return provider.asJsonCompatibleMap();
+            }
+        }
+        result.notFound(String.format("No server information named '%s'.", providerName), HealthStateType.general(HealthStateScope.GLOBAL));
+        return null;
+    }
+
     private Map<String, Object> serverInfoAsJsonCompatibleMap() {
         LinkedHashMap<String, Object> json = new LinkedHashMap<>();
         json.put("Timestamp", Dates.formatIso8601CompactOffset(new Date()));
@@ -17,6 +17,7 @@ package com.thoughtworks.go.server.service.support.toggle;
 
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.cache.GoCacheRegion;
 import com.thoughtworks.go.server.domain.support.toggle.FeatureToggle;
 import com.thoughtworks.go.server.domain.support.toggle.FeatureToggles;
 import org.apache.commons.collections4.MultiMapUtils;
@@ -29,8 +30,12 @@ import java.util.Collection;
 
 @Service
 public class FeatureToggleService {
-    private static final String KNOWN_TOGGLES = "FeatureToggleService_KNOWN_TOGGLES";
-    private static final String USER_DEF_TOGGLES = "FeatureToggleService_USER_DEF_TOGGLES";
+    private static final String KNOWN_TOGGLES = FeatureToggleService.class.getName() + "_KNOWN_TOGGLES";
+    private static final String USER_DEF_TOGGLES = FeatureToggleService.class.getName() + "_USER_DEF_TOGGLES";
+
+    static {
+        GoCacheRegion.SETTINGS.assign(FeatureToggleService.class);
+    }
     private final FeatureToggleRepository repository;
     private final GoCache goCache;
     private final MultiValuedMap<String, FeatureToggleListener> listeners = MultiMapUtils.newSetValuedHashMap();
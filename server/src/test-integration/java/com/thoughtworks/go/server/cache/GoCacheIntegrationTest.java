@@ -79,15 +79,102 @@ public class GoCacheIntegrationTest {
     }
 
     @Test
-    public void put_shouldNotUpdateCacheWhenInTransaction() {
+    public void put_shouldServeValueToTheTransactionAndPublishItOnCommit() {
+        final Object o = new Object();
+        final Object[] valueInTxn = new Object[2];
+        final Object[] valueOutsideTxn = new Object[1];
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
             @Override
             protected void doInTransactionWithoutResult(TransactionStatus status) {
-                Object o = new Object();
                 goCache.put("someKey", o);
+                goCache.put("parentKey", "subKey", o);
+                valueInTxn[0] = goCache.get("someKey");
+                valueInTxn[1] = goCache.get("parentKey", "subKey");
+                valueOutsideTxn[0] = valueSeenByAnotherThread("someKey");
             }
         });
+        assertThat(valueInTxn).containsExactly(o, o);
+        assertNull(valueOutsideTxn[0]);
+        assertThat(goCache.<Object>get("someKey")).isSameAs(o);
+        assertThat(goCache.get("parentKey", "subKey")).isSameAs(o);
+    }
+
+    @Test
+    public void put_shouldNotPublishValueWhenTransactionRollsBack() {
+        try {
+            transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    goCache.put("someKey", new Object());
+                    throw new RuntimeException("rollback");
+                }
+            });
+        } catch (RuntimeException ignored) {
+        }
+        assertNull(goCache.get("someKey"));
+    }
+
+    @Test
+    public void put_shouldNotServeOrPublishValueCachedBeforeAWriteInTheSameTransaction() {
+        final Object[] valueAfterWrite = new Object[2];
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                goCache.put("beforeWrite", "stale");
+                userSqlMapDao.saveOrUpdate(new User("loser", "Massive Loser", "boozer@loser.com"));
+                valueAfterWrite[0] = goCache.get("beforeWrite");
+                goCache.put("afterWrite", "fresh");
+                valueAfterWrite[1] = goCache.get("afterWrite");
+            }
+        });
+        assertThat(valueAfterWrite).containsExactly(null, "fresh");
+        assertNull(goCache.get("beforeWrite"));
+        assertThat(goCache.<Object>get("afterWrite")).isEqualTo("fresh");
+    }
+
+    @Test
+    public void put_shouldNotPublishValueWhenAnotherTransactionRemovedTheKeyAfterThisOneStarted() {
+        goCache.put("someKey", "old");
+        goCache.put("parentKey", "subKey", "old");
+        final Object[] valueInTxn = new Object[1];
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                valueInTxn[0] = goCache.get("someKey");
+                removeInAnotherTransaction(() -> {
+                    goCache.remove("someKey");
+                    goCache.remove("parentKey", "subKey");
+                });
+                goCache.put("someKey", "stale");
+                goCache.put("parentKey", "subKey", "stale");
+            }
+        });
+        assertThat(valueInTxn[0]).isEqualTo("old");
         assertNull(goCache.get("someKey"));
+        assertNull(goCache.get("parentKey", "subKey"));
+    }
+
+    @Test
+    public void put_shouldPublishValueWhenTheKeyWasRemovedBeforeTheTransactionStarted() {
+        goCache.put("someKey", "old");
+        goCache.put("parentKey", "subKey", "old");
+        removeInAnotherTransaction(() -> {
+            goCache.remove("someKey");
+            goCache.remove("parentKey");
+        });
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                if (goCache.get("someKey") == null) {
+                    goCache.put("someKey", "fresh");
+                }
+                if (goCache.get("parentKey", "subKey") == null) {
+                    goCache.put("parentKey", "subKey", "fresh");
+                }
+            }
+        });
+        assertThat(goCache.<Object>get("someKey")).isEqualTo("fresh");
+        assertThat(goCache.get("parentKey", "subKey")).isEqualTo("fresh");
     }
 
     @Test
@@ -129,4 +216,33 @@ public class GoCacheIntegrationTest {
         assertThat(valueInAfterCompletion[0]).isEqualTo("bar");
     }
 
+    private Object valueSeenByAnotherThread(String key) {
+        final Object[] value = new Object[1];
+        runInAnotherThread(() -> value[0] = goCache.get(key));
+        return value[0];
+    }
+
+    private void removeInAnotherTransaction(Runnable removes) {
+        runInAnotherThread(() -> transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        removes.run();
+                    }
+                });
+            }
+        }));
+    }
+
+    private void runInAnotherThread(Runnable runnable) {
+        Thread thread = new Thread(runnable);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -924,6 +924,26 @@ public class PipelineSqlMapDaoIntegrationTest {
         assertNotNull(actual.getPausedAt());
     }
 
+    @Test
+    public void shouldCachePauseStatesOfManyPipelinesAtOnce() {
+        PipelineConfig mingleConfig = PipelineMother.twoBuildPlansWithResourcesAndMaterials("some-pipeline", "dev");
+        PipelineConfig twistConfig = PipelineMother.twoBuildPlansWithResourcesAndMaterials("another-pipeline", "dev");
+        schedulePipelineWithStages(mingleConfig);
+        schedulePipelineWithStages(twistConfig);
+        pipelineDao.pause(mingleConfig.name().toString(), "really good reason", "me");
+        goCache.clear();
+
+        pipelineDao.cachePauseStates(List.of("SOME-PIPELINE", "another-pipeline", "unknown-pipeline"));
+
+        PipelinePauseInfo paused = pipelineDao.pauseState("some-pipeline");
+        assertThat(paused.isPaused()).isTrue();
+        assertThat(paused.getPauseCause()).isEqualTo("really good reason");
+        assertThat(paused.getPauseBy()).isEqualTo("me");
+        assertNotNull(paused.getPausedAt());
+        assertThat(pipelineDao.pauseState("another-pipeline")).isEqualTo(new PipelinePauseInfo(false, null, null));
+        assertThat(pipelineDao.pauseState("unknown-pipeline")).isEqualTo(PipelinePauseInfo.NULL);
+    }
+
     @Test
     public void shouldUpdateCounter_WhenPipelineRowIsPresentWhichWasInsertedByPauseAction() {
         String pipelineName = "some-pipeline";
@@ -171,6 +171,23 @@ public class PipelineStateDaoIntegrationTest {
         assertThat(lockedPipelines.size()).isEqualTo(1);
         assertThat(lockedPipelines).contains("twist");
     }
+    @Test
+    public void shouldCacheStatesOfManyPipelinesAtOnce() {
+        Pipeline minglePipeline = schedulePipelineWithStages(PipelineMother.twoBuildPlansWithResourcesAndMaterials("mingle", "defaultStage"));
+        schedulePipelineWithStages(PipelineMother.twoBuildPlansWithResourcesAndMaterials("twist", "defaultStage"));
+        pipelineStateDao.lockPipeline(minglePipeline);
+        goCache.clear();
+
+        pipelineStateDao.cachePipelineStates(List.of("MINGLE", "twist", "unknown"));
+
+        PipelineState mingleState = goCache.get(pipelineStateDao.pipelineLockStateCacheKey("mingle"));
+        assertThat(mingleState.isLocked()).isTrue();
+        assertThat(mingleState.getLockedBy().pipelineIdentifier()).isEqualTo(minglePipeline.getIdentifier());
+        assertThat((PipelineState) goCache.get(pipelineStateDao.pipelineLockStateCacheKey("twist"))).isEqualTo(PipelineState.NOT_LOCKED);
+        assertThat((PipelineState) goCache.get(pipelineStateDao.pipelineLockStateCacheKey("unknown"))).isEqualTo(PipelineState.NOT_LOCKED);
+        assertThat(pipelineStateDao.pipelineStateFor("mingle")).isSameAs(mingleState);
+    }
+
     @Test
     public void lockPipeline_shouldEnsureOnlyOneThreadCanLockAPipelineSuccessfully() throws Exception {
         List<Thread> threads = new ArrayList<>();
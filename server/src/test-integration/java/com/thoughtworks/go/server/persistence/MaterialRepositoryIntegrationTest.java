@@ -63,6 +63,7 @@ import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.server.util.Pagination;
 import com.thoughtworks.go.util.Dates;
 import com.thoughtworks.go.util.SerializationTester;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TestUtils;
 import com.thoughtworks.go.util.TimeProvider;
 import com.thoughtworks.go.util.json.JsonHelper;
@@ -199,6 +200,48 @@ public class MaterialRepositoryIntegrationTest {
         verify(mockTemplate, times(1)).find("FROM Modification WHERE materialId = ? AND id BETWEEN ? AND ? ORDER BY id DESC", 10L, -1L, -1L);
     }
 
+    @Test
+    public void findModificationsFor_shouldShareModificationsOfPipelineMaterialRevisionsWithTheSameRange() {
+        HibernateTemplate mockTemplate = mock(HibernateTemplate.class);
+        repo.setHibernateTemplate(mockTemplate);
+
+        List<?> modifications = new ArrayList<>();
+        doReturn(modifications).when(mockTemplate).find("FROM Modification WHERE materialId = ? AND id BETWEEN ? AND ? ORDER BY id DESC", 10L, -1L, -1L);
+        MaterialInstance materialInstance = material().createMaterialInstance();
+        materialInstance.setId(10);
+        doReturn(List.of(materialInstance)).when(mockTemplate).findByCriteria(any());
+
+        List<Modification> forOnePipeline = repo.findModificationsFor(pipelineMaterialRevision());
+        List<Modification> forAnotherPipeline = repo.findModificationsFor(pipelineMaterialRevision());
+
+        assertSame(forOnePipeline, forAnotherPipeline);
+        verify(mockTemplate, times(1)).find("FROM Modification WHERE materialId = ? AND id BETWEEN ? AND ? ORDER BY id DESC", 10L, -1L, -1L);
+    }
+
+    @Test
+    public void findModificationsFor_shouldHoldModificationsOfOverlappingRangesOnlyOnce() {
+        HibernateTemplate mockTemplate = mock(HibernateTemplate.class);
+        repo.setHibernateTemplate(mockTemplate);
+
+        Modification modification = new Modification(new Date(), "123", "MOCK_LABEL-12", null);
+        modification.setId(5);
+        Modification sameModification = new Modification(new Date(), "123", "MOCK_LABEL-12", null);
+        sameModification.setId(5);
+        doReturn(new ArrayList<>(List.of(modification))).when(mockTemplate).find("FROM Modification WHERE materialId = ? AND id BETWEEN ? AND ? ORDER BY id DESC", 10L, -1L, -1L);
+        doReturn(new ArrayList<>(List.of(sameModification))).when(mockTemplate).find("FROM Modification WHERE materialId = ? AND id BETWEEN ? AND ? ORDER BY id DESC", 10L, -1L, 5L);
+        MaterialInstance materialInstance = material().createMaterialInstance();
+        materialInstance.setId(10);
+        doReturn(List.of(materialInstance)).when(mockTemplate).findByCriteria(any());
+
+        PipelineMaterialRevision otherPmr = pipelineMaterialRevision();
+        when(otherPmr.getToModification()).thenReturn(modification);
+
+        Modification first = repo.findModificationsFor(pipelineMaterialRevision()).getFirst();
+        Modification second = repo.findModificationsFor(otherPmr).getFirst();
+
+        assertSame(first, second);
+    }
+
     @Test
     public void findPipelineMaterialRevisions_shouldCacheResults() {
         HibernateTemplate mockTemplate = mock(HibernateTemplate.class);
@@ -217,7 +260,7 @@ public class MaterialRepositoryIntegrationTest {
         MaterialRevision second = saveOneScmModification(material, "user2", "file2");
 
         goCache.clear();
-        repo = new MaterialRepository(sessionFactory, goCache, 1, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        repo = new MaterialRepository(sessionFactory, goCache, 1, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, new SystemEnvironment());
 
         repo.findModificationsSince(material, first);
         assertThat(repo.cachedModifications(repo.findMaterialInstance(material))).isNull();
@@ -242,7 +285,7 @@ public class MaterialRepositoryIntegrationTest {
                 TestUtils.sleepQuietly(200); // sleep so we can have multiple threads enter the critical section
                 return value;
             }
-        }, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        }, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, new SystemEnvironment());
 
         Thread thread1 = new Thread(() -> repo.findModificationsSince(svn, first));
         thread1.start();
@@ -346,7 +389,7 @@ public class MaterialRepositoryIntegrationTest {
         final Material svn = MaterialsMother.svnMaterial("url", null, "username", "password", false, null);
 
         HibernateTemplate mockTemplate = mock(HibernateTemplate.class);
-        repo = new MaterialRepository(repo.getSessionFactory(), goCache, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy) {
+        repo = new MaterialRepository(repo.getSessionFactory(), goCache, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, new SystemEnvironment()) {
             @Override
             public MaterialInstance findMaterialInstance(@NonNull Material material) {
                 MaterialInstance result = super.findMaterialInstance(material);
@@ -623,7 +666,7 @@ public class MaterialRepositoryIntegrationTest {
         GoCache spyGoCache = spy(goCache);
         when(spyGoCache.get(any())).thenCallRealMethod();
         doCallRealMethod().when(spyGoCache).put(any(), any());
-        repo = new MaterialRepository(sessionFactory, spyGoCache, 2, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        repo = new MaterialRepository(sessionFactory, spyGoCache, 2, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, new SystemEnvironment());
 
         pipelineSqlMapDao.save(pipeline);
 
@@ -1567,6 +1610,99 @@ public class MaterialRepositoryIntegrationTest {
         assertModificationAreEqual(matchingMods.get(1), mods.get(1));
     }
 
+    @Test
+    public void shouldFindTheSameModificationsWithTheSearchIndexAsWithoutIt() {
+        GitMaterial material = MaterialsMother.gitMaterial("http://example.com/gocd_indexed");
+        MaterialRevisions materialRevisions = new MaterialRevisions();
+        List<Modification> mods = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            String comment = i % 3 == 0 ? "Fix the BUILD " + i : i % 3 == 1 ? "fix the build " + i : "Add a feature " + i;
+            mods.add(new Modification(i % 2 == 0 ? "Build Bot" : "user " + i, comment, EMAIL_ADDRESS, Dates.from(ZonedDateTime.now().minusHours(i)), "rev-" + i));
+        }
+        materialRevisions.addRevision(material, mods);
+        dbHelper.saveRevs(materialRevisions);
+        long materialId = mods.getFirst().getMaterialInstance().getId();
+
+        // the second index holds only the latest modifications, and has the database search the others
+        for (MaterialRepository indexedRepo : List.of(repositoryWithSearchIndex(), repositoryWithSearchIndex(4))) {
+            for (String pattern : List.of("build", "BUILD", "Bot", "feature 1", "rev-1", "nothing like it")) {
+                assertThat(ids(indexedRepo.findMatchingModifications(materialId, pattern, FeedModifier.Latest, 0, 3)))
+                    .isEqualTo(ids(repo.findMatchingModifications(materialId, pattern, FeedModifier.Latest, 0, 3)));
+                for (Modification mod : mods) {
+                    for (FeedModifier modifier : List.of(FeedModifier.After, FeedModifier.Before)) {
+                        assertThat(ids(indexedRepo.findMatchingModifications(materialId, pattern, modifier, mod.getId(), 3)))
+                            .as("%s %s %d", pattern, modifier, mod.getId())
+                            .isEqualTo(ids(repo.findMatchingModifications(materialId, pattern, modifier, mod.getId(), 3)));
+                    }
+                }
+            }
+            assertThat(ids(indexedRepo.findMatchingModifications(materialId, "build", FeedModifier.Latest, 0, 3))).hasSize(3);
+        }
+    }
+
+    @Test
+    public void shouldFindTheModificationsOfTheMaterialsOfAPipelineWithTheSearchIndex() {
+        HgMaterial hgMaterial = MaterialsMother.hgMaterial("hgUrl", "dest");
+        MaterialRevision fixTheBuild = saveOneScmModification("rev-1", hgMaterial, "bob", "file1", "Fix the BUILD");
+        MaterialRevision addAFeature = saveOneScmModification("rev-2", hgMaterial, "alice", "file2", "Add a feature");
+        PipelineConfig pipelineConfig = PipelineMother.createPipelineConfig("mingle", new MaterialConfigs(hgMaterial.config()), "dev");
+        savePipeline(instanceFactory.createPipelineInstance(pipelineConfig, BuildCause.createManualForced(new MaterialRevisions(addAFeature), Username.ANONYMOUS),
+            new DefaultSchedulingContext(DEFAULT_APPROVED_BY), md5, new TimeProvider()));
+
+        MaterialRepository indexedRepo = repositoryWithSearchIndex();
+        assertThat(indexedRepo.findModificationIdsMatching("mingle", "build")).containsExactly(fixTheBuild.getLatestModification().getId());
+        assertThat(indexedRepo.findModificationIdsMatching("mingle", "ALICE")).containsExactly(addAFeature.getLatestModification().getId());
+        assertThat(indexedRepo.findModificationIdsMatching("mingle", "nothing like it")).isEmpty();
+        assertThat(indexedRepo.findModificationIdsMatching("mingle", "fix_the")).isNull();
+        assertThat(repositoryWithSearchIndex(1).findModificationIdsMatching("mingle", "build")).isNull();
+    }
+
+    @Test
+    public void shouldFindTheSameRevisionsWithTheSearchIndexAsWithoutIt() {
+        ScmMaterial material = material();
+        repo.saveOrUpdate(material.createMaterialInstance());
+        saveOneScmModification("40c95a3c41f54b5fb3107982cf2acd08783f102a", material, "pavan", "meet_you_in_hell.txt", "Fix the Build");
+        saveOneScmModification("c30c471137f31a4bf735f653f888e799f6deec04", material, "turn_her", "of_course_he_will_be_there_first.txt", "fix the build");
+        saveOneScmModification("5ab36b2ba1e5b5fb3107982cf2acd08783f10aaa", material, null, "lets_party_in_hell.txt", null);
+        DependencyMaterial dependencyMaterial = new DependencyMaterial(new CaseInsensitiveString("pipeline-name"), new CaseInsensitiveString("stage-name"));
+        repo.saveOrUpdate(dependencyMaterial.createMaterialInstance());
+        saveOneDependencyModification(dependencyMaterial, "pipeline-name/1/stage-name/3", "my-random-label-123");
+        saveOneDependencyModification(dependencyMaterial, "pipeline-name/3/stage-name/1", "other-label-456");
+
+        MaterialRepository indexedRepo = repositoryWithSearchIndex();
+        for (String searchString : List.of("Build", "build", "pavan Fix", "c04 turn", "aaa lets", "null")) {
+            assertThat(longRevisions(indexedRepo.findRevisionsMatching(material.config(), searchString)))
+                .as(searchString)
+                .isEqualTo(longRevisions(repo.findRevisionsMatching(material.config(), searchString)));
+        }
+        for (String searchString : List.of("label", "LABEL", "other-label", "stage-name/1", "name/3 ")) {
+            assertThat(longRevisions(indexedRepo.findRevisionsMatching(dependencyMaterial.config(), searchString)))
+                .as(searchString)
+                .isEqualTo(longRevisions(repo.findRevisionsMatching(dependencyMaterial.config(), searchString)));
+        }
+        long dependencyMaterialId = repo.findMaterialInstance(dependencyMaterial).getId();
+        assertThat(indexedRepo.findMatchingModifications(dependencyMaterialId, "label", FeedModifier.Latest, 0, 10))
+            .isEqualTo(repo.findMatchingModifications(dependencyMaterialId, "label", FeedModifier.Latest, 0, 10))
+            .isEmpty();
+    }
+
+    private MaterialRepository repositoryWithSearchIndex() {
+        return repositoryWithSearchIndex(1000);
+    }
+
+    private MaterialRepository repositoryWithSearchIndex(int maxIndexedModificationsPerMaterial) {
+        // builds the index of a material on the thread which first searches it
+        return new MaterialRepository(sessionFactory, goCache, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, 1000, maxIndexedModificationsPerMaterial, Runnable::run);
+    }
+
+    private static List<Long> ids(List<Modification> modifications) {
+        return modifications.stream().map(Modification::getId).toList();
+    }
+
+    private static List<String> longRevisions(List<MatchedRevision> revisions) {
+        return revisions.stream().map(MatchedRevision::getLongRevision).toList();
+    }
+
     private MaterialRevisions saveModifications(Material material, int count) {
         MaterialRevisions materialRevisions = new MaterialRevisions();
         List<Modification> mods = new ArrayList<>();
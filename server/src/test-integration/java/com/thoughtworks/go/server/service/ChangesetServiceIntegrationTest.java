@@ -132,6 +132,37 @@ public class ChangesetServiceIntegrationTest {
         assertThat(result.isSuccessful()).isTrue();
     }
 
+    @Test
+    public void shouldSummarizeModificationsBetweenTwoPipelineInstancesWithOnlyTheLatestModificationsOfEveryMaterial() {
+        Username loser = new Username(new CaseInsensitiveString("loser"));
+        ManualBuild build = new ManualBuild(loser);
+        Date checkinTime = new Date();
+
+        Modification hgCommit1 = checkinWithComment("abcd", "#4518 - foo", checkinTime);
+        Modification gitCommit1 = checkinWithComment("1234", "#3750 - agent index", checkinTime);
+        Pipeline pipelineOne = dbHelper.checkinRevisionsToBuild(build, pipelineConfigWithTwoMaterials, dbHelper.addRevisionsWithModifications(hg, hgCommit1),
+                dbHelper.addRevisionsWithModifications(git, gitCommit1));
+
+        Modification hgCommit2 = checkinWithComment("bcde", "#4520 - foo", checkinTime);
+        Modification gitCommit2 = checkinWithComment("2355", "#3750 - agent index", checkinTime);
+        dbHelper.checkinRevisionsToBuild(build, pipelineConfigWithTwoMaterials, dbHelper.addRevisionsWithModifications(hg, hgCommit2), dbHelper.addRevisionsWithModifications(git, gitCommit2));
+
+        Modification hgCommit3 = checkinWithComment("cdef", "#4521 - get gadget working", checkinTime);
+        Modification gitCommit3 = checkinWithComment("2345", "#4200 - whatever", checkinTime);
+        Pipeline pipelineThree = dbHelper.checkinRevisionsToBuild(build, pipelineConfigWithTwoMaterials, dbHelper.addRevisionsWithModifications(hg, hgCommit3),
+                dbHelper.addRevisionsWithModifications(git, gitCommit3));
+
+        List<MaterialRevision> expectedRevisions = List.of(
+                new MaterialRevision(hg, hgCommit3),
+                new MaterialRevision(git, gitCommit3));
+
+        HttpLocalizedOperationResult result = new HttpLocalizedOperationResult();
+        ChangesetSummary summary = changesetService.summaryBetween("foo", pipelineOne.getCounter(), pipelineThree.getCounter(), 1, loser, result, false);
+        assertMaterialRevisions(expectedRevisions, summary.revisions());
+        assertThat(summary.revisions()).allSatisfy(revision -> assertThat(summary.modificationCountOf(revision)).isEqualTo(2));
+        assertThat(result.isSuccessful()).isTrue();
+    }
+
     @Test
     public void shouldNotDuplicateModificationsWhileComputingRevisionsBetweenTwoPipelineInstances() {
         Username loser = new Username(new CaseInsensitiveString("loser"));
@@ -64,6 +64,7 @@ import java.util.stream.IntStream;
 
 import static com.thoughtworks.go.helper.MaterialConfigsMother.svn;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(locations = {
@@ -493,6 +494,35 @@ public class PipelineHistoryServiceIntegrationTest {
         assertThat(actual.get(2).getCounter()).isEqualTo(1);
     }
 
+    @Test
+    public void findMatchingPipelineInstances_shouldMatchModificationsFieldsFoundOnTheSearchIndex() {
+        final int limit = 3;
+        PipelineConfig pipelineConfig = PipelineConfigMother.createPipelineConfig("pipeline_name", "stage", "job");
+        configHelper.addPipeline("pipeline-group", pipelineConfig);
+        configHelper.addAuthorizedUserForPipelineGroup("user", "pipeline-group");
+
+        pipelineConfig.setLabelTemplate("${COUNT}-blah-1");
+        Pipeline shouldMatch1 = dbHelper.schedulePipeline(pipelineConfig, ModificationsMother.buildCauseForOneModifiedFile(pipelineConfig, "abc1234", "hello world  -THIS SHOULD MATCH", "dev"),
+                new TimeProvider());
+        dbHelper.cancelStage(shouldMatch1.getStages().getFirst());
+
+        Pipeline shouldNotMatch = dbHelper.schedulePipeline(pipelineConfig, ModificationsMother.buildCauseForOneModifiedFile(pipelineConfig, "revision-there-2", "some monkey", "foo"),
+                new TimeProvider());
+        dbHelper.cancelStage(shouldNotMatch.getStages().getFirst());
+
+        Pipeline shouldMatch2 = dbHelper.schedulePipeline(pipelineConfig, ModificationsMother.buildCauseForOneModifiedFile(pipelineConfig, "revision-HELLO-there-SHOULD_MATCH", "some monkey", "foo"),
+                new TimeProvider());
+        dbHelper.cancelStage(shouldMatch2.getStages().getFirst());
+
+        // the index of the material is built in the background once it is first searched
+        await().until(() -> materialRepository.findModificationIdsMatching("pipeline_name", "ello") != null);
+
+        PipelineInstanceModels actual = pipelineHistoryService.findMatchingPipelineInstances("pipeline_name", "ello", limit, new Username(new CaseInsensitiveString("user")), new HttpLocalizedOperationResult());
+        assertThat(actual.size()).isEqualTo(2);
+        assertThat(actual.get(0).getCounter()).isEqualTo(3);
+        assertThat(actual.get(1).getCounter()).isEqualTo(1);
+    }
+
     @Test
     public void findMatchingPipelineInstances_shouldShowExactMatchesOnLabelBeforePartialMatches() {
         final int limit = 3;
@@ -0,0 +1,104 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.listener.AsyncConfigChangedListener;
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+public class ConfigChangedListenerDispatcherTest {
+    private final ConfigChangedListenerDispatcher dispatcher = new ConfigChangedListenerDispatcher();
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stopAsyncDeliveries();
+    }
+
+    @Test
+    void shouldNotifyPlainListenersOnTheCallingThread() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        ConfigChangedListener listener = config -> threads.add(Thread.currentThread().getName());
+
+        dispatcher.notify(listener, new BasicCruiseConfig());
+
+        assertThat(threads).containsExactly(Thread.currentThread().getName());
+    }
+
+    @Test
+    void shouldNotifyAsyncListenersOnAThreadOfTheirOwn() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        AsyncConfigChangedListener listener = config -> threads.add(Thread.currentThread().getName());
+
+        dispatcher.notify(listener, new BasicCruiseConfig());
+
+        await().timeout(2, TimeUnit.SECONDS).until(() -> threads.size() == 1);
+        assertThat(threads.getFirst()).startsWith("config-change-").isNotEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void shouldOnlyHandTheLatestWaitingConfigToABusyAsyncListener() throws Exception {
+        CountDownLatch firstNotificationStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstNotification = new CountDownLatch(1);
+        List<CruiseConfig> received = new CopyOnWriteArrayList<>();
+        AsyncConfigChangedListener listener = config -> {
+            received.add(config);
+            firstNotificationStarted.countDown();
+            try {
+                releaseFirstNotification.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CruiseConfig first = new BasicCruiseConfig();
+        CruiseConfig second = new BasicCruiseConfig();
+        CruiseConfig third = new BasicCruiseConfig();
+
+        dispatcher.notify(listener, first);
+        assertThat(firstNotificationStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        dispatcher.notify(listener, second);
+        dispatcher.notify(listener, third);
+        releaseFirstNotification.countDown();
+
+        await().timeout(2, TimeUnit.SECONDS).until(() -> received.size() == 2);
+        assertThat(received.get(0)).isSameAs(first);
+        assertThat(received.get(1)).isSameAs(third);
+        assertThat(dispatcher.timings().get(listener.getClass().getName())).containsEntry("Coalesced", 1L);
+    }
+
+    @Test
+    void shouldRecordTimingsOfEveryListenerAndSurviveFailingListeners() {
+        ConfigChangedListener failingListener = mock(ConfigChangedListener.class);
+        doThrow(new RuntimeException("boom")).when(failingListener).onConfigChange(any());
+
+        dispatcher.notify(failingListener, new BasicCruiseConfig());
+        dispatcher.notify(failingListener, new BasicCruiseConfig());
+
+        verify(failingListener, times(2)).onConfigChange(any());
+        assertThat(dispatcher.timings().get(failingListener.getClass().getName()))
+            .containsEntry("Notifications", 2L)
+            .containsKeys("Total time (ms)", "Average time (ms)", "Max time (ms)", "Last time (ms)");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.plugin.configrepo.contract.CREnvironment;
+import com.thoughtworks.go.plugin.configrepo.contract.CRConfigurationProperty;
+import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
+import com.thoughtworks.go.plugin.configrepo.contract.ErrorCollection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigRepoParseCacheTest {
+    @TempDir
+    File tempDir;
+
+    private File cacheDir;
+    private ConfigRepoParseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cacheDir = new File(tempDir, "cache");
+        cache = new ConfigRepoParseCache(cacheDir);
+    }
+
+    @Test
+    void shouldReturnCachedResultForSameKey() {
+        String key = cache.keyFor("abc123", "yaml.config.plugin", "1.0", List.of());
+        cache.put("fingerprint", key, parseResultWithEnvironment("uat"));
+
+        CRParseResult cached = cache.get("fingerprint", key);
+
+        assertThat(cached.getEnvironments()).extracting(CREnvironment::getName).containsExactly("uat");
+    }
+
+    @Test
+    void shouldNotReturnCachedResultForDifferentKey() {
+        String key = cache.keyFor("abc123", "yaml.config.plugin", "1.0", List.of());
+        cache.put("fingerprint", key, parseResultWithEnvironment("uat"));
+
+        assertThat(cache.get("fingerprint", cache.keyFor("abc123", "yaml.config.plugin", "1.1", List.of()))).isNull();
+        assertThat(cache.get("another-fingerprint", key)).isNull();
+    }
+
+    @Test
+    void shouldComputeKeyFromRevisionPluginAndConfiguration() {
+        String key = cache.keyFor("abc123", "yaml.config.plugin", "1.0", List.of());
+
+        assertThat(cache.keyFor("abc123", "yaml.config.plugin", "1.0", List.of())).isEqualTo(key);
+        assertThat(cache.keyFor("abc123", "json.config.plugin", "1.0", List.of())).isNotEqualTo(key);
+        assertThat(cache.keyFor("abc123", "yaml.config.plugin", "1.0", List.of(new CRConfigurationProperty("file_pattern", "*.yaml")))).isNotEqualTo(key);
+        assertThat(cache.keyFor("def456", "yaml.config.plugin", "1.0", List.of())).isNotEqualTo(key);
+    }
+
+    @Test
+    void shouldNotComputeKeyWhenPluginVersionIsUnknown() {
+        assertThat(cache.keyFor("abc123", "yaml.config.plugin", null, List.of())).isNull();
+    }
+
+    @Test
+    void shouldNotComputeKeyWhenRevisionIsUnknown() {
+        assertThat(cache.keyFor(null, "yaml.config.plugin", "1.0", List.of())).isNull();
+    }
+
+    @Test
+    void shouldLoadPersistedResultsAfterRestart() {
+        String key = cache.keyFor("abc123", "yaml.config.plugin", "1.0", List.of());
+        cache.put("fingerprint", key, parseResultWithEnvironment("uat"));
+
+        ConfigRepoParseCache restarted = new ConfigRepoParseCache(cacheDir);
+
+        assertThat(restarted.get("fingerprint", key).getEnvironments()).extracting(CREnvironment::getName).containsExactly("uat");
+    }
+
+    @Test
+    void shouldRemovePersistedResult() {
+        String key = cache.keyFor("abc123", "yaml.config.plugin", "1.0", List.of());
+        cache.put("fingerprint", key, parseResultWithEnvironment("uat"));
+
+        cache.remove("fingerprint");
+
+        assertThat(cache.get("fingerprint", key)).isNull();
+        assertThat(new ConfigRepoParseCache(cacheDir).get("fingerprint", key)).isNull();
+    }
+
+    private CRParseResult parseResultWithEnvironment(String name) {
+        List<CREnvironment> environments = new ArrayList<>();
+        environments.add(new CREnvironment(name));
+        return new CRParseResult(environments, new ArrayList<>(), new ErrorCollection());
+    }
+}
@@ -22,6 +22,7 @@ import com.thoughtworks.go.plugin.configrepo.contract.CRPipeline;
 import com.thoughtworks.go.plugin.configrepo.contract.ErrorCollection;
 import com.thoughtworks.go.server.service.AgentService;
 import com.thoughtworks.go.util.ConfigElementImplementationRegistryMother;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -46,7 +47,7 @@ public class GoConfigPluginServiceTest {
     public void setUp() {
         ConfigRepoExtension extension = mock(ConfigRepoExtension.class);
         service = new GoConfigPluginService(extension, ConfigElementImplementationRegistryMother.withNoPlugins(),
-            mock(CachedGoConfig.class), mock(AgentService.class));
+            mock(CachedGoConfig.class), mock(AgentService.class), new SystemEnvironment());
         CRParseResult parseResult = new CRParseResult(environments, pipelines, errors);
 
         when(extension.parseDirectory(any(), any(), any())).thenReturn(parseResult);
@@ -15,21 +15,48 @@
  */
 package com.thoughtworks.go.config.plugin;
 
-import com.thoughtworks.go.config.ConfigRepoPlugin;
+import com.thoughtworks.go.config.*;
 import com.thoughtworks.go.domain.config.Configuration;
 import com.thoughtworks.go.domain.config.ConfigurationProperty;
+import com.thoughtworks.go.helper.MaterialConfigsMother;
 import com.thoughtworks.go.helper.ReversingEncrypter;
+import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoExtension;
+import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoMetadataStore;
 import com.thoughtworks.go.plugin.configrepo.contract.CRConfigurationProperty;
+import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
+import com.thoughtworks.go.plugin.configrepo.contract.ErrorCollection;
+import com.thoughtworks.go.plugin.domain.configrepo.Capabilities;
+import com.thoughtworks.go.plugin.domain.configrepo.ConfigRepoPluginInfo;
+import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.security.GoCipher;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class ConfigRepoPluginTest {
 
+    private static final String PLUGIN_ID = "yaml.config.plugin";
+
     private final GoCipher cipher = new GoCipher(new ReversingEncrypter());
+    private final ConfigConverter configConverter = mock(ConfigConverter.class);
+    private final ConfigRepoExtension crExtension = mock(ConfigRepoExtension.class);
+
+    @TempDir
+    File tempDir;
+
+    @AfterEach
+    void tearDown() {
+        ConfigRepoMetadataStore.instance().remove(PLUGIN_ID);
+    }
 
     @Test
     void shouldGetCRConfigurationFromConfigurationWhenInsecureValue() {
@@ -54,4 +81,48 @@ public class ConfigRepoPluginTest {
         assertEquals("key1", prop.getKey());
         assertEquals("secret", prop.getValue());
     }
+
+    @Test
+    void shouldReuseTheParseResultOfARevisionWhichWasParsedBefore() {
+        ConfigRepoPlugin plugin = pluginWithParseCache();
+        CRParseResult parseResult = new CRParseResult();
+        when(crExtension.parseDirectory(eq(PLUGIN_ID), anyString(), anyCollection())).thenReturn(parseResult);
+
+        plugin.load(tempDir, loadContext("abc123"));
+        plugin.load(tempDir, loadContext("abc123"));
+        verify(crExtension, times(1)).parseDirectory(eq(PLUGIN_ID), anyString(), anyCollection());
+
+        plugin.load(tempDir, loadContext("def456"));
+        verify(crExtension, times(2)).parseDirectory(eq(PLUGIN_ID), anyString(), anyCollection());
+    }
+
+    @Test
+    void shouldParseARevisionAgainWhenItFailedToParse() {
+        ConfigRepoPlugin plugin = pluginWithParseCache();
+        ErrorCollection errors = new ErrorCollection();
+        errors.addError("pipeline.gocd.yaml", "invalid pipeline");
+        when(crExtension.parseDirectory(eq(PLUGIN_ID), anyString(), anyCollection()))
+            .thenReturn(new CRParseResult(errors))
+            .thenReturn(new CRParseResult());
+
+        assertThatThrownBy(() -> plugin.load(tempDir, loadContext("abc123"))).isInstanceOf(InvalidPartialConfigException.class);
+        plugin.load(tempDir, loadContext("abc123"));
+        plugin.load(tempDir, loadContext("abc123"));
+
+        verify(crExtension, times(2)).parseDirectory(eq(PLUGIN_ID), anyString(), anyCollection());
+    }
+
+    private ConfigRepoPlugin pluginWithParseCache() {
+        GoPluginDescriptor descriptor = GoPluginDescriptor.builder().id(PLUGIN_ID).about(GoPluginDescriptor.About.builder().version("1.0").build()).build();
+        ConfigRepoMetadataStore.instance().setPluginInfo(new ConfigRepoPluginInfo(descriptor, null, null, new Capabilities()));
+        return new ConfigRepoPlugin(configConverter, crExtension, PLUGIN_ID, new ConfigRepoParseCache(new File(tempDir, "cache")));
+    }
+
+    private PartialConfigLoadContext loadContext(String revision) {
+        PartialConfigLoadContext context = mock(PartialConfigLoadContext.class);
+        when(context.configuration()).thenReturn(new Configuration());
+        when(context.configMaterial()).thenReturn(MaterialConfigsMother.git("https://example.com/config-repo.git"));
+        when(context.revision()).thenReturn(revision);
+        return context;
+    }
 }
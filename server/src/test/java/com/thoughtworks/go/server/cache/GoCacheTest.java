@@ -19,6 +19,8 @@ import com.thoughtworks.go.config.materials.mercurial.HgMaterial;
 import com.thoughtworks.go.domain.MaterialInstance;
 import com.thoughtworks.go.domain.NullUser;
 import com.thoughtworks.go.helper.MaterialsMother;
+import com.thoughtworks.go.server.dao.StageSqlMapDao;
+import com.thoughtworks.go.server.service.EntityHashingService;
 import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import com.thoughtworks.go.util.LogFixture;
 import net.sf.ehcache.Cache;
@@ -29,7 +31,9 @@ import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
 import org.junit.jupiter.api.*;
 import org.slf4j.event.Level;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static com.thoughtworks.go.util.LogFixture.logFixtureFor;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -194,7 +198,7 @@ public class GoCacheTest {
 
     @Test
     public void shouldEvictSubkeyFromParentCacheWhenTheSubkeyEntryGetsEvicted() throws InterruptedException {
-        goCache.configuration().setMaxEntriesLocalHeap(2);
+        goCache.configuration(GoCacheRegion.DEFAULT).setMaxEntriesLocalHeap(2);
         String parentKey = "parent";
         goCache.put(parentKey, "child1", "value");
         assertThat(goCache.<Object>get(parentKey)).isNotNull();
@@ -212,8 +216,8 @@ public class GoCacheTest {
 
     @Test
     public void shouldEvictSubkeyFromParentCacheWhenTheSubkeyEntryGetsExpired() throws InterruptedException {
-        goCache.configuration().setEternal(false);
-        goCache.configuration().setTimeToLiveSeconds(1);
+        goCache.configuration(GoCacheRegion.DEFAULT).setEternal(false);
+        goCache.configuration(GoCacheRegion.DEFAULT).setTimeToLiveSeconds(1);
         String parentKey = "parent";
         goCache.put(parentKey, "child1", "value");
         assertThat(goCache.<Object>get(parentKey)).isNotNull();
@@ -231,7 +235,7 @@ public class GoCacheTest {
 
     @Test
     public void shouldEvictAllSubkeyCacheEntriesWhenTheParentEntryGetsEvicted() throws InterruptedException {
-        goCache.configuration().setMaxEntriesLocalHeap(2);
+        goCache.configuration(GoCacheRegion.DEFAULT).setMaxEntriesLocalHeap(2);
         String parentKey = "parent";
         goCache.put(parentKey, new GoCache.KeyList());
         assertThat(goCache.<Object>get(parentKey)).isNotNull();
@@ -247,7 +251,7 @@ public class GoCacheTest {
 
     @Test
     public void shouldHandleNonSerializableValuesDuringEviction() throws InterruptedException {
-        goCache.configuration().setMaxEntriesLocalHeap(1);
+        goCache.configuration(GoCacheRegion.DEFAULT).setMaxEntriesLocalHeap(1);
         NonSerializableClass value = new NonSerializableClass();
         String key = "key";
         goCache.put(key, value);
@@ -257,9 +261,103 @@ public class GoCacheTest {
     }
 
 
+    @Test
+    public void shouldKeepEntriesOfEachRegionInTheCacheOfThatRegion() {
+        GoCacheRegion.STAGE_HISTORY.assign(StageOwner.class);
+        Cache stageCache = new Cache(new CacheConfiguration(getClass().getName() + ".stages", 2).memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU));
+        Cache defaultCache = new Cache(new CacheConfiguration(getClass().getName() + ".default", 100).memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU));
+        cacheManager.addCache(stageCache);
+        cacheManager.addCache(defaultCache);
+        GoCache regionalCache = new GoCache(Map.of(GoCacheRegion.STAGE_HISTORY, stageCache, GoCacheRegion.DEFAULT, defaultCache), mock(TransactionSynchronizationManager.class));
+        String stageKey = new CacheKeyGenerator(StageOwner.class).generate("stage", 1L);
+        String anotherStageKey = new CacheKeyGenerator(StageOwner.class).generate("stage", 2L);
+
+        try {
+            regionalCache.put("unrelatedkey", "value");
+            regionalCache.put(stageKey, "subKey", "stage");
+
+            assertThat(stageCache.isKeyInCache(stageKey)).isTrue();
+            assertThat(defaultCache.isKeyInCache(stageKey)).isFalse();
+            assertThat(defaultCache.isKeyInCache("unrelatedkey")).isTrue();
+            assertThat(regionalCache.get(stageKey, "subKey")).isEqualTo("stage");
+
+            regionalCache.put(anotherStageKey, "another stage");
+
+            assertThat(regionalCache.<Object>get("unrelatedkey")).isEqualTo("value");
+            assertThat(regionalCache.getKeys()).contains("unrelatedkey", anotherStageKey);
+        } finally {
+            regionalCache.destroy();
+        }
+    }
+
+    @Test
+    public void shouldConfigureEachRegionOnItsOwn() {
+        Cache stageCache = new Cache(new CacheConfiguration(getClass().getName() + ".stages", 2).memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU));
+        Cache defaultCache = new Cache(new CacheConfiguration(getClass().getName() + ".default", 100).memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU));
+        cacheManager.addCache(stageCache);
+        cacheManager.addCache(defaultCache);
+        GoCache regionalCache = new GoCache(Map.of(GoCacheRegion.STAGE_HISTORY, stageCache, GoCacheRegion.DEFAULT, defaultCache), mock(TransactionSynchronizationManager.class));
+
+        try {
+            regionalCache.configuration(GoCacheRegion.STAGE_HISTORY).setMaxEntriesLocalHeap(5);
+
+            assertThat(stageCache.getCacheConfiguration().getMaxEntriesLocalHeap()).isEqualTo(5);
+            assertThat(defaultCache.getCacheConfiguration().getMaxEntriesLocalHeap()).isEqualTo(100);
+            assertThat(regionalCache.configuration(GoCacheRegion.AGENTS)).isSameAs(defaultCache.getCacheConfiguration());
+        } finally {
+            regionalCache.destroy();
+        }
+    }
+
+    @Test
+    public void shouldAssignKeysToRegionsByTheClassThatGeneratedThem() {
+        GoCacheRegion.STAGE_HISTORY.assign(StageOwner.class);
+        GoCacheRegion.SETTINGS.assign(SettingsOwner.class);
+
+        assertThat(GoCacheRegion.forKey(new CacheKeyGenerator(StageOwner.class).generate("stage", 1L))).isEqualTo(GoCacheRegion.STAGE_HISTORY);
+        assertThat(GoCacheRegion.forKey(new CacheKeyGenerator(SettingsOwner.class).generate("plugin", "id"))).isEqualTo(GoCacheRegion.SETTINGS);
+        assertThat(GoCacheRegion.forKey("urls_cache")).isEqualTo(GoCacheRegion.DEFAULT);
+    }
+
+    @Test
+    public void shouldAssignKeysStartingWithTheOwnerClassNameToTheOwnersRegion() {
+        GoCacheRegion.SETTINGS.assign(SettingsOwner.class);
+
+        assertThat(GoCacheRegion.forKey(SettingsOwner.class.getName() + "_KNOWN_TOGGLES")).isEqualTo(GoCacheRegion.SETTINGS);
+        assertThat(GoCacheRegion.forKey(SettingsOwner.class.getName() + "_GO_ETAG_CACHE" + GoCache.SUB_KEY_DELIMITER + "some.Entity.name")).isEqualTo(GoCacheRegion.SETTINGS);
+    }
+
+    @Test
+    public void shouldNotLetAnOwnerMoveItsKeysToAnotherRegion() {
+        GoCacheRegion.STAGE_HISTORY.assign(StageOwner.class);
+
+        assertThrows(IllegalStateException.class, () -> GoCacheRegion.JOB_INSTANCES.assign(StageOwner.class));
+        assertThat(GoCacheRegion.forKey(new CacheKeyGenerator(StageOwner.class).generate("stage", 1L))).isEqualTo(GoCacheRegion.STAGE_HISTORY);
+    }
+
+    @Test
+    public void shouldAssignTheKeysOfAnOwnerToItsRegionOnceItIsLoaded() throws ClassNotFoundException {
+        Class.forName(StageSqlMapDao.class.getName(), true, StageSqlMapDao.class.getClassLoader());
+        Class.forName(EntityHashingService.class.getName(), true, EntityHashingService.class.getClassLoader());
+
+        assertThat(GoCacheRegion.forKey(new CacheKeyGenerator(StageSqlMapDao.class).generate("stage", 1L))).isEqualTo(GoCacheRegion.STAGE_HISTORY);
+        assertThat(GoCacheRegion.forKey(EntityHashingService.class.getName() + "_GO_ETAG_CACHE")).isEqualTo(GoCacheRegion.ENTITY_DIGESTS);
+    }
+
+    @Test
+    public void shouldSplitAllTheElementsBetweenTheRegions() {
+        assertThat(Arrays.stream(GoCacheRegion.values()).mapToInt(region -> region.maxElementsInMemory(10000)).sum()).isEqualTo(10000);
+    }
+
     private static class NonSerializableClass {
     }
 
+    private static class StageOwner {
+    }
+
+    private static class SettingsOwner {
+    }
+
     private void waitForCacheElementsToExpire() throws InterruptedException {
         Thread.sleep(2000);
     }
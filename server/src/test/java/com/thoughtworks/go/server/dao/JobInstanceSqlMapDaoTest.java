@@ -17,7 +17,10 @@ package com.thoughtworks.go.server.dao;
 
 import com.opensymphony.oscache.base.Cache;
 import com.thoughtworks.go.domain.JobIdentifier;
+import com.thoughtworks.go.domain.JobInstance;
+import com.thoughtworks.go.domain.JobState;
 import com.thoughtworks.go.domain.StageIdentifier;
+import com.thoughtworks.go.helper.JobInstanceMother;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.persistence.ArtifactPlanRepository;
 import com.thoughtworks.go.server.persistence.ResourceRepository;
@@ -31,12 +34,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -67,7 +76,7 @@ class JobInstanceSqlMapDaoTest {
         GoCache goCache = new StubGoCache(new TestTransactionSynchronizationManager());
         jobInstanceSqlMapDao = new JobInstanceSqlMapDao(environmentVariableDao, goCache, transactionTemplate, null,
             cache, transactionSynchronizationManager, resourceRepository,
-            artifactPlanRepository, jobAgentMetadataDao);
+            artifactPlanRepository, jobAgentMetadataDao, systemEnvironment);
         jobInstanceSqlMapDao.setSqlMapClientTemplate(template);
     }
 
@@ -194,4 +203,101 @@ class JobInstanceSqlMapDaoTest {
                 .isNotEqualTo(jobInstanceSqlMapDao.cacheKeyForFindDetailedJobHistoryViaCursor("Foo_Bar", "Jaz", "Baz", "", 1, 1));
         }
     }
+
+    @Nested
+    class WriteBehindStateChanges {
+        @BeforeEach
+        void setUp() {
+            when(systemEnvironment.shouldWriteBehindJobStateChanges()).thenReturn(true);
+            GoCache goCache = new StubGoCache(new TestTransactionSynchronizationManager());
+            jobInstanceSqlMapDao = new JobInstanceSqlMapDao(environmentVariableDao, goCache, transactionTemplate, null,
+                cache, transactionSynchronizationManager, resourceRepository,
+                artifactPlanRepository, jobAgentMetadataDao, systemEnvironment);
+            jobInstanceSqlMapDao.setSqlMapClientTemplate(template);
+        }
+
+        @Test
+        void shouldNotDeferStateChangesWhenDisabled() {
+            when(systemEnvironment.shouldWriteBehindJobStateChanges()).thenReturn(false);
+            JobInstanceSqlMapDao dao = new JobInstanceSqlMapDao(environmentVariableDao, new StubGoCache(new TestTransactionSynchronizationManager()), transactionTemplate, null,
+                cache, transactionSynchronizationManager, resourceRepository,
+                artifactPlanRepository, jobAgentMetadataDao, systemEnvironment);
+
+            assertThat(dao.deferStateChange(building(1))).isFalse();
+        }
+
+        @Test
+        void shouldOnlyDeferNonTerminalStateChanges() {
+            JobInstance completed = JobInstanceMother.completed("job");
+            completed.setId(1);
+
+            assertThat(jobInstanceSqlMapDao.deferStateChange(building(2))).isTrue();
+            assertThat(jobInstanceSqlMapDao.deferStateChange(completed)).isFalse();
+        }
+
+        @Test
+        void shouldServeDeferredStateChangesUntilTheyAreWritten() {
+            jobInstanceSqlMapDao.deferStateChange(building(1));
+
+            JobInstance jobInstance = jobInstanceSqlMapDao.buildByIdWithTransitions(1);
+
+            assertThat(jobInstance.getState()).isEqualTo(JobState.Building);
+            verifyNoInteractions(template);
+        }
+
+        @Test
+        void shouldWriteDeferredStateChangesInBulk() {
+            when(transactionTemplate.execute(any())).thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+            jobInstanceSqlMapDao.deferStateChange(building(1));
+            jobInstanceSqlMapDao.deferStateChange(building(2));
+
+            List<JobInstance> written = jobInstanceSqlMapDao.flushPendingStateChanges();
+
+            assertThat(written).extracting(JobInstance::getId).containsExactlyInAnyOrder(1L, 2L);
+            @SuppressWarnings("unchecked") ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+            verify(template).update(eq("updateStatesAndResults"), captor.capture());
+            assertThat(captor.getValue()).containsEntry("state", JobState.Building);
+            assertThat((List<Long>) captor.getValue().get("ids")).containsExactlyInAnyOrder(1L, 2L);
+            verify(template).insert(eq("insertTransitions"), any());
+            assertThat(jobInstanceSqlMapDao.flushPendingStateChanges()).isEmpty();
+        }
+
+        @Test
+        void shouldServeAndAcceptStateChangesWhileAFlushIsWriting() {
+            JobInstance[] servedWhileWriting = new JobInstance[1];
+            when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+                // from another thread, which must not wait for the flush to finish
+                CompletableFuture.runAsync(() -> {
+                    servedWhileWriting[0] = jobInstanceSqlMapDao.buildByIdWithTransitions(1);
+                    jobInstanceSqlMapDao.deferStateChange(building(2));
+                }).get(10, TimeUnit.SECONDS);
+                return ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null);
+            });
+            jobInstanceSqlMapDao.deferStateChange(building(1));
+
+            assertThat(jobInstanceSqlMapDao.flushPendingStateChanges()).extracting(JobInstance::getId).containsExactly(1L);
+
+            assertThat(servedWhileWriting[0].getState()).isEqualTo(JobState.Building);
+            assertThat(jobInstanceSqlMapDao.buildByIdWithTransitions(2).getState()).isEqualTo(JobState.Building);
+        }
+
+        @Test
+        void shouldKeepStateChangesPendingWhenTheyFailToBeWritten() {
+            when(transactionTemplate.execute(any()))
+                .thenThrow(new RuntimeException("database is down"))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+            jobInstanceSqlMapDao.deferStateChange(building(1));
+
+            assertThatThrownBy(() -> jobInstanceSqlMapDao.flushPendingStateChanges()).hasMessage("database is down");
+            assertThat(jobInstanceSqlMapDao.buildByIdWithTransitions(1).getState()).isEqualTo(JobState.Building);
+
+            assertThat(jobInstanceSqlMapDao.flushPendingStateChanges()).extracting(JobInstance::getId).containsExactly(1L);
+        }
+
+        private JobInstance building(long id) {
+            JobInstance jobInstance = JobInstanceMother.building("job");
+            jobInstance.setId(id);
+            return jobInstance;
+        }
+    }
 }
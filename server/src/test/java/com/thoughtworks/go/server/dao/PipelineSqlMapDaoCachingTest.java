@@ -29,6 +29,7 @@ import com.thoughtworks.go.helper.PipelineMother;
 import com.thoughtworks.go.helper.StageMother;
 import com.thoughtworks.go.presentation.pipelinehistory.JobHistory;
 import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModel;
+import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModels;
 import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModel;
 import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModels;
 import com.thoughtworks.go.server.cache.GoCache;
@@ -123,7 +124,7 @@ class PipelineSqlMapDaoCachingTest {
     }
 
     @Test
-    void findPipelineIds_shouldNotCacheResultWhenMultiplePipelineIdsOrPipelineIdsFromASubsequentPageAreRequested() {
+    void findPipelineIds_shouldCacheResultForTheFirstPageButNotForSubsequentPages() {
         List<Long> expectedIds = new ArrayList<>();
         expectedIds.add(1L);
         expectedIds.add(2L);
@@ -132,7 +133,18 @@ class PipelineSqlMapDaoCachingTest {
         pipelineDao.findPipelineIds("pipelineName", 2, 0);
         pipelineDao.findPipelineIds("pipelineName", 1, 2);
         pipelineDao.findPipelineIds("pipelineName", 1, 2);
-        verify(mockTemplate, times(4)).queryForList(eq("getPipelineRange"), any());
+        verify(mockTemplate, times(3)).queryForList(eq("getPipelineRange"), any());
+    }
+
+    @Test
+    void findPipelineIds_shouldCacheTheFirstPageSeparatelyForEveryPageSize() {
+        doReturn(List.of(3L, 2L)).when(mockTemplate).queryForList("getPipelineRange", arguments("pipelineName", "pipelineName").and("limit", 2).and("offset", 0).asMap());
+        doReturn(List.of(3L, 2L, 1L)).when(mockTemplate).queryForList("getPipelineRange", arguments("pipelineName", "pipelineName").and("limit", 3).and("offset", 0).asMap());
+
+        assertThat(pipelineDao.findPipelineIds("pipelineName", 2, 0)).containsExactly(3L, 2L);
+        assertThat(pipelineDao.findPipelineIds("pipelineName", 3, 0)).containsExactly(3L, 2L, 1L);
+        assertThat(pipelineDao.findPipelineIds("pipelineName", 2, 0)).containsExactly(3L, 2L);
+        verify(mockTemplate, times(2)).queryForList(eq("getPipelineRange"), any());
     }
 
     @Test
@@ -176,6 +188,71 @@ class PipelineSqlMapDaoCachingTest {
         verify(mockTemplate, times(1)).queryForObject(eq("getPipelineHistoryById"), any());
     }
 
+    @Test
+    void loadHistory_shouldServeAPageOfHistoryFromCachedPipelineInstances() {
+        when(repository.findMaterialRevisionsForPipeline(anyLong())).thenReturn(new MaterialRevisions());
+        doReturn(List.of(3L, 2L, 1L)).when(mockTemplate).queryForList(eq("getPipelineRange"), any());
+        doReturn(List.of(historyOf(3), historyOf(2), historyOf(1))).when(mockTemplate).queryForList(eq("getPipelineHistoryByName"), any());
+
+        pipelineDao.loadHistory("pipeline", 3, 0);
+        PipelineInstanceModels history = pipelineDao.loadHistory("pipeline", 3, 0);
+
+        assertThat(history).extracting(PipelineInstanceModel::getId).containsExactly(3L, 2L, 1L);
+        verify(mockTemplate, times(1)).queryForList(eq("getPipelineRange"), any());
+        verify(mockTemplate, times(1)).queryForList(eq("getPipelineHistoryByName"), any());
+        verify(repository, times(6)).findMaterialRevisionsForPipeline(anyLong());
+    }
+
+    @Test
+    void loadHistory_shouldReloadOnlyThePipelineInstancesWhoseStagesChanged() {
+        when(repository.findMaterialRevisionsForPipeline(anyLong())).thenReturn(new MaterialRevisions());
+        doReturn(List.of(3L, 2L, 1L)).when(mockTemplate).queryForList(eq("getPipelineRange"), any());
+        doReturn(List.of(historyOf(3), historyOf(2), historyOf(1))).when(mockTemplate).queryForList(eq("getPipelineHistoryByName"), any());
+        Map<String, Object> onlySecondInstance = arguments("pipelineName", "pipeline").and("from", 2L).and("to", 2L).asMap();
+        doReturn(List.of(historyOf(2))).when(mockTemplate).queryForList("getPipelineHistoryByName", onlySecondInstance);
+
+        pipelineDao.loadHistory("pipeline", 3, 0);
+        changeStageStatus(2);
+        PipelineInstanceModels history = pipelineDao.loadHistory("pipeline", 3, 0);
+
+        assertThat(history).extracting(PipelineInstanceModel::getId).containsExactly(3L, 2L, 1L);
+        verify(mockTemplate, times(2)).queryForList(eq("getPipelineHistoryByName"), any());
+        verify(mockTemplate).queryForList("getPipelineHistoryByName", onlySecondInstance);
+    }
+
+    @Test
+    void loadHistory_shouldCloneCachedPipelineInstancesSoThatModificationsDoNotAffectThem() {
+        when(repository.findMaterialRevisionsForPipeline(anyLong())).thenReturn(new MaterialRevisions());
+        doReturn(List.of(2L, 1L)).when(mockTemplate).queryForList(eq("getPipelineRange"), any());
+        doReturn(List.of(historyOf(2), historyOf(1))).when(mockTemplate).queryForList(eq("getPipelineHistoryByName"), any());
+
+        pipelineDao.loadHistory("pipeline", 2, 0).getFirst().setCanRun(true);
+
+        assertThat(pipelineDao.loadHistory("pipeline", 2, 0).getFirst().getCanRun()).isFalse();
+    }
+
+    @Test
+    void loadHistory_shouldNotCachePipelineInstancesWithAnActiveStage() {
+        when(repository.findMaterialRevisionsForPipeline(anyLong())).thenReturn(new MaterialRevisions());
+        doReturn(List.of(2L, 1L)).when(mockTemplate).queryForList(eq("getPipelineRange"), any());
+        doReturn(List.of(model(2, JobState.Building, JobResult.Unknown), historyOf(1))).when(mockTemplate).queryForList(eq("getPipelineHistoryByName"), any());
+        Map<String, Object> onlyActiveInstance = arguments("pipelineName", "pipeline").and("from", 2L).and("to", 2L).asMap();
+        doReturn(List.of(model(2, JobState.Building, JobResult.Unknown))).when(mockTemplate).queryForList("getPipelineHistoryByName", onlyActiveInstance);
+
+        pipelineDao.loadHistory("pipeline", 2, 0);
+        pipelineDao.loadHistory("pipeline", 2, 0);
+
+        assertThat(goCache.<Object>get(pipelineDao.pipelineHistoryCacheKey(2L))).isNull();
+        assertThat(goCache.<Object>get(pipelineDao.pipelineHistoryCacheKey(1L))).isNotNull();
+        verify(mockTemplate).queryForList("getPipelineHistoryByName", onlyActiveInstance);
+    }
+
+    private PipelineInstanceModel historyOf(long id) {
+        PipelineInstanceModel pipeline = new PipelineInstanceModel("pipeline", (int) id, "label-" + id, BuildCause.createManualForced(), new StageInstanceModels());
+        pipeline.setId(id);
+        return pipeline;
+    }
+
     private void changeStageStatus() {
         changeStageStatus(99);
     }
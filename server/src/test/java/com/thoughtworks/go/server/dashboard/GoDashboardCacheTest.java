@@ -17,8 +17,11 @@ package com.thoughtworks.go.server.dashboard;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import org.junit.jupiter.api.BeforeEach;
+import com.thoughtworks.go.util.TestingClock;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
@@ -61,6 +64,21 @@ public class GoDashboardCacheTest {
         assertThat(expectedPipeline).isSameAs(actualPipeline);
     }
 
+    @Test
+    public void shouldBeAbleToPutManyPipelinesAtOnce() {
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1");
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2");
+        GoDashboardPipeline newPipeline2 = pipeline("pipeline2");
+        cache.put(pipeline2);
+        GoDashboardPipelines before = cache.allEntries();
+
+        cache.putAll(List.of(pipeline1, newPipeline2));
+
+        assertThat(cache.allEntries()).isNotSameAs(before);
+        assertThat(cache.allEntries().find(cis("pipeline1"))).isSameAs(pipeline1);
+        assertThat(cache.allEntries().find(cis("pipeline2"))).isSameAs(newPipeline2);
+    }
+
     @Test
     public void shouldBeAbleToClearExistingCacheAndReplaceAllItemsInIt() {
         GoDashboardPipeline pipeline1 = pipeline("pipeline1");
@@ -84,6 +102,116 @@ public class GoDashboardCacheTest {
         assertThat(cache.allEntries().find(cis("pipeline5"))).isSameAs(pipeline5);
     }
 
+    @Test
+    public void shouldTellPipelinesRemovedSinceAVersion() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", counter), pipeline("pipeline2", counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        cache.remove(cis("pipeline1"));
+        cache.remove(cis("unknown"));
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isFalse();
+        assertThat(cache.allEntries().pipelinesRemovedSince(version)).containsExactly(cis("pipeline1"));
+        assertThat(cache.allEntries().pipelinesUpdatedSince(version)).isEmpty();
+    }
+
+    @Test
+    public void shouldForgetRemovalOfAPipelineWhichIsAddedBack() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        cache.remove(cis("pipeline1"));
+        GoDashboardPipeline addedBack = pipeline("pipeline1", counter);
+        cache.put(addedBack);
+
+        assertThat(cache.allEntries().pipelinesRemovedSince(version)).isEmpty();
+        assertThat(cache.allEntries().pipelinesUpdatedSince(version)).containsExactly(addedBack);
+    }
+
+    @Test
+    public void shouldNeedReloadForVersionsBeforeAllEntriesWereReplaced() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline2", counter)));
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isTrue();
+        assertThat(cache.allEntries().needsReloadSince(cache.allEntries().lastUpdatedTimeStamp())).isFalse();
+    }
+
+    @Test
+    public void shouldNeedReloadWhenTooManyPipelinesWereRemovedToTrack() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        cache = new GoDashboardCache(counter);
+        List<GoDashboardPipeline> pipelines = new ArrayList<>();
+        for (int i = 0; i <= GoDashboardCache.MAX_REMOVED_PIPELINES_TRACKED; i++) {
+            pipelines.add(pipeline("pipeline" + i, counter));
+        }
+        cache.replaceAllEntriesInCacheWith(pipelines);
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        for (GoDashboardPipeline pipeline : pipelines) {
+            cache.remove(pipeline.name());
+        }
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isTrue();
+    }
+
+    @Test
+    public void shouldNeedReloadWhenAPipelineIsAdded() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        cache.put(pipeline("pipeline2", counter));
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isTrue();
+
+        version = cache.allEntries().lastUpdatedTimeStamp();
+        cache.putAll(List.of(pipeline("pipeline1", counter), pipeline("pipeline3", counter)));
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isTrue();
+    }
+
+    @Test
+    public void shouldNeedReloadWhenAPipelineMovesToAnotherGroup() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", "group1", counter), pipeline("pipeline2", "group1", counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        cache.put(pipeline("pipeline1", "group2", counter));
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isTrue();
+
+        version = cache.allEntries().lastUpdatedTimeStamp();
+        cache.putAll(List.of(pipeline("pipeline2", "group2", counter)));
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isTrue();
+    }
+
+    @Test
+    public void shouldNotNeedReloadWhenAPipelineIsUpdatedInItsGroup() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", "group1", counter), pipeline("pipeline2", "group1", counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        GoDashboardPipeline updated = pipeline("pipeline1", "group1", counter);
+        cache.put(updated);
+        cache.putAll(List.of(pipeline("pipeline2", "group1", counter)));
+
+        assertThat(cache.allEntries().needsReloadSince(version)).isFalse();
+        assertThat(cache.allEntries().pipelinesUpdatedSince(version)).hasSize(2).contains(updated);
+    }
+
     private CaseInsensitiveString cis(String value) {
         return new CaseInsensitiveString(value);
     }
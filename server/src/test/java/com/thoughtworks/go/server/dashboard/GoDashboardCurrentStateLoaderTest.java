@@ -36,12 +36,16 @@ import com.thoughtworks.go.server.service.PipelinePauseService;
 import com.thoughtworks.go.server.service.PipelineUnlockApiService;
 import com.thoughtworks.go.server.service.SchedulingCheckerService;
 import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import uk.org.webcompere.systemstubs.jupiter.SystemStub;
+import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
+import uk.org.webcompere.systemstubs.properties.SystemProperties;
 
 import java.util.*;
 
@@ -52,8 +56,10 @@ import static com.thoughtworks.go.presentation.pipelinehistory.PreparingToSchedu
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({MockitoExtension.class, SystemStubsExtension.class})
 public class GoDashboardCurrentStateLoaderTest {
+    @SystemStub
+    private SystemProperties systemProperties;
     @Mock
     private PipelineSqlMapDao pipelineSqlMapDao;
     @Mock
@@ -78,7 +84,8 @@ public class GoDashboardCurrentStateLoaderTest {
     @BeforeEach
     public void setUp() {
         loader = new GoDashboardCurrentStateLoader(pipelineSqlMapDao, triggerMonitor, pipelinePauseService,
-                pipelineLockService, pipelineUnlockApiService, schedulingCheckerService, permissionsAuthority, new TimeStampBasedCounter(mock(Clock.class)));
+                pipelineLockService, pipelineUnlockApiService, schedulingCheckerService, permissionsAuthority, new TimeStampBasedCounter(mock(Clock.class)),
+                new SystemEnvironment());
 
         goConfigMother = new GoConfigMother();
         config = GoConfigMother.defaultCruiseConfig();
@@ -349,6 +356,45 @@ public class GoDashboardCurrentStateLoaderTest {
         assertThat(loader.hasEverLoadedCurrentState()).isTrue();
     }
 
+    @Test
+    public void shouldHandOverChunksOfPipelinesMostRecentlyActiveFirst() {
+        systemProperties.set(SystemEnvironment.DASHBOARD_WARM_UP_THREADS.propertyName(), "1");
+        CruiseConfig config = configWithPipelines(150);
+        PipelineInstanceModel latestRun = pim(config.pipelineConfigByName(new CaseInsensitiveString("pipeline149")));
+        latestRun.setId(10);
+        when(pipelineSqlMapDao.loadHistoryForDashboard(anyList())).thenReturn(createPipelineInstanceModels(latestRun));
+
+        List<List<GoDashboardPipeline>> chunks = new ArrayList<>();
+        List<Integer> progress = new ArrayList<>();
+        List<GoDashboardPipeline> models = loader.allPipelines(config, chunk -> {
+            chunks.add(chunk);
+            progress.add(loader.initialLoadProgress());
+        });
+
+        assertThat(chunks).extracting(List::size).containsExactly(GoDashboardCurrentStateLoader.WARM_UP_CHUNK_SIZE, 50);
+        assertThat(chunks.getFirst().getFirst().name()).isEqualTo(new CaseInsensitiveString("pipeline149"));
+        assertThat(progress).containsExactly(0, 66);
+        assertThat(loader.initialLoadProgress()).isEqualTo(100);
+        assertThat(models).extracting(GoDashboardPipeline::name).containsExactlyElementsOf(config.getAllPipelineNames());
+    }
+
+    @Test
+    public void shouldLoadChunksInParallelButHandThemOverOnTheCallingThread() {
+        CruiseConfig config = configWithPipelines(250);
+        when(pipelineSqlMapDao.loadHistoryForDashboard(anyList())).thenReturn(createPipelineInstanceModels());
+
+        Thread caller = Thread.currentThread();
+        List<GoDashboardPipeline> handedOver = new ArrayList<>();
+        List<GoDashboardPipeline> models = loader.allPipelines(config, chunk -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            handedOver.addAll(chunk);
+        });
+
+        assertThat(handedOver).containsExactlyInAnyOrderElementsOf(models);
+        assertThat(models).extracting(GoDashboardPipeline::name).containsExactlyElementsOf(config.getAllPipelineNames());
+        assertThat(loader.hasEverLoadedCurrentState()).isTrue();
+    }
+
     @Test
     public void shouldAddTrackingToolInfoWhenLoadingAllPipelines() {
         PipelineConfig p1Config = goConfigMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1", "job1");
@@ -411,9 +457,26 @@ public class GoDashboardCurrentStateLoaderTest {
         loader.allPipelines(config.cloneForValidation());
         verify(pipelineSqlMapDao, times(1)).loadHistoryForDashboard(CaseInsensitiveString.toStringList(p1Config.getName()));
         verify(pipelineSqlMapDao, times(1)).loadHistoryForDashboard(CaseInsensitiveString.toStringList(p2Config.getName()));
+        verify(pipelineSqlMapDao, times(1)).cachePauseStates(CaseInsensitiveString.toStringList(p1Config.getName()));
+        verify(pipelineSqlMapDao, times(1)).cachePauseStates(CaseInsensitiveString.toStringList(p2Config.getName()));
         verifyNoMoreInteractions(pipelineSqlMapDao);
     }
 
+    @Test
+    public void shouldLoadPauseAndLockStatesOfNewPipelinesInBulk() {
+        PipelineConfig p1Config = goConfigMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1", "job1");
+        PipelineConfig p2Config = goConfigMother.addPipelineWithGroup(config, "group2", "pipeline2", "stage2", "job2");
+        when(pipelineSqlMapDao.loadHistoryForDashboard(List.of("pipeline1", "pipeline2"))).thenReturn(createPipelineInstanceModels(pim(p1Config), pim(p2Config)));
+
+        loader.allPipelines(config);
+        loader.allPipelines(config);
+
+        verify(pipelineSqlMapDao, times(1)).cachePauseStates(List.of("pipeline1", "pipeline2"));
+        verify(pipelineLockService, times(1)).cacheLockStates(List.of("pipeline1", "pipeline2"));
+        verify(pipelinePauseService, times(2)).pipelinePauseInfo("pipeline1");
+        verify(pipelineLockService, times(2)).isLocked("pipeline2");
+    }
+
     @Test
     public void shouldHandlePipelineDeletion() {
         PipelineConfig pipeline1 = goConfigMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1", "job1");
@@ -453,6 +516,14 @@ public class GoDashboardCurrentStateLoaderTest {
         }
     }
 
+    private CruiseConfig configWithPipelines(int count) {
+        PipelineConfig[] pipelineConfigs = new PipelineConfig[count];
+        for (int i = 0; i < count; i++) {
+            pipelineConfigs[i] = PipelineConfigMother.pipelineConfig("pipeline" + i);
+        }
+        return new BasicCruiseConfig(new BasicPipelineConfigs("group", new Authorization(), pipelineConfigs));
+    }
+
     private PipelineInstanceModel pim(PipelineConfig pipelineConfig) {
         StageInstanceModels stageHistory = new StageInstanceModels();
         stageHistory.add(new StageInstanceModel(str(pipelineConfig.getFirstStageConfig().name()), COUNTER, new JobHistory()));
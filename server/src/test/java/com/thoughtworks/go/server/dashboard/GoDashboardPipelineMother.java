@@ -35,7 +35,21 @@ public class GoDashboardPipelineMother {
     }
 
     public static GoDashboardPipeline pipeline(String pipelineName, String groupName, Permissions permissions) {
+        return pipeline(pipelineName, groupName, permissions, new TimeStampBasedCounter(new SystemTimeClock()));
+    }
+
+    public static GoDashboardPipeline pipeline(String pipelineName, Counter timeStampBasedCounter) {
+        Permissions permissions = new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+        return pipeline(pipelineName, "group1", permissions, timeStampBasedCounter);
+    }
+
+    public static GoDashboardPipeline pipeline(String pipelineName, String groupName, Counter timeStampBasedCounter) {
+        Permissions permissions = new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+        return pipeline(pipelineName, groupName, permissions, timeStampBasedCounter);
+    }
+
+    private static GoDashboardPipeline pipeline(String pipelineName, String groupName, Permissions permissions, Counter timeStampBasedCounter) {
         return new GoDashboardPipeline(new PipelineModel(pipelineName, false, false, notPaused()),
-                permissions, groupName, new TimeStampBasedCounter(new SystemTimeClock()), PipelineConfigMother.pipelineConfig(pipelineName));
+                permissions, groupName, timeStampBasedCounter, PipelineConfigMother.pipelineConfig(pipelineName));
     }
 }
@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.thoughtworks.go.domain.PipelinePauseInfo.notPaused;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -109,4 +110,28 @@ public class GoDashboardPipelineTest {
 
         assertThat(pipeline.getLastUpdatedTimeStamp()).isEqualTo(1000L);
     }
+
+    @Test
+    public void shouldRenderJsonFragmentOnlyOncePerVariant() {
+        GoDashboardPipeline pipeline = new GoDashboardPipeline(new PipelineModel("pipeline1", false, false, notPaused()), null, "group1", mock(TimeStampBasedCounter.class), PipelineConfigMother.pipelineConfig("pipeline1"));
+        AtomicInteger renderings = new AtomicInteger();
+
+        assertThat(pipeline.jsonFragment("operator", () -> "{\"can_operate\":true}" + renderings.incrementAndGet())).isEqualTo("{\"can_operate\":true}1");
+        assertThat(pipeline.jsonFragment("operator", () -> "{\"can_operate\":true}" + renderings.incrementAndGet())).isEqualTo("{\"can_operate\":true}1");
+        assertThat(pipeline.jsonFragment("viewer", () -> "{\"can_operate\":false}" + renderings.incrementAndGet())).isEqualTo("{\"can_operate\":false}2");
+    }
+
+    @Test
+    public void shouldNotKeepMoreThanALimitedNumberOfJsonFragments() {
+        GoDashboardPipeline pipeline = new GoDashboardPipeline(new PipelineModel("pipeline1", false, false, notPaused()), null, "group1", mock(TimeStampBasedCounter.class), PipelineConfigMother.pipelineConfig("pipeline1"));
+        AtomicInteger renderings = new AtomicInteger();
+
+        for (int i = 0; i <= GoDashboardPipeline.MAX_JSON_FRAGMENTS; i++) {
+            pipeline.jsonFragment(i, () -> "{}" + renderings.incrementAndGet());
+        }
+        pipeline.jsonFragment(0, () -> "{}" + renderings.incrementAndGet());
+        pipeline.jsonFragment(GoDashboardPipeline.MAX_JSON_FRAGMENTS, () -> "{}" + renderings.incrementAndGet());
+
+        assertThat(renderings.get()).isEqualTo(GoDashboardPipeline.MAX_JSON_FRAGMENTS + 2);
+    }
 }
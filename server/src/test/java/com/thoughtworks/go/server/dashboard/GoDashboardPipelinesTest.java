@@ -15,9 +15,15 @@
  */
 package com.thoughtworks.go.server.dashboard;
 
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.util.TestingClock;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.Map;
+
+import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -31,4 +37,39 @@ public class GoDashboardPipelinesTest {
         GoDashboardPipelines goDashboardPipelines = new GoDashboardPipelines(new HashMap<>(), provider);
         assertThat(goDashboardPipelines.lastUpdatedTimeStamp()).isEqualTo(100L);
     }
+
+    @Test
+    public void shouldListPipelinesUpdatedSinceATimeStampInTheOrderTheyWereUpdated() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(100)));
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1", counter);
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2", counter);
+        GoDashboardPipelines goDashboardPipelines = new GoDashboardPipelines(
+            Map.of(pipeline2.name(), pipeline2, pipeline1.name(), pipeline1), Map.of(), 100L, counter);
+
+        assertThat(goDashboardPipelines.pipelinesUpdatedSince(100L)).containsExactly(pipeline1, pipeline2);
+        assertThat(goDashboardPipelines.pipelinesUpdatedSince(101L)).containsExactly(pipeline2);
+        assertThat(goDashboardPipelines.pipelinesUpdatedSince(102L)).isEmpty();
+    }
+
+    @Test
+    public void shouldListPipelinesRemovedSinceATimeStamp() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(200)));
+        GoDashboardPipelines goDashboardPipelines = new GoDashboardPipelines(
+            Map.of(), Map.of(new CaseInsensitiveString("pipeline1"), 101L, new CaseInsensitiveString("pipeline2"), 105L), 100L, counter);
+
+        assertThat(goDashboardPipelines.pipelinesRemovedSince(100L)).containsExactlyInAnyOrder(new CaseInsensitiveString("pipeline1"), new CaseInsensitiveString("pipeline2"));
+        assertThat(goDashboardPipelines.pipelinesRemovedSince(101L)).containsExactly(new CaseInsensitiveString("pipeline2"));
+        assertThat(goDashboardPipelines.pipelinesRemovedSince(105L)).isEmpty();
+    }
+
+    @Test
+    public void shouldNeedReloadForTimeStampsBeforeTheLastStructuralChangeOrAfterTheLastUpdate() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock(Instant.ofEpochMilli(102)));
+        GoDashboardPipelines goDashboardPipelines = new GoDashboardPipelines(Map.of(), Map.of(), 100L, counter);
+
+        assertThat(goDashboardPipelines.needsReloadSince(99L)).isTrue();
+        assertThat(goDashboardPipelines.needsReloadSince(100L)).isFalse();
+        assertThat(goDashboardPipelines.needsReloadSince(103L)).isFalse();
+        assertThat(goDashboardPipelines.needsReloadSince(104L)).isTrue();
+    }
 }
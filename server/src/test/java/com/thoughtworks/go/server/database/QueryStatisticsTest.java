@@ -0,0 +1,110 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.database;
+
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.TestingClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueryStatisticsTest {
+    private QueryStatistics queryStatistics;
+
+    @BeforeEach
+    void setUp() {
+        SystemEnvironment systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.getSlowQueryThresholdInMillis()).thenReturn(100L);
+        queryStatistics = new QueryStatistics(systemEnvironment, new TestingClock());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRecordTimingHistogramAndRowsPerStatement() {
+        queryStatistics.recordStatement("getPipelineHistoryById", MILLISECONDS.toNanos(3), 2, null, 0);
+        queryStatistics.recordStatement("getPipelineHistoryById", MILLISECONDS.toNanos(30), 5, null, 0);
+        queryStatistics.recordStatement("updateStatus", MILLISECONDS.toNanos(1), 1, null, 0);
+
+        Map<String, Object> statements = queryStatistics.statementsAsJsonCompatibleMap();
+
+        assertThat(statements.keySet()).containsExactly("getPipelineHistoryById", "updateStatus");
+        Map<String, Object> pipelineHistory = (Map<String, Object>) statements.get("getPipelineHistoryById");
+        assertThat(pipelineHistory)
+            .containsEntry("Count", 2L)
+            .containsEntry("Total Time (ms)", 33L)
+            .containsEntry("Max Time (ms)", 30L)
+            .containsEntry("Rows", 7L);
+        assertThat((Map<String, Long>) pipelineHistory.get("Histogram"))
+            .containsEntry("< 5ms", 1L)
+            .containsEntry("< 50ms", 1L)
+            .containsEntry("< 1000ms", 0L)
+            .containsEntry(">= 5000ms", 0L);
+    }
+
+    @Test
+    void shouldSampleSlowQueriesWithoutBindParameterValues() {
+        queryStatistics.recordStatement("fast", MILLISECONDS.toNanos(99), 1, "SELECT 1", 0);
+        queryStatistics.recordStatement("slow", MILLISECONDS.toNanos(150), 3, "SELECT *\n  FROM pipelines WHERE name = ?", 1);
+
+        List<Map<String, Object>> slowQueries = queryStatistics.slowQueriesAsJsonCompatibleList();
+
+        assertThat(slowQueries).hasSize(1);
+        assertThat(slowQueries.get(0))
+            .containsEntry("Statement", "slow")
+            .containsEntry("Time (ms)", 150L)
+            .containsEntry("Rows", 3)
+            .containsEntry("SQL", "SELECT * FROM pipelines WHERE name = ?")
+            .containsEntry("Bind Parameters", "1 (redacted)");
+    }
+
+    @Test
+    void shouldKeepOnlyTheMostRecentSlowQueries() {
+        for (int i = 0; i < QueryStatistics.MAX_SLOW_QUERY_SAMPLES + 5; i++) {
+            queryStatistics.recordStatement("slow" + i, MILLISECONDS.toNanos(200), 0, "SELECT 1", 0);
+        }
+
+        List<Map<String, Object>> slowQueries = queryStatistics.slowQueriesAsJsonCompatibleList();
+
+        assertThat(slowQueries).hasSize(QueryStatistics.MAX_SLOW_QUERY_SAMPLES);
+        assertThat(slowQueries.get(0)).containsEntry("Statement", "slow" + (QueryStatistics.MAX_SLOW_QUERY_SAMPLES + 4));
+        assertThat(slowQueries.get(slowQueries.size() - 1)).containsEntry("Statement", "slow5");
+    }
+
+    @Test
+    void shouldTrackThreadsWaitingForConnections() {
+        long first = queryStatistics.connectionRequested();
+        long second = queryStatistics.connectionRequested();
+
+        assertThat(queryStatistics.connectionWaitsAsJsonCompatibleMap())
+            .containsEntry("Requests", 2L)
+            .containsEntry("Waiting", 2)
+            .containsEntry("Max Waiting", 2);
+
+        queryStatistics.connectionObtained(first);
+        queryStatistics.connectionObtained(second);
+
+        assertThat(queryStatistics.connectionWaitsAsJsonCompatibleMap())
+            .containsEntry("Waiting", 0)
+            .containsEntry("Max Waiting", 2);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.database;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class QueryTimingInterceptorTest {
+    private QueryStatistics queryStatistics;
+    private Executor executor;
+    private QueryTimingInterceptor interceptor;
+    private MappedStatement statement;
+
+    @BeforeEach
+    void setUp() {
+        queryStatistics = mock(QueryStatistics.class);
+        executor = mock(Executor.class);
+        interceptor = new QueryTimingInterceptor(queryStatistics);
+
+        Configuration configuration = new Configuration();
+        List<ParameterMapping> parameters = List.of(new ParameterMapping.Builder(configuration, "name", String.class).build());
+        statement = new MappedStatement.Builder(configuration, "Pipeline.getPipelineByName",
+            new StaticSqlSource(configuration, "SELECT * FROM pipelines WHERE name = ?", parameters), SqlCommandType.SELECT).build();
+    }
+
+    @Test
+    void shouldRecordRowsReturnedByAQueryAgainstItsStatementId() throws Throwable {
+        when(executor.<String>query(statement, Map.of("name", "secret"), RowBounds.DEFAULT, null)).thenReturn(List.of("a", "b"));
+
+        Object result = interceptor.intercept(queryInvocation(Map.of("name", "secret")));
+
+        assertThat(result).isEqualTo(List.of("a", "b"));
+        verify(queryStatistics).recordStatement(eq("Pipeline.getPipelineByName"), anyLong(), eq(2), isNull(), eq(0));
+    }
+
+    @Test
+    void shouldHandOverSqlWithPlaceholdersForSlowStatements() throws Throwable {
+        when(queryStatistics.isSlow(anyLong())).thenReturn(true);
+        when(executor.update(statement, Map.of("name", "secret"))).thenReturn(3);
+
+        interceptor.intercept(new Invocation(executor, Executor.class.getMethod("update", MappedStatement.class, Object.class), new Object[]{statement, Map.of("name", "secret")}));
+
+        verify(queryStatistics).recordStatement(eq("Pipeline.getPipelineByName"), anyLong(), eq(3), eq("SELECT * FROM pipelines WHERE name = ?"), eq(1));
+    }
+
+    @Test
+    void shouldRecordFailedStatements() throws Throwable {
+        when(executor.query(statement, null, RowBounds.DEFAULT, null)).thenThrow(new SQLException("boom"));
+
+        assertThatThrownBy(() -> interceptor.intercept(queryInvocation(null))).hasRootCauseMessage("boom");
+
+        verify(queryStatistics).recordStatement(eq("Pipeline.getPipelineByName"), anyLong(), eq(0), isNull(), eq(0));
+    }
+
+    private Invocation queryInvocation(Object parameter) throws NoSuchMethodException {
+        return new Invocation(executor, Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class),
+            new Object[]{statement, parameter, RowBounds.DEFAULT, null});
+    }
+}
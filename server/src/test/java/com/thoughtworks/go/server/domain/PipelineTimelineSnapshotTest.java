@@ -0,0 +1,129 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.domain;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.domain.PipelineTimelineEntry;
+import com.thoughtworks.go.helper.PipelineTimelineEntryMother;
+import com.thoughtworks.go.server.persistence.PipelineRepository;
+import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
+import com.thoughtworks.go.server.transaction.TransactionTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class PipelineTimelineSnapshotTest {
+    private final ZonedDateTime now = ZonedDateTime.now();
+    private final List<String> materials = List.of("git", "svn");
+
+    @TempDir
+    File tempDir;
+
+    private File snapshotFile;
+    private PipelineRepository pipelineRepository;
+    private PipelineTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = new File(tempDir, "pipeline-timeline.snapshot");
+        pipelineRepository = mock(PipelineRepository.class);
+        timeline = newTimeline();
+        timeline.add(PipelineTimelineEntryMother.timelineEntry(1, materials, List.of(now, now), 1, "1", "up42"));
+        timeline.add(PipelineTimelineEntryMother.timelineEntry(2, materials, List.of(now.plusMinutes(2), now.plusMinutes(2)), 2, "2", "up42"));
+        timeline.add(PipelineTimelineEntryMother.timelineEntry(3, materials, List.of(now.plusMinutes(1), now.plusMinutes(1)), 3, "3", "up42"));
+        timeline.add(PipelineTimelineEntryMother.timelineEntry(4, materials, List.of(now, now), 1, "4", "down42"));
+    }
+
+    @Test
+    void shouldRestoreTimelineFromSnapshotAndThenCatchUpFromTheDatabase() {
+        PipelineTimelineSnapshot snapshot = new PipelineTimelineSnapshot(timeline, pipelineRepository, snapshotFile);
+        snapshot.initialize();
+        snapshot.write();
+        when(pipelineRepository.hasPipeline(4, "down42", 1)).thenReturn(true);
+
+        PipelineTimeline restarted = newTimeline();
+        new PipelineTimelineSnapshot(restarted, pipelineRepository, snapshotFile).initialize();
+
+        assertThat(restarted.maximumId()).isEqualTo(4L);
+        assertThat(restarted.allEntries()).extracting(PipelineTimelineEntry::getId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(restarted.getEntriesFor("up42")).extracting(PipelineTimelineEntry::getId).containsExactly(1L, 3L, 2L);
+        assertThat(restarted.getEntriesFor("up42")).extracting(PipelineTimelineEntry::naturalOrder)
+            .containsExactlyElementsOf(timeline.getEntriesFor("up42").stream().map(PipelineTimelineEntry::naturalOrder).toList());
+        assertThat(restarted.runBefore(3, new CaseInsensitiveString("up42")).getId()).isEqualTo(1L);
+        assertThat(restarted.getEntryFor(new CaseInsensitiveString("up42"), 2).revisions()).isEqualTo(timeline.getEntryFor(new CaseInsensitiveString("up42"), 2).revisions());
+        verify(pipelineRepository).updatePipelineTimeline(eq(restarted), anyList());
+    }
+
+    @Test
+    void shouldIgnoreSnapshotWhichDoesNotMatchTheDatabase() {
+        PipelineTimelineSnapshot snapshot = new PipelineTimelineSnapshot(timeline, pipelineRepository, snapshotFile);
+        snapshot.initialize();
+        snapshot.write();
+        when(pipelineRepository.hasPipeline(4, "down42", 1)).thenReturn(false);
+
+        PipelineTimeline restarted = newTimeline();
+        new PipelineTimelineSnapshot(restarted, pipelineRepository, snapshotFile).initialize();
+
+        assertThat(restarted.allEntries()).isEmpty();
+        assertThat(restarted.maximumId()).isEqualTo(-1L);
+        verify(pipelineRepository).updatePipelineTimeline(eq(restarted), anyList());
+    }
+
+    @Test
+    void shouldIgnoreUnreadableSnapshot() throws Exception {
+        Files.writeString(snapshotFile.toPath(), "not a snapshot");
+
+        PipelineTimeline restarted = newTimeline();
+        new PipelineTimelineSnapshot(restarted, pipelineRepository, snapshotFile).initialize();
+
+        assertThat(restarted.allEntries()).isEmpty();
+        verify(pipelineRepository).updatePipelineTimeline(eq(restarted), anyList());
+    }
+
+    @Test
+    void shouldNotWriteSnapshotBeforeTimelineHasBeenLoaded() {
+        new PipelineTimelineSnapshot(timeline, pipelineRepository, snapshotFile).write();
+
+        assertThat(snapshotFile).doesNotExist();
+    }
+
+    @Test
+    void shouldNotRewriteSnapshotWhenNothingWasAddedToTheTimeline() {
+        PipelineTimelineSnapshot snapshot = new PipelineTimelineSnapshot(timeline, pipelineRepository, snapshotFile);
+        snapshot.initialize();
+        snapshot.write();
+        assertThat(snapshotFile.delete()).isTrue();
+
+        snapshot.write();
+        assertThat(snapshotFile).doesNotExist();
+
+        timeline.add(PipelineTimelineEntryMother.timelineEntry(5, materials, List.of(now, now), 2, "5", "down42"));
+        snapshot.write();
+        assertThat(snapshotFile).exists();
+    }
+
+    private PipelineTimeline newTimeline() {
+        return new PipelineTimeline(pipelineRepository, mock(TransactionTemplate.class), mock(TransactionSynchronizationManager.class));
+    }
+}
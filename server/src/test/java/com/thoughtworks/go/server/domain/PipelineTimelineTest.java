@@ -30,6 +30,8 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -221,6 +223,64 @@ public class PipelineTimelineTest {
         assertThat(timeline.instanceFor(new CaseInsensitiveString("pipeline"), 1)).isEqualTo(second);
     }
 
+    @Test
+    public void shouldFindInstancesCountingBackFromTheLatestOne() {
+        PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        timeline.add(first);
+        timeline.add(second);
+        timeline.add(third);
+
+        assertThat(timeline.instanceBeforeLatest(new CaseInsensitiveString("pipeline"), 0)).isEqualTo(third);
+        assertThat(timeline.instanceBeforeLatest(new CaseInsensitiveString("pipeline"), 2)).isEqualTo(first);
+        assertThat(timeline.instanceBeforeLatest(new CaseInsensitiveString("pipeline"), 3)).isNull();
+        assertThat(timeline.instanceBeforeLatest(new CaseInsensitiveString("not-present"), 0)).isNull();
+    }
+
+    @Test
+    public void shouldNotHoldUpReadersOfOtherPipelinesWhileUpdating() {
+        stubTransactionSynchronization();
+        setupTransactionTemplateStub(TransactionSynchronization.STATUS_COMMITTED, true);
+        final PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        PipelineTimelineEntry another = PipelineTimelineEntryMother.timelineEntry(5, materials, List.of(now, now, now, now), 1, "555", "another");
+        timeline.add(another);
+
+        doAnswer(invocationOnMock -> {
+            timeline.add(first);
+            PipelineTimelineEntry seenByAnotherThread = CompletableFuture
+                .supplyAsync(() -> timeline.getEntryFor(new CaseInsensitiveString("another"), 1))
+                .get(2, TimeUnit.SECONDS);
+            assertThat(seenByAnotherThread).isEqualTo(another);
+            return null;
+        }).when(pipelineRepository).updatePipelineTimeline(eq(timeline), anyList());
+
+        timeline.update();
+
+        assertThat(timeline.getEntryFor(new CaseInsensitiveString("pipeline"), 1)).isEqualTo(first);
+        assertThat(timeline.getEntryFor(new CaseInsensitiveString("not-present"), 1)).isNull();
+    }
+
+    @Test
+    public void shouldListAllEntriesWithoutWaitingForAnUpdateOrIncludingItsEntries() {
+        stubTransactionSynchronization();
+        setupTransactionTemplateStub(TransactionSynchronization.STATUS_COMMITTED, true);
+        final PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        PipelineTimelineEntry another = PipelineTimelineEntryMother.timelineEntry(5, materials, List.of(now, now, now, now), 1, "555", "another");
+        timeline.add(another);
+
+        doAnswer(invocationOnMock -> {
+            timeline.add(PipelineTimelineEntryMother.timelineEntry(6, materials, List.of(now, now, now, now), 2, "666", "another"));
+            List<PipelineTimelineEntry> seenByAnotherThread = CompletableFuture
+                .supplyAsync(timeline::allEntries)
+                .get(2, TimeUnit.SECONDS);
+            assertThat(seenByAnotherThread).containsExactly(another);
+            return null;
+        }).when(pipelineRepository).updatePipelineTimeline(eq(timeline), anyList());
+
+        timeline.update();
+
+        assertThat(timeline.allEntries()).extracting(PipelineTimelineEntry::getId).containsExactly(5L, 6L);
+    }
+
     @SuppressWarnings("unchecked")
     private void stubPipelineRepository(final PipelineTimeline timeline, boolean restub, final PipelineTimelineEntry... entries) {
         repositoryEntries = entries;
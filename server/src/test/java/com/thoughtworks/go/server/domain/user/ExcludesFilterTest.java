@@ -38,6 +38,18 @@ class ExcludesFilterTest {
         assertTrue(f.isPipelineVisible(new CaseInsensitiveString("p1")));
     }
 
+    @Test
+    void compile() {
+        final ExcludesFilter f = new ExcludesFilter(null, CaseInsensitiveString.list("p1"), null);
+        final CompiledDashboardFilter compiled = f.compile();
+        assertTrue(compiled.isPipelineVisible(new CaseInsensitiveString("P0")));
+        assertFalse(compiled.isPipelineVisible(new CaseInsensitiveString("p1")));
+
+        f.allowPipeline(new CaseInsensitiveString("p1"));
+        assertFalse(compiled.isPipelineVisible(new CaseInsensitiveString("p1")));
+        assertNotEquals(compiled, f.compile());
+    }
+
     @Test
     void equals() {
         final ExcludesFilter a = new ExcludesFilter(null, CaseInsensitiveString.list("p1"), null);
@@ -38,6 +38,18 @@ class IncludesFilterTest {
         assertTrue(f.isPipelineVisible(new CaseInsensitiveString("p0")));
     }
 
+    @Test
+    void compile() {
+        final IncludesFilter f = new IncludesFilter(null, CaseInsensitiveString.list("p1"), null);
+        final CompiledDashboardFilter compiled = f.compile();
+        assertTrue(compiled.isPipelineVisible(new CaseInsensitiveString("P1")));
+        assertFalse(compiled.isPipelineVisible(new CaseInsensitiveString("p0")));
+
+        f.allowPipeline(new CaseInsensitiveString("p0"));
+        assertFalse(compiled.isPipelineVisible(new CaseInsensitiveString("p0")));
+        assertNotEquals(compiled, f.compile());
+    }
+
     @Test
     void equals() {
         final IncludesFilter a = new IncludesFilter(null, CaseInsensitiveString.list("p1"), null);
@@ -25,7 +25,7 @@ import com.thoughtworks.go.plugin.infra.monitor.DefaultPluginJarLocationMonitor;
 import com.thoughtworks.go.server.cronjob.GoDiskSpaceMonitor;
 import com.thoughtworks.go.server.dao.PipelineSqlMapDao;
 import com.thoughtworks.go.server.dashboard.GoDashboardActivityListener;
-import com.thoughtworks.go.server.domain.PipelineTimeline;
+import com.thoughtworks.go.server.domain.PipelineTimelineSnapshot;
 import com.thoughtworks.go.server.materials.DependencyMaterialUpdateNotifier;
 import com.thoughtworks.go.server.materials.MaterialUpdateService;
 import com.thoughtworks.go.server.materials.SCMMaterialSource;
@@ -62,7 +62,7 @@ public class ApplicationInitializerTest {
     @Mock
     private PipelineSqlMapDao pipelineSqlMapDao;
     @Mock
-    private PipelineTimeline pipelineTimeline;
+    private PipelineTimelineSnapshot pipelineTimelineSnapshot;
     @Mock
     private ConfigRepository configRepository;
     @Mock
@@ -157,6 +157,13 @@ public class ApplicationInitializerTest {
         verify(backupService).initialize();
     }
 
+    @Test
+    public void shouldLoadThePipelineTimelineBeforeInitializingPipelineSqlMapDao() {
+        InOrder inOrder = inOrder(pipelineTimelineSnapshot, pipelineSqlMapDao);
+        inOrder.verify(pipelineTimelineSnapshot).initialize();
+        inOrder.verify(pipelineSqlMapDao).initialize();
+    }
+
     @Test
     public void shouldRunConfigCipherUpdaterBeforeInitializationOfOtherConfigRelatedServicesAndDataStores() throws Exception {
         InOrder inOrder = inOrder(configElementImplementationRegistrar, configRepository, goFileConfigDataSource, cachedGoConfig, goConfigService);
@@ -0,0 +1,270 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.persistence;
+
+import com.thoughtworks.go.domain.materials.Modification;
+import com.thoughtworks.go.server.persistence.ModificationSearchIndex.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModificationSearchIndexTest {
+    private final Map<Long, List<Document>> documentsInDatabase = new HashMap<>();
+    private final List<Runnable> builds = new ArrayList<>();
+    private ModificationSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = indexHolding(5);
+    }
+
+    @Test
+    void shouldNotAnswerUntilTheIndexOfTheMaterialIsBuilt() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+
+        assertThat(matching(42, "build")).isNull();
+        assertThat(builds).hasSize(1);
+
+        builds.getFirst().run();
+
+        assertThat(matching(42, "build")).containsExactly(1L);
+        assertThat(builds).hasSize(1);
+    }
+
+    @Test
+    void shouldFindModificationsContainingTheTextLatestFirst() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+        inDatabase(42, document(2, "rev-2", "alice", "Add a feature", null));
+        inDatabase(42, document(3, "rev-3", "bob", "Make the BUILD faster", null));
+        inDatabase(42, document(4, "upstream/12/stage/1", null, null, "12-label"));
+        buildIndexOf(42);
+
+        assertThat(matching(42, "Build")).containsExactly(3L, 1L);
+        assertThat(matching(42, "alice")).containsExactly(2L);
+        assertThat(matching(42, "12-lab")).containsExactly(4L);
+        assertThat(matching(42, "nothing like it")).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyAnswerCandidatesWhichMatchUpToTheLimit() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+        inDatabase(42, document(2, "rev-2", "bob", "Fix the BUILD", null));
+        inDatabase(42, document(3, "rev-3", "bob", "Fix the build", null));
+        inDatabase(42, document(4, "rev-4", "bob", "Fix the build", null));
+        buildIndexOf(42);
+
+        assertThat(index.matching(42, "build", id -> id < 4, document -> document.comment().contains("build"), 5)).containsExactly(3L, 1L);
+        assertThat(index.matching(42, "build", id -> true, document -> true, 2)).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void shouldNotAnswerForTextsShorterThanATrigram() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+        buildIndexOf(42);
+
+        assertThat(matching(42, "bo")).isNull();
+    }
+
+    @Test
+    void shouldNotIndexAnythingWhenNoModificationsMayBeIndexed() {
+        index = indexHolding(0);
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+
+        assertThat(matching(42, "build")).isNull();
+        assertThat(builds).isEmpty();
+    }
+
+    @Test
+    void shouldAddModificationsCommittedAfterTheIndexWasBuilt() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+        buildIndexOf(42);
+
+        index.added(42, List.of(modification(2, "rev-2", "alice", "Fix the build again")));
+
+        assertThat(matching(42, "build")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldAddModificationsCommittedWhileTheIndexWasBeingBuiltOnlyOnce() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+        matching(42, "build");
+        inDatabase(42, document(2, "rev-2", "alice", "Fix the build again", null));
+        index.added(42, List.of(modification(2, "rev-2", "alice", "Fix the build again")));
+        index.added(42, List.of(modification(3, "rev-3", "alice", "Fix the build once more")));
+
+        builds.getFirst().run();
+
+        assertThat(matching(42, "build")).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void shouldDropTheIndexWhenModificationsAreCommittedOutOfOrder() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+        inDatabase(42, document(3, "rev-3", "bob", "Fix the build", null));
+        buildIndexOf(42);
+
+        index.added(42, List.of(modification(2, "rev-2", "alice", "Fix the build again")));
+
+        assertThat(matching(42, "build")).isNull();
+        assertThat(builds).hasSize(2);
+    }
+
+    @Test
+    void shouldBuildTheIndexAgainWhenAModificationCommittedWhileItWasBeingBuiltIsMissing() {
+        inDatabase(42, document(1, "rev-1", "bob", "Fix the build", null));
+        inDatabase(42, document(3, "rev-3", "bob", "Fix the build", null));
+        matching(42, "build");
+        index.added(42, List.of(modification(2, "rev-2", "alice", "Fix the build again")));
+
+        builds.getFirst().run();
+
+        assertThat(matching(42, "build")).isNull();
+        assertThat(builds).hasSize(2);
+
+        inDatabase(42, document(2, "rev-2", "alice", "Fix the build again", null));
+        documentsInDatabase.get(42L).sort(Comparator.comparingLong(Document::id));
+        builds.getLast().run();
+
+        assertThat(matching(42, "build")).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void shouldOnlyAnswerForMaterialsWithMoreModificationsThanAnIndexMayHoldWhenTheLatestOnesAreEnough() {
+        index = indexHolding(10, 3);
+        for (int id = 1; id <= 6; id++) {
+            inDatabase(42, document(id, "rev-" + id, "bob", "Fix the build", null));
+        }
+        buildIndexOf(42);
+
+        assertThat(index.matching(42, "build", id -> true, document -> true, 3)).containsExactly(6L, 5L, 4L);
+        assertThat(index.matching(42, "build", id -> id < 6, document -> true, 2)).containsExactly(5L, 4L);
+        assertThat(index.matching(42, "build", id -> id < 6, document -> true, 3)).isNull();
+        assertThat(matching(42, "nothing like it")).isNull();
+        assertThat(builds).hasSize(1);
+    }
+
+    @Test
+    void shouldKeepAddingModificationsToAnIndexOfTheLatestModifications() {
+        index = indexHolding(10, 2);
+        for (int id = 1; id <= 3; id++) {
+            inDatabase(42, document(id, "rev-" + id, "bob", "Fix the build", null));
+        }
+        buildIndexOf(42);
+
+        index.added(42, List.of(modification(4, "rev-4", "alice", "Fix the build again")));
+
+        assertThat(index.matching(42, "build", id -> true, document -> true, 3)).containsExactly(4L, 3L, 2L);
+        assertThat(index.matching(42, "alice", id -> true, document -> true, 1)).containsExactly(4L);
+    }
+
+    @Test
+    void shouldDropAnIndexHoldingMoreModificationsThanAllIndexesMayHold() {
+        for (int id = 1; id <= 5; id++) {
+            inDatabase(42, document(id, "rev-" + id, "bob", "Fix the build", null));
+        }
+        buildIndexOf(42);
+
+        index.added(42, List.of(modification(6, "rev-6", "alice", "Fix the build again")));
+
+        assertThat(matching(42, "build")).isNull();
+        assertThat(builds).hasSize(2);
+    }
+
+    @Test
+    void shouldDropTheLeastRecentlyUsedIndexesWhenAllIndexesHoldTooManyModifications() {
+        inDatabase(1, document(1, "rev-1", "bob", "Fix the build", null));
+        inDatabase(1, document(2, "rev-2", "bob", "Fix the build", null));
+        inDatabase(2, document(3, "rev-3", "bob", "Fix the build", null));
+        inDatabase(2, document(4, "rev-4", "bob", "Fix the build", null));
+        inDatabase(3, document(5, "rev-5", "bob", "Fix the build", null));
+        inDatabase(3, document(6, "rev-6", "bob", "Fix the build", null));
+        buildIndexOf(1);
+        buildIndexOf(2);
+        assertThat(matching(1, "build")).containsExactly(2L, 1L);
+
+        buildIndexOf(3);
+
+        assertThat(matching(1, "build")).containsExactly(2L, 1L);
+        assertThat(matching(3, "build")).containsExactly(6L, 5L);
+        assertThat(builds).hasSize(3);
+        assertThat(matching(2, "build")).isNull();
+        assertThat(builds).hasSize(4);
+    }
+
+    @Test
+    void shouldDropTheLeastRecentlyUsedIndexesWhenModificationsAreAdded() {
+        inDatabase(1, document(1, "rev-1", "bob", "Fix the build", null));
+        inDatabase(1, document(2, "rev-2", "bob", "Fix the build", null));
+        inDatabase(2, document(3, "rev-3", "bob", "Fix the build", null));
+        inDatabase(2, document(4, "rev-4", "bob", "Fix the build", null));
+        inDatabase(2, document(5, "rev-5", "bob", "Fix the build", null));
+        buildIndexOf(1);
+        buildIndexOf(2);
+
+        index.added(2, List.of(modification(6, "rev-6", "alice", "Fix the build again")));
+
+        assertThat(matching(2, "build")).containsExactly(6L, 5L, 4L, 3L);
+        assertThat(matching(1, "build")).isNull();
+    }
+
+    private ModificationSearchIndex indexHolding(int maxModifications) {
+        return indexHolding(maxModifications, maxModifications);
+    }
+
+    private ModificationSearchIndex indexHolding(int maxModifications, int maxModificationsPerMaterial) {
+        return new ModificationSearchIndex(maxModifications, maxModificationsPerMaterial, builds::add, new ModificationSearchIndex.Loader() {
+            @Override
+            public long idBeforeLatest(long materialId, int count) {
+                List<Document> documents = documentsInDatabase.getOrDefault(materialId, List.of());
+                return documents.size() <= count ? 0 : documents.get(documents.size() - count - 1).id();
+            }
+
+            @Override
+            public List<Document> load(long materialId, long afterId, int limit) {
+                return documentsInDatabase.getOrDefault(materialId, List.of()).stream()
+                    .filter(document -> document.id() > afterId)
+                    .limit(limit)
+                    .toList();
+            }
+        });
+    }
+
+    private List<Long> matching(long materialId, String text) {
+        return index.matching(materialId, text, id -> true, document -> true, Integer.MAX_VALUE);
+    }
+
+    private void buildIndexOf(long materialId) {
+        matching(materialId, "anything");
+        builds.getLast().run();
+    }
+
+    private void inDatabase(long materialId, Document document) {
+        documentsInDatabase.computeIfAbsent(materialId, k -> new ArrayList<>()).add(document);
+    }
+
+    private static Document document(long id, String revision, String userName, String comment, String pipelineLabel) {
+        return new Document(id, revision, userName, comment, pipelineLabel, null);
+    }
+
+    private static Modification modification(long id, String revision, String userName, String comment) {
+        Modification modification = new Modification(userName, comment, null, new Date(), revision);
+        modification.setId(id);
+        return modification;
+    }
+}
@@ -156,6 +156,42 @@ public class CcTrayServiceTest {
         assertThat(originalXML).isNotEqualTo(newXML);
     }
 
+    @Test
+    public void shouldComputeEtagOnlyFromProjectsTheUserCanView() {
+        when(goConfigService.isSecurityEnabled()).thenReturn(true);
+        when(ccTrayCache.allEntriesInOrder())
+                .thenReturn(List.of(statusFor("proj1", "user1"), statusFor("proj2", "user2")))
+                .thenReturn(List.of(statusFor("proj1", "user1"), statusFor("proj3", "user2")));
+
+        String originalEtag = ccTrayService.etagFor("prefix1", "user1");
+        String newEtag = ccTrayService.etagFor("prefix1", "user1");
+
+        assertThat(newEtag).isEqualTo(originalEtag);
+        assertThat(ccTrayService.etagFor("prefix1", "user2")).isNotEqualTo(originalEtag);
+    }
+
+    @Test
+    public void shouldReturnTheSameEtagAsTheRenderedFeed() {
+        when(goConfigService.isSecurityEnabled()).thenReturn(true);
+        when(ccTrayCache.allEntriesInOrder()).thenReturn(List.of(statusFor("proj1", "user1"), statusFor("proj2", "user2")));
+
+        AtomicReference<String> renderedEtag = new AtomicReference<>();
+        ccTrayService.renderCCTrayXML("prefix1", "user1", new StringBuilder(), renderedEtag::set);
+
+        assertThat(ccTrayService.etagFor("prefix1", "USER1")).isEqualTo(renderedEtag.get());
+    }
+
+    @Test
+    public void shouldInsertSiteUrlPrefixLiterally() {
+        when(goConfigService.isSecurityEnabled()).thenReturn(false);
+        when(ccTrayCache.allEntriesInOrder()).thenReturn(List.of(statusFor("proj1", "user1")));
+
+        String xml = ccTrayService.renderCCTrayXML("http://$1\\host", "user1", new StringBuilder(), etag -> {
+        }).toString();
+
+        assertCcTrayXmlFor(xml, "http://$1\\host", "proj1");
+    }
+
     private ProjectStatus statusFor(String projectName, String... allowedUsers) {
         ProjectStatus status = new ProjectStatus(projectName, "activity1", "build-status-1", "build-label-1", Dates.parseIso8601StrictOffset("2010-05-23T10:00:00+02:00"), "web-url");
         status.updateViewers(viewers(allowedUsers));
@@ -207,6 +207,32 @@ public class EntityHashingServiceTest {
         verifyNoMoreInteractions(goCache);
     }
 
+    @Test
+    void memoizesDigestOfAConfigEntityForTheCurrentConfigVersion() {
+        BasicEnvironmentConfig environment = EnvironmentConfigMother.environment("env");
+        String cacheKey = "com.thoughtworks.go.config.BasicEnvironmentConfig.env";
+
+        String digest = service.hashForEntity(environment);
+        assertEquals(digest, service.hashForEntity(environment));
+
+        verify(goCache, times(1)).get(ETAG_CACHE_KEY, cacheKey);
+        verify(goCache, times(1)).put(ETAG_CACHE_KEY, cacheKey, digest);
+    }
+
+    @Test
+    void forgetsMemoizedDigestsOnConfigChange() {
+        BasicEnvironmentConfig environment = EnvironmentConfigMother.environment("env");
+        String cacheKey = "com.thoughtworks.go.config.BasicEnvironmentConfig.env";
+
+        service.hashForEntity(environment);
+        service.onConfigChange(null);
+        service.hashForEntity(environment);
+        service.new EnvironmentConfigListener().onEntityConfigChange(environment);
+        service.hashForEntity(environment);
+
+        verify(goCache, times(3)).get(ETAG_CACHE_KEY, cacheKey);
+    }
+
     @Test
     void invalidatesArtifactConfigETagsFromCacheOnConfigChange() {
         EntityHashingService.ArtifactConfigChangeListener artifactConfigChangeListener = service.new ArtifactConfigChangeListener();
@@ -34,16 +34,20 @@ import com.thoughtworks.go.server.service.support.toggle.Toggles;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -67,7 +71,7 @@ public class GoDashboardServiceTest {
         config = GoConfigMother.defaultCruiseConfig();
         Toggles.initializeWith(featureToggleService);
         lenient().when(cache.allEntries()).thenReturn(this.pipelines);
-        service = new GoDashboardService(cache, dashboardCurrentStateLoader, permissionsAuthority, goConfigService);
+        service = new GoDashboardService(cache, dashboardCurrentStateLoader, permissionsAuthority, goConfigService, new GoDashboardViewCache());
 
         GoConfigMother.addUserAsSuperAdmin(config, "superduper");
         configMother.addRoleAsSuperAdmin(config, "supers");
@@ -109,11 +113,28 @@ public class GoDashboardServiceTest {
         GoDashboardPipeline pipeline2 = pipeline("pipeline2");
 
         List<GoDashboardPipeline> pipelines = List.of(pipeline1, pipeline2);
-        when(dashboardCurrentStateLoader.allPipelines(config)).thenReturn(pipelines);
+        when(dashboardCurrentStateLoader.allPipelines(eq(config), any())).thenAnswer(invocation -> {
+            Consumer<List<GoDashboardPipeline>> onChunkLoaded = invocation.getArgument(1);
+            onChunkLoaded.accept(List.of(pipeline2));
+            onChunkLoaded.accept(List.of(pipeline1));
+            return pipelines;
+        });
 
         service.updateCacheForAllPipelinesIn(config);
 
-        verify(cache).replaceAllEntriesInCacheWith(pipelines);
+        InOrder inOrder = inOrder(cache);
+        inOrder.verify(cache).putAll(List.of(pipeline2));
+        inOrder.verify(cache).putAll(List.of(pipeline1));
+        inOrder.verify(cache).replaceAllEntriesInCacheWith(pipelines);
+    }
+
+    @Test
+    public void shouldHaveCurrentStateToShowOncePipelinesAreCachedBeforeTheyAreAllLoaded() {
+        when(dashboardCurrentStateLoader.hasEverLoadedCurrentState()).thenReturn(false);
+        when(pipelines.isEmpty()).thenReturn(true).thenReturn(false);
+
+        assertThat(service.hasEverLoadedCurrentState()).isFalse();
+        assertThat(service.hasEverLoadedCurrentState()).isTrue();
     }
 
     @Test
@@ -150,6 +171,35 @@ public class GoDashboardServiceTest {
         assertThat(envs.getFirst().pipelines()).contains("pipeline1", "pipeline2");
     }
 
+    @Test
+    public void allPipelineGroupsForDashboard_shouldServeAnUnchangedDashboardWithoutRecomputingIt() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        addPipelinesToCache(pipeline("pipeline1", "group1"));
+        when(pipelines.lastUpdatedTimeStamp()).thenReturn(1L);
+
+        List<GoDashboardPipelineGroup> first = allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1"));
+        List<GoDashboardPipelineGroup> second = allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("USER1"));
+
+        assertThat(second).isSameAs(first);
+        verify(goConfigService, times(1)).groups();
+    }
+
+    @Test
+    public void allPipelineGroupsForDashboard_shouldRecomputeTheDashboardWhenPipelinesOrFiltersChange() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        addPipelinesToCache(pipeline("pipeline1", "group1"));
+        when(pipelines.lastUpdatedTimeStamp()).thenReturn(1L, 1L, 2L);
+
+        List<GoDashboardPipelineGroup> first = allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1"));
+        List<GoDashboardPipelineGroup> filtered = allPipelineGroupsForDashboard(new ExcludesFilter("foo", CaseInsensitiveString.list("pipeline1"), Collections.emptySet()), new Username("user1"));
+        List<GoDashboardPipelineGroup> updated = allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1"));
+
+        assertThat(first).hasSize(1);
+        assertThat(filtered).isEmpty();
+        assertThat(updated).hasSize(1).isNotSameAs(first);
+        verify(goConfigService, times(3)).groups();
+    }
+
     @Test
     public void allPipelineGroupsForDashboard_shouldRetrieveOnlyPipelineGroupsViewableByTheUser() {
         configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
@@ -322,8 +372,41 @@ public class GoDashboardServiceTest {
         verifyNoMoreInteractions(dashboardCurrentStateLoader);
     }
 
+    @Test
+    public void changesSince_shouldAskForAReloadWhenChangesSinceTheVersionAreNotKnown() {
+        when(pipelines.needsReloadSince(10L)).thenReturn(true);
+        when(pipelines.lastUpdatedTimeStamp()).thenReturn(42L);
+
+        GoDashboardChanges changes = service.changesSince(10L, Filters.WILDCARD_FILTER, new Username("user1"));
+
+        assertThat(changes.isReloadRequired()).isTrue();
+        assertThat(changes.version()).isEqualTo(42L);
+        assertThat(changes.updatedPipelines()).isEmpty();
+        verify(pipelines, never()).pipelinesUpdatedSince(anyLong());
+    }
+
+    @Test
+    public void changesSince_shouldReportPipelinesTheUserCanNoLongerSeeAsRemoved() {
+        DashboardFilter filter = new ExcludesFilter("foo", CaseInsensitiveString.list("pipeline2"), Collections.emptySet());
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1", "group1");
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2", "group1");
+        GoDashboardPipeline pipeline3 = pipeline("pipeline3", "group1", new Permissions(NoOne.INSTANCE, NoOne.INSTANCE, NoOne.INSTANCE, NoOnePermission.INSTANCE));
+
+        when(pipelines.needsReloadSince(10L)).thenReturn(false);
+        when(pipelines.lastUpdatedTimeStamp()).thenReturn(42L);
+        when(pipelines.pipelinesUpdatedSince(10L)).thenReturn(List.of(pipeline1, pipeline2, pipeline3));
+        when(pipelines.pipelinesRemovedSince(10L)).thenReturn(List.of(new CaseInsensitiveString("pipeline4")));
+
+        GoDashboardChanges changes = service.changesSince(10L, filter, new Username("user1"));
+
+        assertThat(changes.isReloadRequired()).isFalse();
+        assertThat(changes.version()).isEqualTo(42L);
+        assertThat(changes.updatedPipelines()).containsExactly(pipeline1);
+        assertThat(changes.removedPipelines()).containsExactly(new CaseInsensitiveString("pipeline4"), new CaseInsensitiveString("pipeline2"), new CaseInsensitiveString("pipeline3"));
+    }
+
     private List<GoDashboardEnvironment> allEnvironmentsForDashboard(DashboardFilter filter, Username username) {
-        when(goConfigService.getEnvironments()).thenReturn(config.getEnvironments());
+        when(goConfigService.pipelineConfigIndex()).thenReturn(new PipelineConfigIndex(config));
         when(goConfigService.security()).thenReturn(config.server().security());
 
         return service.allEnvironmentsForDashboard(filter, username);
@@ -46,6 +46,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.transaction.TransactionStatus;
@@ -88,6 +89,8 @@ public class JobInstanceServiceTest {
 
     @AfterEach
     public void after() {
+        // whether a state change is written behind is covered by DeferredStateChanges
+        verify(jobInstanceDao, atLeast(0)).deferStateChange(any());
         verifyNoMoreInteractions(jobInstanceDao);
     }
 
@@ -523,4 +526,39 @@ public class JobInstanceServiceTest {
                     .hasMessage("User 'user' does not have permission to view pipeline with name 'pipeline'");
         }
     }
+
+    @Nested
+    class DeferredStateChanges {
+        private final JobStatusListener listener = mock(JobStatusListener.class);
+        private JobInstanceService jobService;
+
+        @BeforeEach
+        void setUp() {
+            jobService = new JobInstanceService(jobInstanceDao, null, transactionTemplate, transactionSynchronizationManager, null, null, goConfigService,
+                null, serverHealthService, listener);
+        }
+
+        @Test
+        void shouldWriteStateChangesTheDaoDoesNotDefer() {
+            when(jobInstanceDao.deferStateChange(job)).thenReturn(false);
+
+            jobService.updateStateAndResult(job);
+
+            InOrder inOrder = inOrder(jobInstanceDao);
+            inOrder.verify(jobInstanceDao).deferStateChange(job);
+            inOrder.verify(jobInstanceDao).updateStateAndResult(job);
+            verify(listener).jobStatusChanged(job);
+        }
+
+        @Test
+        void shouldNotWriteStateChangesTheDaoDefersButStillNotifyListeners() {
+            when(jobInstanceDao.deferStateChange(job)).thenReturn(true);
+
+            jobService.updateStateAndResult(job);
+
+            verify(jobInstanceDao).deferStateChange(job);
+            verify(jobInstanceDao, never()).updateStateAndResult(job);
+            verify(listener).jobStatusChanged(job);
+        }
+    }
 }
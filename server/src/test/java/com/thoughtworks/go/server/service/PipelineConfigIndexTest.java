@@ -0,0 +1,79 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.*;
+import com.thoughtworks.go.config.materials.dependency.DependencyMaterialConfig;
+import com.thoughtworks.go.config.materials.git.GitMaterialConfig;
+import com.thoughtworks.go.helper.GoConfigMother;
+import com.thoughtworks.go.server.domain.PipelineConfigDependencyGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.thoughtworks.go.helper.MaterialConfigsMother.git;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PipelineConfigIndexTest {
+    private final GitMaterialConfig gitMaterial = git("https://example.com/repo.git");
+    private PipelineConfig upstream;
+    private PipelineConfig downstream;
+    private BasicCruiseConfig cruiseConfig;
+    private PipelineConfigIndex index;
+
+    @BeforeEach
+    void setUp() {
+        upstream = GoConfigMother.createPipelineConfigWithMaterialConfig("upstream", gitMaterial);
+        downstream = GoConfigMother.createPipelineConfigWithMaterialConfig("downstream", gitMaterial,
+            new DependencyMaterialConfig(new CaseInsensitiveString("upstream"), new CaseInsensitiveString("mingle")));
+        cruiseConfig = new BasicCruiseConfig(new BasicPipelineConfigs(upstream, downstream));
+        cruiseConfig.addEnvironment("uat").addPipeline(new CaseInsensitiveString("downstream"));
+        index = new PipelineConfigIndex(cruiseConfig);
+    }
+
+    @Test
+    void shouldFindPipelinesByName() {
+        assertThat(index.pipelineNamed(new CaseInsensitiveString("UPSTREAM"))).isSameAs(upstream);
+        assertThat(index.pipelineNamed(new CaseInsensitiveString("unknown"))).isNull();
+    }
+
+    @Test
+    void shouldFindPipelinesUsingAMaterial() {
+        assertThat(index.pipelinesWithMaterial(gitMaterial.getFingerprint()))
+            .containsExactly(new CaseInsensitiveString("upstream"), new CaseInsensitiveString("downstream"));
+        assertThat(index.pipelinesWithMaterial("unknown")).isEmpty();
+    }
+
+    @Test
+    void shouldFindPipelinesOfEnvironment() {
+        assertThat(index.environments()).extracting(EnvironmentConfig::name).containsExactly(new CaseInsensitiveString("uat"));
+        assertThat(index.pipelinesInEnvironment(new CaseInsensitiveString("UAT"))).containsExactly(new CaseInsensitiveString("downstream"));
+        assertThat(index.pipelinesInEnvironment(new CaseInsensitiveString("unknown"))).isEmpty();
+    }
+
+    @Test
+    void shouldBuildAndRememberUpstreamDependencyGraph() {
+        PipelineConfigDependencyGraph graph = index.upstreamDependencyGraphOf(new CaseInsensitiveString("downstream"));
+
+        assertThat(graph).isEqualTo(new PipelineConfigDependencyGraph(downstream, new PipelineConfigDependencyGraph(upstream)));
+        assertThat(index.upstreamDependencyGraphOf(new CaseInsensitiveString("downstream"))).isSameAs(graph);
+    }
+
+    @Test
+    void shouldKnowWhichConfigItWasBuiltFor() {
+        assertThat(index.isFor(cruiseConfig)).isTrue();
+        assertThat(index.isFor(new BasicCruiseConfig())).isFalse();
+    }
+}
@@ -38,6 +38,7 @@ import com.thoughtworks.go.server.scheduling.TriggerMonitor;
 import com.thoughtworks.go.server.service.result.HttpOperationResult;
 import com.thoughtworks.go.server.service.support.toggle.FeatureToggleService;
 import com.thoughtworks.go.server.service.support.toggle.Toggles;
+import com.thoughtworks.go.server.util.Pagination;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -395,6 +396,73 @@ class PipelineHistoryServiceTest {
         }
     }
 
+    @Nested
+    class LoadHistoryPage {
+        private final CaseInsensitiveString pipelineName = new CaseInsensitiveString("pipeline");
+        private final PipelineTimelineEntry latest = PipelineTimelineEntryMother.timelineEntry(100, List.of("git"), List.of(ZonedDateTime.now()), 42);
+        private final PipelineTimelineEntry twentiethBeforeLatest = PipelineTimelineEntryMother.timelineEntry(57, List.of("git"), List.of(ZonedDateTime.now()), 22);
+
+        @Test
+        void shouldSeekToTheFirstRunOfAPageUsingThePipelineTimeline() {
+            stubConfigServiceToReturnPipeline("pipeline", config);
+            when(pipelineTimeline.instanceBeforeLatest(pipelineName, 0)).thenReturn(latest);
+            when(pipelineTimeline.instanceBeforeLatest(pipelineName, 20)).thenReturn(twentiethBeforeLatest);
+            when(pipelineDao.getOldestAndLatestPipelineId("pipeline")).thenReturn(new PipelineRunIdInfo(100, 1));
+            when(pipelineDao.loadHistory("pipeline", FeedModifier.After, 58, 10)).thenReturn(historyWithOneRun());
+
+            pipelineHistoryService.load("pipeline", Pagination.pageByOffset(20, 42, 10), "bob", false);
+
+            verify(pipelineDao).loadHistory("pipeline", FeedModifier.After, 58, 10);
+            verify(pipelineDao, never()).loadHistory(eq("pipeline"), anyInt(), anyInt());
+        }
+
+        @Test
+        void shouldSkipOverLaterRunsWhenThePipelineTimelineIsBehindTheDatabase() {
+            stubConfigServiceToReturnPipeline("pipeline", config);
+            when(pipelineTimeline.instanceBeforeLatest(pipelineName, 0)).thenReturn(latest);
+            when(pipelineTimeline.instanceBeforeLatest(pipelineName, 20)).thenReturn(twentiethBeforeLatest);
+            when(pipelineDao.getOldestAndLatestPipelineId("pipeline")).thenReturn(new PipelineRunIdInfo(101, 1));
+            when(pipelineDao.loadHistory("pipeline", 10, 20)).thenReturn(historyWithOneRun());
+
+            pipelineHistoryService.load("pipeline", Pagination.pageByOffset(20, 43, 10), "bob", false);
+
+            verify(pipelineDao).loadHistory("pipeline", 10, 20);
+        }
+
+        @Test
+        void shouldLoadFirstPageWithoutLookingAtThePipelineTimeline() {
+            stubConfigServiceToReturnPipeline("pipeline", config);
+            when(pipelineDao.loadHistory("pipeline", 10, 0)).thenReturn(historyWithOneRun());
+
+            pipelineHistoryService.load("pipeline", Pagination.pageByOffset(0, 42, 10), "bob", false);
+
+            verifyNoInteractions(pipelineTimeline);
+        }
+
+        @Test
+        void shouldCountRunsOnThePipelineTimelineWhenItIsCurrent() {
+            when(pipelineTimeline.instanceBeforeLatest(pipelineName, 0)).thenReturn(latest);
+            when(pipelineTimeline.instanceCount(pipelineName)).thenReturn(42);
+            when(pipelineDao.getOldestAndLatestPipelineId("pipeline")).thenReturn(new PipelineRunIdInfo(100, 1));
+
+            assertThat(pipelineHistoryService.totalCount("pipeline")).isEqualTo(42);
+            verify(pipelineDao, never()).count("pipeline");
+        }
+
+        @Test
+        void shouldCountRunsInTheDatabaseWhenThePipelineTimelineIsNotCurrent() {
+            when(pipelineTimeline.instanceBeforeLatest(pipelineName, 0)).thenReturn(null);
+            when(pipelineDao.count("pipeline")).thenReturn(43);
+
+            assertThat(pipelineHistoryService.totalCount("pipeline")).isEqualTo(43);
+        }
+
+        private PipelineInstanceModels historyWithOneRun() {
+            return PipelineInstanceModels.createPipelineInstanceModels(
+                PipelineInstanceModel.createPipeline("pipeline", -1, "label", BuildCause.createNeverRun(), new StageInstanceModels()));
+        }
+    }
+
     @Nested
     class LoadPipelineHistoryData {
         @Test
@@ -38,6 +38,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.thoughtworks.go.domain.JobResult.*;
@@ -274,6 +275,24 @@ public class ScheduleServiceTest {
         verify(pipelineLockService, times(shouldUnlock ? 1 : 0)).unlock(pipeline.getName());
     }
 
+    @Test
+    public void shouldClearStageCachesOfJobsWhoseDeferredStateChangesWereWritten() {
+        StageDao stageDao = mock(StageDao.class);
+        JobInstanceDao jobInstanceDao = mock(JobInstanceDao.class);
+        TestTransactionSynchronizationManager synchronizationManager = new TestTransactionSynchronizationManager();
+        ScheduleService scheduleService = new ScheduleService(goConfigService, pipelineService, stageService, schedulingChecker, mock(PipelineDao.class), stageDao, stageOrderService, securityService, pipelineScheduleQueue,
+                jobInstanceService, jobInstanceDao, mock(AgentAssignment.class), environmentConfigService, pipelineLockService, serverHealthService,
+                new TestTransactionTemplate(synchronizationManager),
+                mock(AgentService.class), synchronizationManager, timeProvider, consoleActivityMonitor, pipelinePauseService, instanceFactory, schedulingPerformanceLogger, elasticProfileService, clusterProfileService);
+        JobInstance job = JobInstanceMother.building("job");
+        job.setStageId(42);
+        when(jobInstanceDao.flushPendingStateChanges()).thenReturn(List.of(job));
+
+        scheduleService.flushPendingJobStateChanges();
+
+        verify(stageDao).clearJobStatusDependentCaches(42, job.getIdentifier().getStageIdentifier());
+    }
+
     private void createMocks() {
         jobInstanceService = mock(JobInstanceService.class);
         goConfigService = mock(GoConfigService.class);
@@ -61,6 +61,7 @@ import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -288,7 +289,7 @@ public class StageServiceTest {
 
         @Test
         public void shouldCacheTheResultPerPipeline() {
-            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 25))
+            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100))
                 .thenReturn(of(stageFeedEntry("cruise", updateDate)))
                 .thenReturn(of(stageFeedEntry("cruise", updateDate)));
 
@@ -302,15 +303,29 @@ public class StageServiceTest {
             assertThat(feedEntries).hasSize(1).contains(expected);
             assertThat(feedEntries.getFirst().getAuthors()).hasSize(1).contains(new Author(MOD_USER_COMMITTER, EMAIL_ADDRESS));
 
-            verify(stageDao).findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 25);
-            verify(changesetService).modificationsOfPipelines(of(1L), "cruise", Username.ANONYMOUS);
+            verify(stageDao).findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100);
+            verify(changesetService, times(2)).modificationsOfPipelines(of(1L), "cruise", Username.ANONYMOUS);
             verifyNoMoreInteractions(stageDao);
             verifyNoMoreInteractions(changesetService);
         }
 
+        @Test
+        public void shouldAddTheAuthorsEachUserMayViewToTheCachedResult() {
+            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100)).thenReturn(of(stageFeedEntry("cruise", updateDate)));
+            Username bob = new Username("bob");
+            when(changesetService.modificationsOfPipelines(of(1L), "cruise", bob)).thenReturn(Map.of(1L, emptyList()));
+
+            assertThat(service.feed("cruise", bob).getFirst().getAuthors()).isEmpty();
+            assertThat(service.feed("cruise", Username.ANONYMOUS).getFirst().getAuthors()).containsExactly(new Author(MOD_USER_COMMITTER, EMAIL_ADDRESS));
+            assertThat(service.feedBefore(2L, "cruise", bob).getFirst().getAuthors()).isEmpty();
+
+            verify(stageDao).findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100);
+            verifyNoMoreInteractions(stageDao);
+        }
+
         @Test
         public void shouldInvalidateCacheOnCompletionOfAStage() {
-            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 25))
+            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100))
                 .thenReturn(of(stageFeedEntry("cruise", updateDate)))
                 .thenReturn(of(stageFeedEntry("cruise", updateDate)));
 
@@ -328,28 +343,44 @@ public class StageServiceTest {
             assertThat(feedEntries).hasSize(1).contains(expected);
             assertThat(feedEntries.getFirst().getAuthors()).hasSize(1).contains(new Author(MOD_USER_COMMITTER, EMAIL_ADDRESS));
 
-            verify(stageDao, times(2)).findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 25);
+            verify(stageDao, times(2)).findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100);
             verify(changesetService, times(2)).modificationsOfPipelines(of(1L), "cruise", Username.ANONYMOUS);
             verifyNoMoreInteractions(changesetService);
         }
 
         @Test
-        public void shouldNotCacheTheResultPerPipelineForFeedsBeforeAGivenID() {
-            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Before, 1L, 25))
+        public void shouldServeFeedsBeforeAGivenIDFromTheCachedWindow() {
+            List<StageFeedEntry> window = stageFeedEntries("cruise", 60);
+            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100)).thenReturn(window);
+            stubAuthorsOf("cruise", Username.ANONYMOUS);
+
+            assertThat(service.feed("cruise", Username.ANONYMOUS)).containsExactlyElementsOf(window.subList(0, 25));
+            assertThat(service.feedBefore(36L, "cruise", Username.ANONYMOUS)).containsExactlyElementsOf(window.subList(25, 50));
+            assertThat(service.feedBefore(11L, "cruise", Username.ANONYMOUS)).containsExactlyElementsOf(window.subList(50, 60));
+
+            verify(stageDao).findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100);
+            verifyNoMoreInteractions(stageDao);
+        }
+
+        @Test
+        public void shouldNotCacheTheResultPerPipelineForFeedsBeforeTheCachedWindow() {
+            List<StageFeedEntry> window = stageFeedEntries("cruise", 100);
+            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100)).thenReturn(window);
+            stubAuthorsOf("cruise", Username.ANONYMOUS);
+            when(stageDao.findCompletedStagesFor("cruise", FeedModifier.Before, 10L, 25))
                 .thenReturn(of(stageFeedEntry("cruise", updateDate)))
                 .thenReturn(of(stageFeedEntry("cruise", updateDate)));
 
             FeedEntry expected = stageFeedEntry("cruise", updateDate);
 
-            FeedEntries feedEntries = service.feedBefore(1L, "cruise", Username.ANONYMOUS);
+            FeedEntries feedEntries = service.feedBefore(10L, "cruise", Username.ANONYMOUS);
             assertThat(feedEntries).hasSize(1).contains(expected);
-            assertThat(feedEntries.getFirst().getAuthors()).hasSize(1).contains(new Author(MOD_USER_COMMITTER, EMAIL_ADDRESS));
 
-            feedEntries = service.feedBefore(1L, "cruise", Username.ANONYMOUS);
+            feedEntries = service.feedBefore(10L, "cruise", Username.ANONYMOUS);
             assertThat(feedEntries).hasSize(1).contains(expected);
-            assertThat(feedEntries.getFirst().getAuthors()).hasSize(1).contains(new Author(MOD_USER_COMMITTER, EMAIL_ADDRESS));
 
-            verify(stageDao, times(2)).findCompletedStagesFor("cruise", FeedModifier.Before, 1L, 25);
+            verify(stageDao).findCompletedStagesFor("cruise", FeedModifier.Latest, -1, 100);
+            verify(stageDao, times(2)).findCompletedStagesFor("cruise", FeedModifier.Before, 10L, 25);
             verifyNoMoreInteractions(stageDao);
         }
     }
@@ -381,7 +412,7 @@ public class StageServiceTest {
         @Test
         void shouldReturnTheLatestFeedEntriesFromCacheOnceItIsCachedWhenPipelineCounterIsNull() {
             StageFeedEntry entry = stageFeedEntry("cruise", new Date());
-            when(stageDao.findStageFeedBy("cruise", null, null, 25))
+            when(stageDao.findStageFeedBy("cruise", null, null, 100))
                 .thenReturn(of(entry));
 
             FeedEntries entries = service.findStageFeedBy("cruise", null, FeedModifier.Latest, username);
@@ -390,7 +421,35 @@ public class StageServiceTest {
             entries = service.findStageFeedBy("cruise", null, null, username);
             assertThat(entries).hasSize(1).contains(entry);
 
-            verify(stageDao, times(1)).findStageFeedBy("cruise", null, null, 25);
+            verify(stageDao, times(1)).findStageFeedBy("cruise", null, null, 100);
+            verifyNoMoreInteractions(stageDao);
+        }
+
+        @Test
+        void shouldServePagesBeforeAPipelineCounterFromTheCachedWindow() {
+            List<StageFeedEntry> window = stageFeedEntries("cruise", 40);
+            when(stageDao.findStageFeedBy("cruise", null, null, 100)).thenReturn(window);
+            stubAuthorsOf("cruise", username);
+
+            assertThat(service.findStageFeedBy("cruise", null, FeedModifier.Latest, username)).containsExactlyElementsOf(window.subList(0, 25));
+            assertThat(service.findStageFeedBy("cruise", 16, FeedModifier.Before, username)).containsExactlyElementsOf(window.subList(25, 40));
+
+            verify(stageDao).findStageFeedBy("cruise", null, null, 100);
+            verifyNoMoreInteractions(stageDao);
+        }
+
+        @Test
+        void shouldGetPagesBeforeAPipelineCounterFromDBWhenTheyReachPastTheCachedWindow() {
+            List<StageFeedEntry> window = stageFeedEntries("cruise", 100);
+            when(stageDao.findStageFeedBy("cruise", null, null, 100)).thenReturn(window);
+            StageFeedEntry entry = stageFeedEntry("cruise", new Date());
+            when(stageDao.findStageFeedBy("cruise", 10, FeedModifier.Before, 25)).thenReturn(of(entry));
+
+            assertThat(service.findStageFeedBy("cruise", 80, FeedModifier.Before, username)).containsExactlyElementsOf(window.subList(21, 46));
+            assertThat(service.findStageFeedBy("cruise", 10, FeedModifier.Before, username)).containsExactly(entry);
+
+            verify(stageDao).findStageFeedBy("cruise", null, null, 100);
+            verify(stageDao).findStageFeedBy("cruise", 10, FeedModifier.Before, 25);
             verifyNoMoreInteractions(stageDao);
         }
 
@@ -429,7 +488,7 @@ public class StageServiceTest {
 
         FeedEntry expected = stageFeedEntry("down", updateDate);
 
-        when(stageDao.findCompletedStagesFor("down", FeedModifier.Latest, -1, 25)).thenReturn(List.of(stageFeedEntry("down", updateDate), stageFeedEntry("down", updateDate)));
+        when(stageDao.findCompletedStagesFor("down", FeedModifier.Latest, -1, 100)).thenReturn(List.of(stageFeedEntry("down", updateDate), stageFeedEntry("down", updateDate)));
         when(goConfigService.currentCruiseConfig()).thenReturn(config);
         when(changesetService.modificationsOfPipelines(List.of(1L, 1L), "down", Username.ANONYMOUS)).thenReturn(expectedModMapDown);
         when(config.hasPipelineNamed(any())).thenReturn(false).thenReturn(true);
@@ -448,6 +507,24 @@ public class StageServiceTest {
         return new StageFeedEntry(1L, 1L, new StageIdentifier(pipelineName + "/1/dist/1"), 1L, updateDate, StageResult.Passed);
     }
 
+    private List<StageFeedEntry> stageFeedEntries(String pipelineName, int count) {
+        List<StageFeedEntry> entries = new ArrayList<>();
+        for (int counter = count; counter > 0; counter--) {
+            entries.add(new StageFeedEntry(counter, counter, new StageIdentifier(pipelineName + "/" + counter + "/dist/1"), counter, new Date(), StageResult.Passed));
+        }
+        return entries;
+    }
+
+    private void stubAuthorsOf(String pipelineName, Username username) {
+        when(changesetService.modificationsOfPipelines(anyList(), eq(pipelineName), eq(username))).thenAnswer(invocation -> {
+            Map<Long, List<ModificationForPipeline>> modifications = new HashMap<>();
+            for (Long pipelineId : invocation.<List<Long>>getArgument(0)) {
+                modifications.put(pipelineId, emptyList());
+            }
+            return modifications;
+        });
+    }
+
     @Test
     public void shouldSendStageStatusMessageAfterStageIsCancelled() {
         StageStatusTopic topic = mock(StageStatusTopic.class);
@@ -50,6 +50,7 @@ public class StubGoCache extends GoCache {
     @Override
     public boolean remove(String key) {
         map.remove(key);
+        map.keySet().removeIf(candidate -> candidate.startsWith(key + SUB_KEY_DELIMITER));
         return true;
     }
 
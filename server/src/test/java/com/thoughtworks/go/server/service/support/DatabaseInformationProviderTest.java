@@ -0,0 +1,94 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.server.database.QueryStatistics;
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.TestingClock;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DatabaseInformationProviderTest {
+    private QueryStatistics queryStatistics;
+
+    @BeforeEach
+    void setUp() {
+        SystemEnvironment systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.getSlowQueryThresholdInMillis()).thenReturn(100L);
+        queryStatistics = new QueryStatistics(systemEnvironment, new TestingClock());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReportTheConnectionPoolSlowQueriesAndStatements() throws SQLException {
+        BasicDataSource pool = new BasicDataSource();
+        pool.setMaxTotal(20);
+        pool.setMaxIdle(5);
+        queryStatistics.recordStatement("getPipelineHistoryById", MILLISECONDS.toNanos(3), 2, "SELECT 1", 0);
+        queryStatistics.recordStatement("allPipelineNames", MILLISECONDS.toNanos(150), 10, "SELECT name FROM pipelines", 0);
+        queryStatistics.connectionObtained(queryStatistics.connectionRequested());
+
+        try {
+            Map<String, Object> json = new DatabaseInformationProvider(pool, queryStatistics).asJsonCompatibleMap();
+
+            assertThat(json.keySet()).containsExactly("Connection Pool", "Slow Queries", "Statements");
+            assertThat((Map<String, Object>) json.get("Connection Pool"))
+                .containsEntry("Active", 0)
+                .containsEntry("Idle", 0)
+                .containsEntry("Max Total", 20)
+                .containsEntry("Max Idle", 5)
+                .containsEntry("Saturation", 0.0);
+            assertThat((Map<String, Object>) ((Map<String, Object>) json.get("Connection Pool")).get("Connection Waits"))
+                .containsEntry("Requests", 1L)
+                .containsEntry("Waiting", 0);
+            assertThat((List<Map<String, Object>>) json.get("Slow Queries"))
+                .singleElement()
+                .satisfies(slowQuery -> assertThat(slowQuery).containsEntry("Statement", "allPipelineNames"));
+            assertThat((Map<String, Object>) json.get("Statements")).containsOnlyKeys("allPipelineNames", "getPipelineHistoryById");
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldOnlyReportConnectionWaitsWhenTheDataSourceIsNotAConnectionPool() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.isWrapperFor(BasicDataSource.class)).thenReturn(false);
+
+        Map<String, Object> json = new DatabaseInformationProvider(dataSource, queryStatistics).asJsonCompatibleMap();
+
+        assertThat((Map<String, Object>) json.get("Connection Pool")).containsOnlyKeys("Connection Waits");
+        assertThat((List<Map<String, Object>>) json.get("Slow Queries")).isEmpty();
+        assertThat((Map<String, Object>) json.get("Statements")).isEmpty();
+    }
+
+    @Test
+    void shouldBeNamedAfterTheSupportApiSection() {
+        assertThat(new DatabaseInformationProvider(mock(DataSource.class), queryStatistics).name()).isEqualTo("Database Statistics");
+    }
+}
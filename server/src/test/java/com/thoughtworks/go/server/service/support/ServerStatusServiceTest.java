@@ -0,0 +1,92 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.service.SecurityService;
+import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ServerStatusServiceTest {
+    private final Username admin = new Username("admin");
+    private final Username user = new Username("user");
+
+    @Mock
+    private SecurityService securityService;
+    @Mock
+    private ServerInfoProvider databaseInformationProvider;
+    @Mock
+    private ServerInfoProvider configInformationProvider;
+
+    private ServerStatusService serverStatusService;
+
+    @BeforeEach
+    void setUp() {
+        serverStatusService = new ServerStatusService(securityService, configInformationProvider, databaseInformationProvider);
+    }
+
+    @Test
+    void shouldReturnTheInformationOfTheNamedProviderToAdmins() {
+        when(securityService.isUserAdmin(admin)).thenReturn(true);
+        when(configInformationProvider.name()).thenReturn("Config Statistics");
+        when(databaseInformationProvider.name()).thenReturn(DatabaseInformationProvider.NAME);
+        when(databaseInformationProvider.asJsonCompatibleMap()).thenReturn(Map.of("Statements", Map.of()));
+        HttpLocalizedOperationResult result = new HttpLocalizedOperationResult();
+
+        Map<String, Object> json = serverStatusService.asJsonCompatibleMap(admin, result, DatabaseInformationProvider.NAME);
+
+        assertThat(json).isEqualTo(Map.of("Statements", Map.of()));
+        assertThat(result.isSuccessful()).isTrue();
+        verify(configInformationProvider, never()).asJsonCompatibleMap();
+    }
+
+    @Test
+    void shouldNotReturnTheInformationOfTheNamedProviderToUsersWhoAreNotAdmins() {
+        when(securityService.isUserAdmin(user)).thenReturn(false);
+        HttpLocalizedOperationResult result = new HttpLocalizedOperationResult();
+
+        Map<String, Object> json = serverStatusService.asJsonCompatibleMap(user, result, DatabaseInformationProvider.NAME);
+
+        assertThat(json).isNull();
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.httpCode()).isEqualTo(403);
+        verify(databaseInformationProvider, never()).asJsonCompatibleMap();
+    }
+
+    @Test
+    void shouldReportNotFoundWhenNoProviderHasTheName() {
+        when(securityService.isUserAdmin(admin)).thenReturn(true);
+        when(configInformationProvider.name()).thenReturn("Config Statistics");
+        when(databaseInformationProvider.name()).thenReturn(DatabaseInformationProvider.NAME);
+        HttpLocalizedOperationResult result = new HttpLocalizedOperationResult();
+
+        Map<String, Object> json = serverStatusService.asJsonCompatibleMap(admin, result, "Unknown Statistics");
+
+        assertThat(json).isNull();
+        assertThat(result.httpCode()).isEqualTo(404);
+        assertThat(result.message()).isEqualTo("No server information named 'Unknown Statistics'.");
+    }
+}
@@ -27,11 +27,12 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
-import java.util.Collection;
-import java.util.Date;
-import java.util.TimeZone;
+import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class JsonOutputWriter {
     private static final Logger log = LoggerFactory.getLogger(JsonOutputWriter.class);
@@ -397,6 +398,22 @@ public class JsonOutputWriter {
                 });
                 return this;
             }
+
+            @Override
+            public JsonOutputListWriter addCachedChild(Object key, BiFunction<Object, Supplier<String>, String> fragments, Consumer<OutputWriter> consumer) {
+                RequestContext requestContext = parentWriter.requestContext;
+                // links are absolute, so a rendering can only be reused for requests made to the same url
+                List<Object> variant = Arrays.asList(requestContext == null ? null : requestContext.urlFor(""), key);
+                String json = fragments.apply(variant, () -> {
+                    StringWriter fragment = new StringWriter();
+                    try (JsonOutputWriterUsingJackson fragmentWriter = new JsonOutputWriterUsingJackson(fragment, requestContext)) {
+                        fragmentWriter.forTopLevelObject(consumer);
+                    }
+                    return fragment.toString();
+                });
+                parentWriter.withExceptionHandling(jacksonWriter -> jacksonWriter.writeRawValue(json));
+                return this;
+            }
         }
 
 
@@ -15,10 +15,20 @@
  */
 package com.thoughtworks.go.api.base;
 
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface OutputListWriter {
     OutputListWriter value(String value);
 
     OutputListWriter addChild(Consumer<OutputWriter> consumer);
+
+    /**
+     * Adds a child, reusing the JSON that {@code fragments} holds for the same {@code key} and request instead of
+     * rendering it again. The consumer must render the same JSON every time it is called for the same key.
+     *
+     * @param fragments looks up the rendering for a variant, or stores the one the supplier renders
+     */
+    OutputListWriter addCachedChild(Object key, BiFunction<Object, Supplier<String>, String> fragments, Consumer<OutputWriter> consumer);
 }
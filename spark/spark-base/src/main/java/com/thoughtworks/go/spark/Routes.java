@@ -145,6 +145,7 @@ public class Routes {
     public static class Dashboard {
         public static final String SELF = "/api/dashboard";
         public static final String DOC = "https://api.gocd.org/current/#dashboard";
+        public static final String CHANGES = "/changes";
     }
 
     public static class MaterialConfig {
@@ -702,6 +703,7 @@ public class Routes {
     public static class Support {
         public static final String BASE = "/api/support";
         public static final String PROCESS_LIST = "/process_list";
+        public static final String DATABASE = "/database";
     }
 
     public static class ServerInfo {